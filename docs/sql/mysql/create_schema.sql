@@ -207,6 +207,33 @@ CREATE TABLE wf_certificate_verification (
   PRIMARY KEY (operation_id, auth_method)
 ) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
 
+-- Table wf_auth_flow_state stores authentication flow state of HTTP sessions.
+-- Table is used only when the authentication flow state store is configured as JDBC.
+CREATE TABLE wf_auth_flow_state (
+  http_session_id           VARCHAR(256) PRIMARY KEY NOT NULL,
+  state_data                BLOB NOT NULL,
+  version                   BIGINT NOT NULL,
+  timestamp_updated         TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
+
+-- Table wf_scheduler_lease stores leases of scheduled jobs which run on a single Web Flow or TPP engine node at a time.
+CREATE TABLE wf_scheduler_lease (
+  lease_name                VARCHAR(256) PRIMARY KEY NOT NULL,
+  lease_owner               VARCHAR(256) NOT NULL,
+  timestamp_expires         TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  last_processed_id         BIGINT
+) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
+
+-- Table wf_notification_outbox stores Data Adapter notifications about operation changes and form data changes until they are delivered.
+CREATE TABLE wf_notification_outbox (
+  notification_id           BIGINT PRIMARY KEY NOT NULL AUTO_INCREMENT,
+  operation_id              VARCHAR(256) NOT NULL,
+  notification_data         TEXT NOT NULL,
+  attempt_count             INTEGER NOT NULL DEFAULT 0,
+  timestamp_created         TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  timestamp_next_attempt    TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
+
 -- Table da_sms_authorization stores data for SMS OTP authorization.
 CREATE TABLE da_sms_authorization (
   message_id           VARCHAR(256) PRIMARY KEY NOT NULL,
@@ -263,7 +290,24 @@ CREATE TABLE tpp_user_consent_history (
   consent_change        VARCHAR(16) NOT NULL,
   external_id           VARCHAR(256) NOT NULL,
   consent_parameters    TEXT NOT NULL,
-  timestamp_created     TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+  timestamp_created     TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  change_count          INTEGER NOT NULL DEFAULT 1,
+  timestamp_last_change TIMESTAMP NULL
+) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
+
+-- Table tpp_consent_history_archive stores consent history records moved from table tpp_user_consent_history by the retention and compaction job.
+CREATE TABLE tpp_consent_history_archive (
+  id                    INTEGER PRIMARY KEY NOT NULL,
+  user_id               VARCHAR(256) NOT NULL,
+  client_id             VARCHAR(256) NOT NULL,
+  consent_id            VARCHAR(64) NOT NULL,
+  consent_change        VARCHAR(16) NOT NULL,
+  external_id           VARCHAR(256) NOT NULL,
+  consent_parameters    TEXT NOT NULL,
+  timestamp_created     TIMESTAMP NULL,
+  change_count          INTEGER NOT NULL DEFAULT 1,
+  timestamp_last_change TIMESTAMP NULL,
+  timestamp_archived    TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 ) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
 
 CREATE TABLE tpp_detail (
@@ -290,4 +334,12 @@ CREATE TABLE tpp_app_detail (
 CREATE INDEX wf_operation_hash ON wf_operation_session (operation_hash);
 CREATE INDEX wf_websocket_session ON wf_operation_session (websocket_session_id);
 CREATE UNIQUE INDEX ns_operation_afs_unique on ns_operation_afs (operation_id, request_afs_action, request_step_index);
-CREATE INDEX wf_certificate_operation ON wf_certificate_verification (operation_id);
\ No newline at end of file
+CREATE INDEX wf_certificate_operation ON wf_certificate_verification (operation_id);
+CREATE INDEX wf_operation_timestamp_created ON wf_operation_session (timestamp_created);
+CREATE INDEX wf_certificate_timestamp_verified ON wf_certificate_verification (timestamp_verified);
+CREATE INDEX wf_auth_flow_state_updated ON wf_auth_flow_state (timestamp_updated);
+CREATE INDEX wf_notification_next_attempt ON wf_notification_outbox (timestamp_next_attempt);
+CREATE INDEX wf_notification_operation ON wf_notification_outbox (operation_id);
+CREATE INDEX tpp_user_consent_lookup ON tpp_user_consent (user_id, client_id, consent_id);
+CREATE INDEX tpp_consent_history_user ON tpp_user_consent_history (user_id, timestamp_created);
+CREATE INDEX tpp_consent_history_client ON tpp_user_consent_history (user_id, client_id, timestamp_created);
\ No newline at end of file
@@ -1,9 +1,13 @@
 DROP TABLE IF EXISTS da_sms_authorization;
 DROP TABLE IF EXISTS wf_afs_config;
 DROP TABLE IF EXISTS wf_operation_session;
+DROP TABLE IF EXISTS wf_auth_flow_state;
+DROP TABLE IF EXISTS wf_scheduler_lease;
+DROP TABLE IF EXISTS wf_notification_outbox;
 DROP TABLE IF EXISTS tpp_consent;
 DROP TABLE IF EXISTS tpp_user_consent;
 DROP TABLE IF EXISTS tpp_user_consent_history;
+DROP TABLE IF EXISTS tpp_consent_history_archive;
 DROP TABLE IF EXISTS tpp_detail;
 DROP TABLE IF EXISTS tpp_app_detail;
 DROP TABLE IF EXISTS ns_step_definition;
@@ -26,6 +26,27 @@ WHEN OTHERS THEN NULL;
 END;
 /
 
+BEGIN
+EXECUTE IMMEDIATE 'DROP TABLE wf_auth_flow_state';
+EXCEPTION
+WHEN OTHERS THEN NULL;
+END;
+/
+
+BEGIN
+EXECUTE IMMEDIATE 'DROP TABLE wf_scheduler_lease';
+EXCEPTION
+WHEN OTHERS THEN NULL;
+END;
+/
+
+BEGIN
+EXECUTE IMMEDIATE 'DROP TABLE wf_notification_outbox';
+EXCEPTION
+WHEN OTHERS THEN NULL;
+END;
+/
+
 BEGIN
 EXECUTE IMMEDIATE 'DROP TABLE tpp_consent';
 EXCEPTION
@@ -47,6 +68,13 @@ WHEN OTHERS THEN NULL;
 END;
 /
 
+BEGIN
+EXECUTE IMMEDIATE 'DROP TABLE tpp_consent_history_archive';
+EXCEPTION
+WHEN OTHERS THEN NULL;
+END;
+/
+
 BEGIN
 EXECUTE IMMEDIATE 'DROP TABLE tpp_detail';
 EXCEPTION
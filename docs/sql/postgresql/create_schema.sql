@@ -4,6 +4,7 @@
 CREATE SEQUENCE "tpp_user_consent_seq" MINVALUE 1 MAXVALUE 9999999999999999999999999999 INCREMENT BY 1 START WITH 1 CACHE 20;
 CREATE SEQUENCE "tpp_user_consent_history_seq" MINVALUE 1 MAXVALUE 9999999999999999999999999999 INCREMENT BY 1 START WITH 1 CACHE 20;
 CREATE SEQUENCE "ns_operation_afs_seq" MINVALUE 1 MAXVALUE 9999999999999999999999999999 INCREMENT BY 1 START WITH 1 CACHE 20;
+CREATE SEQUENCE "wf_notification_outbox_seq" MINVALUE 1 MAXVALUE 9999999999999999999999999999 INCREMENT BY 1 START WITH 1 CACHE 1;
 
 -- Table oauth_client_details stores details about OAuth2 client applications.
 -- Every Web Flow client application should have a record in this table.
@@ -210,10 +211,37 @@ CREATE TABLE wf_certificate_verification (
   client_certificate_subject VARCHAR(4000) NOT NULL,
   client_certificate_sn      VARCHAR(256) NOT NULL,
   operation_data             TEXT NOT NULL,
-  timestamp_created          TIMESTAMP NOT NULL,
+  timestamp_verified         TIMESTAMP NOT NULL,
   CONSTRAINT certificate_verification_pk PRIMARY KEY (operation_id, auth_method)
 );
 
+-- Table wf_auth_flow_state stores authentication flow state of HTTP sessions.
+-- Table is used only when the authentication flow state store is configured as JDBC.
+CREATE TABLE wf_auth_flow_state (
+  http_session_id           VARCHAR(256) PRIMARY KEY NOT NULL,
+  state_data                BYTEA NOT NULL,
+  version                   BIGINT NOT NULL,
+  timestamp_updated         TIMESTAMP NOT NULL
+);
+
+-- Table wf_scheduler_lease stores leases of scheduled jobs which run on a single Web Flow or TPP engine node at a time.
+CREATE TABLE wf_scheduler_lease (
+  lease_name                VARCHAR(256) PRIMARY KEY NOT NULL,
+  lease_owner               VARCHAR(256) NOT NULL,
+  timestamp_expires         TIMESTAMP NOT NULL,
+  last_processed_id         BIGINT
+);
+
+-- Table wf_notification_outbox stores Data Adapter notifications about operation changes and form data changes until they are delivered.
+CREATE TABLE wf_notification_outbox (
+  notification_id           BIGINT PRIMARY KEY NOT NULL,
+  operation_id              VARCHAR(256) NOT NULL,
+  notification_data         TEXT NOT NULL,
+  attempt_count             INTEGER NOT NULL DEFAULT 0,
+  timestamp_created         TIMESTAMP NOT NULL,
+  timestamp_next_attempt    TIMESTAMP NOT NULL
+);
+
 -- Table da_sms_authorization stores data for SMS OTP authorization.
 CREATE TABLE da_sms_authorization (
   message_id           VARCHAR(256) PRIMARY KEY NOT NULL,
@@ -271,10 +299,35 @@ CREATE TABLE tpp_user_consent_history (
   consent_change        VARCHAR(16) NOT NULL,
   external_id           VARCHAR(256) NOT NULL,
   consent_parameters    TEXT NOT NULL,
-  timestamp_created     TIMESTAMP
+  timestamp_created     TIMESTAMP,
+  change_count          INTEGER NOT NULL DEFAULT 1,
+  timestamp_last_change TIMESTAMP
+);
+
+-- Table tpp_consent_history_archive stores consent history records moved from table tpp_user_consent_history by the retention and compaction job.
+CREATE TABLE tpp_consent_history_archive (
+  id                    INTEGER PRIMARY KEY NOT NULL,
+  user_id               VARCHAR(256) NOT NULL,
+  client_id             VARCHAR(256) NOT NULL,
+  consent_id            VARCHAR(64) NOT NULL,
+  consent_change        VARCHAR(16) NOT NULL,
+  external_id           VARCHAR(256) NOT NULL,
+  consent_parameters    TEXT NOT NULL,
+  timestamp_created     TIMESTAMP,
+  change_count          INTEGER NOT NULL DEFAULT 1,
+  timestamp_last_change TIMESTAMP,
+  timestamp_archived    TIMESTAMP NOT NULL
 );
 
 CREATE INDEX wf_operation_hash ON wf_operation_session (operation_hash);
 CREATE INDEX wf_websocket_session ON wf_operation_session (websocket_session_id);
 CREATE UNIQUE INDEX ns_operation_afs_unique on ns_operation_afs (operation_id, request_afs_action, request_step_index);
 CREATE INDEX wf_certificate_operation ON wf_certificate_verification (operation_id);
+CREATE INDEX wf_operation_timestamp_created ON wf_operation_session (timestamp_created);
+CREATE INDEX wf_certificate_timestamp_verified ON wf_certificate_verification (timestamp_verified);
+CREATE INDEX wf_auth_flow_state_updated ON wf_auth_flow_state (timestamp_updated);
+CREATE INDEX wf_notification_next_attempt ON wf_notification_outbox (timestamp_next_attempt);
+CREATE INDEX wf_notification_operation ON wf_notification_outbox (operation_id);
+CREATE INDEX tpp_user_consent_lookup ON tpp_user_consent (user_id, client_id, consent_id);
+CREATE INDEX tpp_consent_history_user ON tpp_user_consent_history (user_id, timestamp_created);
+CREATE INDEX tpp_consent_history_client ON tpp_user_consent_history (user_id, client_id, timestamp_created);
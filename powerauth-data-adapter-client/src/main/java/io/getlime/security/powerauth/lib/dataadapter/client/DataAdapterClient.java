@@ -27,8 +27,12 @@ import io.getlime.security.powerauth.lib.dataadapter.model.enumeration.AccountSt
 import io.getlime.security.powerauth.lib.dataadapter.model.request.*;
 import io.getlime.security.powerauth.lib.dataadapter.model.response.*;
 import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthMethod;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.protocol.HttpContext;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -40,23 +44,51 @@ import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
+import java.net.URI;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.*;
 
 /**
  * Data Adapter Client provides methods for communication with the Data Adapter.
  * It uses the RestTemplate class to handle REST API calls. HTTP client is used instead of default client
- * so that error responses contain full response bodies.
+ * so that error responses contain full response bodies. When a request deadline is set, each call sends
+ * the remaining time budget in the request timeout header and uses it as the read timeout of the call.
  *
  * @author Roman Strobl, roman.strobl@wultra.com
  */
 public class DataAdapterClient {
 
+    /**
+     * HTTP header with remaining time budget of the request in milliseconds.
+     */
+    public static final String REQUEST_TIMEOUT_HEADER = "X-Request-Timeout";
+
+    /**
+     * Default minimum delay before a hedged request is sent in milliseconds.
+     */
+    private static final long DEFAULT_HEDGING_MIN_DELAY_MS = 50;
+
+    /**
+     * Maximum number of threads used for sending hedged requests.
+     */
+    private static final int HEDGING_MAX_THREADS = 64;
+
+    /**
+     * Read timeout of the call made by the current thread in milliseconds.
+     */
+    private static final ThreadLocal<Integer> CALL_READ_TIMEOUT = new ThreadLocal<>();
+
     private final String serviceUrl;
     private final ObjectMapper objectMapper;
     private final RestTemplate restTemplate;
 
+    private final Map<String, EndpointLatencyRecorder> latencyRecorders = new ConcurrentHashMap<>();
+    private volatile ExecutorService hedgingExecutor;
+    private volatile long hedgingMinDelayMs = DEFAULT_HEDGING_MIN_DELAY_MS;
+
     /**
      * Create a new client with provided base URL.
      * @param serviceUrl Base URL.
@@ -85,7 +117,7 @@ public class DataAdapterClient {
         converters.add(converter);
         restTemplate.setMessageConverters(converters);
 
-        restTemplate.setRequestFactory(new HttpComponentsClientHttpRequestFactory());
+        restTemplate.setRequestFactory(new DeadlineRequestFactory());
     }
 
     /**
@@ -107,6 +139,48 @@ public class DataAdapterClient {
         return restTemplate;
     }
 
+    /**
+     * Enable or disable hedging of idempotent requests. When hedging is enabled, a second request is sent in case
+     * the first request does not complete within the 95th percentile of latency of the endpoint and the first
+     * received response is used.
+     * @param hedgingEnabled Whether hedging of idempotent requests is enabled.
+     */
+    public synchronized void setHedgingEnabled(boolean hedgingEnabled) {
+        if (hedgingEnabled && hedgingExecutor == null) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(0, HEDGING_MAX_THREADS, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "data-adapter-hedging");
+                thread.setDaemon(true);
+                return thread;
+            });
+            hedgingExecutor = executor;
+        } else if (!hedgingEnabled && hedgingExecutor != null) {
+            hedgingExecutor.shutdown();
+            hedgingExecutor = null;
+        }
+    }
+
+    /**
+     * Set minimum delay before a hedged request is sent. The delay is used until enough latency samples are available
+     * and it also limits the delay for very fast endpoints.
+     * @param hedgingMinDelayMs Minimum delay before a hedged request is sent in milliseconds.
+     */
+    public void setHedgingMinDelayMs(long hedgingMinDelayMs) {
+        this.hedgingMinDelayMs = hedgingMinDelayMs;
+    }
+
+    /**
+     * Get latency metrics for all Data Adapter endpoints which were called by this client.
+     * @return List of endpoint metrics.
+     */
+    public List<EndpointMetrics> getEndpointMetrics() {
+        List<EndpointMetrics> metrics = new ArrayList<>();
+        for (EndpointLatencyRecorder recorder: latencyRecorders.values()) {
+            metrics.add(recorder.getMetrics());
+        }
+        metrics.sort(Comparator.comparing(EndpointMetrics::getEndpoint));
+        return metrics;
+    }
+
 
     /**
      * Lookup user account.
@@ -123,7 +197,7 @@ public class DataAdapterClient {
             // Exchange authentication request with data adapter.
             UserLookupRequest request = new UserLookupRequest(username, organizationId, clientCertificate, operationContext);
             HttpEntity<ObjectRequest<UserLookupRequest>> entity = new HttpEntity<>(new ObjectRequest<>(request));
-            ResponseEntity<ObjectResponse<UserDetailResponse>> response = restTemplate.exchange(serviceUrl + "/api/auth/user/lookup", HttpMethod.POST, entity, new ParameterizedTypeReference<ObjectResponse<UserDetailResponse>>() {
+            ResponseEntity<ObjectResponse<UserDetailResponse>> response = exchangeHedged("/api/auth/user/lookup", entity, new ParameterizedTypeReference<ObjectResponse<UserDetailResponse>>() {
             });
             return new ObjectResponse<>(response.getBody().getResponseObject());
         } catch (HttpStatusCodeException ex) {
@@ -149,7 +223,7 @@ public class DataAdapterClient {
             // Exchange authentication request with data adapter.
             UserAuthenticationRequest request = new UserAuthenticationRequest(userId, organizationId, password, authenticationContext, operationContext);
             HttpEntity<ObjectRequest<UserAuthenticationRequest>> entity = new HttpEntity<>(new ObjectRequest<>(request));
-            ResponseEntity<ObjectResponse<UserAuthenticationResponse>> response = restTemplate.exchange(serviceUrl + "/api/auth/user/authenticate", HttpMethod.POST, entity, new ParameterizedTypeReference<ObjectResponse<UserAuthenticationResponse>>() {
+            ResponseEntity<ObjectResponse<UserAuthenticationResponse>> response = exchange("/api/auth/user/authenticate", entity, new ParameterizedTypeReference<ObjectResponse<UserAuthenticationResponse>>() {
             });
             return new ObjectResponse<>(response.getBody().getResponseObject());
         } catch (HttpStatusCodeException ex) {
@@ -172,7 +246,7 @@ public class DataAdapterClient {
             // Exchange user details with data adapter.
             UserDetailRequest request = new UserDetailRequest(userId, organizationId);
             HttpEntity<ObjectRequest<UserDetailRequest>> entity = new HttpEntity<>(new ObjectRequest<>(request));
-            ResponseEntity<ObjectResponse<UserDetailResponse>> response = restTemplate.exchange(serviceUrl + "/api/auth/user/info", HttpMethod.POST, entity, new ParameterizedTypeReference<ObjectResponse<UserDetailResponse>>() {
+            ResponseEntity<ObjectResponse<UserDetailResponse>> response = exchangeHedged("/api/auth/user/info", entity, new ParameterizedTypeReference<ObjectResponse<UserDetailResponse>>() {
             });
             return new ObjectResponse<>(response.getBody().getResponseObject());
         } catch (HttpStatusCodeException ex) {
@@ -198,8 +272,8 @@ public class DataAdapterClient {
         try {
             CreateSmsAuthorizationRequest request = new CreateSmsAuthorizationRequest(userId, organizationId, accountStatus, lang, operationContext, resend);
             HttpEntity<ObjectRequest<CreateSmsAuthorizationRequest>> entity = new HttpEntity<>(new ObjectRequest<>(request));
-            ResponseEntity<ObjectResponse<CreateSmsAuthorizationResponse>> response = restTemplate.exchange(
-                    serviceUrl + "/api/auth/sms/create", HttpMethod.POST, entity,
+            ResponseEntity<ObjectResponse<CreateSmsAuthorizationResponse>> response = exchange(
+                    "/api/auth/sms/create", entity,
                     new ParameterizedTypeReference<ObjectResponse<CreateSmsAuthorizationResponse>>() {
                     });
             return new ObjectResponse<>(response.getBody().getResponseObject());
@@ -226,7 +300,7 @@ public class DataAdapterClient {
         try {
             VerifySmsAuthorizationRequest request = new VerifySmsAuthorizationRequest(messageId, authorizationCode, userId, organizationId, accountStatus, operationContext);
             HttpEntity<ObjectRequest<VerifySmsAuthorizationRequest>> entity = new HttpEntity<>(new ObjectRequest<>(request));
-            ResponseEntity<ObjectResponse<VerifySmsAuthorizationResponse>> response = restTemplate.exchange(serviceUrl + "/api/auth/sms/verify", HttpMethod.POST, entity, new ParameterizedTypeReference<ObjectResponse<VerifySmsAuthorizationResponse>>() {
+            ResponseEntity<ObjectResponse<VerifySmsAuthorizationResponse>> response = exchange("/api/auth/sms/verify", entity, new ParameterizedTypeReference<ObjectResponse<VerifySmsAuthorizationResponse>>() {
             });
             return new ObjectResponse<>(response.getBody().getResponseObject());
         } catch (HttpStatusCodeException ex) {
@@ -254,7 +328,7 @@ public class DataAdapterClient {
         try {
             VerifySmsAndPasswordRequest request = new VerifySmsAndPasswordRequest(messageId, authorizationCode, userId, organizationId, accountStatus, password, authenticationContext, operationContext);
             HttpEntity<ObjectRequest<VerifySmsAndPasswordRequest>> entity = new HttpEntity<>(new ObjectRequest<>(request));
-            ResponseEntity<ObjectResponse<VerifySmsAndPasswordResponse>> response = restTemplate.exchange(serviceUrl + "/api/auth/sms/password/verify", HttpMethod.POST, entity, new ParameterizedTypeReference<ObjectResponse<VerifySmsAndPasswordResponse>>() {
+            ResponseEntity<ObjectResponse<VerifySmsAndPasswordResponse>> response = exchange("/api/auth/sms/password/verify", entity, new ParameterizedTypeReference<ObjectResponse<VerifySmsAndPasswordResponse>>() {
             });
             return new ObjectResponse<>(response.getBody().getResponseObject());
         } catch (HttpStatusCodeException ex) {
@@ -280,7 +354,7 @@ public class DataAdapterClient {
         try {
             VerifyCertificateRequest request = new VerifyCertificateRequest(userId, organizationId, clientCertificate, authMethod, accountStatus, operationContext);
             HttpEntity<ObjectRequest<VerifyCertificateRequest>> entity = new HttpEntity<>(new ObjectRequest<>(request));
-            ResponseEntity<ObjectResponse<VerifyCertificateResponse>> response = restTemplate.exchange(serviceUrl + "/api/auth/certificate/verify", HttpMethod.POST, entity, new ParameterizedTypeReference<ObjectResponse<VerifyCertificateResponse>>() {
+            ResponseEntity<ObjectResponse<VerifyCertificateResponse>> response = exchange("/api/auth/certificate/verify", entity, new ParameterizedTypeReference<ObjectResponse<VerifyCertificateResponse>>() {
             });
             return new ObjectResponse<>(response.getBody().getResponseObject());
         } catch (HttpStatusCodeException ex) {
@@ -304,7 +378,7 @@ public class DataAdapterClient {
             // Exchange user details with data adapter.
             DecorateOperationFormDataRequest request = new DecorateOperationFormDataRequest(userId, organizationId, operationContext);
             HttpEntity<ObjectRequest<DecorateOperationFormDataRequest>> entity = new HttpEntity<>(new ObjectRequest<>(request));
-            ResponseEntity<ObjectResponse<DecorateOperationFormDataResponse>> response = restTemplate.exchange(serviceUrl + "/api/operation/formdata/decorate", HttpMethod.POST, entity, new ParameterizedTypeReference<ObjectResponse<DecorateOperationFormDataResponse>>() {
+            ResponseEntity<ObjectResponse<DecorateOperationFormDataResponse>> response = exchange("/api/operation/formdata/decorate", entity, new ParameterizedTypeReference<ObjectResponse<DecorateOperationFormDataResponse>>() {
             });
             return new ObjectResponse<>(response.getBody().getResponseObject());
         } catch (HttpStatusCodeException ex) {
@@ -333,7 +407,7 @@ public class DataAdapterClient {
             request.setOperationContext(operationContext);
             request.setFormDataChange(formDataChange);
             HttpEntity<ObjectRequest<FormDataChangeNotificationRequest>> entity = new HttpEntity<>(new ObjectRequest<>(request));
-            ResponseEntity<ObjectResponse> response = restTemplate.exchange(serviceUrl + "/api/operation/formdata/change", HttpMethod.POST, entity, new ParameterizedTypeReference<ObjectResponse>() {
+            ResponseEntity<ObjectResponse> response = exchange("/api/operation/formdata/change", entity, new ParameterizedTypeReference<ObjectResponse>() {
             });
             return new ObjectResponse<>(response.getBody().getResponseObject());
         } catch (HttpStatusCodeException ex) {
@@ -362,7 +436,7 @@ public class DataAdapterClient {
             request.setOperationContext(operationContext);
             request.setOperationChange(operationChange);
             HttpEntity<ObjectRequest<OperationChangeNotificationRequest>> entity = new HttpEntity<>(new ObjectRequest<>(request));
-            ResponseEntity<ObjectResponse> response = restTemplate.exchange(serviceUrl + "/api/operation/change", HttpMethod.POST, entity, new ParameterizedTypeReference<ObjectResponse>() {
+            ResponseEntity<ObjectResponse> response = exchange("/api/operation/change", entity, new ParameterizedTypeReference<ObjectResponse>() {
             });
             return new ObjectResponse<>(response.getBody().getResponseObject());
         } catch (HttpStatusCodeException ex) {
@@ -372,6 +446,28 @@ public class DataAdapterClient {
         }
     }
 
+    /**
+     * Send a batch of notifications about operation changes and form data changes.
+     *
+     * @param notifications Notifications ordered by their creation.
+     * @return Response with IDs of notifications processed by the Data Adapter.
+     * @throws DataAdapterClientErrorException Thrown when client request fails.
+     */
+    public ObjectResponse<NotificationBatchResponse> notificationBatch(List<OperationNotification> notifications) throws DataAdapterClientErrorException {
+        try {
+            NotificationBatchRequest request = new NotificationBatchRequest(notifications);
+            HttpEntity<ObjectRequest<NotificationBatchRequest>> entity = new HttpEntity<>(new ObjectRequest<>(request));
+            ResponseEntity<ObjectResponse<NotificationBatchResponse>> response = exchange("/api/notification/batch", entity,
+                    new ParameterizedTypeReference<ObjectResponse<NotificationBatchResponse>>() {
+                    });
+            return new ObjectResponse<>(response.getBody().getResponseObject());
+        } catch (HttpStatusCodeException ex) {
+            throw httpStatusException(ex);
+        } catch (ResourceAccessException ex) { // Data Adapter service is down
+            throw resourceAccessException(ex);
+        }
+    }
+
     /**
      * Initialize OAuth 2.0 consent form.
      * @param userId User ID.
@@ -384,8 +480,8 @@ public class DataAdapterClient {
         try {
             InitConsentFormRequest request = new InitConsentFormRequest(userId, organizationId, operationContext);
             HttpEntity<ObjectRequest<InitConsentFormRequest>> entity = new HttpEntity<>(new ObjectRequest<>(request));
-            ResponseEntity<ObjectResponse<InitConsentFormResponse>> response = restTemplate.exchange(
-                    serviceUrl + "/api/auth/consent/init", HttpMethod.POST, entity,
+            ResponseEntity<ObjectResponse<InitConsentFormResponse>> response = exchangeHedged(
+                    "/api/auth/consent/init", entity,
                     new ParameterizedTypeReference<ObjectResponse<InitConsentFormResponse>>() {
                     });
             return new ObjectResponse<>(response.getBody().getResponseObject());
@@ -409,8 +505,8 @@ public class DataAdapterClient {
         try {
             CreateConsentFormRequest request = new CreateConsentFormRequest(userId, organizationId, lang, operationContext);
             HttpEntity<ObjectRequest<CreateConsentFormRequest>> entity = new HttpEntity<>(new ObjectRequest<>(request));
-            ResponseEntity<ObjectResponse<CreateConsentFormResponse>> response = restTemplate.exchange(
-                    serviceUrl + "/api/auth/consent/create", HttpMethod.POST, entity,
+            ResponseEntity<ObjectResponse<CreateConsentFormResponse>> response = exchange(
+                    "/api/auth/consent/create", entity,
                     new ParameterizedTypeReference<ObjectResponse<CreateConsentFormResponse>>() {
                     });
             return new ObjectResponse<>(response.getBody().getResponseObject());
@@ -435,8 +531,8 @@ public class DataAdapterClient {
         try {
             ValidateConsentFormRequest request = new ValidateConsentFormRequest(userId, organizationId, operationContext, lang, options);
             HttpEntity<ObjectRequest<ValidateConsentFormRequest>> entity = new HttpEntity<>(new ObjectRequest<>(request));
-            ResponseEntity<ObjectResponse<ValidateConsentFormResponse>> response = restTemplate.exchange(
-                    serviceUrl + "/api/auth/consent/validate", HttpMethod.POST, entity,
+            ResponseEntity<ObjectResponse<ValidateConsentFormResponse>> response = exchange(
+                    "/api/auth/consent/validate", entity,
                     new ParameterizedTypeReference<ObjectResponse<ValidateConsentFormResponse>>() {
                     });
             return new ObjectResponse<>(response.getBody().getResponseObject());
@@ -460,8 +556,8 @@ public class DataAdapterClient {
         try {
             SaveConsentFormRequest request = new SaveConsentFormRequest(userId, organizationId, operationContext, options);
             HttpEntity<ObjectRequest<SaveConsentFormRequest>> entity = new HttpEntity<>(new ObjectRequest<>(request));
-            ResponseEntity<ObjectResponse<SaveConsentFormResponse>> response = restTemplate.exchange(
-                    serviceUrl + "/api/auth/consent/save", HttpMethod.POST, entity,
+            ResponseEntity<ObjectResponse<SaveConsentFormResponse>> response = exchange(
+                    "/api/auth/consent/save", entity,
                     new ParameterizedTypeReference<ObjectResponse<SaveConsentFormResponse>>() {
                     });
             return new ObjectResponse<>(response.getBody().getResponseObject());
@@ -487,8 +583,8 @@ public class DataAdapterClient {
         try {
             AfsRequest request = new AfsRequest(userId, organizationId, operationContext, afsRequestParameters, extras);
             HttpEntity<ObjectRequest<AfsRequest>> entity = new HttpEntity<>(new ObjectRequest<>(request));
-            ResponseEntity<ObjectResponse<AfsResponse>> response = restTemplate.exchange(
-                    serviceUrl + "/api/afs/action/execute", HttpMethod.POST, entity,
+            ResponseEntity<ObjectResponse<AfsResponse>> response = exchange(
+                    "/api/afs/action/execute", entity,
                     new ParameterizedTypeReference<ObjectResponse<AfsResponse>>() {
                     });
             return new ObjectResponse<>(response.getBody().getResponseObject());
@@ -499,6 +595,151 @@ public class DataAdapterClient {
         }
     }
 
+    /**
+     * Send a POST request to the Data Adapter with the remaining request time budget and record its latency.
+     * @param path Endpoint path.
+     * @param entity HTTP entity with request body.
+     * @param responseType Response type.
+     * @param <T> Response type.
+     * @return Response entity.
+     */
+    private <T> ResponseEntity<T> exchange(String path, HttpEntity<?> entity, ParameterizedTypeReference<T> responseType) {
+        return exchangeAndRecord(path, entity, responseType, RequestDeadline.get());
+    }
+
+    /**
+     * Send an idempotent POST request to the Data Adapter. In case hedging is enabled and the request does not
+     * complete within the 95th percentile of latency of the endpoint, a second request is sent and the first
+     * received response is used.
+     * @param path Endpoint path.
+     * @param entity HTTP entity with request body.
+     * @param responseType Response type.
+     * @param <T> Response type.
+     * @return Response entity.
+     */
+    private <T> ResponseEntity<T> exchangeHedged(String path, HttpEntity<?> entity, ParameterizedTypeReference<T> responseType) {
+        ExecutorService executor = hedgingExecutor;
+        if (executor == null) {
+            return exchange(path, entity, responseType);
+        }
+        // Deadline is resolved in the calling thread, it is not available in executor threads
+        Long deadline = RequestDeadline.get();
+        EndpointLatencyRecorder recorder = latencyRecorder(path);
+        CompletionService<ResponseEntity<T>> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<ResponseEntity<T>>> futures = new ArrayList<>();
+        Future<ResponseEntity<T>> hedgedFuture = null;
+        try {
+            futures.add(completionService.submit(() -> exchangeAndRecord(path, entity, responseType, deadline)));
+        } catch (RejectedExecutionException ex) {
+            // All hedging threads are busy, send the request without hedging
+            return exchangeAndRecord(path, entity, responseType, deadline);
+        }
+        try {
+            Long p95 = recorder.getPercentile(95);
+            long delayMs = p95 == null ? hedgingMinDelayMs : Math.max(p95, hedgingMinDelayMs);
+            Future<ResponseEntity<T>> completed = completionService.poll(delayMs, TimeUnit.MILLISECONDS);
+            if (completed == null) {
+                try {
+                    hedgedFuture = completionService.submit(() -> exchangeAndRecord(path, entity, responseType, deadline));
+                    futures.add(hedgedFuture);
+                    recorder.recordHedgedRequest();
+                } catch (RejectedExecutionException ex) {
+                    // Hedged request could not be sent, wait for the original request
+                }
+                completed = completionService.take();
+            }
+            int remaining = futures.size();
+            while (true) {
+                remaining--;
+                try {
+                    ResponseEntity<T> response = completed.get();
+                    if (completed == hedgedFuture) {
+                        recorder.recordHedgeWin();
+                    }
+                    return response;
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    // HTTP errors are valid responses from the Data Adapter, only communication errors wait for the other request
+                    if (remaining == 0 || !(cause instanceof ResourceAccessException)) {
+                        if (cause instanceof RuntimeException) {
+                            throw (RuntimeException) cause;
+                        }
+                        throw new ResourceAccessException(cause.getMessage());
+                    }
+                }
+                completed = completionService.take();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Data Adapter request was interrupted");
+        } finally {
+            for (Future<ResponseEntity<T>> future: futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Send a POST request to the Data Adapter and record its latency. The remaining time budget is computed
+     * when the call starts, so that each attempt of a hedged request gets its own request timeout.
+     * @param path Endpoint path.
+     * @param entity HTTP entity with request body.
+     * @param responseType Response type.
+     * @param deadline Deadline of the request as a timestamp in milliseconds or null when no deadline is set.
+     * @param <T> Response type.
+     * @return Response entity.
+     * @throws ResourceAccessException Thrown when the deadline already expired.
+     */
+    private <T> ResponseEntity<T> exchangeAndRecord(String path, HttpEntity<?> entity, ParameterizedTypeReference<T> responseType, Long deadline) {
+        HttpEntity<?> requestEntity = entity;
+        if (deadline != null) {
+            long remainingMs = deadline - System.currentTimeMillis();
+            if (remainingMs <= 0) {
+                throw new ResourceAccessException("Request deadline expired before calling the Data Adapter");
+            }
+            requestEntity = withRequestTimeout(entity, remainingMs);
+            CALL_READ_TIMEOUT.set((int) Math.min(remainingMs, Integer.MAX_VALUE));
+        }
+        EndpointLatencyRecorder recorder = latencyRecorder(path);
+        long startTime = System.nanoTime();
+        try {
+            ResponseEntity<T> response = restTemplate.exchange(serviceUrl + path, HttpMethod.POST, requestEntity, responseType);
+            recorder.recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+            return response;
+        } catch (HttpStatusCodeException ex) {
+            // The Data Adapter responded, error responses are included in latency metrics
+            recorder.recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+            throw ex;
+        } catch (ResourceAccessException ex) {
+            recorder.recordError();
+            throw ex;
+        } finally {
+            CALL_READ_TIMEOUT.remove();
+        }
+    }
+
+    /**
+     * Add remaining time budget of the current request to the HTTP entity headers.
+     * @param entity HTTP entity with request body.
+     * @param remainingMs Remaining time budget in milliseconds.
+     * @return HTTP entity with request body and request timeout header.
+     */
+    private HttpEntity<?> withRequestTimeout(HttpEntity<?> entity, long remainingMs) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(entity.getHeaders());
+        headers.set(REQUEST_TIMEOUT_HEADER, String.valueOf(remainingMs));
+        return new HttpEntity<>(entity.getBody(), headers);
+    }
+
+    /**
+     * Get latency recorder for an endpoint.
+     * @param path Endpoint path.
+     * @return Latency recorder.
+     */
+    private EndpointLatencyRecorder latencyRecorder(String path) {
+        return latencyRecorders.computeIfAbsent(path, EndpointLatencyRecorder::new);
+    }
+
     /**
      * Create new DataAdapterClientErrorException from ResourceAccessException.
      * @param ex Exception used when a resource access error occurs.
@@ -540,4 +781,27 @@ public class DataAdapterClient {
         }
     }
 
+    /**
+     * Request factory which limits the read timeout of each call by the remaining time budget of the request.
+     */
+    private static class DeadlineRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+        @Override
+        protected HttpContext createHttpContext(HttpMethod httpMethod, URI uri) {
+            Integer readTimeoutMs = CALL_READ_TIMEOUT.get();
+            if (readTimeoutMs == null) {
+                return null;
+            }
+            RequestConfig requestConfig = createRequestConfig(getHttpClient());
+            RequestConfig.Builder builder = requestConfig != null ? RequestConfig.copy(requestConfig) : RequestConfig.custom();
+            if (requestConfig != null && requestConfig.getSocketTimeout() > 0) {
+                readTimeoutMs = Math.min(readTimeoutMs, requestConfig.getSocketTimeout());
+            }
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(builder.setSocketTimeout(readTimeoutMs).build());
+            return context;
+        }
+
+    }
+
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.dataadapter.client;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recorder of request latencies for a single Data Adapter endpoint. Latencies of the most recent requests
+ * are kept in a fixed size ring buffer, so that percentiles reflect current behavior of the Data Adapter.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class EndpointLatencyRecorder {
+
+    private static final int SAMPLE_SIZE = 1024;
+
+    /**
+     * Minimum number of samples required for a percentile estimate to be considered reliable.
+     */
+    private static final int MIN_SAMPLES = 20;
+
+    private final String endpoint;
+    private final long[] samples = new long[SAMPLE_SIZE];
+    private int sampleCount;
+    private int position;
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong hedgedRequestCount = new AtomicLong();
+    private final AtomicLong hedgeWinCount = new AtomicLong();
+
+    /**
+     * Recorder constructor.
+     * @param endpoint Endpoint path.
+     */
+    EndpointLatencyRecorder(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Record latency of a completed request.
+     * @param latencyMs Latency in milliseconds.
+     */
+    void recordLatency(long latencyMs) {
+        requestCount.incrementAndGet();
+        synchronized (samples) {
+            samples[position] = latencyMs;
+            position = (position + 1) % SAMPLE_SIZE;
+            if (sampleCount < SAMPLE_SIZE) {
+                sampleCount++;
+            }
+        }
+    }
+
+    /**
+     * Record a request which failed due to a communication error.
+     */
+    void recordError() {
+        requestCount.incrementAndGet();
+        errorCount.incrementAndGet();
+    }
+
+    /**
+     * Record a hedged request.
+     */
+    void recordHedgedRequest() {
+        hedgedRequestCount.incrementAndGet();
+    }
+
+    /**
+     * Record a hedged request which completed before the original request.
+     */
+    void recordHedgeWin() {
+        hedgeWinCount.incrementAndGet();
+    }
+
+    /**
+     * Get estimated latency percentile.
+     * @param percentile Percentile between 0 and 100.
+     * @return Latency percentile in milliseconds or null in case there are not enough samples for an estimate.
+     */
+    Long getPercentile(int percentile) {
+        long[] sorted = sortedSamples();
+        if (sorted.length < MIN_SAMPLES) {
+            return null;
+        }
+        return percentile(sorted, percentile);
+    }
+
+    /**
+     * Create a snapshot of metrics for this endpoint.
+     * @return Endpoint metrics.
+     */
+    EndpointMetrics getMetrics() {
+        long[] sorted = sortedSamples();
+        EndpointMetrics metrics = new EndpointMetrics();
+        metrics.setEndpoint(endpoint);
+        metrics.setRequestCount(requestCount.get());
+        metrics.setErrorCount(errorCount.get());
+        metrics.setHedgedRequestCount(hedgedRequestCount.get());
+        metrics.setHedgeWinCount(hedgeWinCount.get());
+        if (sorted.length > 0) {
+            metrics.setLatencyP50(percentile(sorted, 50));
+            metrics.setLatencyP95(percentile(sorted, 95));
+            metrics.setLatencyP99(percentile(sorted, 99));
+            metrics.setLatencyMax(sorted[sorted.length - 1]);
+        }
+        return metrics;
+    }
+
+    /**
+     * Copy and sort current latency samples.
+     * @return Sorted latency samples.
+     */
+    private long[] sortedSamples() {
+        long[] sorted;
+        synchronized (samples) {
+            sorted = Arrays.copyOf(samples, sampleCount);
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Get percentile from sorted samples using the nearest-rank method.
+     * @param sorted Sorted non-empty samples.
+     * @param percentile Percentile between 0 and 100.
+     * @return Percentile value.
+     */
+    private long percentile(long[] sorted, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+}
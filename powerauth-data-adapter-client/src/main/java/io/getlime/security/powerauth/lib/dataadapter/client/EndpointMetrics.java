@@ -0,0 +1,179 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.dataadapter.client;
+
+/**
+ * Snapshot of latency metrics for a single Data Adapter endpoint.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class EndpointMetrics {
+
+    private String endpoint;
+    private long requestCount;
+    private long errorCount;
+    private long hedgedRequestCount;
+    private long hedgeWinCount;
+    private long latencyP50;
+    private long latencyP95;
+    private long latencyP99;
+    private long latencyMax;
+
+    /**
+     * Get endpoint path.
+     * @return Endpoint path.
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Set endpoint path.
+     * @param endpoint Endpoint path.
+     */
+    public void setEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Get count of sent requests.
+     * @return Count of sent requests.
+     */
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * Set count of sent requests.
+     * @param requestCount Count of sent requests.
+     */
+    public void setRequestCount(long requestCount) {
+        this.requestCount = requestCount;
+    }
+
+    /**
+     * Get count of requests which failed due to a communication error.
+     * @return Count of failed requests.
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Set count of requests which failed due to a communication error.
+     * @param errorCount Count of failed requests.
+     */
+    public void setErrorCount(long errorCount) {
+        this.errorCount = errorCount;
+    }
+
+    /**
+     * Get count of hedged requests which were sent because the original request was slow.
+     * @return Count of hedged requests.
+     */
+    public long getHedgedRequestCount() {
+        return hedgedRequestCount;
+    }
+
+    /**
+     * Set count of hedged requests which were sent because the original request was slow.
+     * @param hedgedRequestCount Count of hedged requests.
+     */
+    public void setHedgedRequestCount(long hedgedRequestCount) {
+        this.hedgedRequestCount = hedgedRequestCount;
+    }
+
+    /**
+     * Get count of hedged requests which completed before the original request.
+     * @return Count of hedged requests which won.
+     */
+    public long getHedgeWinCount() {
+        return hedgeWinCount;
+    }
+
+    /**
+     * Set count of hedged requests which completed before the original request.
+     * @param hedgeWinCount Count of hedged requests which won.
+     */
+    public void setHedgeWinCount(long hedgeWinCount) {
+        this.hedgeWinCount = hedgeWinCount;
+    }
+
+    /**
+     * Get median latency in milliseconds.
+     * @return Median latency in milliseconds.
+     */
+    public long getLatencyP50() {
+        return latencyP50;
+    }
+
+    /**
+     * Set median latency in milliseconds.
+     * @param latencyP50 Median latency in milliseconds.
+     */
+    public void setLatencyP50(long latencyP50) {
+        this.latencyP50 = latencyP50;
+    }
+
+    /**
+     * Get 95th percentile of latency in milliseconds.
+     * @return 95th percentile of latency in milliseconds.
+     */
+    public long getLatencyP95() {
+        return latencyP95;
+    }
+
+    /**
+     * Set 95th percentile of latency in milliseconds.
+     * @param latencyP95 95th percentile of latency in milliseconds.
+     */
+    public void setLatencyP95(long latencyP95) {
+        this.latencyP95 = latencyP95;
+    }
+
+    /**
+     * Get 99th percentile of latency in milliseconds.
+     * @return 99th percentile of latency in milliseconds.
+     */
+    public long getLatencyP99() {
+        return latencyP99;
+    }
+
+    /**
+     * Set 99th percentile of latency in milliseconds.
+     * @param latencyP99 99th percentile of latency in milliseconds.
+     */
+    public void setLatencyP99(long latencyP99) {
+        this.latencyP99 = latencyP99;
+    }
+
+    /**
+     * Get maximum latency in milliseconds.
+     * @return Maximum latency in milliseconds.
+     */
+    public long getLatencyMax() {
+        return latencyMax;
+    }
+
+    /**
+     * Set maximum latency in milliseconds.
+     * @param latencyMax Maximum latency in milliseconds.
+     */
+    public void setLatencyMax(long latencyMax) {
+        this.latencyMax = latencyMax;
+    }
+}
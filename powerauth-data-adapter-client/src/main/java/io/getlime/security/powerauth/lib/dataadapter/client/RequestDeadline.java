@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.dataadapter.client;
+
+/**
+ * Deadline of the request which is currently processed by the calling thread. The deadline is started when
+ * an incoming request is received and all Data Adapter calls made while processing this request share it.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * Start a new deadline for the current thread.
+     * @param budgetMs Time budget for the request in milliseconds.
+     */
+    public static void start(long budgetMs) {
+        DEADLINE.set(System.currentTimeMillis() + budgetMs);
+    }
+
+    /**
+     * Clear the deadline for the current thread.
+     */
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    /**
+     * Get the deadline of the current thread.
+     * @return Deadline as a timestamp in milliseconds or null when no deadline is set.
+     */
+    public static Long get() {
+        return DEADLINE.get();
+    }
+
+    /**
+     * Get remaining time until the deadline of the current thread expires.
+     * @return Remaining time in milliseconds, negative value when the deadline already expired or null when no
+     * deadline is set.
+     */
+    public static Long remainingMs() {
+        Long deadline = DEADLINE.get();
+        if (deadline == null) {
+            return null;
+        }
+        return deadline - System.currentTimeMillis();
+    }
+
+}
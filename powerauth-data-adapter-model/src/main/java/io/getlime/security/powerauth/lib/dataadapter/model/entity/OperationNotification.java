@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.dataadapter.model.entity;
+
+/**
+ * Notification about an operation change or an operation form data change delivered to the Data Adapter
+ * in a notification batch. Exactly one of the operation change and the form data change is set.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class OperationNotification {
+
+    private Long notificationId;
+    private String userId;
+    private String organizationId;
+    private OperationContext operationContext;
+    private OperationChange operationChange;
+    private FormDataChange formDataChange;
+
+    /**
+     * Default constructor.
+     */
+    public OperationNotification() {
+    }
+
+    /**
+     * Get notification ID.
+     * @return Notification ID.
+     */
+    public Long getNotificationId() {
+        return notificationId;
+    }
+
+    /**
+     * Set notification ID.
+     * @param notificationId Notification ID.
+     */
+    public void setNotificationId(Long notificationId) {
+        this.notificationId = notificationId;
+    }
+
+    /**
+     * Get user ID.
+     * @return User ID.
+     */
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * Set user ID.
+     * @param userId User ID.
+     */
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Get organization ID.
+     * @return Organization ID.
+     */
+    public String getOrganizationId() {
+        return organizationId;
+    }
+
+    /**
+     * Set organization ID.
+     * @param organizationId Organization ID.
+     */
+    public void setOrganizationId(String organizationId) {
+        this.organizationId = organizationId;
+    }
+
+    /**
+     * Get operation context.
+     * @return Operation context.
+     */
+    public OperationContext getOperationContext() {
+        return operationContext;
+    }
+
+    /**
+     * Set operation context.
+     * @param operationContext Operation context.
+     */
+    public void setOperationContext(OperationContext operationContext) {
+        this.operationContext = operationContext;
+    }
+
+    /**
+     * Get operation change, null in case of a form data change notification.
+     * @return Operation change.
+     */
+    public OperationChange getOperationChange() {
+        return operationChange;
+    }
+
+    /**
+     * Set operation change.
+     * @param operationChange Operation change.
+     */
+    public void setOperationChange(OperationChange operationChange) {
+        this.operationChange = operationChange;
+    }
+
+    /**
+     * Get form data change, null in case of an operation change notification.
+     * @return Form data change.
+     */
+    public FormDataChange getFormDataChange() {
+        return formDataChange;
+    }
+
+    /**
+     * Set form data change.
+     * @param formDataChange Form data change.
+     */
+    public void setFormDataChange(FormDataChange formDataChange) {
+        this.formDataChange = formDataChange;
+    }
+}
@@ -15,13 +15,17 @@
  */
 package io.getlime.security.powerauth.lib.dataadapter.model.response;
 
+import java.io.Serializable;
+
 /**
  * Configuration of authentication options available for the user. The class can currently configure SMS authentication
  * with optional password. In future an extension of this class with Mobile Token configuration is planned.
  *
  * @author Roman Strobl, roman.strobl@wultra.com
  */
-public class AuthStepOptions {
+public class AuthStepOptions implements Serializable {
+
+    private static final long serialVersionUID = -2946186452137815296L;
 
     // By default require 2FA for SMS authentication method
     private boolean smsOtpRequired = true;
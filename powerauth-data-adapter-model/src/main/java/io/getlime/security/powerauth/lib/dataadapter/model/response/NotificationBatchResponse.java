@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.dataadapter.model.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response with IDs of notifications from a notification batch which were processed by the Data Adapter.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class NotificationBatchResponse {
+
+    private List<Long> processedNotificationIds;
+
+    /**
+     * Default constructor.
+     */
+    public NotificationBatchResponse() {
+        this.processedNotificationIds = new ArrayList<>();
+    }
+
+    /**
+     * Constructor with IDs of processed notifications.
+     * @param processedNotificationIds IDs of processed notifications.
+     */
+    public NotificationBatchResponse(List<Long> processedNotificationIds) {
+        this.processedNotificationIds = processedNotificationIds;
+    }
+
+    /**
+     * Get IDs of processed notifications.
+     * @return IDs of processed notifications.
+     */
+    public List<Long> getProcessedNotificationIds() {
+        return processedNotificationIds;
+    }
+
+    /**
+     * Set IDs of processed notifications.
+     * @param processedNotificationIds IDs of processed notifications.
+     */
+    public void setProcessedNotificationIds(List<Long> processedNotificationIds) {
+        this.processedNotificationIds = processedNotificationIds;
+    }
+}
@@ -16,10 +16,13 @@
 
 package io.getlime.security.powerauth.lib.nextstep.client;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import io.getlime.core.rest.model.base.entity.Error;
 import io.getlime.core.rest.model.base.request.ObjectRequest;
 import io.getlime.core.rest.model.base.response.ErrorResponse;
@@ -32,6 +35,7 @@ import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthInstrume
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.UserAccountStatus;
 import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthMethod;
 import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthStepResult;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.OperationCancelReason;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.*;
 import io.getlime.security.powerauth.lib.nextstep.model.request.*;
 import io.getlime.security.powerauth.lib.nextstep.model.response.*;
@@ -39,10 +43,13 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
@@ -62,6 +69,7 @@ public class NextStepClient {
 
     private final String serviceUrl;
     private final ObjectMapper objectMapper;
+    private final ObjectMapper binaryObjectMapper;
     private final RestTemplate restTemplate;
 
     /**
@@ -79,29 +87,55 @@ public class NextStepClient {
      * @param objectMapper Object mapper.
      */
     public NextStepClient(String serviceUrl, ObjectMapper objectMapper) {
+        this(serviceUrl, objectMapper, NextStepWireFormat.JSON);
+    }
+
+    /**
+     * Create a new client with provided base URL, custom object mapper and preferred wire format. JSON format
+     * is always accepted as a fallback, so that the client works with Next Step servers without binary format support.
+     * @param serviceUrl Base URL.
+     * @param objectMapper Object mapper used for JSON format.
+     * @param wireFormat Preferred wire format.
+     */
+    public NextStepClient(String serviceUrl, ObjectMapper objectMapper, NextStepWireFormat wireFormat) {
         this.serviceUrl = serviceUrl;
         if (objectMapper != null) {
             this.objectMapper = objectMapper;
         } else {
-            this.objectMapper = objectMapper();
+            this.objectMapper = objectMapper(new JsonFactory());
         }
         restTemplate = new RestTemplate();
 
-        // Prepare message converters
-        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter(this.objectMapper);
+        // Prepare message converters, the first converter is used for request bodies and preferred in responses
         List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        switch (wireFormat) {
+            case SMILE:
+                this.binaryObjectMapper = objectMapper(new SmileFactory());
+                converters.add(new MappingJackson2SmileHttpMessageConverter(binaryObjectMapper));
+                break;
+            case CBOR:
+                this.binaryObjectMapper = objectMapper(new CBORFactory());
+                converters.add(new MappingJackson2CborHttpMessageConverter(binaryObjectMapper));
+                break;
+            default:
+                this.binaryObjectMapper = null;
+                break;
+        }
+        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter(this.objectMapper);
         converters.add(converter);
         restTemplate.setMessageConverters(converters);
 
+        // HTTP client accepts compressed responses by default
         restTemplate.setRequestFactory(new HttpComponentsClientHttpRequestFactory());
     }
 
     /**
      * Construct object mapper with default configuration which allows sending empty objects and allows unknown properties.
+     * @param jsonFactory Factory for the wire format.
      * @return Constructed object mapper.
      */
-    private ObjectMapper objectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
+    private ObjectMapper objectMapper(JsonFactory jsonFactory) {
+        ObjectMapper mapper = new ObjectMapper(jsonFactory);
         mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
         mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         return mapper;
@@ -511,6 +545,33 @@ public class NextStepClient {
         }
     }
 
+    /**
+     * Cancel multiple operations using a single request. Operations which are no longer active are skipped.
+     *
+     * @param operationIds IDs of operations to cancel.
+     * @param authMethod Authentication method which triggered the cancellation.
+     * @param cancelReason Reason for canceling the operations.
+     * @return A Response with {@link CancelOperationsResponse} object containing details of canceled operations.
+     * @throws NextStepServiceException Thrown when communication with Next Step server fails, including {@link Error} with ERROR code.
+     */
+    public ObjectResponse<CancelOperationsResponse> cancelOperations(List<String> operationIds, AuthMethod authMethod, OperationCancelReason cancelReason) throws NextStepServiceException {
+        try {
+            // Exchange next step request with NextStep server.
+            CancelOperationsRequest request = new CancelOperationsRequest();
+            request.setOperationIds(operationIds);
+            request.setAuthMethod(authMethod);
+            request.setCancelReason(cancelReason);
+            HttpEntity<ObjectRequest<CancelOperationsRequest>> entity = new HttpEntity<>(new ObjectRequest<>(request));
+            ResponseEntity<ObjectResponse<CancelOperationsResponse>> response = restTemplate.exchange(serviceUrl + "/operation/cancel", HttpMethod.POST, entity, new ParameterizedTypeReference<ObjectResponse<CancelOperationsResponse>>() {
+            });
+            return new ObjectResponse<>(response.getBody().getResponseObject());
+        } catch (HttpStatusCodeException ex) {
+            throw handleHttpError(ex);
+        } catch (ResourceAccessException ex) {
+            throw handleResourceAccessError(ex);
+        }
+    }
+
     /**
      * Calls the operation details endpoint via POST method to get operation details.
      *
@@ -637,11 +698,25 @@ public class NextStepClient {
      * @throws NextStepServiceException Thrown when communication with Next Step server fails, including {@link Error} with ERROR code.
      */
     public ObjectResponse<List<GetOperationDetailResponse>> getPendingOperations(String userId, boolean mobileTokenOnly) throws NextStepServiceException {
+        return getPendingOperations(userId, mobileTokenOnly, false);
+    }
+
+    /**
+     * Get list of pending operations for given user and authentication method. When summary is requested, the operations
+     * contain only the current operation history entry and they do not contain AFS actions and application context.
+     * @param userId User ID.
+     * @param mobileTokenOnly Whether pending operation list should be filtered for only next step with mobile token support.
+     * @param summaryOnly Whether only operation summary should be returned.
+     * @return A Response with list of {@link GetOperationDetailResponse} for OK status.
+     * @throws NextStepServiceException Thrown when communication with Next Step server fails, including {@link Error} with ERROR code.
+     */
+    public ObjectResponse<List<GetOperationDetailResponse>> getPendingOperations(String userId, boolean mobileTokenOnly, boolean summaryOnly) throws NextStepServiceException {
         try {
             // Exchange next step request with NextStep server.
             GetPendingOperationsRequest request = new GetPendingOperationsRequest();
             request.setUserId(userId);
             request.setMobileTokenOnly(mobileTokenOnly);
+            request.setSummaryOnly(summaryOnly);
             HttpEntity<ObjectRequest<GetPendingOperationsRequest>> entity = new HttpEntity<>(new ObjectRequest<>(request));
             ResponseEntity<ObjectResponse<List<GetOperationDetailResponse>>> response = restTemplate.exchange(serviceUrl + "/user/operation/list", HttpMethod.POST, entity, new ParameterizedTypeReference<ObjectResponse<List<GetOperationDetailResponse>>>() {
             });
@@ -809,6 +884,27 @@ public class NextStepClient {
         }
     }
 
+    /**
+     * Create multiple AFS actions at once.
+     * @param afsActions Requests for creating AFS actions.
+     * @return Response.
+     * @throws NextStepServiceException In case communication with Next Step fails.
+     */
+    public Response createAfsActions(List<CreateAfsActionRequest> afsActions) throws NextStepServiceException {
+        try {
+            CreateAfsActionsRequest request = new CreateAfsActionsRequest();
+            request.setAfsActions(afsActions);
+            HttpEntity<ObjectRequest<CreateAfsActionsRequest>> entity = new HttpEntity<>(new ObjectRequest<>(request));
+            // Exchange next step request with NextStep server.
+            ResponseEntity<Response> response = restTemplate.exchange(serviceUrl + "/operation/afs/action/create/batch", HttpMethod.POST, entity, Response.class);
+            return response.getBody();
+        } catch (HttpStatusCodeException ex) {
+            throw handleHttpError(ex);
+        } catch (ResourceAccessException ex) {
+            throw handleResourceAccessError(ex);
+        }
+    }
+
     /**
      * Handle resource access error (i.e. server not available).
      * @param ex Exception to handle.
@@ -826,7 +922,7 @@ public class NextStepClient {
     private NextStepServiceException handleHttpError(HttpStatusCodeException ex) {
         try {
             TypeReference<ErrorResponse> typeReference = new TypeReference<ErrorResponse>() {};
-            ErrorResponse errorResponse = objectMapper.readValue(ex.getResponseBodyAsString(), typeReference);
+            ErrorResponse errorResponse = errorObjectMapper(ex).readValue(ex.getResponseBodyAsByteArray(), typeReference);
             Error error = errorResponse.getResponseObject();
             switch (error.getCode()) {
                 case OperationAlreadyFinishedException.CODE:
@@ -860,4 +956,19 @@ public class NextStepClient {
         }
     }
 
+    /**
+     * Resolve object mapper for parsing of an error response based on its content type.
+     * @param ex Exception with error response.
+     * @return Object mapper for the error response.
+     */
+    private ObjectMapper errorObjectMapper(HttpStatusCodeException ex) {
+        if (binaryObjectMapper != null && ex.getResponseHeaders() != null) {
+            MediaType contentType = ex.getResponseHeaders().getContentType();
+            if (contentType != null && !contentType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return binaryObjectMapper;
+            }
+        }
+        return objectMapper;
+    }
+
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.nextstep.client;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Wire format used for requests and responses exchanged with the Next Step server.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public enum NextStepWireFormat {
+
+    /**
+     * JSON format, used by default.
+     */
+    JSON(MediaType.APPLICATION_JSON),
+
+    /**
+     * Binary Smile format.
+     */
+    SMILE(new MediaType("application", "x-jackson-smile")),
+
+    /**
+     * Binary CBOR format.
+     */
+    CBOR(MediaType.APPLICATION_CBOR);
+
+    private final MediaType mediaType;
+
+    NextStepWireFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Get media type of the wire format.
+     * @return Media type.
+     */
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.nextstep.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.getlime.core.rest.model.base.response.ObjectResponse;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.InvalidOperationDataException;
+import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationDetailResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Benchmark comparing size and (de)serialization time of operation details in wire formats supported
+ * by the Next Step client. The benchmark is run only using the benchmark profile.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class NextStepWireFormatBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 2000;
+    private static final int MEASURED_ITERATIONS = 5000;
+
+    private ObjectResponse<List<GetOperationDetailResponse>> response;
+
+    @BeforeEach
+    void setUp() throws InvalidOperationDataException {
+        response = NextStepWireFormatTest.operationList();
+    }
+
+    @Test
+    void benchmarkWireFormats() throws Exception {
+        benchmark("JSON", new JsonFactory());
+        benchmark("SMILE", new SmileFactory());
+        benchmark("CBOR", new CBORFactory());
+    }
+
+    private void benchmark(String name, JsonFactory jsonFactory) throws Exception {
+        ObjectMapper mapper = NextStepWireFormatTest.objectMapper(jsonFactory);
+        byte[] data = mapper.writeValueAsBytes(response);
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(response), NextStepWireFormatTest.TYPE_REFERENCE);
+        }
+        long serializationStart = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            mapper.writeValueAsBytes(response);
+        }
+        long serializationTime = System.nanoTime() - serializationStart;
+        long deserializationStart = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            mapper.readValue(data, NextStepWireFormatTest.TYPE_REFERENCE);
+        }
+        long deserializationTime = System.nanoTime() - deserializationStart;
+        System.out.printf("%-5s size: %6d B, serialization: %6d ns/op, deserialization: %6d ns/op%n", name, data.length,
+                serializationTime / MEASURED_ITERATIONS, deserializationTime / MEASURED_ITERATIONS);
+    }
+
+}
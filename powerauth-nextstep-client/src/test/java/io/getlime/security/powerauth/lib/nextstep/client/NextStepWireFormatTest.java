@@ -0,0 +1,149 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.nextstep.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.getlime.core.rest.model.base.response.ObjectResponse;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.BankAccountDetail;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.OperationFormData;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.OperationHistory;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.PartyInfo;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthMethod;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthResult;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthStepResult;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.InvalidOperationDataException;
+import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationDetailResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of operation details exchanged with the Next Step server in supported wire formats.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class NextStepWireFormatTest {
+
+    static final TypeReference<ObjectResponse<List<GetOperationDetailResponse>>> TYPE_REFERENCE = new TypeReference<ObjectResponse<List<GetOperationDetailResponse>>>() {};
+
+    @Test
+    void testRoundTrip() throws Exception {
+        ObjectResponse<List<GetOperationDetailResponse>> response = operationList();
+        for (JsonFactory jsonFactory: new JsonFactory[]{new JsonFactory(), new SmileFactory(), new CBORFactory()}) {
+            ObjectMapper mapper = objectMapper(jsonFactory);
+            ObjectResponse<List<GetOperationDetailResponse>> parsed = mapper.readValue(mapper.writeValueAsBytes(response), TYPE_REFERENCE);
+            assertEquals(response.getResponseObject().size(), parsed.getResponseObject().size());
+            GetOperationDetailResponse expected = response.getResponseObject().get(0);
+            GetOperationDetailResponse actual = parsed.getResponseObject().get(0);
+            assertEquals(expected.getOperationId(), actual.getOperationId());
+            assertEquals(expected.getOperationData(), actual.getOperationData());
+            assertEquals(expected.getTimestampCreated(), actual.getTimestampCreated());
+            assertEquals(expected.getChosenAuthMethod(), actual.getChosenAuthMethod());
+            assertEquals(expected.getFormData().getParameters().size(), actual.getFormData().getParameters().size());
+            assertEquals(expected.getHistory().size(), actual.getHistory().size());
+            assertEquals(expected.getHistory().get(3).getAuthMethod(), actual.getHistory().get(3).getAuthMethod());
+        }
+    }
+
+    @Test
+    void testBinaryFormatsAreSmaller() throws IOException, InvalidOperationDataException {
+        ObjectResponse<List<GetOperationDetailResponse>> response = operationList();
+        int jsonSize = objectMapper(new JsonFactory()).writeValueAsBytes(response).length;
+        assertTrue(objectMapper(new SmileFactory()).writeValueAsBytes(response).length < jsonSize);
+        assertTrue(objectMapper(new CBORFactory()).writeValueAsBytes(response).length < jsonSize);
+    }
+
+    static ObjectMapper objectMapper(JsonFactory jsonFactory) {
+        ObjectMapper mapper = new ObjectMapper(jsonFactory);
+        mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return mapper;
+    }
+
+    static ObjectResponse<List<GetOperationDetailResponse>> operationList() throws InvalidOperationDataException {
+        List<GetOperationDetailResponse> operations = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            operations.add(operationDetail("operation-" + i));
+        }
+        return new ObjectResponse<>(operations);
+    }
+
+    private static GetOperationDetailResponse operationDetail(String operationId) throws InvalidOperationDataException {
+        GetOperationDetailResponse detail = new GetOperationDetailResponse();
+        detail.setOperationId(operationId);
+        detail.setOperationName("authorize_payment");
+        detail.setUserId("12345678");
+        detail.setOrganizationId("RETAIL");
+        detail.setOperationData("A1*A100CZK*Q238400856/0300**D20170629*NUtility Bill Payment - 05/2017");
+        detail.setTimestampCreated(new Date());
+        detail.setTimestampExpires(new Date());
+        detail.setChosenAuthMethod(AuthMethod.POWERAUTH_TOKEN);
+        detail.setRemainingAttempts(3);
+
+        OperationFormData formData = new OperationFormData();
+        formData.addTitle("operation.title");
+        formData.addGreeting("operation.greeting");
+        formData.addSummary("operation.summary");
+        formData.addAmount("operation.amount", new BigDecimal("100"), "operation.currency", "CZK");
+        formData.addKeyValue("operation.account", "238400856/0300");
+        formData.addKeyValue("operation.dueDate", "2017-06-29");
+        formData.addNote("operation.note", "Utility Bill Payment - 05/2017");
+        formData.addHeading("operation.heading", "Payment details");
+        PartyInfo partyInfo = new PartyInfo();
+        partyInfo.setName("Tesco");
+        partyInfo.setDescription("Find out more about Tesco...");
+        partyInfo.setWebsiteUrl("https://www.tesco.com");
+        formData.addPartyInfo("operation.partyInfo", partyInfo);
+        List<BankAccountDetail> bankAccounts = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            BankAccountDetail bankAccount = new BankAccountDetail();
+            bankAccount.setName("Běžný účet v CZK");
+            bankAccount.setNumber("12345678" + i + "/1234");
+            bankAccount.setAccountId("CZ40123400000000123456780" + i);
+            bankAccount.setBalance(new BigDecimal("24394.52"));
+            bankAccount.setCurrency("CZK");
+            bankAccount.setUsableForPayment(true);
+            bankAccounts.add(bankAccount);
+        }
+        formData.addBankAccountChoice("operation.bankAccountChoice", bankAccounts, true, null);
+        formData.addUserInput("operation.bankAccountChoice", "CZ401234000000001234567800");
+        detail.setFormData(formData);
+
+        for (AuthMethod authMethod: new AuthMethod[]{AuthMethod.INIT, AuthMethod.USER_ID_ASSIGN, AuthMethod.USERNAME_PASSWORD_AUTH, AuthMethod.POWERAUTH_TOKEN}) {
+            OperationHistory history = new OperationHistory();
+            history.setAuthMethod(authMethod);
+            history.setRequestAuthStepResult(AuthStepResult.CONFIRMED);
+            history.setAuthResult(AuthResult.CONTINUE);
+            detail.getHistory().add(history);
+        }
+        return detail;
+    }
+
+}
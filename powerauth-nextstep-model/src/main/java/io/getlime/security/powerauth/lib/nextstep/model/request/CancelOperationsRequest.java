@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.getlime.security.powerauth.lib.nextstep.model.request;
+
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthMethod;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.OperationCancelReason;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request object used for canceling multiple operations at once.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class CancelOperationsRequest {
+
+    private List<String> operationIds = new ArrayList<>();
+    private AuthMethod authMethod;
+    private OperationCancelReason cancelReason;
+
+    /**
+     * Get IDs of operations to cancel.
+     * @return Operation IDs.
+     */
+    public List<String> getOperationIds() {
+        return operationIds;
+    }
+
+    /**
+     * Set IDs of operations to cancel.
+     * @param operationIds Operation IDs.
+     */
+    public void setOperationIds(List<String> operationIds) {
+        this.operationIds = operationIds;
+    }
+
+    /**
+     * Get authentication method which triggered the cancellation.
+     * @return Authentication method.
+     */
+    public AuthMethod getAuthMethod() {
+        return authMethod;
+    }
+
+    /**
+     * Set authentication method which triggered the cancellation.
+     * @param authMethod Authentication method.
+     */
+    public void setAuthMethod(AuthMethod authMethod) {
+        this.authMethod = authMethod;
+    }
+
+    /**
+     * Get reason for canceling the operations.
+     * @return Reason for canceling the operations.
+     */
+    public OperationCancelReason getCancelReason() {
+        return cancelReason;
+    }
+
+    /**
+     * Set reason for canceling the operations.
+     * @param cancelReason Reason for canceling the operations.
+     */
+    public void setCancelReason(OperationCancelReason cancelReason) {
+        this.cancelReason = cancelReason;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.getlime.security.powerauth.lib.nextstep.model.request;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request object used for creating multiple AFS actions at once.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class CreateAfsActionsRequest {
+
+    private List<CreateAfsActionRequest> afsActions = new ArrayList<>();
+
+    /**
+     * Get AFS actions to create.
+     * @return AFS actions.
+     */
+    public List<CreateAfsActionRequest> getAfsActions() {
+        return afsActions;
+    }
+
+    /**
+     * Set AFS actions to create.
+     * @param afsActions AFS actions.
+     */
+    public void setAfsActions(List<CreateAfsActionRequest> afsActions) {
+        this.afsActions = afsActions;
+    }
+}
@@ -24,6 +24,7 @@ public class GetPendingOperationsRequest {
 
     private String userId;
     private boolean mobileTokenOnly;
+    private boolean summaryOnly;
 
     /**
      * Get the user id.
@@ -58,4 +59,22 @@ public class GetPendingOperationsRequest {
     public void setMobileTokenOnly(boolean mobileTokenOnly) {
         this.mobileTokenOnly = mobileTokenOnly;
     }
+
+    /**
+     * Get whether only operation summary should be returned. The summary contains the current operation history
+     * entry only and it does not contain AFS actions and application context.
+     * @return Whether only operation summary should be returned.
+     */
+    public boolean isSummaryOnly() {
+        return summaryOnly;
+    }
+
+    /**
+     * Set whether only operation summary should be returned. The summary contains the current operation history
+     * entry only and it does not contain AFS actions and application context.
+     * @param summaryOnly Whether only operation summary should be returned.
+     */
+    public void setSummaryOnly(boolean summaryOnly) {
+        this.summaryOnly = summaryOnly;
+    }
 }
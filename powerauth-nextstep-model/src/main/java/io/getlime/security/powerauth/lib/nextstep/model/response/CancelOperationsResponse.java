@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.getlime.security.powerauth.lib.nextstep.model.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response object used for canceling multiple operations at once. The response contains details of operations
+ * which were canceled, operations which were not active are skipped.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class CancelOperationsResponse {
+
+    private List<GetOperationDetailResponse> operations = new ArrayList<>();
+
+    /**
+     * Get canceled operations.
+     * @return Canceled operations.
+     */
+    public List<GetOperationDetailResponse> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Set canceled operations.
+     * @param operations Canceled operations.
+     */
+    public void setOperations(List<GetOperationDetailResponse> operations) {
+        this.operations = operations;
+    }
+
+    /**
+     * Add a canceled operation.
+     * @param operation Canceled operation.
+     */
+    public void addOperation(GetOperationDetailResponse operation) {
+        operations.add(operation);
+    }
+
+}
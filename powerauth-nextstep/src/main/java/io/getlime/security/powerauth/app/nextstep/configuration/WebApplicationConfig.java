@@ -15,13 +15,18 @@
  */
 package io.getlime.security.powerauth.app.nextstep.configuration;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.joda.JodaModule;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.http.converter.json.Jackson2ObjectMapperFactoryBean;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.util.List;
@@ -38,11 +43,16 @@ public class WebApplicationConfig implements WebMvcConfigurer {
      * Custom object mapper to make sure that dates and other values serialize
      * correctly.
      *
+     * @param jsonFactory Factory for the wire format, JSON factory is used when null.
      * @return A new object mapper.
      */
-    private ObjectMapper objectMapper() {
+    private ObjectMapper objectMapper(JsonFactory jsonFactory) {
         Jackson2ObjectMapperFactoryBean bean = new Jackson2ObjectMapperFactoryBean();
-        bean.setIndentOutput(true);
+        if (jsonFactory == null) {
+            bean.setIndentOutput(true);
+        } else {
+            bean.setFactory(jsonFactory);
+        }
         bean.afterPropertiesSet();
         ObjectMapper objectMapper = bean.getObject();
         objectMapper.registerModule(new JodaModule());
@@ -58,16 +68,37 @@ public class WebApplicationConfig implements WebMvcConfigurer {
      */
     private MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter() {
         MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
-        converter.setObjectMapper(objectMapper());
+        converter.setObjectMapper(objectMapper(null));
         return converter;
     }
 
     /**
-     * Register the JSON converters.
+     * Set custom Smile converter for clients which prefer binary Smile format.
+     *
+     * @return New custom converter with a correct object mapper.
+     */
+    private MappingJackson2SmileHttpMessageConverter mappingJackson2SmileHttpMessageConverter() {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper(new SmileFactory()));
+    }
+
+    /**
+     * Set custom CBOR converter for clients which prefer binary CBOR format.
+     *
+     * @return New custom converter with a correct object mapper.
+     */
+    private MappingJackson2CborHttpMessageConverter mappingJackson2CborHttpMessageConverter() {
+        return new MappingJackson2CborHttpMessageConverter(objectMapper(new CBORFactory()));
+    }
+
+    /**
+     * Register the message converters. JSON converter is registered first, so that JSON format is used by default,
+     * binary formats are used only when requested by the client.
      */
     @Override
     public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
         converters.add(mappingJackson2HttpMessageConverter());
+        converters.add(mappingJackson2SmileHttpMessageConverter());
+        converters.add(mappingJackson2CborHttpMessageConverter());
     }
 
 }
@@ -22,6 +22,7 @@ import io.getlime.core.rest.model.base.response.Response;
 import io.getlime.security.powerauth.app.nextstep.converter.OperationConverter;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationEntity;
 import io.getlime.security.powerauth.app.nextstep.service.MobileTokenConfigurationService;
+import io.getlime.security.powerauth.app.nextstep.service.OperationCancellationService;
 import io.getlime.security.powerauth.app.nextstep.service.OperationConfigurationService;
 import io.getlime.security.powerauth.app.nextstep.service.OperationPersistenceService;
 import io.getlime.security.powerauth.app.nextstep.service.StepResolutionService;
@@ -60,6 +61,7 @@ public class OperationController {
     private final OperationConfigurationService operationConfigurationService;
     private final StepResolutionService stepResolutionService;
     private final MobileTokenConfigurationService mobileTokenConfigurationService;
+    private final OperationCancellationService operationCancellationService;
     private final OperationConverter operationConverter = new OperationConverter();
 
     /**
@@ -68,14 +70,17 @@ public class OperationController {
      * @param operationConfigurationService Operation configuration service.
      * @param stepResolutionService Step resolution service.
      * @param mobileTokenConfigurationService Mobile token configuration service.
+     * @param operationCancellationService Operation cancellation service.
      */
     @Autowired
     public OperationController(OperationPersistenceService operationPersistenceService, OperationConfigurationService operationConfigurationService,
-                               StepResolutionService stepResolutionService, MobileTokenConfigurationService mobileTokenConfigurationService) {
+                               StepResolutionService stepResolutionService, MobileTokenConfigurationService mobileTokenConfigurationService,
+                               OperationCancellationService operationCancellationService) {
         this.operationPersistenceService = operationPersistenceService;
         this.operationConfigurationService = operationConfigurationService;
         this.stepResolutionService = stepResolutionService;
         this.mobileTokenConfigurationService = mobileTokenConfigurationService;
+        this.operationCancellationService = operationCancellationService;
     }
 
     /**
@@ -140,6 +145,23 @@ public class OperationController {
         return new ObjectResponse<>(response);
     }
 
+    /**
+     * Cancel multiple operations at once. Operations which are no longer active are skipped.
+     *
+     * @param request Cancel operations request.
+     * @return Cancel operations response with details of canceled operations.
+     * @throws NextStepServiceException Thrown when next step resolution fails.
+     */
+    @RequestMapping(value = "/operation/cancel", method = RequestMethod.POST)
+    public @ResponseBody ObjectResponse<CancelOperationsResponse> cancelOperations(@RequestBody ObjectRequest<CancelOperationsRequest> request) throws NextStepServiceException {
+        CancelOperationsRequest requestObject = request.getRequestObject();
+        logger.info("Received cancelOperations request, operation count: {}, cancel reason: {}", requestObject.getOperationIds().size(), requestObject.getCancelReason());
+
+        CancelOperationsResponse response = operationCancellationService.cancelOperations(requestObject);
+        logger.info("The cancelOperations request succeeded, canceled operation count: {}", response.getOperations().size());
+        return new ObjectResponse<>(response);
+    }
+
     /**
      * Assign user ID and organization ID to and operation.
      *
@@ -266,7 +288,12 @@ public class OperationController {
             throw new IllegalArgumentException("Invalid query for pending operations, user ID: " + requestObject.getUserId());
         }
         for (OperationEntity operation : operations) {
-            GetOperationDetailResponse response = operationConverter.fromEntity(operation);
+            GetOperationDetailResponse response;
+            if (requestObject.isSummaryOnly()) {
+                response = operationConverter.fromEntitySummary(operation);
+            } else {
+                response = operationConverter.fromEntity(operation);
+            }
             responseList.add(response);
         }
 
@@ -442,6 +469,22 @@ public class OperationController {
 
     }
 
+    /**
+     * Create multiple AFS actions at once.
+     *
+     * @param request Create AFS actions request.
+     * @return Response.
+     */
+    @RequestMapping(value = "/operation/afs/action/create/batch", method = RequestMethod.POST)
+    public @ResponseBody Response createAfsActions(@RequestBody ObjectRequest<CreateAfsActionsRequest> request) {
+        CreateAfsActionsRequest afsRequest = request.getRequestObject();
+        logger.info("Received createAfsActions request, AFS action count: {}", afsRequest.getAfsActions().size());
+        // persist AFS actions for operations
+        operationPersistenceService.createAfsActions(afsRequest.getAfsActions());
+        logger.debug("The createAfsActions request succeeded");
+        return new Response();
+    }
+
     private Response updateApplicationContextImpl(ObjectRequest<UpdateApplicationContextRequest> request) throws OperationNotFoundException {
         logger.info("Received updateApplicationContext request, operation ID: {}", request.getRequestObject().getOperationId());
         // persist application context update
@@ -70,6 +70,35 @@ public class OperationConverter {
         return operationDetail;
     }
 
+    /**
+     * Convert operation entity into operation summary. The summary contains only the current operation history
+     * entry and it does not contain AFS actions and application context.
+     * @param operation Operation entity.
+     * @return Operation detail with operation summary.
+     */
+    public GetOperationDetailResponse fromEntitySummary(OperationEntity operation) {
+        GetOperationDetailResponse operationDetail = new GetOperationDetailResponse();
+        operationDetail.setOperationId(operation.getOperationId());
+        operationDetail.setOperationName(operation.getOperationName());
+        operationDetail.setUserId(operation.getUserId());
+        operationDetail.setOrganizationId(operation.getOrganizationId());
+        operationDetail.setAccountStatus(operation.getUserAccountStatus());
+        operationDetail.setExternalTransactionId(operation.getExternalTransactionId());
+        operationDetail.setOperationData(operation.getOperationData());
+        if (operation.getResult() != null) {
+            operationDetail.setResult(operation.getResult());
+        }
+        assignFormData(operationDetail, operation);
+        OperationHistoryEntity currentHistory = operation.getCurrentOperationHistoryEntity();
+        if (currentHistory != null) {
+            operationDetail.getHistory().add(convertOperationHistory(currentHistory));
+            operationDetail.setChosenAuthMethod(currentHistory.getChosenAuthMethod());
+        }
+        operationDetail.setTimestampCreated(operation.getTimestampCreated());
+        operationDetail.setTimestampExpires(operation.getTimestampExpires());
+        return operationDetail;
+    }
+
     /**
      * In case operation entity has serialized form data, attempt to deserialize the
      * object and assign it to the response with operation detail.
@@ -130,11 +159,7 @@ public class OperationConverter {
     private void assignOperationHistory(GetOperationDetailResponse response, OperationEntity operation) {
         // add operation history
         for (OperationHistoryEntity history: operation.getOperationHistory()) {
-            OperationHistory h = new OperationHistory();
-            h.setAuthMethod(history.getRequestAuthMethod());
-            h.setRequestAuthStepResult(history.getRequestAuthStepResult());
-            h.setAuthResult(history.getResponseResult());
-            response.getHistory().add(h);
+            response.getHistory().add(convertOperationHistory(history));
         }
         // set chosen authentication method
         OperationHistoryEntity currentHistory = operation.getCurrentOperationHistoryEntity();
@@ -143,6 +168,19 @@ public class OperationConverter {
         }
     }
 
+    /**
+     * Convert operation history entity to operation history.
+     * @param history Operation history entity.
+     * @return Operation history.
+     */
+    private OperationHistory convertOperationHistory(OperationHistoryEntity history) {
+        OperationHistory h = new OperationHistory();
+        h.setAuthMethod(history.getRequestAuthMethod());
+        h.setRequestAuthStepResult(history.getRequestAuthStepResult());
+        h.setAuthResult(history.getResponseResult());
+        return h;
+    }
+
     /**
      * Assign AFS actions to operation.
      * @param response Response to be enriched by AFS actions.
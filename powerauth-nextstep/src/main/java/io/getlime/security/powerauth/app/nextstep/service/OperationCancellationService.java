@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.converter.OperationConverter;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationEntity;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthResult;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthStepResult;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.NextStepServiceException;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.OperationNotFoundException;
+import io.getlime.security.powerauth.lib.nextstep.model.request.CancelOperationsRequest;
+import io.getlime.security.powerauth.lib.nextstep.model.request.UpdateOperationRequest;
+import io.getlime.security.powerauth.lib.nextstep.model.response.CancelOperationsResponse;
+import io.getlime.security.powerauth.lib.nextstep.model.response.UpdateOperationResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for canceling multiple operations at once.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+public class OperationCancellationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperationCancellationService.class);
+
+    private final OperationPersistenceService operationPersistenceService;
+    private final StepResolutionService stepResolutionService;
+    private final OperationConverter operationConverter = new OperationConverter();
+
+    /**
+     * Service constructor.
+     * @param operationPersistenceService Operation persistence service.
+     * @param stepResolutionService Step resolution service.
+     */
+    @Autowired
+    public OperationCancellationService(OperationPersistenceService operationPersistenceService, StepResolutionService stepResolutionService) {
+        this.operationPersistenceService = operationPersistenceService;
+        this.stepResolutionService = stepResolutionService;
+    }
+
+    /**
+     * Cancel multiple operations in a single transaction. Operations which are no longer active are skipped.
+     * Each operation is loaded once, the step resolution and the operation update use the operation from
+     * the persistence context of the transaction.
+     *
+     * @param request Cancel operations request.
+     * @return Cancel operations response with details of canceled operations.
+     * @throws NextStepServiceException Thrown when next step resolution fails, no operation is canceled in this case.
+     */
+    @Transactional(rollbackFor = NextStepServiceException.class)
+    public CancelOperationsResponse cancelOperations(CancelOperationsRequest request) throws NextStepServiceException {
+        CancelOperationsResponse response = new CancelOperationsResponse();
+        for (String operationId: request.getOperationIds()) {
+            OperationEntity operation;
+            try {
+                operation = operationPersistenceService.getOperation(operationId);
+            } catch (OperationNotFoundException ex) {
+                logger.warn("Operation not found during cancellation, operation ID: {}", operationId);
+                continue;
+            }
+            if (operation.getResult() != AuthResult.CONTINUE) {
+                // Cancel operation only in case it is still active
+                continue;
+            }
+            UpdateOperationRequest updateRequest = new UpdateOperationRequest();
+            updateRequest.setOperationId(operationId);
+            updateRequest.setUserId(operation.getUserId());
+            updateRequest.setOrganizationId(operation.getOrganizationId());
+            updateRequest.setAuthMethod(request.getAuthMethod());
+            updateRequest.setAuthStepResult(AuthStepResult.CANCELED);
+            updateRequest.setAuthStepResultDescription(request.getCancelReason() == null ? null : request.getCancelReason().toString());
+
+            // resolve response based on dynamic step definitions and persist operation update
+            UpdateOperationResponse updateResponse = stepResolutionService.resolveNextStepResponse(updateRequest);
+            operationPersistenceService.updateOperation(updateRequest, updateResponse);
+
+            // The loaded operation is updated by the operation update including its history
+            response.addOperation(operationConverter.fromEntity(operation));
+        }
+        return response;
+    }
+
+}
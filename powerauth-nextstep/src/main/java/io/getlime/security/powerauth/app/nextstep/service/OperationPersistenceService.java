@@ -37,11 +37,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -61,6 +66,7 @@ public class OperationPersistenceService {
     private final OperationRepository operationRepository;
     private final OperationHistoryRepository operationHistoryRepository;
     private final MobileTokenConfigurationService mobileTokenConfigurationService;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Service constructor.
@@ -68,16 +74,19 @@ public class OperationPersistenceService {
      * @param operationRepository             Operation repository.
      * @param operationHistoryRepository      Operation history repository.
      * @param mobileTokenConfigurationService Mobile token configuration service.
+     * @param transactionManager              Transaction manager.
      */
     @Autowired
     public OperationPersistenceService(IdGeneratorService idGeneratorService, OperationRepository operationRepository,
                                        OperationHistoryRepository operationHistoryRepository,
-                                       MobileTokenConfigurationService mobileTokenConfigurationService) {
+                                       MobileTokenConfigurationService mobileTokenConfigurationService,
+                                       PlatformTransactionManager transactionManager) {
         this.objectMapper = new ObjectMapper();
         this.idGeneratorService = idGeneratorService;
         this.operationRepository = operationRepository;
         this.operationHistoryRepository = operationHistoryRepository;
         this.mobileTokenConfigurationService = mobileTokenConfigurationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -173,7 +182,8 @@ public class OperationPersistenceService {
         }
         operationHistory.setResponseTimestampCreated(response.getTimestampCreated());
         operationHistory.setResponseTimestampExpires(response.getTimestampExpires());
-        operationHistoryRepository.save(operationHistory);
+        // Keep the operation history of the loaded operation up to date for callers within the same transaction
+        operation.getOperationHistory().add(operationHistoryRepository.save(operationHistory));
     }
 
     /**
@@ -405,9 +415,46 @@ public class OperationPersistenceService {
      * @param request Request to crete an AFS action.
      */
     public void createAfsAction(CreateAfsActionRequest request) {
-        try {
+        createAfsActions(Collections.singletonList(request));
+    }
+
+    /**
+     * Create multiple AFS actions. AFS actions of each operation are saved in a separate transaction, the operation
+     * is loaded and saved once for all its AFS actions. AFS actions which already exist for the operation with the same
+     * step index are skipped, so that a batch can be safely retried.
+     * @param requests Requests to create AFS actions.
+     */
+    public void createAfsActions(List<CreateAfsActionRequest> requests) {
+        final Map<String, List<CreateAfsActionRequest>> requestsByOperation = new LinkedHashMap<>();
+        for (CreateAfsActionRequest request: requests) {
+            requestsByOperation.computeIfAbsent(request.getOperationId(), key -> new ArrayList<>()).add(request);
+        }
+        for (Map.Entry<String, List<CreateAfsActionRequest>> entry: requestsByOperation.entrySet()) {
+            final Boolean operationFound = transactionTemplate.execute(status -> createAfsActions(entry.getKey(), entry.getValue()));
+            if (!Boolean.TRUE.equals(operationFound)) {
+                logger.error("AFS action could not be saved because operation does not exist: {}", entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Create AFS actions of a single operation.
+     * @param operationId Operation ID.
+     * @param requests Requests to create AFS actions for the operation.
+     * @return Whether the operation exists.
+     */
+    private boolean createAfsActions(String operationId, List<CreateAfsActionRequest> requests) {
+        final Optional<OperationEntity> operationOptional = operationRepository.findById(operationId);
+        if (!operationOptional.isPresent()) {
+            return false;
+        }
+        final OperationEntity operation = operationOptional.get();
+        for (CreateAfsActionRequest request: requests) {
+            if (containsAfsAction(operation, request)) {
+                logger.debug("AFS action already exists, operation ID: {}, AFS action: {}, step index: {}", operationId, request.getAfsAction(), request.getStepIndex());
+                continue;
+            }
             OperationAfsActionEntity afsEntity = new OperationAfsActionEntity();
-            OperationEntity operation = getOperation(request.getOperationId());
             afsEntity.setOperation(operation);
             afsEntity.setAfsAction(request.getAfsAction());
             afsEntity.setStepIndex(request.getStepIndex());
@@ -417,10 +464,24 @@ public class OperationPersistenceService {
             afsEntity.setResponseAfsExtras(request.getResponseAfsExtras());
             afsEntity.setTimestampCreated(request.getTimestampCreated());
             operation.getAfsActions().add(afsEntity);
-            operationRepository.save(operation);
-        } catch (OperationNotFoundException e) {
-            logger.error("AFS action could not be saved because operation does not exist: {}", request.getOperationId());
         }
+        operationRepository.save(operation);
+        return true;
+    }
+
+    /**
+     * Check whether an AFS action with the same name and step index already exists for an operation.
+     * @param operation Operation entity.
+     * @param request Request to create an AFS action.
+     * @return Whether the AFS action already exists.
+     */
+    private boolean containsAfsAction(OperationEntity operation, CreateAfsActionRequest request) {
+        for (OperationAfsActionEntity afsAction: operation.getAfsActions()) {
+            if (afsAction.getStepIndex() == request.getStepIndex() && Objects.equals(afsAction.getAfsAction(), request.getAfsAction())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.getlime.security.powerauth.lib.scheduler.repository;
+
+import io.getlime.security.powerauth.lib.scheduler.repository.model.entity.SchedulerLeaseEntity;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+/**
+ * Crud repository for persistence of leases of scheduled jobs.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Repository
+public interface SchedulerLeaseRepository extends CrudRepository<SchedulerLeaseEntity, String> {
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SchedulerLeaseEntity l SET l.leaseOwner = ?2, l.timestampExpires = ?3 WHERE l.leaseName = ?1 AND (l.timestampExpires < ?4 OR l.leaseOwner = ?2)")
+    int acquireLease(String leaseName, String leaseOwner, Date timestampExpires, Date now);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO wf_scheduler_lease (lease_name, lease_owner, timestamp_expires) VALUES (?1, ?2, ?3)", nativeQuery = true)
+    int createLease(String leaseName, String leaseOwner, Date timestampExpires);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SchedulerLeaseEntity l SET l.timestampExpires = ?3 WHERE l.leaseName = ?1 AND l.leaseOwner = ?2")
+    int releaseLease(String leaseName, String leaseOwner, Date now);
+
+    @Query("SELECT l.lastProcessedId FROM SchedulerLeaseEntity l WHERE l.leaseName = ?1")
+    Long findLastProcessedId(String leaseName);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SchedulerLeaseEntity l SET l.lastProcessedId = ?3 WHERE l.leaseName = ?1 AND l.leaseOwner = ?2")
+    int updateLastProcessedId(String leaseName, String leaseOwner, Long lastProcessedId);
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.getlime.security.powerauth.lib.scheduler.repository.model.entity;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Entity which stores a lease of a scheduled job, so that the job runs on a single node at a time. The lease table
+ * is shared by Web Flow and TPP engine, lease names of both applications are distinct. Jobs which process records
+ * in batches store the ID of the last processed record together with the lease.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Entity
+@Table(name = "wf_scheduler_lease")
+public class SchedulerLeaseEntity implements Serializable {
+
+    private static final long serialVersionUID = -3079512243685914016L;
+
+    @Id
+    @Column(name = "lease_name")
+    private String leaseName;
+
+    @Column(name = "lease_owner", nullable = false)
+    private String leaseOwner;
+
+    @Column(name = "timestamp_expires", nullable = false)
+    private Date timestampExpires;
+
+    @Column(name = "last_processed_id")
+    private Long lastProcessedId;
+
+    public SchedulerLeaseEntity() {
+    }
+
+    public SchedulerLeaseEntity(String leaseName, String leaseOwner, Date timestampExpires) {
+        this.leaseName = leaseName;
+        this.leaseOwner = leaseOwner;
+        this.timestampExpires = timestampExpires;
+    }
+
+    public String getLeaseName() {
+        return leaseName;
+    }
+
+    public void setLeaseName(String leaseName) {
+        this.leaseName = leaseName;
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public Date getTimestampExpires() {
+        return timestampExpires;
+    }
+
+    public void setTimestampExpires(Date timestampExpires) {
+        this.timestampExpires = timestampExpires;
+    }
+
+    public Long getLastProcessedId() {
+        return lastProcessedId;
+    }
+
+    public void setLastProcessedId(Long lastProcessedId) {
+        this.lastProcessedId = lastProcessedId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SchedulerLeaseEntity that = (SchedulerLeaseEntity) o;
+        return Objects.equals(leaseName, that.leaseName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(leaseName);
+    }
+}
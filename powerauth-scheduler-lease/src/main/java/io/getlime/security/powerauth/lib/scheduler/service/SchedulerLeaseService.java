@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.getlime.security.powerauth.lib.scheduler.service;
+
+import io.getlime.security.powerauth.lib.scheduler.repository.SchedulerLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Service which coordinates scheduled jobs across nodes using leases stored in the database. A job runs
+ * only on the node which holds its lease, an expired lease can be taken over by any node.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+public class SchedulerLeaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerLeaseService.class);
+
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * Service constructor.
+     * @param schedulerLeaseRepository Scheduler lease repository.
+     */
+    @Autowired
+    public SchedulerLeaseService(SchedulerLeaseRepository schedulerLeaseRepository) {
+        this.schedulerLeaseRepository = schedulerLeaseRepository;
+    }
+
+    /**
+     * Try to acquire or extend a lease.
+     * @param leaseName Lease name.
+     * @param leaseDurationMs Lease duration in milliseconds.
+     * @return Whether this node holds the lease.
+     */
+    public boolean tryAcquireLease(String leaseName, long leaseDurationMs) {
+        Date now = new Date();
+        Date timestampExpires = new Date(now.getTime() + leaseDurationMs);
+        if (schedulerLeaseRepository.acquireLease(leaseName, nodeId, timestampExpires, now) > 0) {
+            return true;
+        }
+        if (schedulerLeaseRepository.existsById(leaseName)) {
+            // Lease is held by another node
+            return false;
+        }
+        try {
+            // Plain insert fails on duplicate key, an entity save would merge and overwrite the lease of another node
+            return schedulerLeaseRepository.createLease(leaseName, nodeId, timestampExpires) > 0;
+        } catch (DataIntegrityViolationException ex) {
+            // Lease was created concurrently by another node
+            logger.debug("Lease was acquired by another node: {}", leaseName);
+            return false;
+        }
+    }
+
+    /**
+     * Release a lease held by this node, so that another node can acquire it without waiting for its expiration.
+     * @param leaseName Lease name.
+     */
+    public void releaseLease(String leaseName) {
+        schedulerLeaseRepository.releaseLease(leaseName, nodeId, new Date());
+    }
+
+    /**
+     * Get ID of the last record processed by a job.
+     * @param leaseName Lease name.
+     * @return ID of the last processed record or null in case no record was processed yet.
+     */
+    public Long getLastProcessedId(String leaseName) {
+        return schedulerLeaseRepository.findLastProcessedId(leaseName);
+    }
+
+    /**
+     * Store ID of the last record processed by a job. The ID is stored only in case this node holds the lease,
+     * so that the caller can roll back the processed records when the lease was taken over by another node.
+     * @param leaseName Lease name.
+     * @param lastProcessedId ID of the last processed record.
+     * @return Whether the ID was stored.
+     */
+    public boolean updateLastProcessedId(String leaseName, long lastProcessedId) {
+        return schedulerLeaseRepository.updateLastProcessedId(leaseName, nodeId, lastProcessedId) > 0;
+    }
+
+}
@@ -24,9 +24,11 @@ import io.getlime.core.rest.model.base.request.ObjectRequest;
 import io.getlime.core.rest.model.base.response.ObjectResponse;
 import io.getlime.core.rest.model.base.response.Response;
 import io.getlime.security.powerauth.app.tppengine.model.entity.TppEngineError;
+import io.getlime.security.powerauth.app.tppengine.model.request.ConsentStatusListRequest;
 import io.getlime.security.powerauth.app.tppengine.model.request.GiveConsentRequest;
 import io.getlime.security.powerauth.app.tppengine.model.request.RemoveConsentRequest;
 import io.getlime.security.powerauth.app.tppengine.model.response.ConsentDetailResponse;
+import io.getlime.security.powerauth.app.tppengine.model.response.ConsentStatusListResponse;
 import io.getlime.security.powerauth.app.tppengine.model.response.GiveConsentResponse;
 import io.getlime.security.powerauth.app.tppengine.model.response.TppAppDetailResponse;
 import io.getlime.security.powerauth.app.tppengine.model.response.UserConsentDetailResponse;
@@ -44,6 +46,7 @@ import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * TPP Engine Client provides methods for communication with the TPP registry and consent engine.
@@ -58,6 +61,10 @@ public class TppEngineClient {
     private final ObjectMapper objectMapper;
     private final RestTemplate restTemplate;
 
+    // Application details cached according to cache control headers of the TPP engine
+    private static final int MAX_CACHED_APPS = 1000;
+    private final Map<String, CachedAppInfo> appInfoCache = new ConcurrentHashMap<>();
+
     /**
      * Create a new client with provided base URL.
      *
@@ -169,6 +176,35 @@ public class TppEngineClient {
         }
     }
 
+    /**
+     * Lookup status of multiple consents for given user and app using a single request.
+     *
+     * @param userId Username for user account which is being looked up.
+     * @param clientId Identifier of a TPP app.
+     * @param consentIds Identifiers of consents, at most 100 consent IDs are allowed.
+     * @return Response with status of consents for given user and TPP app, in the order of provided consent IDs.
+     * @throws TppEngineClientException Thrown when client request fails, some of the consents does not exist or there are too many consent IDs.
+     */
+    public ObjectResponse<ConsentStatusListResponse> consentStatusList(String userId, String clientId, List<String> consentIds) throws TppEngineClientException {
+        try {
+            final ConsentStatusListRequest request = new ConsentStatusListRequest();
+            request.setUserId(userId);
+            request.setClientId(clientId);
+            request.setConsentIds(consentIds);
+            HttpEntity<ObjectRequest<ConsentStatusListRequest>> entity = new HttpEntity<>(new ObjectRequest<>(request));
+            ResponseEntity<ObjectResponse<ConsentStatusListResponse>> response = restTemplate.exchange(
+                    serviceUrl + "/user/consent/status/list",
+                    HttpMethod.POST,
+                    entity,
+                    new ParameterizedTypeReference<ObjectResponse<ConsentStatusListResponse>>() {});
+            return new ObjectResponse<>(Objects.requireNonNull(response.getBody()).getResponseObject());
+        } catch (HttpStatusCodeException ex) {
+            throw httpStatusException(ex);
+        } catch (ResourceAccessException ex) { // Data Adapter service is down
+            throw resourceAccessException(ex);
+        }
+    }
+
     /**
      * Give consent according to request parameters.
      *
@@ -216,13 +252,18 @@ public class TppEngineClient {
     }
 
     /**
-     * Lookup information about a provided app.
+     * Lookup information about a provided app. Application details are cached by the client for the time allowed
+     * by the cache control header of the response.
      *
      * @param clientId Identifier of a TPP app.
      * @return Response with details TPP app with given client ID.
      * @throws TppEngineClientException Thrown when client request fails or app does not exist.
      */
     public ObjectResponse<TppAppDetailResponse> fetchAppInfo(String clientId) throws TppEngineClientException {
+        final CachedAppInfo cachedAppInfo = appInfoCache.get(clientId);
+        if (cachedAppInfo != null && cachedAppInfo.isValid()) {
+            return new ObjectResponse<>(cachedAppInfo.getAppDetail());
+        }
         try {
             final Map<String, String> params = new HashMap<>();
             params.put("clientId", clientId);
@@ -233,7 +274,9 @@ public class TppEngineClient {
                     new ParameterizedTypeReference<ObjectResponse<TppAppDetailResponse>>() {},
                     params
             );
-            return new ObjectResponse<>(Objects.requireNonNull(response.getBody()).getResponseObject());
+            final TppAppDetailResponse appDetail = Objects.requireNonNull(response.getBody()).getResponseObject();
+            cacheAppInfo(clientId, appDetail, response.getHeaders().getCacheControl());
+            return new ObjectResponse<>(appDetail);
         } catch (HttpStatusCodeException ex) {
             throw httpStatusException(ex);
         } catch (ResourceAccessException ex) { // Data Adapter service is down
@@ -241,6 +284,62 @@ public class TppEngineClient {
         }
     }
 
+    /**
+     * Invalidate application details cached by the client.
+     */
+    public void invalidateAppInfoCache() {
+        appInfoCache.clear();
+    }
+
+    /**
+     * Cache application details for the time allowed by the cache control header.
+     *
+     * @param clientId Identifier of a TPP app.
+     * @param appDetail Application details.
+     * @param cacheControl Value of the cache control header.
+     */
+    private void cacheAppInfo(String clientId, TppAppDetailResponse appDetail, String cacheControl) {
+        final long maxAgeSeconds = parseMaxAge(cacheControl);
+        if (maxAgeSeconds <= 0) {
+            appInfoCache.remove(clientId);
+            return;
+        }
+        if (appInfoCache.size() >= MAX_CACHED_APPS) {
+            appInfoCache.values().removeIf(appInfo -> !appInfo.isValid());
+            if (appInfoCache.size() >= MAX_CACHED_APPS) {
+                appInfoCache.clear();
+            }
+        }
+        appInfoCache.put(clientId, new CachedAppInfo(appDetail, System.currentTimeMillis() + maxAgeSeconds * 1000));
+    }
+
+    /**
+     * Parse max age from the cache control header.
+     *
+     * @param cacheControl Value of the cache control header.
+     * @return Max age in seconds, zero in case the response must not be cached.
+     */
+    private long parseMaxAge(String cacheControl) {
+        if (cacheControl == null) {
+            return 0;
+        }
+        long maxAge = 0;
+        for (String directive: cacheControl.split(",")) {
+            final String value = directive.trim().toLowerCase();
+            if ("no-store".equals(value) || "no-cache".equals(value)) {
+                return 0;
+            }
+            if (value.startsWith("max-age=")) {
+                try {
+                    maxAge = Long.parseLong(value.substring("max-age=".length()).trim());
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return maxAge;
+    }
+
     /**
      * Create new TppEngineClientException from ResourceAccessException.
      *
@@ -288,4 +387,26 @@ public class TppEngineClient {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Application details cached by the client.
+     */
+    private static class CachedAppInfo {
+
+        private final TppAppDetailResponse appDetail;
+        private final long expiresAt;
+
+        CachedAppInfo(TppAppDetailResponse appDetail, long expiresAt) {
+            this.appDetail = appDetail;
+            this.expiresAt = expiresAt;
+        }
+
+        TppAppDetailResponse getAppDetail() {
+            return appDetail;
+        }
+
+        boolean isValid() {
+            return System.currentTimeMillis() < expiresAt;
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.app.tppengine.model.entity;
+
+/**
+ * Response entity representing status of a single consent for given user and TPP app.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class ConsentStatus {
+
+    /**
+     * Consent ID.
+     */
+    private String consentId;
+
+    /**
+     * Name of the consent.
+     */
+    private String consentName;
+
+    /**
+     * Text of the consent (possibly with placeholders).
+     */
+    private String consentText;
+
+    /**
+     * Information about given consent, or null in case a consent is not given by the user.
+     */
+    private GivenConsent consent;
+
+    public String getConsentId() {
+        return consentId;
+    }
+
+    public void setConsentId(String consentId) {
+        this.consentId = consentId;
+    }
+
+    public String getConsentName() {
+        return consentName;
+    }
+
+    public void setConsentName(String consentName) {
+        this.consentName = consentName;
+    }
+
+    public String getConsentText() {
+        return consentText;
+    }
+
+    public void setConsentText(String consentText) {
+        this.consentText = consentText;
+    }
+
+    public GivenConsent getConsent() {
+        return consent;
+    }
+
+    public void setConsent(GivenConsent consent) {
+        this.consent = consent;
+    }
+}
@@ -73,6 +73,17 @@ public class GivenConsentHistory {
      */
     private Date timestampCreated;
 
+    /**
+     * Number of changes represented by this item, consecutive prolongations of a consent may be collapsed
+     * into a single item.
+     */
+    private Integer changeCount;
+
+    /**
+     * Timestamp of the last change represented by this item, or null in case the item represents a single change.
+     */
+    private Date timestampLastChange;
+
     public Long getId() {
         return id;
     }
@@ -144,4 +155,20 @@ public class GivenConsentHistory {
     public void setTimestampCreated(Date timestampCreated) {
         this.timestampCreated = timestampCreated;
     }
+
+    public Integer getChangeCount() {
+        return changeCount;
+    }
+
+    public void setChangeCount(Integer changeCount) {
+        this.changeCount = changeCount;
+    }
+
+    public Date getTimestampLastChange() {
+        return timestampLastChange;
+    }
+
+    public void setTimestampLastChange(Date timestampLastChange) {
+        this.timestampLastChange = timestampLastChange;
+    }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.app.tppengine.model.request;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request for obtaining status of multiple consents given by a user to a TPP app (with given ID).
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class ConsentStatusListRequest {
+
+    /**
+     * User ID.
+     */
+    private String userId;
+
+    /**
+     * TPP app client ID.
+     */
+    private String clientId;
+
+    /**
+     * Consent IDs.
+     */
+    private List<String> consentIds = new ArrayList<>();
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    public List<String> getConsentIds() {
+        return consentIds;
+    }
+
+    public void setConsentIds(List<String> consentIds) {
+        this.consentIds = consentIds;
+    }
+}
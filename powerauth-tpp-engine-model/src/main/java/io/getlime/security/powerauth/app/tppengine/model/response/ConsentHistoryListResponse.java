@@ -37,6 +37,11 @@ public class ConsentHistoryListResponse {
      */
     private List<GivenConsentHistory> history;
 
+    /**
+     * Cursor for obtaining the next page of history items, or null in case there are no more items.
+     */
+    private String nextCursor;
+
     public String getUserId() {
         return userId;
     }
@@ -52,4 +57,12 @@ public class ConsentHistoryListResponse {
     public void setHistory(List<GivenConsentHistory> history) {
         this.history = history;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.app.tppengine.model.response;
+
+import java.util.Date;
+
+/**
+ * Response object with metrics of the consent history retention and compaction job.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class ConsentHistoryMetricsResponse {
+
+    /**
+     * Number of job runs.
+     */
+    private long runCount;
+
+    /**
+     * Number of failed job runs.
+     */
+    private long failureCount;
+
+    /**
+     * Number of job runs skipped because the lease was held by another node.
+     */
+    private long leaseNotAcquiredCount;
+
+    /**
+     * Number of consent prolongation records collapsed into a preceding prolongation record.
+     */
+    private long compactedCount;
+
+    /**
+     * Number of history records moved to the archive because they were older than the retention period.
+     */
+    private long archivedCount;
+
+    /**
+     * Timestamp of the last successful job run.
+     */
+    private Date lastRunTimestamp;
+
+    public long getRunCount() {
+        return runCount;
+    }
+
+    public void setRunCount(long runCount) {
+        this.runCount = runCount;
+    }
+
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    public void setFailureCount(long failureCount) {
+        this.failureCount = failureCount;
+    }
+
+    public long getLeaseNotAcquiredCount() {
+        return leaseNotAcquiredCount;
+    }
+
+    public void setLeaseNotAcquiredCount(long leaseNotAcquiredCount) {
+        this.leaseNotAcquiredCount = leaseNotAcquiredCount;
+    }
+
+    public long getCompactedCount() {
+        return compactedCount;
+    }
+
+    public void setCompactedCount(long compactedCount) {
+        this.compactedCount = compactedCount;
+    }
+
+    public long getArchivedCount() {
+        return archivedCount;
+    }
+
+    public void setArchivedCount(long archivedCount) {
+        this.archivedCount = archivedCount;
+    }
+
+    public Date getLastRunTimestamp() {
+        return lastRunTimestamp;
+    }
+
+    public void setLastRunTimestamp(Date lastRunTimestamp) {
+        this.lastRunTimestamp = lastRunTimestamp;
+    }
+}
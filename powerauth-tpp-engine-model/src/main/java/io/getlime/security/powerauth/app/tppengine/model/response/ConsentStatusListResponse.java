@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.app.tppengine.model.response;
+
+import io.getlime.security.powerauth.app.tppengine.model.entity.ConsentStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response object representing status of multiple consents for given user and TPP app.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class ConsentStatusListResponse {
+
+    /**
+     * User ID.
+     */
+    private String userId;
+
+    /**
+     * TPP app client ID.
+     */
+    private String clientId;
+
+    /**
+     * Status of requested consents, in the order of the request.
+     */
+    private List<ConsentStatus> consents = new ArrayList<>();
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    public List<ConsentStatus> getConsents() {
+        return consents;
+    }
+
+    public void setConsents(List<ConsentStatus> consents) {
+        this.consents = consents;
+    }
+}
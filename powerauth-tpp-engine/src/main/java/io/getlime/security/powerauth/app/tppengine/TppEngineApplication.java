@@ -18,8 +18,12 @@ package io.getlime.security.powerauth.app.tppengine;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = {"io.getlime.security.powerauth.app.tppengine", "io.getlime.security.powerauth.lib.scheduler"})
+@EnableJpaRepositories({"io.getlime.security.powerauth.app.tppengine.repository", "io.getlime.security.powerauth.lib.scheduler.repository"})
+@EntityScan({"io.getlime.security.powerauth.app.tppengine", "io.getlime.security.powerauth.lib.scheduler"})
 public class TppEngineApplication {
 
     public static void main(String[] args) {
@@ -17,6 +17,7 @@
 package io.getlime.security.powerauth.app.tppengine.controller;
 
 import io.getlime.core.rest.model.base.response.ObjectResponse;
+import io.getlime.core.rest.model.base.response.Response;
 import io.getlime.security.powerauth.app.tppengine.errorhandling.exception.ConsentNotFoundException;
 import io.getlime.security.powerauth.app.tppengine.model.response.ConsentDetailResponse;
 import io.getlime.security.powerauth.app.tppengine.service.ConsentService;
@@ -49,4 +50,16 @@ public class ConsentInfoController {
         }
     }
 
+    /**
+     * Invalidate cached consent texts, e.g. after a consent text is changed in the database.
+     *
+     * @param id Consent ID, all consents are invalidated in case the ID is not specified.
+     * @return Response.
+     */
+    @RequestMapping(value = "cache/invalidate", method = RequestMethod.POST)
+    public Response invalidateConsentCache(@RequestParam(value = "id", required = false) String id) {
+        consentService.invalidateConsentCache(id);
+        return new Response();
+    }
+
 }
@@ -17,15 +17,21 @@
 package io.getlime.security.powerauth.app.tppengine.controller;
 
 import io.getlime.core.rest.model.base.response.ObjectResponse;
+import io.getlime.core.rest.model.base.response.Response;
 import io.getlime.security.powerauth.app.tppengine.errorhandling.exception.TppAppNotFoundException;
 import io.getlime.security.powerauth.app.tppengine.model.response.TppAppDetailResponse;
 import io.getlime.security.powerauth.app.tppengine.service.TppService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Controller for lookup and registration of TPP service providers
  *
@@ -37,19 +43,43 @@ public class TppRegistryController {
 
     private final TppService tppService;
 
+    @Value("${powerauth.tppEngine.appCache.clientMaxAgeSeconds:60}")
+    private long clientMaxAgeSeconds;
+
     @Autowired
     public TppRegistryController(TppService tppService) {
         this.tppService = tppService;
     }
 
+    /**
+     * Fetch details of an application with given client ID. The response contains a cache control header,
+     * so that clients may reuse the application details.
+     *
+     * @param clientId Client ID.
+     * @return Application details.
+     * @throws TppAppNotFoundException In case the application with given client ID is not found.
+     */
     @RequestMapping(value = "app", method = RequestMethod.GET)
-    public ObjectResponse<TppAppDetailResponse> fetchAppInfoFromClientId(@RequestParam("clientId") String clientId) throws TppAppNotFoundException {
+    public ResponseEntity<ObjectResponse<TppAppDetailResponse>> fetchAppInfoFromClientId(@RequestParam("clientId") String clientId) throws TppAppNotFoundException {
         final TppAppDetailResponse response = tppService.fetchAppDetailByClientId(clientId);
         if (response != null) {
-            return new ObjectResponse<>(response);
+            final CacheControl cacheControl = clientMaxAgeSeconds > 0 ? CacheControl.maxAge(clientMaxAgeSeconds, TimeUnit.SECONDS) : CacheControl.noStore();
+            return ResponseEntity.ok().cacheControl(cacheControl).body(new ObjectResponse<>(response));
         } else {
             throw new TppAppNotFoundException(clientId);
         }
     }
 
+    /**
+     * Invalidate cached application details, e.g. after application details are changed in the database.
+     *
+     * @param clientId Client ID, details of all applications are invalidated in case the client ID is not specified.
+     * @return Response.
+     */
+    @RequestMapping(value = "app/cache/invalidate", method = RequestMethod.POST)
+    public Response invalidateAppCache(@RequestParam(value = "clientId", required = false) String clientId) {
+        tppService.invalidateAppDetailCache(clientId);
+        return new Response();
+    }
+
 }
@@ -16,19 +16,35 @@
 
 package io.getlime.security.powerauth.app.tppengine.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.getlime.core.rest.model.base.request.ObjectRequest;
 import io.getlime.core.rest.model.base.response.ObjectResponse;
 import io.getlime.core.rest.model.base.response.Response;
 import io.getlime.security.powerauth.app.tppengine.errorhandling.exception.ConsentNotFoundException;
+import io.getlime.security.powerauth.app.tppengine.errorhandling.exception.InvalidCursorException;
+import io.getlime.security.powerauth.app.tppengine.errorhandling.exception.InvalidRequestException;
+import io.getlime.security.powerauth.app.tppengine.model.entity.GivenConsentHistory;
+import io.getlime.security.powerauth.app.tppengine.model.request.ConsentStatusListRequest;
 import io.getlime.security.powerauth.app.tppengine.model.request.GiveConsentRequest;
 import io.getlime.security.powerauth.app.tppengine.model.request.RemoveConsentRequest;
 import io.getlime.security.powerauth.app.tppengine.model.response.ConsentHistoryListResponse;
+import io.getlime.security.powerauth.app.tppengine.model.response.ConsentHistoryMetricsResponse;
 import io.getlime.security.powerauth.app.tppengine.model.response.ConsentListResponse;
+import io.getlime.security.powerauth.app.tppengine.model.response.ConsentStatusListResponse;
 import io.getlime.security.powerauth.app.tppengine.model.response.GiveConsentResponse;
 import io.getlime.security.powerauth.app.tppengine.model.response.UserConsentDetailResponse;
+import io.getlime.security.powerauth.app.tppengine.service.ConsentHistoryMaintenanceService;
 import io.getlime.security.powerauth.app.tppengine.service.UserConsentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.Date;
 
 /**
  * Controller class for providing information about consents given or rejected by given users.
@@ -39,11 +55,20 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("user")
 public class UserConsentController {
 
+    /**
+     * Maximum number of consent IDs in a single status list request, the consents are queried using a single IN clause.
+     */
+    private static final int MAX_CONSENT_IDS = 100;
+
     private final UserConsentService userConsentService;
+    private final ConsentHistoryMaintenanceService consentHistoryMaintenanceService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public UserConsentController(UserConsentService userConsentService) {
+    public UserConsentController(UserConsentService userConsentService, ConsentHistoryMaintenanceService consentHistoryMaintenanceService, ObjectMapper objectMapper) {
         this.userConsentService = userConsentService;
+        this.consentHistoryMaintenanceService = consentHistoryMaintenanceService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -146,19 +171,108 @@ public class UserConsentController {
         return new ObjectResponse<>(response);
     }
 
+    /**
+     * Return the current status of multiple consents for a given user and third party app.
+     *
+     * @param request Request with user ID, TPP App Client ID and consent IDs.
+     * @return Status of the consents, in the order of requested consent IDs.
+     * @throws ConsentNotFoundException In case a consent with some of the given IDs is not found.
+     * @throws InvalidRequestException In case consent IDs are missing or there are too many consent IDs.
+     */
+    @RequestMapping(value = "consent/status/list", method = RequestMethod.POST)
+    public ObjectResponse<ConsentStatusListResponse> consentStatusList(@RequestBody ObjectRequest<ConsentStatusListRequest> request) throws ConsentNotFoundException, InvalidRequestException {
+        final ConsentStatusListRequest requestObject = request.getRequestObject();
+        if (requestObject == null || requestObject.getConsentIds() == null) {
+            throw new InvalidRequestException("Consent IDs are missing");
+        }
+        if (requestObject.getConsentIds().size() > MAX_CONSENT_IDS) {
+            throw new InvalidRequestException("Too many consent IDs: " + requestObject.getConsentIds().size() + ", maximum: " + MAX_CONSENT_IDS);
+        }
+        ConsentStatusListResponse response = userConsentService.consentStatusList(requestObject.getUserId(), requestObject.getClientId(), requestObject.getConsentIds());
+        return new ObjectResponse<>(response);
+    }
+
     /**
      * History of consent approval or rejection for given user. Optionally, a TPP app may be specified to
-     * narrow down the results.
+     * narrow down the results. The history is loaded page by page and written to the response as a stream,
+     * so that memory usage does not depend on the length of the history.
      *
      * @param userId User ID.
      * @param clientId (optional) TPP App Client ID.
+     * @param timestampFrom (optional) Timestamp of the oldest history item, inclusive.
+     * @param timestampTo (optional) Timestamp of the newest history item, exclusive.
      * @return List of history items.
      * @throws ConsentNotFoundException In case the consent with given ID is not found.
+     * @throws InvalidCursorException In case the pagination cursor is invalid.
      */
     @RequestMapping(value = "consent/history", method = RequestMethod.GET)
-    public ObjectResponse<ConsentHistoryListResponse> consentHistory(@RequestParam("userId") String userId, @RequestParam(value = "clientId", required = false) String clientId) throws ConsentNotFoundException {
-        ConsentHistoryListResponse response = userConsentService.consentHistoryForUser(userId, clientId);
+    public ResponseEntity<StreamingResponseBody> consentHistory(@RequestParam("userId") String userId, @RequestParam(value = "clientId", required = false) String clientId,
+                                                                @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date timestampFrom,
+                                                                @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date timestampTo) throws ConsentNotFoundException, InvalidCursorException {
+        // Load the first page before the response is committed, so that errors are reported using a regular error response
+        final ConsentHistoryListResponse firstPage = userConsentService.consentHistoryForUser(userId, clientId, timestampFrom, timestampTo, null, null);
+        final StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeStringField("status", Response.Status.OK);
+                generator.writeObjectFieldStart("responseObject");
+                generator.writeStringField("userId", userId);
+                generator.writeArrayFieldStart("history");
+                ConsentHistoryListResponse page = firstPage;
+                while (true) {
+                    for (GivenConsentHistory historyItem: page.getHistory()) {
+                        generator.writeObject(historyItem);
+                    }
+                    if (page.getNextCursor() == null) {
+                        break;
+                    }
+                    try {
+                        page = userConsentService.consentHistoryForUser(userId, clientId, timestampFrom, timestampTo, page.getNextCursor(), null);
+                    } catch (ConsentNotFoundException | InvalidCursorException ex) {
+                        // The response is already committed, the incomplete JSON document signals the error to the client
+                        throw new IOException("Consent history could not be loaded for user: " + userId, ex);
+                    }
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Page of history of consent approval or rejection for given user. Optionally, a TPP app may be specified to
+     * narrow down the results. The next page is obtained using the cursor returned in the response.
+     *
+     * @param userId User ID.
+     * @param clientId (optional) TPP App Client ID.
+     * @param timestampFrom (optional) Timestamp of the oldest history item, inclusive.
+     * @param timestampTo (optional) Timestamp of the newest history item, exclusive.
+     * @param cursor (optional) Cursor from the previous page.
+     * @param limit (optional) Maximum number of history items in the page.
+     * @return Page of history items.
+     * @throws ConsentNotFoundException In case the consent with given ID is not found.
+     * @throws InvalidCursorException In case the pagination cursor is invalid.
+     */
+    @RequestMapping(value = "consent/history/page", method = RequestMethod.GET)
+    public ObjectResponse<ConsentHistoryListResponse> consentHistoryPage(@RequestParam("userId") String userId, @RequestParam(value = "clientId", required = false) String clientId,
+                                                                         @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date timestampFrom,
+                                                                         @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date timestampTo,
+                                                                         @RequestParam(value = "cursor", required = false) String cursor,
+                                                                         @RequestParam(value = "limit", required = false) Integer limit) throws ConsentNotFoundException, InvalidCursorException {
+        ConsentHistoryListResponse response = userConsentService.consentHistoryForUser(userId, clientId, timestampFrom, timestampTo, cursor, limit);
         return new ObjectResponse<>(response);
     }
 
+    /**
+     * Metrics of the consent history retention and compaction job.
+     *
+     * @return Consent history maintenance metrics.
+     */
+    @RequestMapping(value = "consent/history/metrics", method = RequestMethod.GET)
+    public ObjectResponse<ConsentHistoryMetricsResponse> consentHistoryMetrics() {
+        return new ObjectResponse<>(consentHistoryMaintenanceService.getMetrics());
+    }
+
 }
@@ -21,6 +21,8 @@ import io.getlime.core.rest.model.base.response.ErrorResponse;
 import io.getlime.security.powerauth.app.tppengine.errorhandling.error.ConsentError;
 import io.getlime.security.powerauth.app.tppengine.errorhandling.error.TppAppError;
 import io.getlime.security.powerauth.app.tppengine.errorhandling.exception.ConsentNotFoundException;
+import io.getlime.security.powerauth.app.tppengine.errorhandling.exception.InvalidCursorException;
+import io.getlime.security.powerauth.app.tppengine.errorhandling.exception.InvalidRequestException;
 import io.getlime.security.powerauth.app.tppengine.errorhandling.exception.TppAppNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -65,6 +67,30 @@ public class DefaultExceptionResolver {
         return new ErrorResponse(new ConsentError("consent.missing"));
     }
 
+    /**
+     * Exception thrown in case pagination cursor is invalid.
+     * @param t Exception thrown when pagination cursor is invalid.
+     * @return Response with error details.
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public @ResponseBody ErrorResponse handleInvalidCursorException(InvalidCursorException t) {
+        logger.warn("Invalid pagination cursor: {}", t.getCursor());
+        return new ErrorResponse(new ConsentError("consent.history.invalidCursor"));
+    }
+
+    /**
+     * Exception thrown in case request is invalid.
+     * @param t Exception thrown when request is invalid.
+     * @return Response with error details.
+     */
+    @ExceptionHandler(InvalidRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public @ResponseBody ErrorResponse handleInvalidRequestException(InvalidRequestException t) {
+        logger.warn("Invalid request: {}", t.getMessage());
+        return new ErrorResponse(new ConsentError("consent.request.invalid"));
+    }
+
     /**
      * Exception thrown in case TPP app was not found.
      * @param t Exception thrown when TPP app is not found.
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.app.tppengine.repository;
+
+import io.getlime.security.powerauth.app.tppengine.repository.model.entity.UserConsentHistoryArchiveEntity;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository responsible for storing consent history records moved from the consent history by the retention
+ * and compaction job.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Repository
+public interface UserConsentHistoryArchiveRepository extends CrudRepository<UserConsentHistoryArchiveEntity, Long> {
+
+}
@@ -16,12 +16,15 @@
 
 package io.getlime.security.powerauth.app.tppengine.repository;
 
+import io.getlime.security.powerauth.app.tppengine.model.enumeration.ConsentChange;
 import io.getlime.security.powerauth.app.tppengine.repository.model.entity.UserConsentHistoryEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -33,10 +36,27 @@ import java.util.List;
 @Repository
 public interface UserConsentHistoryRepository extends CrudRepository<UserConsentHistoryEntity, Long> {
 
-    @Query("SELECT che FROM UserConsentHistoryEntity che WHERE che.userId = :userId")
-    List<UserConsentHistoryEntity> consentHistoryForUser(@Param("userId") String userId);
+    @Query("SELECT che FROM UserConsentHistoryEntity che WHERE che.userId = :userId " +
+            "AND (che.timestampCreated > :afterTimestamp OR (che.timestampCreated = :afterTimestamp AND che.id > :afterId)) " +
+            "AND che.timestampCreated < :timestampTo " +
+            "ORDER BY che.timestampCreated, che.id")
+    List<UserConsentHistoryEntity> consentHistoryForUser(@Param("userId") String userId, @Param("afterTimestamp") Date afterTimestamp, @Param("afterId") Long afterId, @Param("timestampTo") Date timestampTo, Pageable pageable);
 
-    @Query("SELECT che FROM UserConsentHistoryEntity che WHERE che.userId = :userId AND che.clientId = :clientId")
-    List<UserConsentHistoryEntity> consentHistoryForUser(@Param("userId") String userId, @Param("clientId") String clientId);
+    @Query("SELECT che FROM UserConsentHistoryEntity che WHERE che.userId = :userId AND che.clientId = :clientId " +
+            "AND (che.timestampCreated > :afterTimestamp OR (che.timestampCreated = :afterTimestamp AND che.id > :afterId)) " +
+            "AND che.timestampCreated < :timestampTo " +
+            "ORDER BY che.timestampCreated, che.id")
+    List<UserConsentHistoryEntity> consentHistoryForUser(@Param("userId") String userId, @Param("clientId") String clientId, @Param("afterTimestamp") Date afterTimestamp, @Param("afterId") Long afterId, @Param("timestampTo") Date timestampTo, Pageable pageable);
+
+    @Query("SELECT che FROM UserConsentHistoryEntity che WHERE che.id > :afterId AND che.change = :change AND che.timestampCreated < :timestampBefore ORDER BY che.id")
+    List<UserConsentHistoryEntity> findHistoryItemsByChange(@Param("afterId") Long afterId, @Param("change") ConsentChange change, @Param("timestampBefore") Date timestampBefore, Pageable pageable);
+
+    @Query("SELECT che FROM UserConsentHistoryEntity che WHERE che.userId = :userId AND che.clientId = :clientId AND che.consentId = :consentId " +
+            "AND (che.timestampCreated < :timestamp OR (che.timestampCreated = :timestamp AND che.id < :id)) " +
+            "ORDER BY che.timestampCreated DESC, che.id DESC")
+    List<UserConsentHistoryEntity> findPreviousHistoryItems(@Param("userId") String userId, @Param("clientId") String clientId, @Param("consentId") String consentId, @Param("timestamp") Date timestamp, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT che FROM UserConsentHistoryEntity che WHERE che.timestampCreated < :timestampBefore ORDER BY che.id")
+    List<UserConsentHistoryEntity> findHistoryItemsCreatedBefore(@Param("timestampBefore") Date timestampBefore, Pageable pageable);
 
 }
@@ -22,6 +22,7 @@ import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,6 +38,9 @@ public interface UserConsentRepository extends CrudRepository<UserConsentEntity,
     @Query("SELECT uc FROM UserConsentEntity uc WHERE uc.userId = :userId AND uc.clientId = :clientId AND uc.consentId = :consentId")
     Optional<UserConsentEntity> findConsentStatus(@Param("userId") String userId, @Param("consentId") String consentId, @Param("clientId") String clientId);
 
+    @Query("SELECT uc FROM UserConsentEntity uc WHERE uc.userId = :userId AND uc.clientId = :clientId AND uc.consentId IN :consentIds")
+    List<UserConsentEntity> findConsentStatuses(@Param("userId") String userId, @Param("clientId") String clientId, @Param("consentIds") Collection<String> consentIds);
+
     @Query("SELECT uc FROM UserConsentEntity uc WHERE uc.userId = :userId")
     List<UserConsentEntity> findAllConsentsGivenByUser(@Param("userId") String userId);
 
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.app.tppengine.repository.model.entity;
+
+import io.getlime.security.powerauth.app.tppengine.model.enumeration.ConsentChange;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Database entity representing a historic event of consent approval or rejection which was moved from the consent
+ * history by the retention and compaction job. Archived records are only inserted, they keep the ID of the original
+ * history record.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Entity
+@Table(name = "tpp_consent_history_archive")
+public class UserConsentHistoryArchiveEntity implements Persistable<Long>, Serializable {
+
+    private static final long serialVersionUID = 2948823620455290631L;
+
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "client_id")
+    private String clientId;
+
+    @Column(name = "consent_id")
+    private String consentId;
+
+    @Column(name = "consent_change")
+    @Enumerated(EnumType.STRING)
+    private ConsentChange change;
+
+    @Column(name = "external_id")
+    private String externalId;
+
+    @Column(name = "consent_parameters")
+    private String parameters;
+
+    @Column(name = "timestamp_created")
+    private Date timestampCreated;
+
+    @Column(name = "change_count")
+    private Integer changeCount;
+
+    @Column(name = "timestamp_last_change")
+    private Date timestampLastChange;
+
+    @Column(name = "timestamp_archived")
+    private Date timestampArchived;
+
+    public UserConsentHistoryArchiveEntity() {
+    }
+
+    /**
+     * Create an archived record from a consent history record.
+     * @param uche Consent history record.
+     * @param timestampArchived Timestamp of archiving.
+     */
+    public UserConsentHistoryArchiveEntity(UserConsentHistoryEntity uche, Date timestampArchived) {
+        this.id = uche.getId();
+        this.userId = uche.getUserId();
+        this.clientId = uche.getClientId();
+        this.consentId = uche.getConsentId();
+        this.change = uche.getChange();
+        this.externalId = uche.getExternalId();
+        this.parameters = uche.getParameters();
+        this.timestampCreated = uche.getTimestampCreated();
+        this.changeCount = uche.getChangeCount();
+        this.timestampLastChange = uche.getTimestampLastChange();
+        this.timestampArchived = timestampArchived;
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    @Override
+    public boolean isNew() {
+        // Archived records are never updated, inserting them does not require a lookup by ID
+        return true;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    public String getConsentId() {
+        return consentId;
+    }
+
+    public void setConsentId(String consentId) {
+        this.consentId = consentId;
+    }
+
+    public ConsentChange getChange() {
+        return change;
+    }
+
+    public void setChange(ConsentChange change) {
+        this.change = change;
+    }
+
+    public String getExternalId() {
+        return externalId;
+    }
+
+    public void setExternalId(String externalId) {
+        this.externalId = externalId;
+    }
+
+    public String getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(String parameters) {
+        this.parameters = parameters;
+    }
+
+    public Date getTimestampCreated() {
+        return timestampCreated;
+    }
+
+    public void setTimestampCreated(Date timestampCreated) {
+        this.timestampCreated = timestampCreated;
+    }
+
+    public Integer getChangeCount() {
+        return changeCount;
+    }
+
+    public void setChangeCount(Integer changeCount) {
+        this.changeCount = changeCount;
+    }
+
+    public Date getTimestampLastChange() {
+        return timestampLastChange;
+    }
+
+    public void setTimestampLastChange(Date timestampLastChange) {
+        this.timestampLastChange = timestampLastChange;
+    }
+
+    public Date getTimestampArchived() {
+        return timestampArchived;
+    }
+
+    public void setTimestampArchived(Date timestampArchived) {
+        this.timestampArchived = timestampArchived;
+    }
+
+}
@@ -60,6 +60,12 @@ public class UserConsentHistoryEntity implements Serializable {
     @Column(name = "timestamp_created")
     private Date timestampCreated;
 
+    @Column(name = "change_count")
+    private Integer changeCount;
+
+    @Column(name = "timestamp_last_change")
+    private Date timestampLastChange;
+
 
     public Long getId() {
         return id;
@@ -125,4 +131,20 @@ public class UserConsentHistoryEntity implements Serializable {
         this.timestampCreated = timestampCreated;
     }
 
+    public Integer getChangeCount() {
+        return changeCount;
+    }
+
+    public void setChangeCount(Integer changeCount) {
+        this.changeCount = changeCount;
+    }
+
+    public Date getTimestampLastChange() {
+        return timestampLastChange;
+    }
+
+    public void setTimestampLastChange(Date timestampLastChange) {
+        this.timestampLastChange = timestampLastChange;
+    }
+
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.app.tppengine.service;
+
+import io.getlime.security.powerauth.app.tppengine.repository.ConsentRepository;
+import io.getlime.security.powerauth.app.tppengine.repository.model.entity.ConsentEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service which caches consent texts, so that consent checks do not query the consent table. The latest version
+ * of each consent is reloaded periodically and after an invalidation.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+public class ConsentCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsentCacheService.class);
+
+    private final ConsentRepository consentRepository;
+
+    private volatile Map<String, ConsentEntity> latestConsents;
+
+    /**
+     * Service constructor.
+     * @param consentRepository Consent repository.
+     */
+    @Autowired
+    public ConsentCacheService(ConsentRepository consentRepository) {
+        this.consentRepository = consentRepository;
+    }
+
+    /**
+     * Find the latest version of a consent.
+     * @param id Consent ID.
+     * @return Latest version of the consent or empty optional in case the consent does not exist.
+     */
+    public Optional<ConsentEntity> findLatestConsent(String id) {
+        final Map<String, ConsentEntity> cachedConsents = latestConsents;
+        final Map<String, ConsentEntity> consents = cachedConsents != null ? cachedConsents : reload();
+        final ConsentEntity consent = consents.get(id);
+        if (consent != null) {
+            return Optional.of(consent);
+        }
+        // Consent was created or invalidated after the last reload
+        final Optional<ConsentEntity> consentOptional = consentRepository.findFirstById(id);
+        consentOptional.ifPresent(loadedConsent -> consents.put(id, loadedConsent));
+        return consentOptional;
+    }
+
+    /**
+     * Reload the latest versions of all consents.
+     */
+    @Scheduled(fixedDelayString = "${powerauth.tppEngine.consentCache.refreshMs:60000}", initialDelayString = "${powerauth.tppEngine.consentCache.refreshMs:60000}")
+    public void refresh() {
+        try {
+            reload();
+        } catch (RuntimeException ex) {
+            // Previously loaded consents are used until the next refresh
+            logger.warn("Consent cache could not be refreshed, error: {}", ex.getMessage());
+            logger.debug(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Invalidate the latest version of a consent, the consent is loaded again on next access.
+     * @param id Consent ID.
+     */
+    public void invalidate(String id) {
+        final Map<String, ConsentEntity> consents = latestConsents;
+        if (consents != null) {
+            consents.remove(id);
+        }
+        logger.info("Consent cache was invalidated, consent ID: {}", id);
+    }
+
+    /**
+     * Invalidate the latest versions of all consents, the consents are loaded again on next access.
+     */
+    public void invalidateAll() {
+        latestConsents = null;
+        logger.info("Consent cache was invalidated");
+    }
+
+    /**
+     * Load the latest versions of all consents.
+     * @return Map of consent IDs to the latest versions of consents.
+     */
+    private Map<String, ConsentEntity> reload() {
+        final Map<String, ConsentEntity> consents = new ConcurrentHashMap<>();
+        for (ConsentEntity consent: consentRepository.findAll()) {
+            final ConsentEntity latestConsent = consents.get(consent.getId());
+            if (latestConsent == null || compareVersions(consent, latestConsent) > 0) {
+                consents.put(consent.getId(), consent);
+            }
+        }
+        latestConsents = consents;
+        return consents;
+    }
+
+    /**
+     * Compare versions of two consents, a missing version is the lowest one.
+     * @param consent1 First consent.
+     * @param consent2 Second consent.
+     * @return Result of the comparison.
+     */
+    private int compareVersions(ConsentEntity consent1, ConsentEntity consent2) {
+        long version1 = consent1.getVersion() == null ? Long.MIN_VALUE : consent1.getVersion();
+        long version2 = consent2.getVersion() == null ? Long.MIN_VALUE : consent2.getVersion();
+        return Long.compare(version1, version2);
+    }
+
+}
@@ -0,0 +1,355 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.app.tppengine.service;
+
+import io.getlime.security.powerauth.app.tppengine.model.enumeration.ConsentChange;
+import io.getlime.security.powerauth.app.tppengine.model.response.ConsentHistoryMetricsResponse;
+import io.getlime.security.powerauth.app.tppengine.repository.UserConsentHistoryArchiveRepository;
+import io.getlime.security.powerauth.app.tppengine.repository.UserConsentHistoryRepository;
+import io.getlime.security.powerauth.app.tppengine.repository.model.entity.UserConsentHistoryArchiveEntity;
+import io.getlime.security.powerauth.app.tppengine.repository.model.entity.UserConsentHistoryEntity;
+import io.getlime.security.powerauth.lib.scheduler.service.SchedulerLeaseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service which keeps the consent history compact. Consecutive prolongations of the same consent given by a user
+ * to a TPP app with the same external ID and consent parameters are collapsed into a single record which stores
+ * the number of prolongations and the timestamp of the last one, and records older than the retention period
+ * are moved to the archive. Collapsed records are moved to the archive as well, so that the complete audit trail
+ * is preserved.
+ * <p>
+ * The job processes records in batches, each batch in a separate transaction, and runs on a single node
+ * at a time thanks to a lease. The ID of the last record checked for compaction is stored together with the lease
+ * in the same transaction as the batch, so that the compaction continues where it stopped on any node.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+public class ConsentHistoryMaintenanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsentHistoryMaintenanceService.class);
+
+    private static final String LEASE_NAME = "tpp-consent-history-maintenance";
+
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final UserConsentHistoryRepository userConsentHistoryRepository;
+    private final UserConsentHistoryArchiveRepository userConsentHistoryArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${powerauth.tppEngine.consentHistory.maintenance.enabled:true}")
+    private boolean enabled;
+
+    @Value("${powerauth.tppEngine.consentHistory.maintenance.batchSize:500}")
+    private int batchSize;
+
+    @Value("${powerauth.tppEngine.consentHistory.maintenance.maxBatchesPerRun:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${powerauth.tppEngine.consentHistory.maintenance.compactAfterDays:1}")
+    private int compactAfterDays;
+
+    @Value("${powerauth.tppEngine.consentHistory.maintenance.retentionDays:0}")
+    private int retentionDays;
+
+    @Value("${powerauth.tppEngine.consentHistory.maintenance.leaseDurationMs:1800000}")
+    private long leaseDurationMs;
+
+    private final AtomicLong runCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong leaseNotAcquiredCount = new AtomicLong();
+    private final AtomicLong compactedCount = new AtomicLong();
+    private final AtomicLong archivedCount = new AtomicLong();
+    private volatile Date lastRunTimestamp;
+
+    /**
+     * Service constructor.
+     * @param schedulerLeaseService Scheduler lease service.
+     * @param userConsentHistoryRepository Consent history repository.
+     * @param userConsentHistoryArchiveRepository Consent history archive repository.
+     * @param transactionManager Transaction manager.
+     */
+    @Autowired
+    public ConsentHistoryMaintenanceService(SchedulerLeaseService schedulerLeaseService, UserConsentHistoryRepository userConsentHistoryRepository,
+                                            UserConsentHistoryArchiveRepository userConsentHistoryArchiveRepository, PlatformTransactionManager transactionManager) {
+        this.schedulerLeaseService = schedulerLeaseService;
+        this.userConsentHistoryRepository = userConsentHistoryRepository;
+        this.userConsentHistoryArchiveRepository = userConsentHistoryArchiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Compact and archive the consent history in case this node holds the maintenance lease.
+     */
+    @Scheduled(fixedDelayString = "${powerauth.tppEngine.consentHistory.maintenance.intervalMs:600000}", initialDelayString = "${powerauth.tppEngine.consentHistory.maintenance.intervalMs:600000}")
+    public void maintainConsentHistory() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // The lease is kept between runs, so that the compaction continues on the same node while it is running
+            if (!schedulerLeaseService.tryAcquireLease(LEASE_NAME, leaseDurationMs)) {
+                leaseNotAcquiredCount.incrementAndGet();
+                return;
+            }
+        } catch (Exception ex) {
+            failureCount.incrementAndGet();
+            logger.error("Lease for consent history maintenance could not be acquired, error: {}", ex.getMessage());
+            logger.debug(ex.getMessage(), ex);
+            return;
+        }
+        runCount.incrementAndGet();
+        try {
+            final long compacted = compactHistory();
+            final long archived = archiveHistory();
+            lastRunTimestamp = new Date();
+            if (compacted > 0 || archived > 0) {
+                logger.info("Consent history maintenance finished, compacted records: {}, archived records: {}", compacted, archived);
+            }
+        } catch (Exception ex) {
+            failureCount.incrementAndGet();
+            logger.error("Consent history maintenance failed, error: {}", ex.getMessage());
+            logger.debug(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Release the maintenance lease, so that another node can take over without waiting for lease expiration.
+     */
+    @PreDestroy
+    public void shutdown() {
+        try {
+            schedulerLeaseService.releaseLease(LEASE_NAME);
+        } catch (Exception ex) {
+            logger.warn("Lease for consent history maintenance could not be released, error: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Get metrics of the consent history maintenance.
+     * @return Consent history maintenance metrics.
+     */
+    public ConsentHistoryMetricsResponse getMetrics() {
+        ConsentHistoryMetricsResponse metrics = new ConsentHistoryMetricsResponse();
+        metrics.setRunCount(runCount.get());
+        metrics.setFailureCount(failureCount.get());
+        metrics.setLeaseNotAcquiredCount(leaseNotAcquiredCount.get());
+        metrics.setCompactedCount(compactedCount.get());
+        metrics.setArchivedCount(archivedCount.get());
+        metrics.setLastRunTimestamp(lastRunTimestamp);
+        return metrics;
+    }
+
+    /**
+     * Collapse consecutive prolongations of consents which are older than the compaction period.
+     * @return Number of collapsed records.
+     */
+    private long compactHistory() {
+        if (compactAfterDays <= 0) {
+            return 0;
+        }
+        final Date timestampBefore = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(compactAfterDays));
+        // Records with lower IDs were already checked for compaction
+        final Long lastProcessedId = schedulerLeaseService.getLastProcessedId(LEASE_NAME);
+        long lastCompactedId = lastProcessedId != null ? lastProcessedId : 0;
+        long compacted = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            if (batch > 0 && !schedulerLeaseService.tryAcquireLease(LEASE_NAME, leaseDurationMs)) {
+                // Lease was lost, e.g. because the run took longer than the lease duration
+                break;
+            }
+            final long idAfter = lastCompactedId;
+            final BatchResult result = transactionTemplate.execute(status -> {
+                final BatchResult batchResult = compactBatch(timestampBefore, idAfter);
+                if (batchResult.getLoadedCount() > 0 && !schedulerLeaseService.updateLastProcessedId(LEASE_NAME, batchResult.getLastId())) {
+                    // Lease was taken over by another node, the batch is rolled back and processed by the new lease owner
+                    status.setRollbackOnly();
+                    return null;
+                }
+                return batchResult;
+            });
+            if (result == null || result.getLoadedCount() == 0) {
+                break;
+            }
+            lastCompactedId = result.getLastId();
+            compacted += result.getProcessedCount();
+            compactedCount.addAndGet(result.getProcessedCount());
+            if (result.getLoadedCount() < batchSize) {
+                break;
+            }
+        }
+        return compacted;
+    }
+
+    /**
+     * Collapse a batch of prolongation records into preceding prolongation records of the same consent with the same
+     * external ID and consent parameters.
+     * @param timestampBefore Only records created before this timestamp are compacted.
+     * @param idAfter Only records with higher IDs are compacted.
+     * @return Batch result.
+     */
+    private BatchResult compactBatch(Date timestampBefore, long idAfter) {
+        final Date now = new Date();
+        final List<UserConsentHistoryEntity> prolongations = userConsentHistoryRepository.findHistoryItemsByChange(idAfter, ConsentChange.PROLONG, timestampBefore, PageRequest.of(0, batchSize));
+        if (prolongations.isEmpty()) {
+            return new BatchResult(0, 0, idAfter);
+        }
+        int collapsed = 0;
+        for (UserConsentHistoryEntity prolongation: prolongations) {
+            // Records collapsed earlier in this batch are already deleted, so that the query returns the range they were collapsed into
+            final List<UserConsentHistoryEntity> previousItems = userConsentHistoryRepository.findPreviousHistoryItems(prolongation.getUserId(), prolongation.getClientId(),
+                    prolongation.getConsentId(), prolongation.getTimestampCreated(), prolongation.getId(), PageRequest.of(0, 1));
+            if (previousItems.isEmpty() || !isSameProlongation(previousItems.get(0), prolongation)) {
+                // The prolongation starts a new range
+                continue;
+            }
+            final UserConsentHistoryEntity range = previousItems.get(0);
+            range.setChangeCount(changeCount(range) + changeCount(prolongation));
+            final Date lastChange = lastChange(prolongation);
+            if (range.getTimestampLastChange() == null || range.getTimestampLastChange().before(lastChange)) {
+                range.setTimestampLastChange(lastChange);
+            }
+            userConsentHistoryRepository.save(range);
+            userConsentHistoryArchiveRepository.save(new UserConsentHistoryArchiveEntity(prolongation, now));
+            userConsentHistoryRepository.delete(prolongation);
+            collapsed++;
+        }
+        return new BatchResult(prolongations.size(), collapsed, prolongations.get(prolongations.size() - 1).getId());
+    }
+
+    /**
+     * Move records older than the retention period to the archive.
+     * @return Number of archived records.
+     */
+    private long archiveHistory() {
+        if (retentionDays <= 0) {
+            return 0;
+        }
+        final Date timestampBefore = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(retentionDays));
+        long archived = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            if (!schedulerLeaseService.tryAcquireLease(LEASE_NAME, leaseDurationMs)) {
+                break;
+            }
+            final BatchResult result = transactionTemplate.execute(status -> archiveBatch(timestampBefore));
+            if (result == null || result.getLoadedCount() == 0) {
+                break;
+            }
+            archived += result.getProcessedCount();
+            archivedCount.addAndGet(result.getProcessedCount());
+            if (result.getLoadedCount() < batchSize) {
+                break;
+            }
+        }
+        return archived;
+    }
+
+    /**
+     * Move a batch of records older than the retention period to the archive.
+     * @param timestampBefore Records created before this timestamp are archived.
+     * @return Batch result.
+     */
+    private BatchResult archiveBatch(Date timestampBefore) {
+        final Date now = new Date();
+        final List<UserConsentHistoryEntity> historyItems = userConsentHistoryRepository.findHistoryItemsCreatedBefore(timestampBefore, PageRequest.of(0, batchSize));
+        if (historyItems.isEmpty()) {
+            return new BatchResult(0, 0, 0);
+        }
+        final List<UserConsentHistoryArchiveEntity> archivedItems = new ArrayList<>();
+        for (UserConsentHistoryEntity historyItem: historyItems) {
+            archivedItems.add(new UserConsentHistoryArchiveEntity(historyItem, now));
+        }
+        userConsentHistoryArchiveRepository.saveAll(archivedItems);
+        userConsentHistoryRepository.deleteAll(historyItems);
+        return new BatchResult(historyItems.size(), historyItems.size(), historyItems.get(historyItems.size() - 1).getId());
+    }
+
+    /**
+     * Check whether a history record is a prolongation with the same external ID and consent parameters
+     * as the given prolongation, so that the prolongation can be collapsed into it.
+     * @param historyItem History record.
+     * @param prolongation Prolongation record.
+     * @return Whether the prolongation can be collapsed into the history record.
+     */
+    private boolean isSameProlongation(UserConsentHistoryEntity historyItem, UserConsentHistoryEntity prolongation) {
+        return historyItem.getChange() == ConsentChange.PROLONG
+                && Objects.equals(historyItem.getExternalId(), prolongation.getExternalId())
+                && Objects.equals(historyItem.getParameters(), prolongation.getParameters());
+    }
+
+    /**
+     * Get number of changes represented by a history record.
+     * @param historyItem History record.
+     * @return Number of changes.
+     */
+    private int changeCount(UserConsentHistoryEntity historyItem) {
+        return historyItem.getChangeCount() != null ? historyItem.getChangeCount() : 1;
+    }
+
+    /**
+     * Get timestamp of the last change represented by a history record.
+     * @param historyItem History record.
+     * @return Timestamp of the last change.
+     */
+    private Date lastChange(UserConsentHistoryEntity historyItem) {
+        return historyItem.getTimestampLastChange() != null ? historyItem.getTimestampLastChange() : historyItem.getTimestampCreated();
+    }
+
+    /**
+     * Result of processing of a batch of history records.
+     */
+    private static class BatchResult {
+
+        private final int loadedCount;
+        private final int processedCount;
+        private final long lastId;
+
+        BatchResult(int loadedCount, int processedCount, long lastId) {
+            this.loadedCount = loadedCount;
+            this.processedCount = processedCount;
+            this.lastId = lastId;
+        }
+
+        int getLoadedCount() {
+            return loadedCount;
+        }
+
+        int getProcessedCount() {
+            return processedCount;
+        }
+
+        long getLastId() {
+            return lastId;
+        }
+    }
+
+}
@@ -18,7 +18,6 @@ package io.getlime.security.powerauth.app.tppengine.service;
 
 import io.getlime.security.powerauth.app.tppengine.converter.ConsentConverter;
 import io.getlime.security.powerauth.app.tppengine.model.response.ConsentDetailResponse;
-import io.getlime.security.powerauth.app.tppengine.repository.ConsentRepository;
 import io.getlime.security.powerauth.app.tppengine.repository.model.entity.ConsentEntity;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -33,20 +32,32 @@ import java.util.Optional;
 @Service
 public class ConsentService {
 
-    private final ConsentRepository consentRepository;
+    private final ConsentCacheService consentCacheService;
 
     private final ConsentConverter consentConverter = new ConsentConverter();
 
     @Autowired
-    public ConsentService(ConsentRepository consentRepository) {
-        this.consentRepository = consentRepository;
+    public ConsentService(ConsentCacheService consentCacheService) {
+        this.consentCacheService = consentCacheService;
     }
 
     public ConsentDetailResponse consentDetail(String id) {
-        final Optional<ConsentEntity> consentEntity = consentRepository.findFirstById(id);
+        final Optional<ConsentEntity> consentEntity = consentCacheService.findLatestConsent(id);
         return consentEntity
                 .map(consentConverter::fromConsentEntity)
                 .orElse(null);
     }
 
+    /**
+     * Invalidate cached consent texts.
+     * @param id Consent ID or null in case all consents should be invalidated.
+     */
+    public void invalidateConsentCache(String id) {
+        if (id == null) {
+            consentCacheService.invalidateAll();
+        } else {
+            consentCacheService.invalidate(id);
+        }
+    }
+
 }
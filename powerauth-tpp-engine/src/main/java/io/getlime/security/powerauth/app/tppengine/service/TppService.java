@@ -16,28 +16,45 @@
 
 package io.getlime.security.powerauth.app.tppengine.service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.getlime.security.powerauth.app.tppengine.converter.TppAppConverter;
 import io.getlime.security.powerauth.app.tppengine.model.response.TppAppDetailResponse;
 import io.getlime.security.powerauth.app.tppengine.repository.TppAppDetailRepository;
 import io.getlime.security.powerauth.app.tppengine.repository.model.entity.TppAppDetailEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Service from handling information about TPP and TPP apps.
+ * Service from handling information about TPP and TPP apps. Application details are cached for a short time,
+ * so that repeated lookups during OAuth 2.0 authorization do not query the database.
  *
  * @author Petr Dvorak, petr@wultra.com
  */
 @Service
 public class TppService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TppService.class);
+
     private final TppAppDetailRepository appDetailRepository;
+    private final Cache<String, Optional<TppAppDetailResponse>> appDetailCache;
 
     @Autowired
-    public TppService(TppAppDetailRepository appDetailRepository) {
+    public TppService(TppAppDetailRepository appDetailRepository,
+                      @Value("${powerauth.tppEngine.appCache.maxSize:1000}") long appCacheMaxSize,
+                      @Value("${powerauth.tppEngine.appCache.ttlMs:60000}") long appCacheTtlMs) {
         this.appDetailRepository = appDetailRepository;
+        this.appDetailCache = CacheBuilder.newBuilder()
+                .maximumSize(appCacheMaxSize)
+                .expireAfterWrite(appCacheTtlMs, TimeUnit.MILLISECONDS)
+                .build();
     }
 
     /**
@@ -48,9 +65,33 @@ public class TppService {
      * if no app for given client ID exists.
      */
     public TppAppDetailResponse fetchAppDetailByClientId(String clientId) {
-        final Optional<TppAppDetailEntity> tppAppEntityOptional = appDetailRepository.findByClientId(clientId);
-        return tppAppEntityOptional
-                .map(TppAppConverter::fromTppAppEntity)
-                .orElse(null);
+        try {
+            // Missing apps are cached as well, so that lookups of unknown client IDs do not query the database
+            return appDetailCache.get(clientId, () -> appDetailRepository.findByClientId(clientId)
+                    .map(TppAppConverter::fromTppAppEntity))
+                    .orElse(null);
+        } catch (ExecutionException ex) {
+            // Checked exceptions are not thrown by the loader, fall back to the database
+            logger.warn("App detail cache lookup failed, error: {}", ex.getMessage());
+            final Optional<TppAppDetailEntity> tppAppEntityOptional = appDetailRepository.findByClientId(clientId);
+            return tppAppEntityOptional
+                    .map(TppAppConverter::fromTppAppEntity)
+                    .orElse(null);
+        }
+    }
+
+    /**
+     * Invalidate cached application details.
+     *
+     * @param clientId Client ID, details of all applications are invalidated in case the client ID is not specified.
+     */
+    public void invalidateAppDetailCache(String clientId) {
+        if (clientId != null) {
+            appDetailCache.invalidate(clientId);
+            logger.info("App detail cache was invalidated, client ID: {}", clientId);
+        } else {
+            appDetailCache.invalidateAll();
+            logger.info("App detail cache was invalidated");
+        }
     }
 }
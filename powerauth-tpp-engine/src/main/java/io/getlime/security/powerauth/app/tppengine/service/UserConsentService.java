@@ -19,6 +19,8 @@ package io.getlime.security.powerauth.app.tppengine.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.getlime.security.powerauth.app.tppengine.errorhandling.exception.ConsentNotFoundException;
+import io.getlime.security.powerauth.app.tppengine.errorhandling.exception.InvalidCursorException;
+import io.getlime.security.powerauth.app.tppengine.model.entity.ConsentStatus;
 import io.getlime.security.powerauth.app.tppengine.model.entity.GivenConsent;
 import io.getlime.security.powerauth.app.tppengine.model.entity.GivenConsentHistory;
 import io.getlime.security.powerauth.app.tppengine.model.enumeration.ConsentChange;
@@ -26,9 +28,9 @@ import io.getlime.security.powerauth.app.tppengine.model.request.GiveConsentRequ
 import io.getlime.security.powerauth.app.tppengine.model.request.RemoveConsentRequest;
 import io.getlime.security.powerauth.app.tppengine.model.response.ConsentHistoryListResponse;
 import io.getlime.security.powerauth.app.tppengine.model.response.ConsentListResponse;
+import io.getlime.security.powerauth.app.tppengine.model.response.ConsentStatusListResponse;
 import io.getlime.security.powerauth.app.tppengine.model.response.GiveConsentResponse;
 import io.getlime.security.powerauth.app.tppengine.model.response.UserConsentDetailResponse;
-import io.getlime.security.powerauth.app.tppengine.repository.ConsentRepository;
 import io.getlime.security.powerauth.app.tppengine.repository.UserConsentHistoryRepository;
 import io.getlime.security.powerauth.app.tppengine.repository.UserConsentRepository;
 import io.getlime.security.powerauth.app.tppengine.repository.model.entity.ConsentEntity;
@@ -37,6 +39,9 @@ import io.getlime.security.powerauth.app.tppengine.repository.model.entity.UserC
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
@@ -50,15 +55,25 @@ import java.util.*;
 @Service
 public class UserConsentService {
 
-    private final ConsentRepository consentRepository;
+    private final ConsentCacheService consentCacheService;
     private final UserConsentRepository userConsentRepository;
     private final UserConsentHistoryRepository userConsentHistoryRepository;
 
     private final static Logger logger = LoggerFactory.getLogger(UserConsentService.class);
 
+    // Bounds of the consent history time range used when the range is not specified
+    private static final Date HISTORY_MIN_TIMESTAMP = new Date(0L);
+    private static final Date HISTORY_MAX_TIMESTAMP = new Date(253402300799000L); // 9999-12-31T23:59:59Z
+
+    @Value("${powerauth.tppEngine.consentHistory.pageSize:100}")
+    private int historyPageSize;
+
+    @Value("${powerauth.tppEngine.consentHistory.maxPageSize:1000}")
+    private int historyMaxPageSize;
+
     @Autowired
-    public UserConsentService(ConsentRepository consentRepository, UserConsentRepository userConsentRepository, UserConsentHistoryRepository userConsentHistoryRepository) {
-        this.consentRepository = consentRepository;
+    public UserConsentService(ConsentCacheService consentCacheService, UserConsentRepository userConsentRepository, UserConsentHistoryRepository userConsentHistoryRepository) {
+        this.consentCacheService = consentCacheService;
         this.userConsentRepository = userConsentRepository;
         this.userConsentHistoryRepository = userConsentHistoryRepository;
     }
@@ -103,7 +118,7 @@ public class UserConsentService {
     public UserConsentDetailResponse consentStatus(String userId, String consentId, String clientId) throws ConsentNotFoundException {
 
         // Check if a consent with given consent ID exists
-        final Optional<ConsentEntity> consentOptional = consentRepository.findFirstById(consentId);
+        final Optional<ConsentEntity> consentOptional = consentCacheService.findLatestConsent(consentId);
         if (!consentOptional.isPresent()) {
             throw new ConsentNotFoundException(consentId);
         }
@@ -113,18 +128,7 @@ public class UserConsentService {
         if (consentStatusOptional.isPresent()) {
 
             final UserConsentEntity consentStatus = consentStatusOptional.get();
-
-            //TODO: Replace by converter
-            GivenConsent givenConsent = new GivenConsent();
-            givenConsent.setId(consentStatus.getId());
-            givenConsent.setClientId(consentStatus.getClientId());
-            givenConsent.setConsentId(consentStatus.getConsentId());
-            givenConsent.setConsentParameters(consentStatus.getParameters());
-            givenConsent.setExternalId(consentStatus.getExternalId());
-            givenConsent.setTimestampCreated(consentStatus.getTimestampCreated());
-            givenConsent.setTimestampUpdated(consentStatus.getTimestampUpdated());
-            givenConsent.setConsentName(consent.getName());
-            givenConsent.setConsentText(consent.getText());
+            final GivenConsent givenConsent = convertGivenConsent(consentStatus, consent);
 
             UserConsentDetailResponse response = new UserConsentDetailResponse();
             response.setUserId(userId);
@@ -139,6 +143,62 @@ public class UserConsentService {
         }
     }
 
+    /**
+     * Provide status of multiple consents for given user and TPP app. Given consents are fetched using a single
+     * query, consent names and texts are resolved using the consent cache.
+     *
+     * @param userId User ID.
+     * @param clientId Client ID (TPP app ID).
+     * @param consentIds Consent IDs.
+     * @return Information about status of the consents, in the order of provided consent IDs.
+     * @throws ConsentNotFoundException In case a consent with some of the given IDs is not found.
+     */
+    @Transactional
+    public ConsentStatusListResponse consentStatusList(String userId, String clientId, List<String> consentIds) throws ConsentNotFoundException {
+
+        // Check if consents with given consent IDs exist, duplicate consent IDs are ignored
+        final Map<String, ConsentEntity> consents = new LinkedHashMap<>();
+        if (consentIds != null) {
+            for (String consentId: consentIds) {
+                if (consents.containsKey(consentId)) {
+                    continue;
+                }
+                final Optional<ConsentEntity> consentOptional = consentCacheService.findLatestConsent(consentId);
+                if (!consentOptional.isPresent()) {
+                    throw new ConsentNotFoundException(consentId);
+                }
+                consents.put(consentId, consentOptional.get());
+            }
+        }
+
+        ConsentStatusListResponse response = new ConsentStatusListResponse();
+        response.setUserId(userId);
+        response.setClientId(clientId);
+        if (consents.isEmpty()) {
+            return response;
+        }
+
+        // Get the consents given by the user to the TPP app
+        final Map<String, UserConsentEntity> consentStatuses = new HashMap<>();
+        for (UserConsentEntity uce: userConsentRepository.findConsentStatuses(userId, clientId, consents.keySet())) {
+            consentStatuses.put(uce.getConsentId(), uce);
+        }
+
+        for (Map.Entry<String, ConsentEntity> entry: consents.entrySet()) {
+            final ConsentEntity consent = entry.getValue();
+            ConsentStatus consentStatus = new ConsentStatus();
+            consentStatus.setConsentId(entry.getKey());
+            consentStatus.setConsentName(consent.getName());
+            consentStatus.setConsentText(consent.getText());
+            final UserConsentEntity uce = consentStatuses.get(entry.getKey());
+            if (uce != null) {
+                consentStatus.setConsent(convertGivenConsent(uce, consent));
+            }
+            response.getConsents().add(consentStatus);
+        }
+        return response;
+    }
+
     /**
      * Create a consent approval for given TPP app by provided user.
      *
@@ -150,7 +210,7 @@ public class UserConsentService {
     public GiveConsentResponse giveConsent(GiveConsentRequest ro) throws ConsentNotFoundException {
 
         // Check if a consent with given consent exists
-        final Optional<ConsentEntity> consentOptional = consentRepository.findFirstById(ro.getConsentId());
+        final Optional<ConsentEntity> consentOptional = consentCacheService.findLatestConsent(ro.getConsentId());
         if (!consentOptional.isPresent()) {
             throw new ConsentNotFoundException(ro.getConsentId());
         }
@@ -213,7 +273,7 @@ public class UserConsentService {
     public void removeConsent(RemoveConsentRequest ro) throws ConsentNotFoundException {
 
         // Check if a consent with given consent exists
-        final Optional<ConsentEntity> consentOptional = consentRepository.findFirstById(ro.getConsentId());
+        final Optional<ConsentEntity> consentOptional = consentCacheService.findLatestConsent(ro.getConsentId());
         if (!consentOptional.isPresent()) {
             throw new ConsentNotFoundException(ro.getConsentId());
         }
@@ -254,7 +314,7 @@ public class UserConsentService {
             final UserConsentEntity consentStatus = consentStatusOptional.get();
 
             // Check if a consent with given consent exists
-            final Optional<ConsentEntity> consentOptional = consentRepository.findFirstById(consentStatus.getConsentId());
+            final Optional<ConsentEntity> consentOptional = consentCacheService.findLatestConsent(consentStatus.getConsentId());
             if (!consentOptional.isPresent()) { // should happen only in case of data inconsistency.
                 throw new ConsentNotFoundException(consentStatus.getConsentId());
             }
@@ -277,23 +337,58 @@ public class UserConsentService {
     }
 
     /**
-     * Get the consent history for a given user. In case a client ID is specified, the results are filtered
-     * by the TPP application.
+     * Get a page of the consent history for a given user. In case a client ID is specified, the results are filtered
+     * by the TPP application. History items are ordered by the timestamp of creation, pagination uses a cursor which
+     * points to the last returned item, so that each page is loaded using an index range scan and the number of items
+     * held in memory is limited by the page size.
      *
      * @param userId User ID.
      * @param clientId (optional) Client ID.
-     * @return Response with a consent history for given user (and optionally, a given app).
+     * @param timestampFrom (optional) Timestamp of the oldest history item, inclusive.
+     * @param timestampTo (optional) Timestamp of the newest history item, exclusive.
+     * @param cursor (optional) Cursor from the previous page, null for the first page.
+     * @param limit (optional) Maximum number of history items in the page.
+     * @return Response with a page of consent history for given user (and optionally, a given app).
      * @throws ConsentNotFoundException In case of inconsistency and deleted consent.
+     * @throws InvalidCursorException In case the cursor is invalid.
      */
     @Transactional
-    public ConsentHistoryListResponse consentHistoryForUser(String userId, String clientId) throws ConsentNotFoundException {
+    public ConsentHistoryListResponse consentHistoryForUser(String userId, String clientId, Date timestampFrom, Date timestampTo, String cursor, Integer limit) throws ConsentNotFoundException, InvalidCursorException {
 
-        // Get the list of consent history items
-        List<UserConsentHistoryEntity> userConsentHistoryEntities;
+        final int pageSize;
+        if (limit == null || limit <= 0) {
+            pageSize = historyPageSize;
+        } else {
+            pageSize = Math.min(limit, historyMaxPageSize);
+        }
+
+        // Resolve position of the page, the cursor is ignored in case it precedes the requested time range
+        Date afterTimestamp = timestampFrom != null ? timestampFrom : HISTORY_MIN_TIMESTAMP;
+        long afterId = -1L;
+        if (cursor != null) {
+            final String[] cursorParts = cursor.split(":");
+            if (cursorParts.length != 2) {
+                throw new InvalidCursorException(cursor);
+            }
+            try {
+                final Date cursorTimestamp = new Date(Long.parseLong(cursorParts[0]));
+                if (!cursorTimestamp.before(afterTimestamp)) {
+                    afterTimestamp = cursorTimestamp;
+                    afterId = Long.parseLong(cursorParts[1]);
+                }
+            } catch (NumberFormatException ex) {
+                throw new InvalidCursorException(cursor);
+            }
+        }
+        final Date beforeTimestamp = timestampTo != null ? timestampTo : HISTORY_MAX_TIMESTAMP;
+
+        // Get the page of consent history items
+        final List<UserConsentHistoryEntity> userConsentHistoryEntities;
+        final Pageable pageable = PageRequest.of(0, pageSize);
         if (clientId == null) {
-            userConsentHistoryEntities = userConsentHistoryRepository.consentHistoryForUser(userId);
+            userConsentHistoryEntities = userConsentHistoryRepository.consentHistoryForUser(userId, afterTimestamp, afterId, beforeTimestamp, pageable);
         } else {
-            userConsentHistoryEntities = userConsentHistoryRepository.consentHistoryForUser(userId, clientId);
+            userConsentHistoryEntities = userConsentHistoryRepository.consentHistoryForUser(userId, clientId, afterTimestamp, afterId, beforeTimestamp, pageable);
         }
 
         // Iterate and convert the objects
@@ -301,7 +396,7 @@ public class UserConsentService {
         for (UserConsentHistoryEntity uche: userConsentHistoryEntities) {
 
             // Find the consent template
-            final Optional<ConsentEntity> consentEntityOptional = consentRepository.findFirstById(uche.getConsentId());
+            final Optional<ConsentEntity> consentEntityOptional = consentCacheService.findLatestConsent(uche.getConsentId());
             if (!consentEntityOptional.isPresent()) {
                 throw new ConsentNotFoundException(uche.getConsentId());
             }
@@ -313,6 +408,8 @@ public class UserConsentService {
             givenConsentHistory.setConsentId(uche.getConsentId());
             givenConsentHistory.setClientId(uche.getClientId());
             givenConsentHistory.setTimestampCreated(uche.getTimestampCreated());
+            givenConsentHistory.setChangeCount(uche.getChangeCount() != null ? uche.getChangeCount() : 1);
+            givenConsentHistory.setTimestampLastChange(uche.getTimestampLastChange());
             givenConsentHistory.setChange(uche.getChange().name());
             givenConsentHistory.setConsentParameters(uche.getParameters());
             givenConsentHistory.setExternalId(uche.getExternalId());
@@ -322,10 +419,14 @@ public class UserConsentService {
             givenConsentHistoryList.add(givenConsentHistory);
         }
 
-        // Prepare and return a response
+        // Prepare and return a response, a full page indicates that more history items may be available
         ConsentHistoryListResponse response = new ConsentHistoryListResponse();
         response.setUserId(userId);
         response.setHistory(givenConsentHistoryList);
+        if (userConsentHistoryEntities.size() == pageSize) {
+            final UserConsentHistoryEntity lastItem = userConsentHistoryEntities.get(pageSize - 1);
+            response.setNextCursor(lastItem.getTimestampCreated().getTime() + ":" + lastItem.getId());
+        }
         return response;
     }
 
@@ -347,6 +448,7 @@ public class UserConsentService {
         uche.setParameters(parameters);
         uche.setChange(change);
         uche.setTimestampCreated(date);
+        uche.setChangeCount(1);
         userConsentHistoryRepository.save(uche);
     }
 
@@ -364,24 +466,14 @@ public class UserConsentService {
         for (UserConsentEntity uce: consentEntities) {
 
             // Find the consent template
-            final Optional<ConsentEntity> consentEntityOptional = consentRepository.findFirstById(uce.getConsentId());
+            final Optional<ConsentEntity> consentEntityOptional = consentCacheService.findLatestConsent(uce.getConsentId());
             if (!consentEntityOptional.isPresent()) {
                 throw new ConsentNotFoundException(uce.getConsentId());
             }
             final ConsentEntity consent = consentEntityOptional.get();
 
             // Prepare the consent entity for the response
-            //TODO: Replace by converter
-            GivenConsent givenConsent = new GivenConsent();
-            givenConsent.setId(uce.getId());
-            givenConsent.setClientId(uce.getClientId());
-            givenConsent.setConsentId(uce.getConsentId());
-            givenConsent.setConsentParameters(uce.getParameters());
-            givenConsent.setExternalId(uce.getExternalId());
-            givenConsent.setTimestampCreated(uce.getTimestampCreated());
-            givenConsent.setTimestampUpdated(uce.getTimestampUpdated());
-            givenConsent.setConsentName(consent.getName());
-            givenConsent.setConsentText(consent.getText());
+            final GivenConsent givenConsent = convertGivenConsent(uce, consent);
 
             // Add the consent entity to the list
             givenConsents.add(givenConsent);
@@ -390,6 +482,28 @@ public class UserConsentService {
         return givenConsents;
     }
 
+    /**
+     * Convert a consent given by a user to the response entity.
+     *
+     * @param uce Consent entity approved by a user.
+     * @param consent Consent template.
+     * @return Given consent.
+     */
+    private GivenConsent convertGivenConsent(UserConsentEntity uce, ConsentEntity consent) {
+        //TODO: Replace by converter
+        GivenConsent givenConsent = new GivenConsent();
+        givenConsent.setId(uce.getId());
+        givenConsent.setClientId(uce.getClientId());
+        givenConsent.setConsentId(uce.getConsentId());
+        givenConsent.setConsentParameters(uce.getParameters());
+        givenConsent.setExternalId(uce.getExternalId());
+        givenConsent.setTimestampCreated(uce.getTimestampCreated());
+        givenConsent.setTimestampUpdated(uce.getTimestampUpdated());
+        givenConsent.setConsentName(consent.getName());
+        givenConsent.setConsentText(consent.getText());
+        return givenConsent;
+    }
+
     /**
      * Convert Map to JSON String.
      * @param parameters Map.
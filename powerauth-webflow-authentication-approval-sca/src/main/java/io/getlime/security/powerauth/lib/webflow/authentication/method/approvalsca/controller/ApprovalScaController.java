@@ -39,7 +39,6 @@ import io.getlime.security.powerauth.lib.webflow.authentication.method.approvals
 import io.getlime.security.powerauth.lib.webflow.authentication.method.approvalsca.model.request.ApprovalScaInitRequest;
 import io.getlime.security.powerauth.lib.webflow.authentication.method.approvalsca.model.response.ApprovalScaAuthResponse;
 import io.getlime.security.powerauth.lib.webflow.authentication.method.approvalsca.model.response.ApprovalScaInitResponse;
-import io.getlime.security.powerauth.lib.webflow.authentication.model.HttpSessionAttributeNames;
 import io.getlime.security.powerauth.lib.webflow.authentication.model.converter.FormDataConverter;
 import io.getlime.security.powerauth.lib.webflow.authentication.model.converter.UserAccountStatusConverter;
 import io.getlime.security.powerauth.lib.webflow.authentication.repository.CertificateVerificationRepository;
@@ -54,7 +53,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
-import javax.servlet.http.HttpSession;
 import java.util.Collections;
 import java.util.List;
 
@@ -76,7 +74,6 @@ public class ApprovalScaController extends AuthMethodController<ApprovalScaAuthR
     private final AuthMethodQueryService authMethodQueryService;
     private final AuthenticationManagementService authenticationManagementService;
     private final CertificateVerificationRepository certificateVerificationRepository;
-    private final HttpSession httpSession;
     private final WebFlowServicesConfiguration config;
 
     private final UserAccountStatusConverter userAccountStatusConverter = new UserAccountStatusConverter();
@@ -88,17 +85,15 @@ public class ApprovalScaController extends AuthMethodController<ApprovalScaAuthR
      * @param authMethodQueryService Service for querying authentication methods.
      * @param authenticationManagementService Authentication management service.
      * @param certificateVerificationRepository Certificate verification repository.
-     * @param httpSession HTTP session.
      * @param config Web Flow services configuration.
      */
     @Autowired
-    public ApprovalScaController(DataAdapterClient dataAdapterClient, NextStepClient nextStepClient, AuthMethodQueryService authMethodQueryService, AuthenticationManagementService authenticationManagementService, CertificateVerificationRepository certificateVerificationRepository, HttpSession httpSession, WebFlowServicesConfiguration config) {
+    public ApprovalScaController(DataAdapterClient dataAdapterClient, NextStepClient nextStepClient, AuthMethodQueryService authMethodQueryService, AuthenticationManagementService authenticationManagementService, CertificateVerificationRepository certificateVerificationRepository, WebFlowServicesConfiguration config) {
         this.dataAdapterClient = dataAdapterClient;
         this.nextStepClient = nextStepClient;
         this.authMethodQueryService = authMethodQueryService;
         this.authenticationManagementService = authenticationManagementService;
         this.certificateVerificationRepository = certificateVerificationRepository;
-        this.httpSession = httpSession;
         this.config = config;
     }
 
@@ -260,9 +255,7 @@ public class ApprovalScaController extends AuthMethodController<ApprovalScaAuthR
      * @return Client certificate.
      */
     private String getClientCertificateFromHttpSession() {
-        synchronized (httpSession.getServletContext()) {
-            return (String) httpSession.getAttribute(HttpSessionAttributeNames.CLIENT_CERTIFICATE);
-        }
+        return getAuthFlowState().getClientCertificate();
     }
 
     /**
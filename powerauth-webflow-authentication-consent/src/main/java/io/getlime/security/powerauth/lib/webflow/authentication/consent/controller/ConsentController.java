@@ -45,7 +45,6 @@ import io.getlime.security.powerauth.lib.webflow.authentication.controller.AuthM
 import io.getlime.security.powerauth.lib.webflow.authentication.exception.AuthStepException;
 import io.getlime.security.powerauth.lib.webflow.authentication.exception.MaxAttemptsExceededException;
 import io.getlime.security.powerauth.lib.webflow.authentication.model.AuthenticationResult;
-import io.getlime.security.powerauth.lib.webflow.authentication.model.HttpSessionAttributeNames;
 import io.getlime.security.powerauth.lib.webflow.authentication.model.converter.FormDataConverter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,7 +55,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
-import javax.servlet.http.HttpSession;
 import java.util.List;
 
 /**
@@ -73,21 +71,18 @@ public class ConsentController extends AuthMethodController<ConsentAuthRequest,
     private final DataAdapterClient dataAdapterClient;
     private final NextStepClient nextStepClient;
     private final HtmlSanitizationService htmlSanitizationService;
-    private final HttpSession httpSession;
 
     /**
      * Controller constructor.
      * @param dataAdapterClient Data adapter client.
      * @param nextStepClient Next step client.
      * @param htmlSanitizationService Html sanitization service.
-     * @param httpSession HTTP session.
      */
     @Autowired
-    public ConsentController(DataAdapterClient dataAdapterClient, NextStepClient nextStepClient, HtmlSanitizationService htmlSanitizationService, HttpSession httpSession) {
+    public ConsentController(DataAdapterClient dataAdapterClient, NextStepClient nextStepClient, HtmlSanitizationService htmlSanitizationService) {
         this.dataAdapterClient = dataAdapterClient;
         this.nextStepClient = nextStepClient;
         this.htmlSanitizationService = htmlSanitizationService;
-        this.httpSession = httpSession;
     }
 
     /**
@@ -234,31 +229,21 @@ public class ConsentController extends AuthMethodController<ConsentAuthRequest,
      * @param consentSkipped Whether consent is skipped.
      */
     private void updateConsentSkippedInHttpSession(boolean consentSkipped) {
-        synchronized (httpSession.getServletContext()) {
-            httpSession.setAttribute(HttpSessionAttributeNames.CONSENT_SKIPPED, consentSkipped);
-        }
+        getAuthFlowState().setConsentSkipped(consentSkipped);
     }
 
     /**
      * Get message ID from HTTP session.
      */
     private boolean getConsentSkippedFromHttpSession() {
-        synchronized (httpSession.getServletContext()) {
-            Object consentSkipped = httpSession.getAttribute(HttpSessionAttributeNames.CONSENT_SKIPPED);
-            if (consentSkipped == null) {
-                return false;
-            }
-            return (boolean) consentSkipped;
-        }
+        return getAuthFlowState().isConsentSkipped();
     }
 
     /**
      * Clean HTTP session.
      */
     private void cleanHttpSession() {
-        synchronized (httpSession.getServletContext()) {
-            httpSession.removeAttribute(HttpSessionAttributeNames.CONSENT_SKIPPED);
-        }
+        getAuthFlowState().setConsentSkipped(false);
     }
 
     /**
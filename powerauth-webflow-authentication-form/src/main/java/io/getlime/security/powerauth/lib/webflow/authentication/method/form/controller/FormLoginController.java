@@ -130,10 +130,12 @@ public class FormLoginController extends AuthMethodController<UsernamePasswordAu
             AccountStatus accountStatus = lookupResponse.getResponseObject().getAccountStatus();
 
             nextStepClient.updateOperationUser(operation.getOperationId(), userId, organizationId, statusConverter.fromAccountStatus(accountStatus));
+            operation.setUserId(userId);
+            operation.setOrganizationId(organizationId);
             if (configuration.isAfsEnabled() && !afsLoginAuthAlreadyExecuted(operation)) {
                 // Trigger LOGIN_INIT action for the first time
                 AfsAction afsAction = AfsAction.LOGIN_INIT;
-                afsIntegrationService.executeInitAction(operation.getOperationId(), request.getUsername(), afsAction);
+                afsIntegrationService.executeInitAction(operation, request.getUsername(), afsAction);
                 // Currently the AFS call is only informational, there is no step-down implemented
             }
 
@@ -236,7 +238,7 @@ public class FormLoginController extends AuthMethodController<UsernamePasswordAu
                 @Override
                 public UsernamePasswordAuthResponse doneAuthentication(String userId) {
                     if (afsAction != null) {
-                        afsIntegrationService.executeAuthAction(operation.getOperationId(), afsAction, username, authInstruments,  AuthStepResult.CONFIRMED);
+                        afsIntegrationService.executeAuthAction(operation, afsAction, username, authInstruments,  AuthStepResult.CONFIRMED);
                     }
                     authenticateCurrentBrowserSession();
                     final UsernamePasswordAuthResponse response = new UsernamePasswordAuthResponse();
@@ -259,7 +261,7 @@ public class FormLoginController extends AuthMethodController<UsernamePasswordAu
                 @Override
                 public UsernamePasswordAuthResponse continueAuthentication(String operationId, String userId, List<AuthStep> steps) {
                     if (afsAction != null) {
-                        afsIntegrationService.executeAuthAction(operation.getOperationId(), afsAction, username, authInstruments, AuthStepResult.CONFIRMED);
+                        afsIntegrationService.executeAuthAction(operation, afsAction, username, authInstruments, AuthStepResult.CONFIRMED);
                     }
                     final UsernamePasswordAuthResponse response = new UsernamePasswordAuthResponse();
                     response.setResult(AuthStepResult.CONFIRMED);
@@ -277,16 +279,16 @@ public class FormLoginController extends AuthMethodController<UsernamePasswordAu
                     AuthenticationFailedException authEx = (AuthenticationFailedException) e;
                     if (authEx.getAccountStatus() != UserAccountStatus.ACTIVE) {
                         // notify AFS about failed authentication method due to the fact that user account is not active
-                        afsIntegrationService.executeAuthAction(operation.getOperationId(), afsAction, username, authInstruments, AuthStepResult.AUTH_METHOD_FAILED);
+                        afsIntegrationService.executeAuthAction(operation, afsAction, username, authInstruments, AuthStepResult.AUTH_METHOD_FAILED);
                     } else {
                         // notify AFS about failed authentication
-                        afsIntegrationService.executeAuthAction(operation.getOperationId(), afsAction, username, authInstruments, AuthStepResult.AUTH_FAILED);
+                        afsIntegrationService.executeAuthAction(operation, afsAction, username, authInstruments, AuthStepResult.AUTH_FAILED);
                     }
                 } else if (e instanceof MaxAttemptsExceededException) {
                     // notify AFS about failed authentication method due to last attempt
-                    afsIntegrationService.executeAuthAction(operation.getOperationId(), afsAction, username, authInstruments, AuthStepResult.AUTH_METHOD_FAILED);
+                    afsIntegrationService.executeAuthAction(operation, afsAction, username, authInstruments, AuthStepResult.AUTH_METHOD_FAILED);
                     // notify AFS about logout
-                    afsIntegrationService.executeLogoutAction(operation.getOperationId(), OperationTerminationReason.FAILED);
+                    afsIntegrationService.executeLogoutAction(operation, OperationTerminationReason.FAILED);
                 }
             }
             final UsernamePasswordAuthResponse response = new UsernamePasswordAuthResponse();
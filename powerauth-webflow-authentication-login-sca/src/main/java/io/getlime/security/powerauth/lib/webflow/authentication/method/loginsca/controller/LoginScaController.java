@@ -45,7 +45,6 @@ import io.getlime.security.powerauth.lib.webflow.authentication.method.loginsca.
 import io.getlime.security.powerauth.lib.webflow.authentication.method.loginsca.model.request.LoginScaInitRequest;
 import io.getlime.security.powerauth.lib.webflow.authentication.method.loginsca.model.response.LoginScaAuthResponse;
 import io.getlime.security.powerauth.lib.webflow.authentication.method.loginsca.model.response.LoginScaInitResponse;
-import io.getlime.security.powerauth.lib.webflow.authentication.model.HttpSessionAttributeNames;
 import io.getlime.security.powerauth.lib.webflow.authentication.model.OrganizationDetail;
 import io.getlime.security.powerauth.lib.webflow.authentication.model.converter.FormDataConverter;
 import io.getlime.security.powerauth.lib.webflow.authentication.model.converter.OrganizationConverter;
@@ -60,7 +59,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
-import javax.servlet.http.HttpSession;
 import javax.validation.Valid;
 import java.util.Collections;
 import java.util.List;
@@ -81,7 +79,6 @@ public class LoginScaController extends AuthMethodController<LoginScaAuthRequest
     private final NextStepClient nextStepClient;
     private final AuthMethodQueryService authMethodQueryService;
     private final AuthenticationManagementService authenticationManagementService;
-    private final HttpSession httpSession;
     private final WebFlowServicesConfiguration config;
 
     private final OrganizationConverter organizationConverter = new OrganizationConverter();
@@ -93,16 +90,14 @@ public class LoginScaController extends AuthMethodController<LoginScaAuthRequest
      * @param nextStepClient Next Step client.
      * @param authMethodQueryService Service for querying authentication methods.
      * @param authenticationManagementService Authentication management service.
-     * @param httpSession HTTP session.
      * @param config Web Flow services configuration.
      */
     @Autowired
-    public LoginScaController(DataAdapterClient dataAdapterClient, NextStepClient nextStepClient, AuthMethodQueryService authMethodQueryService, AuthenticationManagementService authenticationManagementService, HttpSession httpSession, WebFlowServicesConfiguration config) {
+    public LoginScaController(DataAdapterClient dataAdapterClient, NextStepClient nextStepClient, AuthMethodQueryService authMethodQueryService, AuthenticationManagementService authenticationManagementService, WebFlowServicesConfiguration config) {
         this.dataAdapterClient = dataAdapterClient;
         this.nextStepClient = nextStepClient;
         this.authMethodQueryService = authMethodQueryService;
         this.authenticationManagementService = authenticationManagementService;
-        this.httpSession = httpSession;
         this.config = config;
     }
 
@@ -263,9 +258,7 @@ public class LoginScaController extends AuthMethodController<LoginScaAuthRequest
      * @param username Username supplied by user.
      */
     private void updateUsernameInHttpSession(String username) {
-        synchronized (httpSession.getServletContext()) {
-            httpSession.setAttribute(HttpSessionAttributeNames.USERNAME, username);
-        }
+        getAuthFlowState().setUsername(username);
     }
 
     /**
@@ -273,9 +266,7 @@ public class LoginScaController extends AuthMethodController<LoginScaAuthRequest
      * @return Client certificate.
      */
     private String getClientCertificateFromHttpSession() {
-        synchronized (httpSession.getServletContext()) {
-            return (String) httpSession.getAttribute(HttpSessionAttributeNames.CLIENT_CERTIFICATE);
-        }
+        return getAuthFlowState().getClientCertificate();
     }
 
     /**
@@ -28,18 +28,18 @@ import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthMethod;
 import io.getlime.security.powerauth.lib.nextstep.model.enumeration.OperationCancelReason;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.NextStepServiceException;
 import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationConfigDetailResponse;
-import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationConfigListResponse;
 import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationDetailResponse;
 import io.getlime.security.powerauth.lib.nextstep.model.response.UpdateOperationResponse;
 import io.getlime.security.powerauth.lib.webflow.authentication.controller.AuthMethodController;
 import io.getlime.security.powerauth.lib.webflow.authentication.exception.AuthStepException;
-import io.getlime.security.powerauth.lib.webflow.authentication.exception.OperationNotConfiguredException;
 import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.errorhandling.exception.InvalidActivationException;
 import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.errorhandling.exception.InvalidRequestObjectException;
 import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.errorhandling.exception.MobileAppApiException;
 import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.model.converter.OperationConverter;
+import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.model.entity.MobileOperationList;
 import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.model.request.MobileTokenAuthenticationRequest;
 import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.model.response.MobileTokenAuthenticationResponse;
+import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.service.MobileOperationListService;
 import io.getlime.security.powerauth.lib.webflow.authentication.service.AuthMethodQueryService;
 import io.getlime.security.powerauth.lib.webflow.authentication.service.WebSocketMessageService;
 import io.getlime.security.powerauth.rest.api.base.authentication.PowerAuthApiAuthentication;
@@ -49,8 +49,12 @@ import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
@@ -71,16 +75,19 @@ public class MobileAppApiController extends AuthMethodController<MobileTokenAuth
 
     private final WebSocketMessageService webSocketMessageService;
     private final AuthMethodQueryService authMethodQueryService;
+    private final MobileOperationListService mobileOperationListService;
 
     /**
      * Controller constructor.
      * @param webSocketMessageService Web Socket message service.
      * @param authMethodQueryService Authentication method query service.
+     * @param mobileOperationListService Service for operation list for mobile applications.
      */
     @Autowired
-    public MobileAppApiController(WebSocketMessageService webSocketMessageService, AuthMethodQueryService authMethodQueryService) {
+    public MobileAppApiController(WebSocketMessageService webSocketMessageService, AuthMethodQueryService authMethodQueryService, MobileOperationListService mobileOperationListService) {
         this.webSocketMessageService = webSocketMessageService;
         this.authMethodQueryService = authMethodQueryService;
+        this.mobileOperationListService = mobileOperationListService;
     }
 
     /**
@@ -95,20 +102,22 @@ public class MobileAppApiController extends AuthMethodController<MobileTokenAuth
     /**
      * List pending operations for Mobile Token authorization, authenticate using 1FA signature.
      * @param apiAuthentication API authentication.
-     * @return Response with list of pending operations.
+     * @param ifNoneMatch Entity tag of the operation list known by the mobile application.
+     * @return Response with list of pending operations or a not modified response in case the list did not change.
      * @throws InvalidActivationException Thrown in case activation is not valid.
      * @throws PowerAuthAuthenticationException Thrown in case PowerAuth authentication fails.
      */
     @RequestMapping(value = "/operation/list/signature", method = RequestMethod.POST)
     @PowerAuth(resourceId = "/operation/list/signature", signatureType = {PowerAuthSignatureTypes.POSSESSION})
-    public @ResponseBody ObjectResponse<OperationListResponse> getOperationList(PowerAuthApiAuthentication apiAuthentication) throws InvalidActivationException, PowerAuthAuthenticationException {
-        return getOperationListImpl(apiAuthentication);
+    public @ResponseBody ResponseEntity<ObjectResponse<OperationListResponse>> getOperationList(PowerAuthApiAuthentication apiAuthentication, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws InvalidActivationException, PowerAuthAuthenticationException {
+        return getOperationListImpl(apiAuthentication, ifNoneMatch);
     }
 
     /**
      * List pending operations for Mobile Token authorization, authenticate using simple token-based authentication.
      * @param apiAuthentication API authentication.
-     * @return Response with list of pending operations.
+     * @param ifNoneMatch Entity tag of the operation list known by the mobile application.
+     * @return Response with list of pending operations or a not modified response in case the list did not change.
      * @throws InvalidActivationException Thrown in case activation is not valid.
      * @throws PowerAuthAuthenticationException Thrown in case PowerAuth authentication fails.
      */
@@ -119,18 +128,19 @@ public class MobileAppApiController extends AuthMethodController<MobileTokenAuth
             PowerAuthSignatureTypes.POSSESSION_KNOWLEDGE,
             PowerAuthSignatureTypes.POSSESSION_KNOWLEDGE_BIOMETRY
     })
-    public @ResponseBody ObjectResponse<OperationListResponse> getOperationListTokens(PowerAuthApiAuthentication apiAuthentication) throws InvalidActivationException, PowerAuthAuthenticationException {
-        return getOperationListImpl(apiAuthentication);
+    public @ResponseBody ResponseEntity<ObjectResponse<OperationListResponse>> getOperationListTokens(PowerAuthApiAuthentication apiAuthentication, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws InvalidActivationException, PowerAuthAuthenticationException {
+        return getOperationListImpl(apiAuthentication, ifNoneMatch);
     }
 
     /**
      * List pending operations for Mobile Token authorization.
      * @param apiAuthentication API authentication.
-     * @return Response with list of pending operations.
+     * @param ifNoneMatch Entity tag of the operation list known by the mobile application.
+     * @return Response with list of pending operations or a not modified response in case the list did not change.
      * @throws InvalidActivationException Thrown in case activation is not valid.
      * @throws PowerAuthAuthenticationException Thrown in case PowerAuth authentication fails.
      */
-    private ObjectResponse<OperationListResponse> getOperationListImpl(PowerAuthApiAuthentication apiAuthentication) throws InvalidActivationException, PowerAuthAuthenticationException {
+    private ResponseEntity<ObjectResponse<OperationListResponse>> getOperationListImpl(PowerAuthApiAuthentication apiAuthentication, String ifNoneMatch) throws InvalidActivationException, PowerAuthAuthenticationException {
         if (apiAuthentication != null && apiAuthentication.getUserId() != null) {
             String activationId = apiAuthentication.getActivationId();
             String userId = apiAuthentication.getUserId();
@@ -140,65 +150,29 @@ public class MobileAppApiController extends AuthMethodController<MobileTokenAuth
                 throw new InvalidActivationException(activationId);
             }
 
-            // Get the list of operations for given user
-            List<GetOperationDetailResponse> operationList;
-            Map<String, GetOperationConfigDetailResponse> operationConfigs;
+            // Get the list of operations for given user, operations are converted using cached configurations and translations
+            MobileOperationList operationList;
             try {
-                operationList = getOperationListForUser(userId, true);
-                operationConfigs = getOperationConfigs(operationList);
-            } catch (AuthStepException e) {
+                List<GetOperationDetailResponse> operations = getOperationSummaryListForUser(userId, true);
+                operationList = mobileOperationListService.getOperationList(operations);
+            } catch (AuthStepException | NextStepServiceException e) {
                 logger.error("Could not retrieve operation list", e);
                 // Next step operation list failed, return empty operation list
-                return new ObjectResponse<>(new OperationListResponse());
+                return ResponseEntity.ok(new ObjectResponse<>(new OperationListResponse()));
             }
 
-
-            // Prepare converter
-            final OperationConverter converter = new OperationConverter();
-
-            // Prepare converted result with operations
-            OperationListResponse result = new OperationListResponse();
-            for (GetOperationDetailResponse operation: operationList) {
-                final GetOperationConfigDetailResponse operationConfig = operationConfigs.get(operation.getOperationName());
-                result.add(converter.fromOperationDetailResponse(operation, operationConfig.getMobileTokenMode()));
+            // Return not modified response in case the mobile application already has current operation list
+            if (operationList.getEtag().equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(operationList.getEtag()).build();
             }
 
             // Return response
-            return new ObjectResponse<>(result);
+            return ResponseEntity.ok().eTag(operationList.getEtag()).body(new ObjectResponse<>(operationList.getOperations()));
         } else {
             throw new PowerAuthAuthenticationException();
         }
     }
 
-    /**
-     * Get map of all operation configurations (operation name -> operation configuration).
-     * @param operations Operation list.
-     * @return Map of operation configurations.
-     * @throws AuthStepException Thrown in case operation configuration query fails.
-     */
-    private Map<String, GetOperationConfigDetailResponse> getOperationConfigs(List<GetOperationDetailResponse> operations) throws AuthStepException {
-        final Map<String, GetOperationConfigDetailResponse> operationConfigs = new HashMap<>();
-        final GetOperationConfigListResponse allConfigsResponse = getOperationConfigs();
-        // Construct Map for all configured operations on server (operation name -> operation configuration)
-        final Map<String, GetOperationConfigDetailResponse> allOperationConfigs = new HashMap<>();
-        for (GetOperationConfigDetailResponse config: allConfigsResponse.getOperationConfigs()) {
-            allOperationConfigs.put(config.getOperationName(), config);
-        }
-        // Go through operations for which a configuration was requested and construct response map
-        for (GetOperationDetailResponse operation: operations) {
-            String operationName = operation.getOperationName();
-            if (!operationConfigs.containsKey(operationName)) {
-                final GetOperationConfigDetailResponse operationConfig = allOperationConfigs.get(operationName);
-                // In case the operation configuration is not found, throw an OperationNotConfiguredException to alert about misconfigured server
-                if (operationConfig == null) {
-                    throw new OperationNotConfiguredException("Operation not configured, operation name: " + operationName);
-                }
-                operationConfigs.put(operationName, operationConfig);
-            }
-        }
-        return operationConfigs;
-    }
-
     /**
      * Authorize an operation using Mobile Token.
      * @param request Mobile Token authorization request.
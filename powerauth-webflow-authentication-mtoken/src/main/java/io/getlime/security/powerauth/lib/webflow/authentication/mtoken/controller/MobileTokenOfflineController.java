@@ -40,7 +40,6 @@ import io.getlime.security.powerauth.lib.webflow.authentication.exception.AuthSt
 import io.getlime.security.powerauth.lib.webflow.authentication.exception.CommunicationFailedException;
 import io.getlime.security.powerauth.lib.webflow.authentication.exception.MaxAttemptsExceededException;
 import io.getlime.security.powerauth.lib.webflow.authentication.model.AuthenticationResult;
-import io.getlime.security.powerauth.lib.webflow.authentication.model.HttpSessionAttributeNames;
 import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.errorhandling.exception.OfflineModeDisabledException;
 import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.errorhandling.exception.OfflineModeInvalidActivationException;
 import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.errorhandling.exception.OfflineModeInvalidAuthCodeException;
@@ -64,7 +63,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
 
-import javax.servlet.http.HttpSession;
 import java.math.BigInteger;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -90,7 +88,6 @@ public class MobileTokenOfflineController extends AuthMethodController<QrCodeAut
     private final AuthMethodQueryService authMethodQueryService;
     private final WebFlowServicesConfiguration webFlowServicesConfiguration;
     private final PushMessageService pushMessageService;
-    private final HttpSession httpSession;
 
     /**
      * Controller constructor.
@@ -98,15 +95,13 @@ public class MobileTokenOfflineController extends AuthMethodController<QrCodeAut
      * @param authMethodQueryService Authentication method query service.
      * @param webFlowServicesConfiguration Web Flow configuration.
      * @param pushMessageService Push message service.
-     * @param httpSession HTTP session.
      */
     @Autowired
-    public MobileTokenOfflineController(PowerAuthServiceClient powerAuthServiceClient, AuthMethodQueryService authMethodQueryService, WebFlowServicesConfiguration webFlowServicesConfiguration, PushMessageService pushMessageService, HttpSession httpSession) {
+    public MobileTokenOfflineController(PowerAuthServiceClient powerAuthServiceClient, AuthMethodQueryService authMethodQueryService, WebFlowServicesConfiguration webFlowServicesConfiguration, PushMessageService pushMessageService) {
         this.powerAuthServiceClient = powerAuthServiceClient;
         this.authMethodQueryService = authMethodQueryService;
         this.webFlowServicesConfiguration = webFlowServicesConfiguration;
         this.pushMessageService = pushMessageService;
-        this.httpSession = httpSession;
     }
 
     /**
@@ -231,7 +226,7 @@ public class MobileTokenOfflineController extends AuthMethodController<QrCodeAut
 
         // generating of QR code
         OfflineSignatureQrCode qrCode = generateQrCode(activationEntity);
-        initResponse.setQrCode(qrCode.generateImage());
+        initResponse.setQrCode(qrCode.generateImage(webFlowServicesConfiguration.getOfflineModeQrCodeFormat()));
         initResponse.setNonce(qrCode.getNonce());
         initResponse.setChosenActivation(activationEntity);
         // currently the choice of activations is limited only to the configured activation, however list is kept in case we decide in future to re-enable the choice
@@ -396,8 +391,6 @@ public class MobileTokenOfflineController extends AuthMethodController<QrCodeAut
      * Clean HTTP session.
      */
     private void cleanHttpSession() {
-        synchronized (httpSession.getServletContext()) {
-            httpSession.removeAttribute(HttpSessionAttributeNames.USERNAME);
-        }
+        getAuthFlowState().setUsername(null);
     }
 }
@@ -28,11 +28,12 @@ import io.getlime.security.powerauth.lib.webflow.authentication.configuration.We
 import io.getlime.security.powerauth.lib.webflow.authentication.controller.AuthMethodController;
 import io.getlime.security.powerauth.lib.webflow.authentication.exception.AuthStepException;
 import io.getlime.security.powerauth.lib.webflow.authentication.model.AuthenticationResult;
-import io.getlime.security.powerauth.lib.webflow.authentication.model.HttpSessionAttributeNames;
 import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.model.request.MobileTokenAuthenticationRequest;
 import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.model.response.MobileTokenAuthenticationResponse;
 import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.model.response.MobileTokenInitResponse;
+import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.model.response.MobileTokenWaitResponse;
 import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.service.PushMessageService;
+import io.getlime.security.powerauth.lib.webflow.authentication.service.OperationChangeWaitService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,8 +42,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.DeferredResult;
 
-import javax.servlet.http.HttpSession;
 import java.util.List;
 
 /**
@@ -59,21 +60,21 @@ public class MobileTokenOnlineController extends AuthMethodController<MobileToke
     private final WebFlowServicesConfiguration webFlowServicesConfiguration;
     private final PushMessageService pushMessageService;
     private final NextStepClient nextStepClient;
-    private final HttpSession httpSession;
+    private final OperationChangeWaitService operationChangeWaitService;
 
     /**
      * Controller constructor.
      * @param webFlowServicesConfiguration Web Flow configuration.
      * @param pushMessageService Push message service.
      * @param nextStepClient Next Step client.
-     * @param httpSession HTTP session.
+     * @param operationChangeWaitService Service for requests waiting for a change of operation state.
      */
     @Autowired
-    public MobileTokenOnlineController(WebFlowServicesConfiguration webFlowServicesConfiguration, PushMessageService pushMessageService, NextStepClient nextStepClient, HttpSession httpSession) {
+    public MobileTokenOnlineController(WebFlowServicesConfiguration webFlowServicesConfiguration, PushMessageService pushMessageService, NextStepClient nextStepClient, OperationChangeWaitService operationChangeWaitService) {
         this.webFlowServicesConfiguration = webFlowServicesConfiguration;
         this.pushMessageService = pushMessageService;
         this.nextStepClient = nextStepClient;
-        this.httpSession = httpSession;
+        this.operationChangeWaitService = operationChangeWaitService;
     }
 
     /**
@@ -247,6 +248,40 @@ public class MobileTokenOnlineController extends AuthMethodController<MobileToke
         return response;
     }
 
+    /**
+     * Wait for a change of operation state while online mobile token authentication is pending. The request is completed
+     * when the mobile application confirms or rejects the operation or when the timeout passes, without holding
+     * a thread while waiting. The client should check the operation status using the authenticate method afterwards.
+     *
+     * @return Deferred wait response with a delay suggested before the next status check.
+     * @throws AuthStepException Thrown when operation is not available.
+     */
+    @RequestMapping(value = "/authenticate/wait", method = RequestMethod.POST)
+    public @ResponseBody DeferredResult<MobileTokenWaitResponse> waitForOperationChange() throws AuthStepException {
+        final String operationId = getOperationId();
+        final long retryAfterMs = webFlowServicesConfiguration.getMobileTokenWaitRetryAfterMs();
+        final DeferredResult<MobileTokenWaitResponse> result = new DeferredResult<>(operationChangeWaitService.getWaitTimeoutMs(),
+                () -> new MobileTokenWaitResponse(false, 0));
+        final Runnable listener = () -> result.setResult(new MobileTokenWaitResponse(true, 0));
+        // The listener is registered before the operation is checked, so that no change is missed
+        if (!operationChangeWaitService.addListener(operationId, listener)) {
+            logger.debug("Maximum number of waiting requests reached, operation ID: {}", operationId);
+            result.setResult(new MobileTokenWaitResponse(false, retryAfterMs));
+            return result;
+        }
+        result.onCompletion(() -> operationChangeWaitService.removeListener(operationId, listener));
+        try {
+            final GetOperationDetailResponse operation = nextStepClient.getOperationDetail(operationId).getResponseObject();
+            if (!isAuthenticationPending(operation, getAuthMethodName(operation))) {
+                result.setResult(new MobileTokenWaitResponse(true, 0));
+            }
+        } catch (NextStepServiceException ex) {
+            logger.warn("Operation status could not be checked, operation ID: {}, error: {}", operationId, ex.getMessage());
+            result.setResult(new MobileTokenWaitResponse(false, retryAfterMs));
+        }
+        return result;
+    }
+
     /**
      * Cancel operation.
      * @return Object response.
@@ -275,22 +310,43 @@ public class MobileTokenOnlineController extends AuthMethodController<MobileToke
         }
     }
 
+    /**
+     * Check whether online mobile token authentication still waits for user action, the conditions match the checks
+     * in the authenticate method. The check does not verify availability of the authentication method, it is verified
+     * by the authenticate method.
+     * @param operation Operation.
+     * @param authMethod Authentication method.
+     * @return Whether authentication is pending.
+     */
+    private boolean isAuthenticationPending(GetOperationDetailResponse operation, AuthMethod authMethod) {
+        if (operation.isExpired() || AuthResult.DONE.equals(operation.getResult())) {
+            return false;
+        }
+        for (OperationHistory h : operation.getHistory()) {
+            if (authMethod != h.getAuthMethod()) {
+                continue;
+            }
+            if (AuthStepResult.CONFIRMED.equals(h.getRequestAuthStepResult())
+                    || AuthStepResult.AUTH_METHOD_FAILED.equals(h.getRequestAuthStepResult())
+                    || (AuthResult.FAILED.equals(h.getAuthResult()) && AuthStepResult.CANCELED.equals(h.getRequestAuthStepResult()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Get username from HTTP session.
      */
     private String getUsernameFromHttpSession() {
-        synchronized (httpSession.getServletContext()) {
-            return (String) httpSession.getAttribute(HttpSessionAttributeNames.USERNAME);
-        }
+        return getAuthFlowState().getUsername();
     }
 
     /**
      * Clean HTTP session.
      */
     private void cleanHttpSession() {
-        synchronized (httpSession.getServletContext()) {
-            httpSession.removeAttribute(HttpSessionAttributeNames.USERNAME);
-        }
+        getAuthFlowState().setUsername(null);
     }
 
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.mtoken.model.entity;
+
+import io.getlime.security.powerauth.lib.mtoken.model.response.OperationListResponse;
+
+/**
+ * List of pending operations for the mobile application together with the version of the list.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class MobileOperationList {
+
+    private final OperationListResponse operations;
+    private final String etag;
+
+    /**
+     * Constructor with operations and their version.
+     * @param operations Converted operations.
+     * @param etag Entity tag which changes whenever content of the operation list changes.
+     */
+    public MobileOperationList(OperationListResponse operations, String etag) {
+        this.operations = operations;
+        this.etag = etag;
+    }
+
+    /**
+     * Get converted operations.
+     * @return Converted operations.
+     */
+    public OperationListResponse getOperations() {
+        return operations;
+    }
+
+    /**
+     * Get entity tag which changes whenever content of the operation list changes.
+     * @return Entity tag.
+     */
+    public String getEtag() {
+        return etag;
+    }
+}
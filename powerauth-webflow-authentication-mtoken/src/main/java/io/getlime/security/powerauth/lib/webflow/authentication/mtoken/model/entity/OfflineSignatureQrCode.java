@@ -16,19 +16,15 @@
 
 package io.getlime.security.powerauth.lib.webflow.authentication.mtoken.model.entity;
 
-import com.google.common.io.BaseEncoding;
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.MultiFormatWriter;
 import com.google.zxing.WriterException;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
-import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.Encoder;
+import com.google.zxing.qrcode.encoder.QRCode;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.QrCodeImageFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Signature and data for QR code in offline mode for mobile token.
@@ -83,18 +79,25 @@ public class OfflineSignatureQrCode {
      * @return Generated QR code.
      */
     public String generateImage() {
+        return generateImage(QrCodeImageFormat.PNG);
+    }
+
+    /**
+     * Encodes the QR code data into a String-based image in requested format.
+     * @param format Image format.
+     * @return Generated QR code.
+     */
+    public String generateImage(QrCodeImageFormat format) {
         try {
-            BitMatrix matrix = new MultiFormatWriter().encode(
-                    new String(data.getBytes("UTF-8"), "ISO-8859-1"),
-                    BarcodeFormat.QR_CODE,
-                    size,
-                    size);
-            BufferedImage image = MatrixToImageWriter.toBufferedImage(matrix);
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ImageIO.write(image, "png", baos);
-            byte[] bytes = baos.toByteArray();
-            return "data:image/png;base64," + BaseEncoding.base64().encode(bytes);
-        } catch (WriterException | IOException e) {
+            // QR code byte mode uses ISO-8859-1 by default, the conversion preserves UTF-8 bytes of data in the QR code
+            QRCode qrCode = Encoder.encode(
+                    new String(data.getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1),
+                    ErrorCorrectionLevel.L);
+            if (format == QrCodeImageFormat.SVG) {
+                return QrCodeRenderer.renderSvg(qrCode.getMatrix(), size);
+            }
+            return QrCodeRenderer.renderPng(qrCode.getMatrix(), size);
+        } catch (WriterException e) {
             logger.error(
                     "Error occurred while generating QR code",
                     e
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.mtoken.model.entity;
+
+/**
+ * Metrics of the asynchronous dispatch of push messages about finished authentication steps.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class PushDispatchMetrics {
+
+    private long queueDepth;
+    private long enqueuedCount;
+    private long coalescedCount;
+    private long rejectedCount;
+    private long sentCount;
+    private long retriedCount;
+    private long failedCount;
+    private long averageLatencyMs;
+    private long maxLatencyMs;
+
+    /**
+     * Get number of push messages waiting for dispatch.
+     * @return Number of queued push messages.
+     */
+    public long getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * Set number of push messages waiting for dispatch.
+     * @param queueDepth Number of queued push messages.
+     */
+    public void setQueueDepth(long queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    /**
+     * Get number of push messages accepted for dispatch.
+     * @return Number of accepted push messages.
+     */
+    public long getEnqueuedCount() {
+        return enqueuedCount;
+    }
+
+    /**
+     * Set number of push messages accepted for dispatch.
+     * @param enqueuedCount Number of accepted push messages.
+     */
+    public void setEnqueuedCount(long enqueuedCount) {
+        this.enqueuedCount = enqueuedCount;
+    }
+
+    /**
+     * Get number of push messages which replaced a queued message for the same operation.
+     * @return Number of coalesced push messages.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * Set number of push messages which replaced a queued message for the same operation.
+     * @param coalescedCount Number of coalesced push messages.
+     */
+    public void setCoalescedCount(long coalescedCount) {
+        this.coalescedCount = coalescedCount;
+    }
+
+    /**
+     * Get number of push messages rejected because the queue was full.
+     * @return Number of rejected push messages.
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Set number of push messages rejected because the queue was full.
+     * @param rejectedCount Number of rejected push messages.
+     */
+    public void setRejectedCount(long rejectedCount) {
+        this.rejectedCount = rejectedCount;
+    }
+
+    /**
+     * Get number of push messages delivered to the Push Server.
+     * @return Number of delivered push messages.
+     */
+    public long getSentCount() {
+        return sentCount;
+    }
+
+    /**
+     * Set number of push messages delivered to the Push Server.
+     * @param sentCount Number of delivered push messages.
+     */
+    public void setSentCount(long sentCount) {
+        this.sentCount = sentCount;
+    }
+
+    /**
+     * Get number of retried push message deliveries.
+     * @return Number of retried deliveries.
+     */
+    public long getRetriedCount() {
+        return retriedCount;
+    }
+
+    /**
+     * Set number of retried push message deliveries.
+     * @param retriedCount Number of retried deliveries.
+     */
+    public void setRetriedCount(long retriedCount) {
+        this.retriedCount = retriedCount;
+    }
+
+    /**
+     * Get number of push messages which were not delivered.
+     * @return Number of failed push messages.
+     */
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * Set number of push messages which were not delivered.
+     * @param failedCount Number of failed push messages.
+     */
+    public void setFailedCount(long failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    /**
+     * Get average time in milliseconds between queueing and delivery of a push message.
+     * @return Average delivery latency in milliseconds.
+     */
+    public long getAverageLatencyMs() {
+        return averageLatencyMs;
+    }
+
+    /**
+     * Set average time in milliseconds between queueing and delivery of a push message.
+     * @param averageLatencyMs Average delivery latency in milliseconds.
+     */
+    public void setAverageLatencyMs(long averageLatencyMs) {
+        this.averageLatencyMs = averageLatencyMs;
+    }
+
+    /**
+     * Get maximum time in milliseconds between queueing and delivery of a push message.
+     * @return Maximum delivery latency in milliseconds.
+     */
+    public long getMaxLatencyMs() {
+        return maxLatencyMs;
+    }
+
+    /**
+     * Set maximum time in milliseconds between queueing and delivery of a push message.
+     * @param maxLatencyMs Maximum delivery latency in milliseconds.
+     */
+    public void setMaxLatencyMs(long maxLatencyMs) {
+        this.maxLatencyMs = maxLatencyMs;
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.mtoken.model.entity;
+
+import com.google.common.io.BaseEncoding;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Renderer of QR code images into data URIs. Images are written directly from the QR code modules, so that no
+ * intermediate bitmaps or image encoders are needed. The PNG image layout matches the layout of images rendered
+ * by ZXing including the quiet zone and padding.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public final class QrCodeRenderer {
+
+    /**
+     * Quiet zone size in modules, same as in ZXing QR code writer.
+     */
+    private static final int QUIET_ZONE_SIZE = 4;
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] PNG_IHDR = {'I', 'H', 'D', 'R'};
+    private static final byte[] PNG_PLTE = {'P', 'L', 'T', 'E'};
+    private static final byte[] PNG_IDAT = {'I', 'D', 'A', 'T'};
+    private static final byte[] PNG_IEND = {'I', 'E', 'N', 'D'};
+    // Palette index 0 is used for light modules and index 1 for dark modules
+    private static final byte[] PNG_PALETTE = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0, 0, 0};
+    private static final byte PNG_FILTER_NONE = 0;
+    private static final byte PNG_FILTER_UP = 2;
+
+    private static final ThreadLocal<PngEncoderContext> pngEncoderContext = ThreadLocal.withInitial(PngEncoderContext::new);
+
+    private QrCodeRenderer() {
+    }
+
+    /**
+     * Render QR code as a 1-bit indexed PNG image.
+     * @param matrix QR code modules.
+     * @param size Requested image size in pixels.
+     * @return Data URI with the PNG image.
+     */
+    public static String renderPng(ByteMatrix matrix, int size) {
+        final byte[][] modules = matrix.getArray();
+        final int inputSize = matrix.getWidth();
+        final int qrSize = inputSize + QUIET_ZONE_SIZE * 2;
+        final int outputSize = Math.max(size, qrSize);
+        final int multiple = outputSize / qrSize;
+        final int padding = (outputSize - inputSize * multiple) / 2;
+        final int rowLength = (outputSize + 7) / 8 + 1;
+
+        final PngEncoderContext context = pngEncoderContext.get();
+        final byte[] raw = context.rawBuffer(rowLength * outputSize);
+        // Light rows are all zeros, only rows with dark modules need to be written
+        Arrays.fill(raw, 0, rowLength * outputSize, (byte) 0);
+        int position = padding * rowLength;
+        for (int y = 0; y < inputSize; y++) {
+            final byte[] moduleRow = modules[y];
+            raw[position] = PNG_FILTER_NONE;
+            for (int x = 0; x < inputSize; x++) {
+                if (moduleRow[x] == 1) {
+                    final int start = padding + x * multiple;
+                    for (int pixel = start; pixel < start + multiple; pixel++) {
+                        raw[position + 1 + (pixel >> 3)] |= (byte) (0x80 >>> (pixel & 7));
+                    }
+                }
+            }
+            position += rowLength;
+            // Repeated pixel rows of a module row are identical, the Up filter turns them into zeros
+            for (int i = 1; i < multiple; i++) {
+                raw[position] = PNG_FILTER_UP;
+                position += rowLength;
+            }
+        }
+
+        final int compressedLength = context.deflate(rowLength * outputSize);
+        final byte[] png = context.pngBuffer(PNG_SIGNATURE.length + 12 + 13 + 12 + PNG_PALETTE.length + 12 + compressedLength + 12);
+        position = 0;
+        System.arraycopy(PNG_SIGNATURE, 0, png, position, PNG_SIGNATURE.length);
+        position += PNG_SIGNATURE.length;
+        final byte[] header = context.header;
+        writeInt(header, 0, outputSize);
+        writeInt(header, 4, outputSize);
+        header[8] = 1; // bit depth
+        header[9] = 3; // indexed color
+        header[10] = 0; // deflate compression
+        header[11] = 0; // adaptive filtering
+        header[12] = 0; // no interlace
+        position = writeChunk(context.crc, png, position, PNG_IHDR, header, header.length);
+        position = writeChunk(context.crc, png, position, PNG_PLTE, PNG_PALETTE, PNG_PALETTE.length);
+        position = writeChunk(context.crc, png, position, PNG_IDAT, context.compressed, compressedLength);
+        position = writeChunk(context.crc, png, position, PNG_IEND, context.header, 0);
+        return "data:image/png;base64," + BaseEncoding.base64().encode(png, 0, position);
+    }
+
+    /**
+     * Render QR code as an SVG image. Horizontal runs of dark modules are merged into a single path.
+     * @param matrix QR code modules.
+     * @param size Requested image size in pixels.
+     * @return Data URI with the SVG image.
+     */
+    public static String renderSvg(ByteMatrix matrix, int size) {
+        final byte[][] modules = matrix.getArray();
+        final int inputSize = matrix.getWidth();
+        final int qrSize = inputSize + QUIET_ZONE_SIZE * 2;
+        final StringBuilder svg = new StringBuilder(inputSize * inputSize * 4);
+        svg.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(size)
+                .append("\" height=\"").append(size)
+                .append("\" viewBox=\"0 0 ").append(qrSize).append(' ').append(qrSize)
+                .append("\" shape-rendering=\"crispEdges\"><rect width=\"100%\" height=\"100%\" fill=\"#fff\"/><path d=\"");
+        for (int y = 0; y < inputSize; y++) {
+            final byte[] moduleRow = modules[y];
+            int x = 0;
+            while (x < inputSize) {
+                if (moduleRow[x] != 1) {
+                    x++;
+                    continue;
+                }
+                final int start = x;
+                while (x < inputSize && moduleRow[x] == 1) {
+                    x++;
+                }
+                svg.append('M').append(start + QUIET_ZONE_SIZE).append(' ').append(y + QUIET_ZONE_SIZE)
+                        .append('h').append(x - start).append("v1h-").append(x - start).append('z');
+            }
+        }
+        svg.append("\"/></svg>");
+        return "data:image/svg+xml;base64," + BaseEncoding.base64().encode(svg.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write PNG chunk.
+     * @param crc CRC calculator.
+     * @param png PNG image buffer.
+     * @param position Position in PNG image buffer.
+     * @param type Chunk type.
+     * @param data Chunk data.
+     * @param length Chunk data length.
+     * @return Position in PNG image buffer after the chunk.
+     */
+    private static int writeChunk(CRC32 crc, byte[] png, int position, byte[] type, byte[] data, int length) {
+        writeInt(png, position, length);
+        position += 4;
+        System.arraycopy(type, 0, png, position, type.length);
+        position += type.length;
+        System.arraycopy(data, 0, png, position, length);
+        position += length;
+        crc.reset();
+        crc.update(type, 0, type.length);
+        crc.update(data, 0, length);
+        writeInt(png, position, (int) crc.getValue());
+        return position + 4;
+    }
+
+    /**
+     * Write big-endian integer.
+     * @param buffer Buffer.
+     * @param position Position in buffer.
+     * @param value Integer value.
+     */
+    private static void writeInt(byte[] buffer, int position, int value) {
+        buffer[position] = (byte) (value >>> 24);
+        buffer[position + 1] = (byte) (value >>> 16);
+        buffer[position + 2] = (byte) (value >>> 8);
+        buffer[position + 3] = (byte) value;
+    }
+
+    /**
+     * Buffers and deflater reused by PNG rendering on each thread.
+     */
+    private static final class PngEncoderContext {
+
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final CRC32 crc = new CRC32();
+        private final byte[] header = new byte[13];
+        private byte[] raw = new byte[0];
+        private byte[] compressed = new byte[1024];
+        private byte[] png = new byte[0];
+
+        private byte[] rawBuffer(int length) {
+            if (raw.length < length) {
+                raw = new byte[length];
+            }
+            return raw;
+        }
+
+        private byte[] pngBuffer(int length) {
+            if (png.length < length) {
+                png = new byte[length];
+            }
+            return png;
+        }
+
+        /**
+         * Compress raw image data into a zlib stream.
+         * @param length Raw image data length.
+         * @return Compressed data length.
+         */
+        private int deflate(int length) {
+            deflater.reset();
+            deflater.setInput(raw, 0, length);
+            deflater.finish();
+            int position = 0;
+            while (!deflater.finished()) {
+                if (position == compressed.length) {
+                    byte[] newCompressed = new byte[compressed.length * 2];
+                    System.arraycopy(compressed, 0, newCompressed, 0, position);
+                    compressed = newCompressed;
+                }
+                position += deflater.deflate(compressed, position, compressed.length - position);
+            }
+            return position;
+        }
+
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.getlime.security.powerauth.lib.webflow.authentication.mtoken.model.response;
+
+/**
+ * Response to a request waiting for a change of operation state in online mode of Mobile Token.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class MobileTokenWaitResponse {
+
+    private boolean changed;
+    private long retryAfterMs;
+
+    /**
+     * Default constructor.
+     */
+    public MobileTokenWaitResponse() {
+    }
+
+    /**
+     * Constructor with all details.
+     * @param changed Whether operation state changed.
+     * @param retryAfterMs Delay in milliseconds before the client should check the operation status.
+     */
+    public MobileTokenWaitResponse(boolean changed, long retryAfterMs) {
+        this.changed = changed;
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    /**
+     * Get whether operation state changed while the request was waiting.
+     * @return Whether operation state changed.
+     */
+    public boolean isChanged() {
+        return changed;
+    }
+
+    /**
+     * Set whether operation state changed while the request was waiting.
+     * @param changed Whether operation state changed.
+     */
+    public void setChanged(boolean changed) {
+        this.changed = changed;
+    }
+
+    /**
+     * Get delay in milliseconds before the client should check the operation status.
+     * @return Delay in milliseconds.
+     */
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+
+    /**
+     * Set delay in milliseconds before the client should check the operation status.
+     * @param retryAfterMs Delay in milliseconds.
+     */
+    public void setRetryAfterMs(long retryAfterMs) {
+        this.retryAfterMs = retryAfterMs;
+    }
+}
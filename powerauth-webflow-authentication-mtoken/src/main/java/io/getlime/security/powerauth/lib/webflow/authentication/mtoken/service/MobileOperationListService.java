@@ -0,0 +1,237 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.mtoken.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.getlime.security.powerauth.app.webflow.i18n.I18NService;
+import io.getlime.security.powerauth.lib.mtoken.model.entity.Operation;
+import io.getlime.security.powerauth.lib.mtoken.model.response.OperationListResponse;
+import io.getlime.security.powerauth.lib.nextstep.client.NextStepClient;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.NextStepServiceException;
+import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationConfigDetailResponse;
+import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationDetailResponse;
+import io.getlime.security.powerauth.lib.webflow.authentication.configuration.WebFlowServicesConfiguration;
+import io.getlime.security.powerauth.lib.webflow.authentication.exception.OperationNotConfiguredException;
+import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.model.converter.OperationConverter;
+import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.model.entity.MobileOperationList;
+import io.getlime.security.powerauth.lib.webflow.authentication.service.MessageTranslationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service which prepares the list of pending operations for the mobile application. The list is polled by mobile
+ * applications frequently, so that the operation configurations are kept in a periodically refreshed cache and
+ * converted operations with translated form data are cached for each operation, locale and form data version.
+ * The list is versioned using an entity tag, so that unchanged lists do not need to be transferred again.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+public class MobileOperationListService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MobileOperationListService.class);
+
+    /**
+     * Minimum interval between reloads of operation configurations triggered by a missing configuration.
+     */
+    private static final long MISSING_CONFIG_REFRESH_INTERVAL_MS = 1000;
+
+    private final NextStepClient nextStepClient;
+    private final MessageTranslationService messageTranslationService;
+    private final I18NService i18NService;
+    private final WebFlowServicesConfiguration configuration;
+
+    private final OperationConverter operationConverter = new OperationConverter();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile Map<String, GetOperationConfigDetailResponse> operationConfigs = Collections.emptyMap();
+    private volatile long operationConfigsTimestamp;
+
+    private final Map<String, Operation> operationCache = new ConcurrentHashMap<>();
+    private volatile long operationCacheVersion;
+
+    /**
+     * Service constructor.
+     * @param nextStepClient Next Step client.
+     * @param messageTranslationService Message translation service.
+     * @param i18NService I18N service.
+     * @param configuration Web Flow configuration.
+     */
+    @Autowired
+    public MobileOperationListService(NextStepClient nextStepClient, MessageTranslationService messageTranslationService, I18NService i18NService, WebFlowServicesConfiguration configuration) {
+        this.nextStepClient = nextStepClient;
+        this.messageTranslationService = messageTranslationService;
+        this.i18NService = i18NService;
+        this.configuration = configuration;
+    }
+
+    /**
+     * Convert pending operations to the operation list for the mobile application. Form data of the operations
+     * are translated using the current locale.
+     * @param operations Pending operations with untranslated form data.
+     * @return Operation list with its entity tag.
+     * @throws NextStepServiceException Thrown when operation configurations could not be loaded.
+     * @throws OperationNotConfiguredException Thrown when an operation is not configured.
+     */
+    public MobileOperationList getOperationList(List<GetOperationDetailResponse> operations) throws NextStepServiceException, OperationNotConfiguredException {
+        final Locale locale = LocaleContextHolder.getLocale();
+        final long messagesVersion = i18NService.getMessagesVersion();
+        if (operationCacheVersion != messagesVersion) {
+            operationCache.clear();
+            operationCacheVersion = messagesVersion;
+        }
+        final MessageDigest listDigest = sha256();
+        update(listDigest, locale.toLanguageTag());
+        update(listDigest, String.valueOf(messagesVersion));
+        final OperationListResponse result = new OperationListResponse();
+        for (GetOperationDetailResponse operation: operations) {
+            final String operationName = operation.getOperationName();
+            final GetOperationConfigDetailResponse operationConfig = getOperationConfig(operationName);
+            // In case the operation configuration is not found, throw an OperationNotConfiguredException to alert about misconfigured server
+            if (operationConfig == null) {
+                throw new OperationNotConfiguredException("Operation not configured, operation name: " + operationName);
+            }
+            final String mobileTokenMode = operationConfig.getMobileTokenMode();
+            final String cacheKey = operation.getOperationId() + "\n" + locale.toLanguageTag() + "\n" + computeOperationVersion(operation, mobileTokenMode);
+            Operation converted = operationCache.get(cacheKey);
+            if (converted == null) {
+                // translate formData messages
+                messageTranslationService.translateFormData(operation.getFormData());
+                converted = operationConverter.fromOperationDetailResponse(operation, mobileTokenMode);
+                cache(cacheKey, converted);
+            }
+            update(listDigest, cacheKey);
+            result.add(converted);
+        }
+        final String etag = "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(listDigest.digest(), 16)) + "\"";
+        return new MobileOperationList(result, etag);
+    }
+
+    /**
+     * Get operation configuration from the cache. The cache is refreshed periodically and also when a configuration
+     * is missing, so that newly configured operations become available without waiting for the periodic refresh.
+     * @param operationName Operation name.
+     * @return Operation configuration or null in case operation is not configured.
+     * @throws NextStepServiceException Thrown when operation configurations could not be loaded.
+     */
+    public GetOperationConfigDetailResponse getOperationConfig(String operationName) throws NextStepServiceException {
+        Map<String, GetOperationConfigDetailResponse> configs = operationConfigs;
+        if (System.currentTimeMillis() - operationConfigsTimestamp >= configuration.getMobileTokenOperationConfigRefreshMs()) {
+            configs = refreshOperationConfigs(operationConfigsTimestamp);
+        }
+        GetOperationConfigDetailResponse config = configs.get(operationName);
+        if (config == null && System.currentTimeMillis() - operationConfigsTimestamp >= MISSING_CONFIG_REFRESH_INTERVAL_MS) {
+            configs = refreshOperationConfigs(operationConfigsTimestamp);
+            config = configs.get(operationName);
+        }
+        return config;
+    }
+
+    /**
+     * Reload operation configurations from Next Step unless they were already reloaded by another thread.
+     * @param previousTimestamp Timestamp of the configurations observed by the caller.
+     * @return Map of operation configurations (operation name -> operation configuration).
+     * @throws NextStepServiceException Thrown when operation configurations could not be loaded.
+     */
+    private synchronized Map<String, GetOperationConfigDetailResponse> refreshOperationConfigs(long previousTimestamp) throws NextStepServiceException {
+        if (operationConfigsTimestamp != previousTimestamp) {
+            return operationConfigs;
+        }
+        final Map<String, GetOperationConfigDetailResponse> configs = new HashMap<>();
+        for (GetOperationConfigDetailResponse config: nextStepClient.getOperationConfigList().getResponseObject().getOperationConfigs()) {
+            configs.put(config.getOperationName(), config);
+        }
+        operationConfigs = Collections.unmodifiableMap(configs);
+        operationConfigsTimestamp = System.currentTimeMillis();
+        logger.debug("Operation configurations were refreshed, configuration count: {}", configs.size());
+        return operationConfigs;
+    }
+
+    /**
+     * Compute version of the operation content which is displayed in the mobile application.
+     * @param operation Operation with untranslated form data.
+     * @param mobileTokenMode Mobile token mode of the operation.
+     * @return Operation version.
+     */
+    private String computeOperationVersion(GetOperationDetailResponse operation, String mobileTokenMode) {
+        final MessageDigest digest = sha256();
+        update(digest, operation.getOperationName());
+        update(digest, operation.getOperationData());
+        update(digest, mobileTokenMode);
+        update(digest, operation.getTimestampCreated() == null ? null : String.valueOf(operation.getTimestampCreated().getTime()));
+        update(digest, operation.getTimestampExpires() == null ? null : String.valueOf(operation.getTimestampExpires().getTime()));
+        try {
+            digest.update(objectMapper.writeValueAsBytes(operation.getFormData()));
+        } catch (JsonProcessingException ex) {
+            // Form data can not be versioned, use a unique version to avoid serving stale data
+            logger.warn("Error while serializing operation form data", ex);
+            update(digest, UUID.randomUUID().toString());
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest.digest(), 16));
+    }
+
+    /**
+     * Put converted operation into the cache, operations are evicted when the cache is full.
+     * @param cacheKey Cache key.
+     * @param operation Converted operation.
+     */
+    private void cache(String cacheKey, Operation operation) {
+        final int maxSize = configuration.getMobileTokenOperationCacheMaxSize();
+        if (operationCache.size() >= maxSize) {
+            Iterator<String> iterator = operationCache.keySet().iterator();
+            for (int i = 0; i < maxSize / 10 + 1 && iterator.hasNext(); i++) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        operationCache.put(cacheKey, operation);
+    }
+
+    /**
+     * Update digest with a value followed by a separator.
+     * @param digest Message digest.
+     * @param value Value, null values are allowed.
+     */
+    private void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Create a new SHA-256 message digest.
+     * @return SHA-256 message digest.
+     */
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 algorithm is not available", ex);
+        }
+    }
+}
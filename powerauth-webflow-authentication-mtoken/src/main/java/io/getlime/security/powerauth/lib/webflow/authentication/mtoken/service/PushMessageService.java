@@ -17,6 +17,8 @@ import io.getlime.security.powerauth.lib.nextstep.model.exception.NextStepServic
 import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationDetailResponse;
 import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.errorhandling.exception.ActivationNotActiveException;
 import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.errorhandling.exception.ActivationNotConfiguredException;
+import io.getlime.security.powerauth.lib.webflow.authentication.configuration.WebFlowServicesConfiguration;
+import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.model.entity.PushDispatchMetrics;
 import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.model.response.MobileTokenInitResponse;
 import io.getlime.security.powerauth.lib.webflow.authentication.service.AuthMethodQueryService;
 import io.getlime.security.powerauth.soap.spring.client.PowerAuthServiceClient;
@@ -27,8 +29,20 @@ import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.context.support.AbstractMessageSource;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service for sending push messages.
@@ -52,6 +66,22 @@ public class PushMessageService {
     private final AuthMethodQueryService authMethodQueryService;
     private final PowerAuthServiceClient powerAuthServiceClient;
     private final I18NService i18nService;
+    private final WebFlowServicesConfiguration webFlowServicesConfiguration;
+
+    private final BlockingQueue<String> dispatchQueue;
+    private final Map<String, FinishedPushMessage> pendingMessages = new ConcurrentHashMap<>();
+    private final ExecutorService dispatchExecutor;
+    private final ScheduledExecutorService retryExecutor;
+    private volatile boolean running = true;
+
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong retriedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong totalLatencyMs = new AtomicLong();
+    private final AtomicLong maxLatencyMs = new AtomicLong();
 
     /**
      * Service constructor.
@@ -59,13 +89,37 @@ public class PushMessageService {
      * @param authMethodQueryService Authentication method query service.
      * @param powerAuthServiceClient PowerAuth service client.
      * @param i18nService I18n service.
+     * @param webFlowServicesConfiguration Web Flow configuration.
      */
     @Autowired
-    public PushMessageService(PushServerClient pushServerClient, AuthMethodQueryService authMethodQueryService, PowerAuthServiceClient powerAuthServiceClient, I18NService i18nService) {
+    public PushMessageService(PushServerClient pushServerClient, AuthMethodQueryService authMethodQueryService, PowerAuthServiceClient powerAuthServiceClient, I18NService i18nService, WebFlowServicesConfiguration webFlowServicesConfiguration) {
         this.pushServerClient = pushServerClient;
         this.authMethodQueryService = authMethodQueryService;
         this.powerAuthServiceClient = powerAuthServiceClient;
         this.i18nService = i18nService;
+        this.webFlowServicesConfiguration = webFlowServicesConfiguration;
+        this.dispatchQueue = new LinkedBlockingQueue<>(webFlowServicesConfiguration.getPushDispatchQueueCapacity());
+        final int threads = webFlowServicesConfiguration.getPushDispatchThreads();
+        this.dispatchExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "push-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.retryExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "push-dispatch-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start dispatch of push messages.
+     */
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < webFlowServicesConfiguration.getPushDispatchThreads(); i++) {
+            dispatchExecutor.execute(this::dispatchLoop);
+        }
     }
 
     /**
@@ -118,24 +172,164 @@ public class PushMessageService {
     }
 
     /**
-     * Send push message when authentication step is finished.
+     * Send push message when authentication step is finished. The message is queued and delivered asynchronously,
+     * a message which is still waiting in the queue is replaced by the newer message for the same operation.
      * @param operation Operation.
      * @param statusMessage Status message.
      * @param authMethod Authentication method.
      */
     public void sendAuthStepFinishedPushMessage(GetOperationDetailResponse operation, String statusMessage, AuthMethod authMethod) {
-        try {
-            String activationId = getActivationId(operation);
-            PushMessage message = createAuthStepFinishedPushMessage(operation, activationId, statusMessage, authMethod);
-            Long applicationId = getApplicationId(activationId);
-            logger.info("Send step finished push message, operation ID: {}, authentication method: {}", operation.getOperationId(), authMethod.toString());
-            pushServerClient.sendPushMessage(applicationId, message);
-        } catch (PushServerClientException ex) {
-            logger.info("Sending step finish push message failed for operation ID: {}, authentication method: {}", operation.getOperationId(), authMethod.toString());
-        } catch (Exception ex) {
-            // Exception which occurs when push message is sent is not critical, only log warning.
-            logger.warn("Error occurred in Mobile Token API component", ex);
+        enqueue(new FinishedPushMessage(operation, statusMessage, authMethod, 1, System.nanoTime()));
+    }
+
+    /**
+     * Get metrics of the asynchronous dispatch of push messages.
+     * @return Push dispatch metrics.
+     */
+    public PushDispatchMetrics getDispatchMetrics() {
+        PushDispatchMetrics metrics = new PushDispatchMetrics();
+        metrics.setQueueDepth(dispatchQueue.size());
+        metrics.setEnqueuedCount(enqueuedCount.get());
+        metrics.setCoalescedCount(coalescedCount.get());
+        metrics.setRejectedCount(rejectedCount.get());
+        long sent = sentCount.get();
+        metrics.setSentCount(sent);
+        metrics.setRetriedCount(retriedCount.get());
+        metrics.setFailedCount(failedCount.get());
+        metrics.setAverageLatencyMs(sent == 0 ? 0 : totalLatencyMs.get() / sent);
+        metrics.setMaxLatencyMs(maxLatencyMs.get());
+        return metrics;
+    }
+
+    /**
+     * Stop dispatch of push messages.
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        dispatchExecutor.shutdownNow();
+        retryExecutor.shutdownNow();
+    }
+
+    /**
+     * Queue push message for dispatch.
+     * @param message Push message about finished authentication step.
+     */
+    private void enqueue(FinishedPushMessage message) {
+        final String operationId = message.operation.getOperationId();
+        // The message is coalesced and queued atomically, so that a rejected message never hides a newer one
+        pendingMessages.compute(operationId, (key, previousMessage) -> {
+            if (previousMessage != null) {
+                // The operation is already queued, the worker picks up the latest message
+                coalescedCount.incrementAndGet();
+                return message;
+            }
+            if (!dispatchQueue.offer(operationId)) {
+                rejectedCount.incrementAndGet();
+                logger.warn("Push dispatch queue is full, step finished push message dropped for operation ID: {}", operationId);
+                return null;
+            }
+            enqueuedCount.incrementAndGet();
+            return message;
+        });
+    }
+
+    /**
+     * Dispatch queued push messages in batches until the service is stopped.
+     */
+    private void dispatchLoop() {
+        final List<String> operationIds = new ArrayList<>();
+        while (running) {
+            try {
+                String operationId = dispatchQueue.poll(1, TimeUnit.SECONDS);
+                if (operationId == null) {
+                    continue;
+                }
+                operationIds.add(operationId);
+                dispatchQueue.drainTo(operationIds, webFlowServicesConfiguration.getPushDispatchBatchSize() - 1);
+                dispatchBatch(operationIds);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                logger.warn("Error occurred while dispatching push messages", ex);
+            } finally {
+                operationIds.clear();
+            }
+        }
+    }
+
+    /**
+     * Dispatch a batch of push messages. Activation and application IDs are resolved once per batch for each user
+     * and activation.
+     * @param operationIds Operation IDs of queued push messages.
+     */
+    private void dispatchBatch(List<String> operationIds) {
+        final Map<String, String> activationIds = new HashMap<>();
+        final Map<String, Long> applicationIds = new HashMap<>();
+        for (String operationId: operationIds) {
+            final FinishedPushMessage message = pendingMessages.remove(operationId);
+            if (message == null) {
+                continue;
+            }
+            final GetOperationDetailResponse operation = message.operation;
+            try {
+                String activationId = activationIds.get(operation.getUserId());
+                if (activationId == null) {
+                    activationId = getActivationId(operation);
+                    activationIds.put(operation.getUserId(), activationId);
+                }
+                Long applicationId = applicationIds.get(activationId);
+                if (applicationId == null) {
+                    applicationId = getApplicationId(activationId);
+                    applicationIds.put(activationId, applicationId);
+                }
+                PushMessage pushMessage = createAuthStepFinishedPushMessage(operation, activationId, message.statusMessage, message.authMethod);
+                logger.info("Send step finished push message, operation ID: {}, authentication method: {}", operation.getOperationId(), message.authMethod.toString());
+                pushServerClient.sendPushMessage(applicationId, pushMessage);
+                sentCount.incrementAndGet();
+                long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - message.enqueuedAt);
+                totalLatencyMs.addAndGet(latencyMs);
+                maxLatencyMs.accumulateAndGet(latencyMs, Math::max);
+            } catch (ActivationNotConfiguredException | ActivationNotActiveException ex) {
+                // Retrying does not help when there is no active activation
+                failedCount.incrementAndGet();
+                logger.info("Step finished push message not sent, activation is not available for operation ID: {}, authentication method: {}", operation.getOperationId(), message.authMethod.toString());
+            } catch (PushServerClientException ex) {
+                logger.info("Sending step finish push message failed for operation ID: {}, authentication method: {}", operation.getOperationId(), message.authMethod.toString());
+                retry(message);
+            } catch (Exception ex) {
+                // Exception which occurs when push message is sent is not critical, only log warning.
+                logger.warn("Error occurred in Mobile Token API component", ex);
+                retry(message);
+            }
+        }
+    }
+
+    /**
+     * Schedule another delivery attempt of a push message with exponential backoff.
+     * @param message Push message which was not delivered.
+     */
+    private void retry(FinishedPushMessage message) {
+        if (message.attempt >= webFlowServicesConfiguration.getPushDispatchMaxAttempts() || !running) {
+            failedCount.incrementAndGet();
+            return;
         }
+        final long delayMs = webFlowServicesConfiguration.getPushDispatchRetryBackoffMs() << (message.attempt - 1);
+        final FinishedPushMessage nextAttempt = new FinishedPushMessage(message.operation, message.statusMessage, message.authMethod, message.attempt + 1, message.enqueuedAt);
+        retriedCount.incrementAndGet();
+        retryExecutor.schedule(() -> pendingMessages.compute(message.operation.getOperationId(), (key, pendingMessage) -> {
+            if (pendingMessage != null) {
+                // A newer message for the operation takes precedence over the retry
+                coalescedCount.incrementAndGet();
+                return pendingMessage;
+            }
+            if (!dispatchQueue.offer(key)) {
+                rejectedCount.incrementAndGet();
+                return null;
+            }
+            return nextAttempt;
+        }), delayMs, TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -238,4 +432,24 @@ public class PushMessageService {
         return activationStatusResponse.getApplicationId();
     }
 
+    /**
+     * Push message about finished authentication step waiting for dispatch.
+     */
+    private static final class FinishedPushMessage {
+
+        private final GetOperationDetailResponse operation;
+        private final String statusMessage;
+        private final AuthMethod authMethod;
+        private final int attempt;
+        private final long enqueuedAt;
+
+        private FinishedPushMessage(GetOperationDetailResponse operation, String statusMessage, AuthMethod authMethod, int attempt, long enqueuedAt) {
+            this.operation = operation;
+            this.statusMessage = statusMessage;
+            this.authMethod = authMethod;
+            this.attempt = attempt;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
 }
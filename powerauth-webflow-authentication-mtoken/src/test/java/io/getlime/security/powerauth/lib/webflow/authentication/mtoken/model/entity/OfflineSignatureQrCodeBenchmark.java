@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.getlime.security.powerauth.lib.webflow.authentication.mtoken.model.entity;
+
+import com.google.common.io.BaseEncoding;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.QrCodeImageFormat;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Benchmark comparing QR code rendering through a bitmap and ImageIO with direct rendering of PNG and SVG images.
+ * The benchmark is run only using the benchmark profile.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class OfflineSignatureQrCodeBenchmark {
+
+    private static final int QR_CODE_SIZE = 250;
+    private static final int WARMUP_ITERATIONS = 100;
+    private static final int MEASURED_ITERATIONS = 300;
+    private static final String DATA = "5ff1b1ed-a3cc-45a3-8ab0-ed60950312b6\nPayment\nPlease confirm this payment\n"
+            + "A1*A100CZK*Q238400856/0300**D20170629*NUtility Bill Payment - 05/2017\nB\nO8Hvl3ihdDzzzSDTnw8VjA==\n"
+            + "1MEUCIQDpaOTI6e8M8IzDMxwIcTPJdgS6xPZZWnBAHfh8Kr3TVgIgO6Mfs6FyQjNGLsfIhqjT0IbnVuUU3WeDY+qwS4+NMyE=";
+
+    private final OfflineSignatureQrCode qrCode = new OfflineSignatureQrCode(QR_CODE_SIZE, DATA, "O8Hvl3ihdDzzzSDTnw8VjA==");
+
+    @Test
+    void benchmarkQrCodeRendering() throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            generateImageIO();
+            qrCode.generateImage(QrCodeImageFormat.PNG);
+            qrCode.generateImage(QrCodeImageFormat.SVG);
+        }
+        long imageIOStart = System.nanoTime();
+        String imageIO = null;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            imageIO = generateImageIO();
+        }
+        long imageIOTime = System.nanoTime() - imageIOStart;
+        long pngStart = System.nanoTime();
+        String png = null;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            png = qrCode.generateImage(QrCodeImageFormat.PNG);
+        }
+        long pngTime = System.nanoTime() - pngStart;
+        long svgStart = System.nanoTime();
+        String svg = null;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            svg = qrCode.generateImage(QrCodeImageFormat.SVG);
+        }
+        long svgTime = System.nanoTime() - svgStart;
+        System.out.printf("ImageIO PNG: %8d ns/op, %6d chars%n", imageIOTime / MEASURED_ITERATIONS, imageIO.length());
+        System.out.printf("1-bit PNG:   %8d ns/op, %6d chars%n", pngTime / MEASURED_ITERATIONS, png.length());
+        System.out.printf("SVG:         %8d ns/op, %6d chars%n", svgTime / MEASURED_ITERATIONS, svg.length());
+    }
+
+    /**
+     * Original implementation which renders the QR code into a bitmap and encodes it using ImageIO.
+     */
+    private String generateImageIO() throws Exception {
+        BitMatrix matrix = new MultiFormatWriter().encode(
+                new String(DATA.getBytes("UTF-8"), "ISO-8859-1"),
+                BarcodeFormat.QR_CODE,
+                QR_CODE_SIZE,
+                QR_CODE_SIZE);
+        BufferedImage image = MatrixToImageWriter.toBufferedImage(matrix);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", baos);
+        return "data:image/png;base64," + BaseEncoding.base64().encode(baos.toByteArray());
+    }
+
+}
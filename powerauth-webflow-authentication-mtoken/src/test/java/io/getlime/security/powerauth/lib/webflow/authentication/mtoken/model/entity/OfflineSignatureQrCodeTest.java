@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.mtoken.model.entity;
+
+import com.google.common.io.BaseEncoding;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.Result;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.QrCodeImageFormat;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+
+import javax.imageio.ImageIO;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of rendering of offline signature QR codes.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class OfflineSignatureQrCodeTest {
+
+    private static final int QR_CODE_SIZE = 250;
+    private static final String DATA = "5ff1b1ed-a3cc-45a3-8ab0-ed60950312b6\nPayment\nPlease confirm this payment\n"
+            + "A1*A100CZK*Q238400856/0300**D20170629*NUtility Bill Payment - 05/2017\nB\nO8Hvl3ihdDzzzSDTnw8VjA==\n"
+            + "1MEUCIQDpaOTI6e8M8IzDMxwIcTPJdgS6xPZZWnBAHfh8Kr3TVgIgO6Mfs6FyQjNGLsfIhqjT0IbnVuUU3WeDY+qwS4+NMyE=";
+
+    private final OfflineSignatureQrCode qrCode = new OfflineSignatureQrCode(QR_CODE_SIZE, DATA, "O8Hvl3ihdDzzzSDTnw8VjA==");
+
+    @Test
+    void testPngMatchesQrCodeMatrix() throws Exception {
+        String dataUri = qrCode.generateImage(QrCodeImageFormat.PNG);
+        assertTrue(dataUri.startsWith("data:image/png;base64,"));
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(decode(dataUri)));
+        BitMatrix matrix = new MultiFormatWriter().encode(
+                new String(DATA.getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1),
+                BarcodeFormat.QR_CODE,
+                QR_CODE_SIZE,
+                QR_CODE_SIZE);
+        assertEquals(matrix.getWidth(), image.getWidth());
+        assertEquals(matrix.getHeight(), image.getHeight());
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int expected = matrix.get(x, y) ? 0xFF000000 : 0xFFFFFFFF;
+                assertEquals(expected, image.getRGB(x, y), "Pixel " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void testPngContainsData() throws Exception {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(decode(qrCode.generateImage(QrCodeImageFormat.PNG))));
+        Result result = new QRCodeReader().decode(new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(image))));
+        assertEquals(DATA, result.getText());
+    }
+
+    @Test
+    void testSvgIsValidImage() throws Exception {
+        String dataUri = qrCode.generateImage(QrCodeImageFormat.SVG);
+        assertTrue(dataUri.startsWith("data:image/svg+xml;base64,"));
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(decode(dataUri)));
+        assertEquals("svg", document.getDocumentElement().getNodeName());
+    }
+
+    @Test
+    void testDefaultFormatIsPng() {
+        assertEquals(qrCode.generateImage(QrCodeImageFormat.PNG), qrCode.generateImage());
+    }
+
+    private byte[] decode(String dataUri) {
+        return BaseEncoding.base64().decode(dataUri.substring(dataUri.indexOf(',') + 1));
+    }
+
+}
@@ -44,6 +44,7 @@ import io.getlime.security.powerauth.lib.webflow.authentication.method.operation
 import io.getlime.security.powerauth.lib.webflow.authentication.model.AuthenticationResult;
 import io.getlime.security.powerauth.lib.webflow.authentication.model.converter.FormDataConverter;
 import io.getlime.security.powerauth.lib.webflow.authentication.service.MessageTranslationService;
+import io.getlime.security.powerauth.lib.webflow.authentication.service.NotificationOutboxService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -73,6 +74,7 @@ public class OperationReviewController extends AuthMethodController<OperationRev
     private final DataAdapterClient dataAdapterClient;
     private final NextStepClient nextStepClient;
     private final MessageTranslationService messageTranslationService;
+    private final NotificationOutboxService notificationOutboxService;
 
     /**
      * Controller constructor.
@@ -80,12 +82,14 @@ public class OperationReviewController extends AuthMethodController<OperationRev
      * @param dataAdapterClient Data adapter client.
      * @param nextStepClient Next step client.
      * @param messageTranslationService Message translation service.
+     * @param notificationOutboxService Data Adapter notification outbox service.
      */
     @Autowired
-    public OperationReviewController(DataAdapterClient dataAdapterClient, NextStepClient nextStepClient, MessageTranslationService messageTranslationService) {
+    public OperationReviewController(DataAdapterClient dataAdapterClient, NextStepClient nextStepClient, MessageTranslationService messageTranslationService, NotificationOutboxService notificationOutboxService) {
         this.dataAdapterClient = dataAdapterClient;
         this.nextStepClient = nextStepClient;
         this.messageTranslationService = messageTranslationService;
+        this.notificationOutboxService = notificationOutboxService;
     }
 
     /**
@@ -213,11 +217,10 @@ public class OperationReviewController extends AuthMethodController<OperationRev
      * @param request Update operation form data request.
      * @return Object response.
      * @throws NextStepServiceException Thrown when communication with Next Step server fails.
-     * @throws DataAdapterClientErrorException Thrown when data could not be retrieved from Data Adapter.
      * @throws AuthStepException Thrown when operation is invalid or not available.
      */
     @RequestMapping(value = "/formData", method = RequestMethod.PUT)
-    public @ResponseBody Response updateFormData(@RequestBody UpdateOperationFormDataRequest request) throws NextStepServiceException, DataAdapterClientErrorException, AuthStepException {
+    public @ResponseBody Response updateFormData(@RequestBody UpdateOperationFormDataRequest request) throws NextStepServiceException, AuthStepException {
         return updateFormDataImpl(request);
     }
 
@@ -226,15 +229,14 @@ public class OperationReviewController extends AuthMethodController<OperationRev
      * @param request Update operation form data request.
      * @return Object response.
      * @throws NextStepServiceException Thrown when communication with Next Step server fails.
-     * @throws DataAdapterClientErrorException Thrown when data could not be retrieved from Data Adapter.
      * @throws AuthStepException Thrown when operation is invalid or not available.
      */
     @RequestMapping(value = "/formData/update", method = RequestMethod.POST)
-    public @ResponseBody Response updateFormDataPost(@RequestBody UpdateOperationFormDataRequest request) throws NextStepServiceException, DataAdapterClientErrorException, AuthStepException {
+    public @ResponseBody Response updateFormDataPost(@RequestBody UpdateOperationFormDataRequest request) throws NextStepServiceException, AuthStepException {
         return updateFormDataImpl(request);
     }
 
-    private Response updateFormDataImpl(UpdateOperationFormDataRequest request) throws NextStepServiceException, DataAdapterClientErrorException, AuthStepException {
+    private Response updateFormDataImpl(UpdateOperationFormDataRequest request) throws NextStepServiceException, AuthStepException {
         final GetOperationDetailResponse operation = getOperation();
         // update formData in Next Step server
         nextStepClient.updateOperationFormData(operation.getOperationId(), request.getFormData());
@@ -244,10 +246,8 @@ public class OperationReviewController extends AuthMethodController<OperationRev
         if (userInput.containsKey(FIELD_BANK_ACCOUNT_CHOICE_DISABLED) && userInput.containsKey(FIELD_BANK_ACCOUNT_CHOICE)) {
             BankAccountChoice bankAccountChoice = new BankAccountChoice();
             bankAccountChoice.setBankAccountId(request.getFormData().getUserInput().get(FIELD_BANK_ACCOUNT_CHOICE));
-            FormData formData = new FormDataConverter().fromOperationFormData(operation.getFormData());
-            ApplicationContext applicationContext = operation.getApplicationContext();
-            OperationContext operationContext = new OperationContext(operation.getOperationId(), operation.getOperationName(), operation.getOperationData(), formData, applicationContext);
-            dataAdapterClient.formDataChangedNotification(bankAccountChoice, operation.getUserId(), operation.getOrganizationId(), operationContext);
+            // The notification is stored in the outbox and delivered asynchronously
+            notificationOutboxService.enqueueFormDataChange(bankAccountChoice, operation);
         }
         return new Response();
     }
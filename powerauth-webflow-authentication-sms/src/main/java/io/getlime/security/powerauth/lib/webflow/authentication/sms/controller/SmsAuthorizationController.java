@@ -38,7 +38,6 @@ import io.getlime.security.powerauth.lib.webflow.authentication.encryption.AesEn
 import io.getlime.security.powerauth.lib.webflow.authentication.encryption.NoPasswordProtection;
 import io.getlime.security.powerauth.lib.webflow.authentication.exception.*;
 import io.getlime.security.powerauth.lib.webflow.authentication.model.AuthenticationResult;
-import io.getlime.security.powerauth.lib.webflow.authentication.model.HttpSessionAttributeNames;
 import io.getlime.security.powerauth.lib.webflow.authentication.model.converter.AuthInstrumentConverter;
 import io.getlime.security.powerauth.lib.webflow.authentication.model.converter.FormDataConverter;
 import io.getlime.security.powerauth.lib.webflow.authentication.model.converter.UserAccountStatusConverter;
@@ -55,7 +54,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import javax.servlet.http.HttpSession;
 import javax.validation.Valid;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -78,7 +76,6 @@ public class SmsAuthorizationController extends AuthMethodController<SmsAuthoriz
     private final DataAdapterClient dataAdapterClient;
     private final WebFlowServicesConfiguration configuration;
     private final AfsIntegrationService afsIntegrationService;
-    private final HttpSession httpSession;
     private final CertificateVerificationRepository certificateVerificationRepository;
 
     private final AuthInstrumentConverter authInstrumentConverter = new AuthInstrumentConverter();
@@ -89,15 +86,13 @@ public class SmsAuthorizationController extends AuthMethodController<SmsAuthoriz
      * @param dataAdapterClient Data Adapter client.
      * @param configuration Web Flow configuration.
      * @param afsIntegrationService Anti-fraud system integration service.
-     * @param httpSession HTTP session.
      * @param certificateVerificationRepository Certificate verification repository.
      */
     @Autowired
-    public SmsAuthorizationController(DataAdapterClient dataAdapterClient, WebFlowServicesConfiguration configuration, AfsIntegrationService afsIntegrationService, HttpSession httpSession, CertificateVerificationRepository certificateVerificationRepository) {
+    public SmsAuthorizationController(DataAdapterClient dataAdapterClient, WebFlowServicesConfiguration configuration, AfsIntegrationService afsIntegrationService, CertificateVerificationRepository certificateVerificationRepository) {
         this.dataAdapterClient = dataAdapterClient;
         this.configuration = configuration;
         this.afsIntegrationService = afsIntegrationService;
-        this.httpSession = httpSession;
         this.certificateVerificationRepository = certificateVerificationRepository;
     }
 
@@ -233,94 +228,70 @@ public class SmsAuthorizationController extends AuthMethodController<SmsAuthoriz
      * @param messageId Message ID.
      */
     private void updateMessageIdInHttpSession(String messageId) {
-        synchronized (httpSession.getServletContext()) {
-            httpSession.setAttribute(HttpSessionAttributeNames.MESSAGE_ID, messageId);
-        }
+        getAuthFlowState().setMessageId(messageId);
     }
 
     /**
      * Set last message timestamp in HTTP session.
      */
     private void updateLastMessageTimestampInHttpSession(Long timestamp) {
-        synchronized (httpSession.getServletContext()) {
-            httpSession.setAttribute(HttpSessionAttributeNames.LAST_MESSAGE_TIMESTAMP, timestamp);
-        }
+        getAuthFlowState().setLastMessageTimestamp(timestamp);
     }
 
     /**
      * Set initial message sent flag in HTTP session.
      */
     private void updateInitialMessageSentInHttpSession(Boolean initialMessageSent) {
-        synchronized (httpSession.getServletContext()) {
-            httpSession.setAttribute(HttpSessionAttributeNames.INITIAL_MESSAGE_SENT, initialMessageSent);
-        }
+        getAuthFlowState().setInitialMessageSent(initialMessageSent);
     }
 
     /**
      * Set authentication step options in HTTP session.
      */
     private void updateAuthStepOptionsInHttpSession(AuthStepOptions authStepOptions) {
-        synchronized (httpSession.getServletContext()) {
-            httpSession.setAttribute(HttpSessionAttributeNames.AUTH_STEP_OPTIONS, authStepOptions);
-        }
+        getAuthFlowState().setAuthStepOptions(authStepOptions);
     }
 
     /**
      * Get message ID from HTTP session.
      */
     private String getMessageIdFromHttpSession() {
-        synchronized (httpSession.getServletContext()) {
-            return (String) httpSession.getAttribute(HttpSessionAttributeNames.MESSAGE_ID);
-        }
+        return getAuthFlowState().getMessageId();
     }
 
     /**
      * Get username from HTTP session.
      */
     private String getUsernameFromHttpSession() {
-        synchronized (httpSession.getServletContext()) {
-            return (String) httpSession.getAttribute(HttpSessionAttributeNames.USERNAME);
-        }
+        return getAuthFlowState().getUsername();
     }
 
     /**
      * Get last message timestamp from HTTP session.
      */
     private Long getLastMessageTimestampFromHttpSession() {
-        synchronized (httpSession.getServletContext()) {
-            return (Long) httpSession.getAttribute(HttpSessionAttributeNames.LAST_MESSAGE_TIMESTAMP);
-        }
+        return getAuthFlowState().getLastMessageTimestamp();
     }
 
     /**
      * Get initial message sent flag from HTTP session.
      */
     private Boolean getInitialMessageSentFromHttpSession() {
-        synchronized (httpSession.getServletContext()) {
-            return (Boolean) httpSession.getAttribute(HttpSessionAttributeNames.INITIAL_MESSAGE_SENT);
-        }
+        return getAuthFlowState().getInitialMessageSent();
     }
 
     /**
      * Get authentication step options from HTTP session.
      */
     private AuthStepOptions getAuthStepOptionsFromHttpSession() {
-        synchronized (httpSession.getServletContext()) {
-            return (AuthStepOptions) httpSession.getAttribute(HttpSessionAttributeNames.AUTH_STEP_OPTIONS);
-        }
+        return getAuthFlowState().getAuthStepOptions();
     }
 
     /**
      * Clean HTTP session.
      */
     private void cleanHttpSession() {
-        synchronized (httpSession.getServletContext()) {
-            httpSession.removeAttribute(HttpSessionAttributeNames.MESSAGE_ID);
-            httpSession.removeAttribute(HttpSessionAttributeNames.LAST_MESSAGE_TIMESTAMP);
-            httpSession.removeAttribute(HttpSessionAttributeNames.INITIAL_MESSAGE_SENT);
-            httpSession.removeAttribute(HttpSessionAttributeNames.AUTH_STEP_OPTIONS);
-            httpSession.removeAttribute(HttpSessionAttributeNames.USERNAME);
-        }
+        getAuthFlowState().clearSmsAuthorization();
     }
 
     /**
@@ -364,7 +335,7 @@ public class SmsAuthorizationController extends AuthMethodController<SmsAuthoriz
 
             if (afsAction != null) {
                 // Execute an AFS action
-                AfsResponse afsResponse = afsIntegrationService.executeInitAction(operation.getOperationId(), username, afsAction);
+                AfsResponse afsResponse = afsIntegrationService.executeInitAction(operation, username, afsAction);
 
                 // Save authentication step options derived from AFS response for authenticate step
                 updateAuthStepOptionsInHttpSession(afsResponse.getAuthStepOptions());
@@ -492,7 +463,7 @@ public class SmsAuthorizationController extends AuthMethodController<SmsAuthoriz
                 @Override
                 public SmsAuthorizationResponse doneAuthentication(String userId) {
                     if (afsAction != null) {
-                        afsIntegrationService.executeAuthAction(operation.getOperationId(), afsAction, username, authInstruments,  AuthStepResult.CONFIRMED);
+                        afsIntegrationService.executeAuthAction(operation, afsAction, username, authInstruments,  AuthStepResult.CONFIRMED);
                     }
                     authenticateCurrentBrowserSession();
                     final SmsAuthorizationResponse response = new SmsAuthorizationResponse();
@@ -515,7 +486,7 @@ public class SmsAuthorizationController extends AuthMethodController<SmsAuthoriz
                 @Override
                 public SmsAuthorizationResponse continueAuthentication(String operationId, String userId, List<AuthStep> steps) {
                     if (afsAction != null) {
-                        afsIntegrationService.executeAuthAction(operation.getOperationId(), afsAction, username, authInstruments, AuthStepResult.CONFIRMED);
+                        afsIntegrationService.executeAuthAction(operation, afsAction, username, authInstruments, AuthStepResult.CONFIRMED);
                     }
                     final SmsAuthorizationResponse response = new SmsAuthorizationResponse();
                     response.setResult(AuthStepResult.CONFIRMED);
@@ -533,16 +504,16 @@ public class SmsAuthorizationController extends AuthMethodController<SmsAuthoriz
                     AuthenticationFailedException authEx = (AuthenticationFailedException) e;
                     if (authEx.getAccountStatus() != UserAccountStatus.ACTIVE) {
                         // notify AFS about failed authentication method due to the fact that user account is not active
-                        afsIntegrationService.executeAuthAction(operation.getOperationId(), afsAction, username, authInstruments, AuthStepResult.AUTH_METHOD_FAILED);
+                        afsIntegrationService.executeAuthAction(operation, afsAction, username, authInstruments, AuthStepResult.AUTH_METHOD_FAILED);
                     } else {
                         // notify AFS about failed authentication
-                        afsIntegrationService.executeAuthAction(operation.getOperationId(), afsAction, username, authInstruments, AuthStepResult.AUTH_FAILED);
+                        afsIntegrationService.executeAuthAction(operation, afsAction, username, authInstruments, AuthStepResult.AUTH_FAILED);
                     }
                 } else if (e instanceof MaxAttemptsExceededException) {
                     // notify AFS about failed authentication method due to last attempt
-                    afsIntegrationService.executeAuthAction(operation.getOperationId(), afsAction, username, authInstruments, AuthStepResult.AUTH_METHOD_FAILED);
+                    afsIntegrationService.executeAuthAction(operation, afsAction, username, authInstruments, AuthStepResult.AUTH_METHOD_FAILED);
                     // notify AFS about logout
-                    afsIntegrationService.executeLogoutAction(operation.getOperationId(), OperationTerminationReason.FAILED);
+                    afsIntegrationService.executeLogoutAction(operation, OperationTerminationReason.FAILED);
                 }
             }
             final SmsAuthorizationResponse response = new SmsAuthorizationResponse();
@@ -20,12 +20,29 @@ import io.getlime.security.powerauth.lib.dataadapter.client.DataAdapterClient;
 import io.getlime.security.powerauth.lib.dataadapter.model.enumeration.AfsType;
 import io.getlime.security.powerauth.lib.dataadapter.model.enumeration.PasswordProtectionType;
 import io.getlime.security.powerauth.lib.nextstep.client.NextStepClient;
+import io.getlime.security.powerauth.lib.nextstep.client.NextStepWireFormat;
+import io.getlime.security.powerauth.lib.webflow.authentication.interceptor.CircuitBreaker;
+import io.getlime.security.powerauth.lib.webflow.authentication.interceptor.CircuitBreakerInterceptor;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.AuthFlowStateStoreType;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.QrCodeImageFormat;
+import io.getlime.security.powerauth.lib.webflow.authentication.notification.AuthorizationNotificationBus;
+import io.getlime.security.powerauth.lib.webflow.authentication.notification.DatagramNotificationBus;
+import io.getlime.security.powerauth.lib.webflow.authentication.notification.LocalNotificationBus;
+import io.getlime.security.powerauth.lib.webflow.authentication.repository.AuthFlowStateRepository;
+import io.getlime.security.powerauth.lib.webflow.authentication.service.AuthFlowStateStore;
+import io.getlime.security.powerauth.lib.webflow.authentication.service.HttpSessionAuthFlowStateStore;
+import io.getlime.security.powerauth.lib.webflow.authentication.service.JdbcAuthFlowStateStore;
 import io.getlime.security.powerauth.lib.webflow.authentication.service.SSLConfigurationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 /**
  * Basic configuration class, used to configure clients to Next Step service and Data Adapter.
  *
@@ -42,12 +59,84 @@ public class WebFlowServicesConfiguration {
     @Value("${powerauth.dataAdapter.service.url}")
     private String dataAdapterServiceUrl;
 
+    /**
+     * Time budget for processing of an incoming request in milliseconds which is propagated to Data Adapter calls.
+     */
+    @Value("${powerauth.dataAdapter.service.requestBudgetMs:30000}")
+    private long dataAdapterRequestBudgetMs;
+
+    /**
+     * Whether idempotent Data Adapter requests are hedged.
+     */
+    @Value("${powerauth.dataAdapter.service.hedging.enabled:false}")
+    private boolean dataAdapterHedgingEnabled;
+
+    /**
+     * Minimum delay before a hedged Data Adapter request is sent in milliseconds.
+     */
+    @Value("${powerauth.dataAdapter.service.hedging.minDelayMs:50}")
+    private long dataAdapterHedgingMinDelayMs;
+
     /**
      * Next step server service URL.
      */
     @Value("${powerauth.nextstep.service.url}")
     private String nextstepServiceUrl;
 
+    /**
+     * Preferred wire format for communication with Next Step server.
+     */
+    @Value("${powerauth.nextstep.service.wireFormat:JSON}")
+    private NextStepWireFormat nextstepWireFormat;
+
+    /**
+     * Maximum number of concurrent requests to Data Adapter.
+     */
+    @Value("${powerauth.dataAdapter.service.maxConcurrentRequests:100}")
+    private int dataAdapterMaxConcurrentRequests;
+
+    /**
+     * Maximum number of concurrent requests to Next Step server.
+     */
+    @Value("${powerauth.nextstep.service.maxConcurrentRequests:100}")
+    private int nextstepMaxConcurrentRequests;
+
+    /**
+     * Maximum time in milliseconds to wait for a free slot when the concurrency limit of a service is reached.
+     */
+    @Value("${powerauth.webflow.circuitBreaker.maxWaitMs:100}")
+    private long circuitBreakerMaxWaitMs;
+
+    /**
+     * Rate of failed or slow calls in percent which opens the circuit for a service endpoint.
+     */
+    @Value("${powerauth.webflow.circuitBreaker.failureRateThreshold:50}")
+    private int circuitBreakerFailureRateThreshold;
+
+    /**
+     * Duration in milliseconds after which a call is considered slow.
+     */
+    @Value("${powerauth.webflow.circuitBreaker.slowCallDurationMs:10000}")
+    private long circuitBreakerSlowCallDurationMs;
+
+    /**
+     * Number of recent calls used for computing the failure rate.
+     */
+    @Value("${powerauth.webflow.circuitBreaker.windowSize:20}")
+    private int circuitBreakerWindowSize;
+
+    /**
+     * Minimum number of calls before the circuit can open.
+     */
+    @Value("${powerauth.webflow.circuitBreaker.minimumCalls:10}")
+    private int circuitBreakerMinimumCalls;
+
+    /**
+     * Duration in milliseconds for which calls are rejected after the circuit opens.
+     */
+    @Value("${powerauth.webflow.circuitBreaker.openDurationMs:10000}")
+    private long circuitBreakerOpenDurationMs;
+
     /**
      * Whether invalid SSL certificates should be accepted.
      */
@@ -60,6 +149,12 @@ public class WebFlowServicesConfiguration {
     @Value("${powerauth.webflow.offlineMode.available}")
     private boolean offlineModeAvailable;
 
+    /**
+     * Image format of QR codes displayed in offline mode of Mobile Token.
+     */
+    @Value("${powerauth.webflow.offlineMode.qrCodeFormat:PNG}")
+    private QrCodeImageFormat offlineModeQrCodeFormat;
+
     /**
      * Authentication type which configures how username and password is transferred for verification.
      */
@@ -126,6 +221,42 @@ public class WebFlowServicesConfiguration {
     @Value("${powerauth.webflow.afs.tm.cookies.sessionSid}")
     private String tmSessionSidCookie;
 
+    /**
+     * Number of worker threads executing asynchronous AFS actions.
+     */
+    @Value("${powerauth.webflow.afs.async.threads:2}")
+    private int afsAsyncThreads;
+
+    /**
+     * Maximum number of AFS actions waiting for execution in each worker and waiting for persistence.
+     */
+    @Value("${powerauth.webflow.afs.async.queueCapacity:1000}")
+    private int afsAsyncQueueCapacity;
+
+    /**
+     * Maximum number of AFS actions persisted in Next Step in a single request.
+     */
+    @Value("${powerauth.webflow.afs.persist.batchSize:50}")
+    private int afsPersistBatchSize;
+
+    /**
+     * Interval in milliseconds between persisting of queued AFS actions in Next Step.
+     */
+    @Value("${powerauth.webflow.afs.persist.flushIntervalMs:200}")
+    private long afsPersistFlushIntervalMs;
+
+    /**
+     * Maximum number of attempts to persist an AFS action in Next Step.
+     */
+    @Value("${powerauth.webflow.afs.persist.maxAttempts:5}")
+    private int afsPersistMaxAttempts;
+
+    /**
+     * Time in milliseconds for which operation configuration used by AFS integration is cached.
+     */
+    @Value("${powerauth.webflow.afs.operationConfig.cacheTtlMs:60000}")
+    private long afsOperationConfigCacheTtlMs;
+
     /**
      * Whether client TLS certificate can be used for authenticating user.
      */
@@ -144,6 +275,198 @@ public class WebFlowServicesConfiguration {
     @Value("${powerauth.webflow.authentication.client.certificate.approval.url}")
     private String certificateVerificationUrlForApproval;
 
+    /**
+     * Whether authorization notifications are delivered to other Web Flow nodes in the cluster.
+     */
+    @Value("${powerauth.webflow.notification.bus.enabled:false}")
+    private boolean notificationBusEnabled;
+
+    /**
+     * Local address for receiving authorization notifications from other Web Flow nodes.
+     */
+    @Value("${powerauth.webflow.notification.bus.bindAddress:0.0.0.0}")
+    private String notificationBusBindAddress;
+
+    /**
+     * Local port for receiving authorization notifications from other Web Flow nodes.
+     */
+    @Value("${powerauth.webflow.notification.bus.port:7800}")
+    private int notificationBusPort;
+
+    /**
+     * Comma separated list of host:port addresses of other Web Flow nodes.
+     */
+    @Value("${powerauth.webflow.notification.bus.peers:}")
+    private String notificationBusPeers;
+
+    /**
+     * Secret shared by all Web Flow nodes used for authentication of notifications.
+     */
+    @Value("${powerauth.webflow.notification.bus.secret:}")
+    private String notificationBusSecret;
+
+    /**
+     * Maximum age of a received notification in milliseconds.
+     */
+    @Value("${powerauth.webflow.notification.bus.maxAgeMs:30000}")
+    private long notificationBusMaxAgeMs;
+
+    /**
+     * Type of store used for authentication flow state of HTTP sessions.
+     */
+    @Value("${powerauth.webflow.authFlowState.store:HTTP_SESSION}")
+    private AuthFlowStateStoreType authFlowStateStoreType;
+
+    /**
+     * Maximum number of authentication flow states kept in the near cache of each node.
+     */
+    @Value("${powerauth.webflow.authFlowState.nearCache.maxSize:10000}")
+    private int authFlowStateNearCacheMaxSize;
+
+    /**
+     * Time in milliseconds for which a cached authentication flow state is used without checking its version in the database.
+     */
+    @Value("${powerauth.webflow.authFlowState.nearCache.ttlMs:1000}")
+    private long authFlowStateNearCacheTtlMs;
+
+    /**
+     * Maximum time in milliseconds for which a request waits for a change of operation state in online mode of Mobile Token.
+     */
+    @Value("${powerauth.webflow.mobileToken.wait.timeoutMs:25000}")
+    private long mobileTokenWaitTimeoutMs;
+
+    /**
+     * Maximum number of requests waiting for a change of operation state on each node.
+     */
+    @Value("${powerauth.webflow.mobileToken.wait.maxRequests:10000}")
+    private int mobileTokenWaitMaxRequests;
+
+    /**
+     * Delay in milliseconds before the next status check suggested to clients which can not wait for a change.
+     */
+    @Value("${powerauth.webflow.mobileToken.wait.retryAfterMs:3000}")
+    private long mobileTokenWaitRetryAfterMs;
+
+    /**
+     * Interval in milliseconds for refreshing of operation configurations used in the operation list for mobile applications.
+     */
+    @Value("${powerauth.webflow.mobileToken.operationList.configRefreshMs:60000}")
+    private long mobileTokenOperationConfigRefreshMs;
+
+    /**
+     * Maximum number of converted operations kept in the operation list cache for mobile applications.
+     */
+    @Value("${powerauth.webflow.mobileToken.operationList.cacheMaxSize:10000}")
+    private int mobileTokenOperationCacheMaxSize;
+
+    /**
+     * Number of worker threads dispatching push messages about finished authentication steps.
+     */
+    @Value("${powerauth.webflow.pushDispatch.threads:2}")
+    private int pushDispatchThreads;
+
+    /**
+     * Maximum number of push messages waiting for dispatch.
+     */
+    @Value("${powerauth.webflow.pushDispatch.queueCapacity:10000}")
+    private int pushDispatchQueueCapacity;
+
+    /**
+     * Maximum number of push messages dispatched by a worker in a single batch.
+     */
+    @Value("${powerauth.webflow.pushDispatch.batchSize:50}")
+    private int pushDispatchBatchSize;
+
+    /**
+     * Maximum number of attempts to deliver a push message.
+     */
+    @Value("${powerauth.webflow.pushDispatch.maxAttempts:3}")
+    private int pushDispatchMaxAttempts;
+
+    /**
+     * Initial delay in milliseconds before a failed push message is retried, the delay doubles with each attempt.
+     */
+    @Value("${powerauth.webflow.pushDispatch.retryBackoffMs:1000}")
+    private long pushDispatchRetryBackoffMs;
+
+    /**
+     * Whether periodic cleanup of expired records is enabled.
+     */
+    @Value("${powerauth.webflow.cleanup.enabled:true}")
+    private boolean cleanupEnabled;
+
+    /**
+     * Maximum age of operation to HTTP session mappings in milliseconds.
+     */
+    @Value("${powerauth.webflow.cleanup.operationSession.maxAgeMs:86400000}")
+    private long cleanupOperationSessionMaxAgeMs;
+
+    /**
+     * Maximum age of certificate verification records in milliseconds.
+     */
+    @Value("${powerauth.webflow.cleanup.certificateVerification.maxAgeMs:86400000}")
+    private long cleanupCertificateVerificationMaxAgeMs;
+
+    /**
+     * Maximum age of authentication flow states since their last update in milliseconds.
+     */
+    @Value("${powerauth.webflow.cleanup.authFlowState.maxAgeMs:86400000}")
+    private long cleanupAuthFlowStateMaxAgeMs;
+
+    /**
+     * Maximum number of records deleted in a single batch.
+     */
+    @Value("${powerauth.webflow.cleanup.batchSize:1000}")
+    private int cleanupBatchSize;
+
+    /**
+     * Maximum number of batches deleted from each table in a single cleanup run.
+     */
+    @Value("${powerauth.webflow.cleanup.maxBatchesPerRun:100}")
+    private int cleanupMaxBatchesPerRun;
+
+    /**
+     * Duration of the cleanup lease in milliseconds.
+     */
+    @Value("${powerauth.webflow.cleanup.leaseDurationMs:600000}")
+    private long cleanupLeaseDurationMs;
+
+    /**
+     * Maximum number of Data Adapter notifications delivered from the outbox in a single batch.
+     */
+    @Value("${powerauth.webflow.notificationOutbox.batchSize:100}")
+    private int notificationOutboxBatchSize;
+
+    /**
+     * Maximum number of batches delivered from the outbox in a single run.
+     */
+    @Value("${powerauth.webflow.notificationOutbox.maxBatchesPerRun:10}")
+    private int notificationOutboxMaxBatchesPerRun;
+
+    /**
+     * Maximum number of delivery attempts of a Data Adapter notification.
+     */
+    @Value("${powerauth.webflow.notificationOutbox.maxAttempts:10}")
+    private int notificationOutboxMaxAttempts;
+
+    /**
+     * Initial delay in milliseconds before a failed notification is delivered again, the delay doubles with each attempt.
+     */
+    @Value("${powerauth.webflow.notificationOutbox.retryBackoffMs:1000}")
+    private long notificationOutboxRetryBackoffMs;
+
+    /**
+     * Maximum delay in milliseconds before a failed notification is delivered again.
+     */
+    @Value("${powerauth.webflow.notificationOutbox.maxRetryBackoffMs:300000}")
+    private long notificationOutboxMaxRetryBackoffMs;
+
+    /**
+     * Duration of the notification outbox lease in milliseconds.
+     */
+    @Value("${powerauth.webflow.notificationOutbox.leaseDurationMs:60000}")
+    private long notificationOutboxLeaseDurationMs;
+
     @Autowired
     public WebFlowServicesConfiguration(SSLConfigurationService sslConfigurationService) {
         this.sslConfigurationService = sslConfigurationService;
@@ -157,6 +480,10 @@ public class WebFlowServicesConfiguration {
     @Bean
     public DataAdapterClient defaultDataAdapterClient() {
         DataAdapterClient client = new DataAdapterClient(dataAdapterServiceUrl);
+        client.setHedgingEnabled(dataAdapterHedgingEnabled);
+        client.setHedgingMinDelayMs(dataAdapterHedgingMinDelayMs);
+        client.getRestTemplate().getInterceptors().add(new CircuitBreakerInterceptor("Data Adapter",
+                dataAdapterMaxConcurrentRequests, circuitBreakerMaxWaitMs, this::circuitBreaker));
         // whether invalid SSL certificates should be accepted
         if (acceptInvalidSslCertificate) {
             sslConfigurationService.trustAllCertificates();
@@ -171,7 +498,9 @@ public class WebFlowServicesConfiguration {
      */
     @Bean
     public NextStepClient defaultNextStepClient() {
-        NextStepClient client = new NextStepClient(nextstepServiceUrl);
+        NextStepClient client = new NextStepClient(nextstepServiceUrl, null, nextstepWireFormat);
+        client.getRestTemplate().getInterceptors().add(new CircuitBreakerInterceptor("Next Step",
+                nextstepMaxConcurrentRequests, circuitBreakerMaxWaitMs, this::circuitBreaker));
         // whether invalid SSL certificates should be accepted
         if (acceptInvalidSslCertificate) {
             sslConfigurationService.trustAllCertificates();
@@ -179,6 +508,56 @@ public class WebFlowServicesConfiguration {
         return client;
     }
 
+    /**
+     * Bus for delivering authorization notifications to other Web Flow nodes.
+     *
+     * @return Authorization notification bus.
+     * @throws SocketException Thrown when notification bus socket could not be bound.
+     */
+    @Bean
+    public AuthorizationNotificationBus authorizationNotificationBus() throws SocketException {
+        if (!notificationBusEnabled) {
+            return new LocalNotificationBus();
+        }
+        List<InetSocketAddress> peers = DatagramNotificationBus.parsePeers(notificationBusPeers, notificationBusPort);
+        DatagramNotificationBus bus = new DatagramNotificationBus(new InetSocketAddress(notificationBusBindAddress, notificationBusPort),
+                peers, notificationBusSecret.getBytes(StandardCharsets.UTF_8), notificationBusMaxAgeMs);
+        bus.start();
+        return bus;
+    }
+
+    /**
+     * Store for authentication flow state of HTTP sessions.
+     *
+     * @param authFlowStateRepository Authentication flow state repository.
+     * @return Authentication flow state store.
+     */
+    @Bean
+    public AuthFlowStateStore authFlowStateStore(AuthFlowStateRepository authFlowStateRepository) {
+        if (authFlowStateStoreType == AuthFlowStateStoreType.JDBC) {
+            return new JdbcAuthFlowStateStore(authFlowStateRepository, authFlowStateNearCacheMaxSize, authFlowStateNearCacheTtlMs);
+        }
+        return new HttpSessionAuthFlowStateStore();
+    }
+
+    /**
+     * Create a new circuit breaker for a service endpoint.
+     *
+     * @return Circuit breaker.
+     */
+    private CircuitBreaker circuitBreaker() {
+        return new CircuitBreaker(circuitBreakerFailureRateThreshold, circuitBreakerSlowCallDurationMs,
+                circuitBreakerWindowSize, circuitBreakerMinimumCalls, circuitBreakerOpenDurationMs);
+    }
+
+    /**
+     * Get time budget for processing of an incoming request in milliseconds which is propagated to Data Adapter calls.
+     * @return Time budget for processing of an incoming request in milliseconds.
+     */
+    public long getDataAdapterRequestBudgetMs() {
+        return dataAdapterRequestBudgetMs;
+    }
+
     /**
      * Whether offline mode is available.
      * @return True if offline mode is available.
@@ -187,6 +566,14 @@ public class WebFlowServicesConfiguration {
         return offlineModeAvailable;
     }
 
+    /**
+     * Get image format of QR codes displayed in offline mode of Mobile Token.
+     * @return QR code image format.
+     */
+    public QrCodeImageFormat getOfflineModeQrCodeFormat() {
+        return offlineModeQrCodeFormat;
+    }
+
     /**
      * Get authentication type which configures how username and password is transferred for verification.
      * @return Authentication type.
@@ -291,6 +678,54 @@ public class WebFlowServicesConfiguration {
         return tmSessionSidCookie;
     }
 
+    /**
+     * Get number of worker threads executing asynchronous AFS actions.
+     * @return Number of AFS worker threads.
+     */
+    public int getAfsAsyncThreads() {
+        return afsAsyncThreads;
+    }
+
+    /**
+     * Get maximum number of AFS actions waiting for execution in each worker and waiting for persistence.
+     * @return AFS action queue capacity.
+     */
+    public int getAfsAsyncQueueCapacity() {
+        return afsAsyncQueueCapacity;
+    }
+
+    /**
+     * Get maximum number of AFS actions persisted in Next Step in a single request.
+     * @return AFS action persistence batch size.
+     */
+    public int getAfsPersistBatchSize() {
+        return afsPersistBatchSize;
+    }
+
+    /**
+     * Get interval in milliseconds between persisting of queued AFS actions in Next Step.
+     * @return AFS action persistence interval in milliseconds.
+     */
+    public long getAfsPersistFlushIntervalMs() {
+        return afsPersistFlushIntervalMs;
+    }
+
+    /**
+     * Get maximum number of attempts to persist an AFS action in Next Step.
+     * @return Maximum number of attempts to persist an AFS action.
+     */
+    public int getAfsPersistMaxAttempts() {
+        return afsPersistMaxAttempts;
+    }
+
+    /**
+     * Get time in milliseconds for which operation configuration used by AFS integration is cached.
+     * @return Operation configuration cache time in milliseconds.
+     */
+    public long getAfsOperationConfigCacheTtlMs() {
+        return afsOperationConfigCacheTtlMs;
+    }
+
     /**
      * Get whether authentication using client TLS certificate is enabled.
      * @return Whether authentication using client TLS certificate is enabled.
@@ -315,4 +750,188 @@ public class WebFlowServicesConfiguration {
         return certificateVerificationUrlForApproval;
     }
 
+    /**
+     * Whether periodic cleanup of expired records is enabled.
+     * @return True if periodic cleanup of expired records is enabled.
+     */
+    public boolean isCleanupEnabled() {
+        return cleanupEnabled;
+    }
+
+    /**
+     * Get maximum age of operation to HTTP session mappings in milliseconds.
+     * @return Maximum age of operation to HTTP session mappings in milliseconds.
+     */
+    public long getCleanupOperationSessionMaxAgeMs() {
+        return cleanupOperationSessionMaxAgeMs;
+    }
+
+    /**
+     * Get maximum age of certificate verification records in milliseconds.
+     * @return Maximum age of certificate verification records in milliseconds.
+     */
+    public long getCleanupCertificateVerificationMaxAgeMs() {
+        return cleanupCertificateVerificationMaxAgeMs;
+    }
+
+    /**
+     * Get maximum age of authentication flow states since their last update in milliseconds.
+     * @return Maximum age of authentication flow states in milliseconds.
+     */
+    public long getCleanupAuthFlowStateMaxAgeMs() {
+        return cleanupAuthFlowStateMaxAgeMs;
+    }
+
+    /**
+     * Get maximum number of records deleted in a single batch.
+     * @return Maximum number of records deleted in a single batch.
+     */
+    public int getCleanupBatchSize() {
+        return cleanupBatchSize;
+    }
+
+    /**
+     * Get maximum number of batches deleted from each table in a single cleanup run.
+     * @return Maximum number of batches per cleanup run.
+     */
+    public int getCleanupMaxBatchesPerRun() {
+        return cleanupMaxBatchesPerRun;
+    }
+
+    /**
+     * Get duration of the cleanup lease in milliseconds.
+     * @return Duration of the cleanup lease in milliseconds.
+     */
+    public long getCleanupLeaseDurationMs() {
+        return cleanupLeaseDurationMs;
+    }
+
+    /**
+     * Get maximum number of Data Adapter notifications delivered from the outbox in a single batch.
+     * @return Maximum number of notifications in a batch.
+     */
+    public int getNotificationOutboxBatchSize() {
+        return notificationOutboxBatchSize;
+    }
+
+    /**
+     * Get maximum number of batches delivered from the outbox in a single run.
+     * @return Maximum number of batches per run.
+     */
+    public int getNotificationOutboxMaxBatchesPerRun() {
+        return notificationOutboxMaxBatchesPerRun;
+    }
+
+    /**
+     * Get maximum number of delivery attempts of a Data Adapter notification.
+     * @return Maximum number of delivery attempts.
+     */
+    public int getNotificationOutboxMaxAttempts() {
+        return notificationOutboxMaxAttempts;
+    }
+
+    /**
+     * Get initial delay in milliseconds before a failed notification is delivered again.
+     * @return Initial retry delay in milliseconds.
+     */
+    public long getNotificationOutboxRetryBackoffMs() {
+        return notificationOutboxRetryBackoffMs;
+    }
+
+    /**
+     * Get maximum delay in milliseconds before a failed notification is delivered again.
+     * @return Maximum retry delay in milliseconds.
+     */
+    public long getNotificationOutboxMaxRetryBackoffMs() {
+        return notificationOutboxMaxRetryBackoffMs;
+    }
+
+    /**
+     * Get duration of the notification outbox lease in milliseconds.
+     * @return Duration of the notification outbox lease in milliseconds.
+     */
+    public long getNotificationOutboxLeaseDurationMs() {
+        return notificationOutboxLeaseDurationMs;
+    }
+
+    /**
+     * Get maximum time in milliseconds for which a request waits for a change of operation state.
+     * @return Maximum wait time in milliseconds.
+     */
+    public long getMobileTokenWaitTimeoutMs() {
+        return mobileTokenWaitTimeoutMs;
+    }
+
+    /**
+     * Get maximum number of requests waiting for a change of operation state on each node.
+     * @return Maximum number of waiting requests.
+     */
+    public int getMobileTokenWaitMaxRequests() {
+        return mobileTokenWaitMaxRequests;
+    }
+
+    /**
+     * Get delay in milliseconds before the next status check suggested to clients which can not wait for a change.
+     * @return Suggested delay in milliseconds.
+     */
+    public long getMobileTokenWaitRetryAfterMs() {
+        return mobileTokenWaitRetryAfterMs;
+    }
+
+    /**
+     * Get interval in milliseconds for refreshing of operation configurations used in the operation list for mobile applications.
+     * @return Refresh interval in milliseconds.
+     */
+    public long getMobileTokenOperationConfigRefreshMs() {
+        return mobileTokenOperationConfigRefreshMs;
+    }
+
+    /**
+     * Get maximum number of converted operations kept in the operation list cache for mobile applications.
+     * @return Maximum number of cached operations.
+     */
+    public int getMobileTokenOperationCacheMaxSize() {
+        return mobileTokenOperationCacheMaxSize;
+    }
+
+    /**
+     * Get number of worker threads dispatching push messages about finished authentication steps.
+     * @return Number of push dispatch worker threads.
+     */
+    public int getPushDispatchThreads() {
+        return pushDispatchThreads;
+    }
+
+    /**
+     * Get maximum number of push messages waiting for dispatch.
+     * @return Push dispatch queue capacity.
+     */
+    public int getPushDispatchQueueCapacity() {
+        return pushDispatchQueueCapacity;
+    }
+
+    /**
+     * Get maximum number of push messages dispatched by a worker in a single batch.
+     * @return Push dispatch batch size.
+     */
+    public int getPushDispatchBatchSize() {
+        return pushDispatchBatchSize;
+    }
+
+    /**
+     * Get maximum number of attempts to deliver a push message.
+     * @return Maximum number of push delivery attempts.
+     */
+    public int getPushDispatchMaxAttempts() {
+        return pushDispatchMaxAttempts;
+    }
+
+    /**
+     * Get initial delay in milliseconds before a failed push message is retried.
+     * @return Initial retry delay in milliseconds.
+     */
+    public long getPushDispatchRetryBackoffMs() {
+        return pushDispatchRetryBackoffMs;
+    }
+
 }
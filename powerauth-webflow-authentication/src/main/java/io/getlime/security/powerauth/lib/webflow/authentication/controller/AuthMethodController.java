@@ -17,11 +17,7 @@
 package io.getlime.security.powerauth.lib.webflow.authentication.controller;
 
 import io.getlime.core.rest.model.base.response.ObjectResponse;
-import io.getlime.security.powerauth.lib.dataadapter.client.DataAdapterClient;
-import io.getlime.security.powerauth.lib.dataadapter.client.DataAdapterClientErrorException;
-import io.getlime.security.powerauth.lib.dataadapter.model.entity.FormData;
 import io.getlime.security.powerauth.lib.dataadapter.model.entity.OperationChange;
-import io.getlime.security.powerauth.lib.dataadapter.model.entity.OperationContext;
 import io.getlime.security.powerauth.lib.dataadapter.model.enumeration.OperationTerminationReason;
 import io.getlime.security.powerauth.lib.nextstep.client.NextStepClient;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.*;
@@ -31,8 +27,8 @@ import io.getlime.security.powerauth.lib.nextstep.model.response.*;
 import io.getlime.security.powerauth.lib.webflow.authentication.base.AuthStepRequest;
 import io.getlime.security.powerauth.lib.webflow.authentication.base.AuthStepResponse;
 import io.getlime.security.powerauth.lib.webflow.authentication.exception.*;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.AuthFlowState;
 import io.getlime.security.powerauth.lib.webflow.authentication.model.AuthenticationResult;
-import io.getlime.security.powerauth.lib.webflow.authentication.model.converter.FormDataConverter;
 import io.getlime.security.powerauth.lib.webflow.authentication.repository.model.entity.OperationSessionEntity;
 import io.getlime.security.powerauth.lib.webflow.authentication.security.UserOperationAuthentication;
 import io.getlime.security.powerauth.lib.webflow.authentication.service.*;
@@ -72,9 +68,6 @@ public abstract class AuthMethodController<T extends AuthStepRequest, R extends
     @Autowired
     private AuthMethodQueryService authMethodQueryService;
 
-    @Autowired
-    private DataAdapterClient dataAdapterClient;
-
     @Autowired
     private MessageTranslationService messageTranslationService;
 
@@ -93,6 +86,20 @@ public abstract class AuthMethodController<T extends AuthStepRequest, R extends
     @Autowired
     private OperationCancellationService operationCancellationService;
 
+    @Autowired
+    private NotificationOutboxService notificationOutboxService;
+
+    @Autowired
+    private AuthFlowStateService authFlowStateService;
+
+    /**
+     * Get authentication flow state of the current HTTP session.
+     * @return Authentication flow state.
+     */
+    protected AuthFlowState getAuthFlowState() {
+        return authFlowStateService.getAuthFlowState(request.getSession());
+    }
+
     /**
      * Get operation detail.
      * @return Operation detail.
@@ -122,6 +129,19 @@ public abstract class AuthMethodController<T extends AuthStepRequest, R extends
         }
     }
 
+    /**
+     * Get ID of the operation which is being authenticated without retrieving the operation detail.
+     * @return Operation ID.
+     * @throws AuthStepException Thrown when operation is not available.
+     */
+    protected String getOperationId() throws AuthStepException {
+        final UserOperationAuthentication pendingUserAuthentication = authenticationManagementService.getPendingUserAuthentication();
+        if (pendingUserAuthentication == null || pendingUserAuthentication.getOperationId() == null) {
+            throw new OperationNotAvailableException("Operation is not available");
+        }
+        return pendingUserAuthentication.getOperationId();
+    }
+
     /**
      * Get operation detail with given operation ID.
      * @param operationId Operation ID.
@@ -253,6 +273,28 @@ public abstract class AuthMethodController<T extends AuthStepRequest, R extends
         }
     }
 
+    /**
+     * Get summary of pending operations for given user. The operations contain only the current operation history
+     * entry and their form data are not translated.
+     * @param userId User ID.
+     * @param mobileTokenOnly Whether pending operation list should be filtered for only next step with mobile token support.
+     * @return List of operations for given user.
+     * @throws AuthStepException Thrown in case communication with Next Step fails.
+     */
+    protected List<GetOperationDetailResponse> getOperationSummaryListForUser(String userId, boolean mobileTokenOnly) throws AuthStepException {
+        try {
+            final ObjectResponse<List<GetOperationDetailResponse>> operations = nextStepClient.getPendingOperations(userId, mobileTokenOnly, true);
+            final List<GetOperationDetailResponse> responseObject = operations.getResponseObject();
+            for (GetOperationDetailResponse operation: responseObject) {
+                updateOperationForScaLogin(operation);
+            }
+            return responseObject;
+        } catch (NextStepServiceException e) {
+            logger.error("Error occurred in Next Step server", e);
+            throw new CommunicationFailedException("Operations are not available");
+        }
+    }
+
     /**
      * Method to authenticate user with provided request object.
      *
@@ -283,17 +325,11 @@ public abstract class AuthMethodController<T extends AuthStepRequest, R extends
         logger.info("Step authorization started, operation ID: {}, user ID: {}, authentication method: {}", operationId, userId, authMethod.toString());
         ApplicationContext applicationContext = operation.getApplicationContext();
         ObjectResponse<UpdateOperationResponse> response = nextStepClient.updateOperation(operationId, userId, organizationId, authMethod, authInstruments, AuthStepResult.CONFIRMED, null, params, applicationContext);
-        // notify Data Adapter in case operation is in DONE state now
+        // notify Data Adapter in case operation is in DONE state now, the notification is delivered asynchronously
         if (response.getResponseObject().getResult()==AuthResult.DONE) {
-            try {
-                FormData formData = new FormDataConverter().fromOperationFormData(operation.getFormData());
-                OperationContext operationContext = new OperationContext(operation.getOperationId(), operation.getOperationName(), operation.getOperationData(), formData, applicationContext);
-                dataAdapterClient.operationChangedNotification(OperationChange.DONE, userId, organizationId, operationContext);
-                // notify AFS about logout
-                afsIntegrationService.executeLogoutAction(operationId, OperationTerminationReason.DONE);
-            } catch (DataAdapterClientErrorException ex) {
-                logger.error("Error while notifying Data Adapter", ex);
-            }
+            notificationOutboxService.enqueueOperationChange(OperationChange.DONE, userId, organizationId, operation);
+            // notify AFS about logout
+            afsIntegrationService.executeLogoutAction(operation, OperationTerminationReason.DONE);
         }
         // update operation result in operation to HTTP session mapping
         operationSessionService.updateOperationResult(operationId, response.getResponseObject().getResult());
@@ -319,15 +355,9 @@ public abstract class AuthMethodController<T extends AuthStepRequest, R extends
         logger.info("Fail step started, operation ID: {}, user ID: {}, authentication method: {}", operationId, userId, authMethod.toString());
         ApplicationContext applicationContext = operation.getApplicationContext();
         ObjectResponse<UpdateOperationResponse> response = nextStepClient.updateOperation(operationId, userId, operation.getOrganizationId(), authMethod, authInstruments, AuthStepResult.AUTH_FAILED, null, params, applicationContext);
-        // notify Data Adapter in case operation is in FAILED state now
+        // notify Data Adapter in case operation is in FAILED state now, the notification is delivered asynchronously
         if (response.getResponseObject().getResult()==AuthResult.FAILED) {
-            try {
-                FormData formData = new FormDataConverter().fromOperationFormData(operation.getFormData());
-                OperationContext operationContext = new OperationContext(operation.getOperationId(), operation.getOperationName(), operation.getOperationData(), formData, applicationContext);
-                dataAdapterClient.operationChangedNotification(OperationChange.FAILED, userId, operation.getOrganizationId(), operationContext);
-            } catch (DataAdapterClientErrorException ex) {
-                logger.error("Error while notifying Data Adapter", ex);
-            }
+            notificationOutboxService.enqueueOperationChange(OperationChange.FAILED, userId, operation.getOrganizationId(), operation);
         }
         // update operation result in operation to HTTP session mapping
         operationSessionService.updateOperationResult(operationId, response.getResponseObject().getResult());
@@ -463,10 +493,8 @@ public abstract class AuthMethodController<T extends AuthStepRequest, R extends
      */
     private void cancelOperationsInHttpSession(String httpSessionId) {
         // At first cancel operations within same HTTP session in the operation to session mapping
-        List<OperationSessionEntity> operationsToCancel = operationSessionService.cancelOperationsInHttpSession(httpSessionId);
-        for (OperationSessionEntity operationToCancel: operationsToCancel) {
-            operationCancellationService.cancelOperation(operationToCancel.getOperationId(), getAuthMethodName(), OperationCancelReason.INTERRUPTED_OPERATION);
-        }
+        List<String> operationIdsToCancel = operationSessionService.cancelOperationsInHttpSession(httpSessionId);
+        operationCancellationService.cancelOperations(operationIdsToCancel, getAuthMethodName(), OperationCancelReason.INTERRUPTED_OPERATION);
     }
 
     /**
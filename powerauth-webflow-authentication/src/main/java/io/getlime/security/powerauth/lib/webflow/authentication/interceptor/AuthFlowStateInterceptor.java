@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.interceptor;
+
+import io.getlime.security.powerauth.lib.webflow.authentication.service.AuthFlowStateService;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Interceptor which saves the authentication flow state modified during request processing into the state store.
+ * The state is saved after the handler finished and before the view is rendered, so that a failure of the state
+ * store is reported to the client. Responses written directly by the handler are covered by
+ * {@link AuthFlowStateResponseBodyAdvice}.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class AuthFlowStateInterceptor implements HandlerInterceptor {
+
+    private final AuthFlowStateService authFlowStateService;
+
+    /**
+     * Interceptor constructor.
+     * @param authFlowStateService Authentication flow state service.
+     */
+    public AuthFlowStateInterceptor(AuthFlowStateService authFlowStateService) {
+        this.authFlowStateService = authFlowStateService;
+    }
+
+    @Override
+    public void postHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler, ModelAndView modelAndView) {
+        authFlowStateService.saveAuthFlowState(request);
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler, Exception ex) {
+        // Save state modified by a request whose handler failed, the state was not saved by postHandle
+        authFlowStateService.saveAuthFlowState(request);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.interceptor;
+
+import io.getlime.security.powerauth.lib.webflow.authentication.service.AuthFlowStateService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Controller advice which saves the authentication flow state modified during request processing before
+ * the response body is written, so that a failure of the state store is reported to the client.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@ControllerAdvice
+public class AuthFlowStateResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    private final AuthFlowStateService authFlowStateService;
+
+    /**
+     * Controller advice constructor.
+     * @param authFlowStateService Authentication flow state service.
+     */
+    @Autowired
+    public AuthFlowStateResponseBodyAdvice(AuthFlowStateService authFlowStateService) {
+        this.authFlowStateService = authFlowStateService;
+    }
+
+    @Override
+    public boolean supports(@NonNull MethodParameter returnType, @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, @NonNull MethodParameter returnType, @NonNull MediaType selectedContentType,
+                                  @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  @NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest) {
+            authFlowStateService.saveAuthFlowState(((ServletServerHttpRequest) request).getServletRequest());
+        }
+        return body;
+    }
+
+}
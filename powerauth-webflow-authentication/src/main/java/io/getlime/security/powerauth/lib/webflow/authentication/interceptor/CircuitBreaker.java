@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.interceptor;
+
+/**
+ * Circuit breaker for a single endpoint of a remote service. Outcomes of recent calls are kept in a sliding window.
+ * The circuit opens when the rate of failed or slow calls reaches the threshold and calls are rejected until
+ * the open duration passes. Afterwards a single probe call is permitted in half-open state, the circuit closes
+ * again when the probe succeeds.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class CircuitBreaker {
+
+    /**
+     * Circuit breaker state.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureRateThreshold;
+    private final long slowCallDurationMs;
+    private final int minimumCalls;
+    private final long openDurationMs;
+
+    private final boolean[] window;
+    private int windowPosition;
+    private int windowCalls;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInProgress;
+
+    /**
+     * Circuit breaker constructor.
+     * @param failureRateThreshold Rate of failed or slow calls in percent which opens the circuit.
+     * @param slowCallDurationMs Duration in milliseconds after which a call is considered slow.
+     * @param windowSize Number of recent calls used for computing the failure rate.
+     * @param minimumCalls Minimum number of calls in the window before the circuit can open.
+     * @param openDurationMs Duration in milliseconds for which calls are rejected after the circuit opens.
+     */
+    public CircuitBreaker(int failureRateThreshold, long slowCallDurationMs, int windowSize, int minimumCalls, long openDurationMs) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallDurationMs = slowCallDurationMs;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.openDurationMs = openDurationMs;
+        this.window = new boolean[windowSize];
+    }
+
+    /**
+     * Try to obtain permission for a call. Each permitted call must be followed by a call of {@link #onResult(long, boolean)}.
+     * @return Whether the call is permitted.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.currentTimeMillis() - openedAt < openDurationMs) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInProgress = true;
+                return true;
+            case HALF_OPEN:
+                if (probeInProgress) {
+                    return false;
+                }
+                probeInProgress = true;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Record result of a permitted call.
+     * @param durationMs Duration of the call in milliseconds.
+     * @param failed Whether the call failed.
+     * @return Circuit breaker state after recording the result.
+     */
+    public synchronized State onResult(long durationMs, boolean failed) {
+        boolean failure = failed || durationMs >= slowCallDurationMs;
+        if (state == State.HALF_OPEN) {
+            probeInProgress = false;
+            if (failure) {
+                open();
+            } else {
+                close();
+            }
+            return state;
+        }
+        if (state == State.OPEN) {
+            // Result of a call which started before the circuit opened
+            return state;
+        }
+        if (windowCalls == window.length) {
+            if (window[windowPosition]) {
+                windowFailures--;
+            }
+        } else {
+            windowCalls++;
+        }
+        window[windowPosition] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowPosition = (windowPosition + 1) % window.length;
+        if (windowCalls >= minimumCalls && windowFailures * 100 >= failureRateThreshold * windowCalls) {
+            open();
+        }
+        return state;
+    }
+
+    /**
+     * Get current circuit breaker state.
+     * @return Circuit breaker state.
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Open the circuit.
+     */
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Close the circuit and reset the sliding window.
+     */
+    private void close() {
+        state = State.CLOSED;
+        windowPosition = 0;
+        windowCalls = 0;
+        windowFailures = 0;
+    }
+
+}
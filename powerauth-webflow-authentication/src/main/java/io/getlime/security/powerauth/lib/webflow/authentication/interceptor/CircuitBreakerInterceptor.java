@@ -0,0 +1,249 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.interceptor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.NonNull;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * REST client interceptor which protects Web Flow from a slow or unavailable remote service. Concurrent requests
+ * to the service are limited by a bulkhead and each endpoint is guarded by a {@link CircuitBreaker}. Rejected
+ * requests fail fast with an I/O error, so that they are handled the same way as other communication errors.
+ * A call is finished when the response is closed, so that the duration of slow calls includes reading
+ * of the response body. Responses with a 5xx status code are recorded as failed calls, because an overloaded
+ * service typically rejects requests quickly instead of responding slowly.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class CircuitBreakerInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreakerInterceptor.class);
+
+    private final String serviceName;
+    private final Semaphore bulkhead;
+    private final long maxWaitMs;
+    private final Supplier<CircuitBreaker> circuitBreakerFactory;
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    /**
+     * Interceptor constructor.
+     * @param serviceName Name of the remote service used in log messages.
+     * @param maxConcurrentRequests Maximum number of concurrent requests to the remote service.
+     * @param maxWaitMs Maximum time in milliseconds to wait for a free slot in the bulkhead.
+     * @param circuitBreakerFactory Factory for circuit breakers of individual endpoints.
+     */
+    public CircuitBreakerInterceptor(String serviceName, int maxConcurrentRequests, long maxWaitMs, Supplier<CircuitBreaker> circuitBreakerFactory) {
+        this.serviceName = serviceName;
+        this.bulkhead = new Semaphore(maxConcurrentRequests);
+        this.maxWaitMs = maxWaitMs;
+        this.circuitBreakerFactory = circuitBreakerFactory;
+    }
+
+    @Override
+    @NonNull
+    public ClientHttpResponse intercept(@NonNull HttpRequest request, @NonNull byte[] body, @NonNull ClientHttpRequestExecution execution) throws IOException {
+        String endpoint = request.getURI().getPath();
+        acquireBulkhead(endpoint);
+        CircuitBreaker circuitBreaker = circuitBreakers.computeIfAbsent(endpoint, key -> circuitBreakerFactory.get());
+        if (!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.release();
+            throw new IOException("Circuit breaker is open for " + serviceName + " endpoint: " + endpoint);
+        }
+        Call call = new Call(endpoint, circuitBreaker);
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            boolean serverError;
+            try {
+                serverError = HttpStatus.Series.resolve(response.getRawStatusCode()) == HttpStatus.Series.SERVER_ERROR;
+            } catch (IOException | RuntimeException ex) {
+                response.close();
+                throw ex;
+            }
+            return new MeasuredResponse(response, call, serverError);
+        } catch (IOException | RuntimeException ex) {
+            call.finish(true);
+            throw ex;
+        }
+    }
+
+    /**
+     * Get states of circuit breakers for all endpoints which were called.
+     * @return Map of endpoint paths to circuit breaker states.
+     */
+    public Map<String, CircuitBreaker.State> getCircuitBreakerStates() {
+        Map<String, CircuitBreaker.State> states = new ConcurrentHashMap<>();
+        circuitBreakers.forEach((endpoint, circuitBreaker) -> states.put(endpoint, circuitBreaker.getState()));
+        return states;
+    }
+
+    /**
+     * Acquire a slot in the bulkhead.
+     * @param endpoint Endpoint path.
+     * @throws IOException Thrown when the concurrency limit is reached.
+     */
+    private void acquireBulkhead(String endpoint) throws IOException {
+        try {
+            if (!bulkhead.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Concurrency limit reached for " + serviceName + " endpoint: " + endpoint);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Request to " + serviceName + " endpoint was interrupted: " + endpoint);
+        }
+    }
+
+    /**
+     * Call of an endpoint which is in progress. The call is finished exactly once, its result is recorded
+     * in the circuit breaker and the slot in the bulkhead is released.
+     */
+    private class Call {
+
+        private final String endpoint;
+        private final CircuitBreaker circuitBreaker;
+        private final long startTime = System.nanoTime();
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        Call(String endpoint, CircuitBreaker circuitBreaker) {
+            this.endpoint = endpoint;
+            this.circuitBreaker = circuitBreaker;
+        }
+
+        /**
+         * Finish the call.
+         * @param failed Whether the call failed.
+         */
+        void finish(boolean failed) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                CircuitBreaker.State previousState = circuitBreaker.getState();
+                CircuitBreaker.State state = circuitBreaker.onResult(durationMs, failed);
+                if (state != previousState) {
+                    if (state == CircuitBreaker.State.OPEN) {
+                        logger.warn("Circuit breaker opened for {} endpoint: {}", serviceName, endpoint);
+                    } else if (state == CircuitBreaker.State.CLOSED) {
+                        logger.info("Circuit breaker closed for {} endpoint: {}", serviceName, endpoint);
+                    }
+                }
+            } finally {
+                bulkhead.release();
+            }
+        }
+
+    }
+
+    /**
+     * Response which finishes the call when it is closed. Server error responses and errors while reading
+     * the response body are recorded as failed calls.
+     */
+    private static class MeasuredResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse response;
+        private final Call call;
+        private volatile boolean failed;
+
+        MeasuredResponse(ClientHttpResponse response, Call call, boolean failed) {
+            this.response = response;
+            this.call = call;
+            this.failed = failed;
+        }
+
+        @Override
+        @NonNull
+        public HttpStatus getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return response.getRawStatusCode();
+        }
+
+        @Override
+        @NonNull
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        @NonNull
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        @NonNull
+        public InputStream getBody() throws IOException {
+            try {
+                return new FilterInputStream(response.getBody()) {
+                    @Override
+                    public int read() throws IOException {
+                        try {
+                            return super.read();
+                        } catch (IOException ex) {
+                            failed = true;
+                            throw ex;
+                        }
+                    }
+
+                    @Override
+                    public int read(@NonNull byte[] b, int off, int len) throws IOException {
+                        try {
+                            return super.read(b, off, len);
+                        } catch (IOException ex) {
+                            failed = true;
+                            throw ex;
+                        }
+                    }
+                };
+            } catch (IOException ex) {
+                failed = true;
+                throw ex;
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                response.close();
+            } finally {
+                call.finish(failed);
+            }
+        }
+
+    }
+
+}
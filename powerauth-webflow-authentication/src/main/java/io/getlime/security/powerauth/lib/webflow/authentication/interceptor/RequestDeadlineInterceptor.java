@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.interceptor;
+
+import io.getlime.security.powerauth.lib.dataadapter.client.DataAdapterClient;
+import io.getlime.security.powerauth.lib.dataadapter.client.RequestDeadline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Interceptor which starts the deadline of an incoming Web Flow request. The deadline is propagated to Data Adapter
+ * calls made while the request is processed. The configured time budget can be shortened by the caller using
+ * the request timeout HTTP header. The deadline is bound to the request thread, so it is cleared also when
+ * the request processing continues asynchronously on another thread.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class RequestDeadlineInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestDeadlineInterceptor.class);
+
+    private final long requestBudgetMs;
+
+    /**
+     * Interceptor constructor.
+     * @param requestBudgetMs Time budget for processing of an incoming request in milliseconds.
+     */
+    public RequestDeadlineInterceptor(long requestBudgetMs) {
+        this.requestBudgetMs = requestBudgetMs;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        long budgetMs = requestBudgetMs;
+        String timeoutHeader = request.getHeader(DataAdapterClient.REQUEST_TIMEOUT_HEADER);
+        if (timeoutHeader != null) {
+            try {
+                long timeoutMs = Long.parseLong(timeoutHeader.trim());
+                if (timeoutMs > 0) {
+                    budgetMs = Math.min(budgetMs, timeoutMs);
+                } else {
+                    logger.warn("Ignoring non-positive request timeout header value: {}", timeoutHeader);
+                }
+            } catch (NumberFormatException ex) {
+                logger.warn("Ignoring invalid request timeout header value: {}", timeoutHeader);
+            }
+        }
+        RequestDeadline.start(budgetMs);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        // The container thread is released and reused by other requests, afterCompletion is not called on it
+        RequestDeadline.clear();
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler, Exception ex) {
+        RequestDeadline.clear();
+    }
+}
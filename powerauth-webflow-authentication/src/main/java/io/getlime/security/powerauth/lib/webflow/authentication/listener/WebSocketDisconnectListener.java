@@ -53,7 +53,7 @@ public class WebSocketDisconnectListener implements ApplicationListener<SessionD
     @Override
     public void onApplicationEvent(SessionDisconnectEvent sessionDisconnectEvent) {
         String sessionId = sessionDisconnectEvent.getSessionId();
-        String operationId = operationSessionService.lookupOperationIdByWebSocketSessionId(sessionId);
+        String operationId = operationSessionService.releaseWebSocketSession(sessionId);
         if (operationId == null) {
             // Operation does not exist, nothing to do
             return;
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.model;
+
+import io.getlime.security.powerauth.lib.dataadapter.model.response.AuthStepOptions;
+import io.getlime.security.powerauth.lib.webflow.authentication.security.UserOperationAuthentication;
+
+import java.io.Serializable;
+
+/**
+ * State of the authentication flow of an HTTP session. A single instance is created for each HTTP session,
+ * the individual values are volatile so that they can be read and updated by concurrent requests within
+ * the same HTTP session without locking. Modifications are tracked, so that the state is written to the
+ * state store only when it changes. A change listener may be registered to write the state back immediately
+ * after each change, e.g. into a replicated HTTP session.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class AuthFlowState implements Serializable {
+
+    private static final long serialVersionUID = 4781653421859208537L;
+
+    private volatile UserOperationAuthentication pendingAuthentication;
+    private volatile String messageId;
+    private volatile Long lastMessageTimestamp;
+    private volatile Boolean initialMessageSent;
+    private volatile AuthStepOptions authStepOptions;
+    private volatile boolean consentSkipped;
+    private volatile String username;
+    private volatile String clientCertificate;
+    private transient volatile boolean modified;
+    private transient volatile Long version;
+    private transient volatile Runnable changeListener;
+
+    /**
+     * Get pending user authentication object.
+     * @return Pending user authentication object.
+     */
+    public UserOperationAuthentication getPendingAuthentication() {
+        return pendingAuthentication;
+    }
+
+    /**
+     * Set pending user authentication object.
+     * @param pendingAuthentication Pending user authentication object.
+     */
+    public void setPendingAuthentication(UserOperationAuthentication pendingAuthentication) {
+        this.pendingAuthentication = pendingAuthentication;
+        markModified();
+    }
+
+    /**
+     * Get ID of the last authorization SMS message.
+     * @return Message ID.
+     */
+    public String getMessageId() {
+        return messageId;
+    }
+
+    /**
+     * Set ID of the last authorization SMS message.
+     * @param messageId Message ID.
+     */
+    public void setMessageId(String messageId) {
+        this.messageId = messageId;
+        markModified();
+    }
+
+    /**
+     * Get timestamp of the last authorization SMS message.
+     * @return Timestamp of the last message.
+     */
+    public Long getLastMessageTimestamp() {
+        return lastMessageTimestamp;
+    }
+
+    /**
+     * Set timestamp of the last authorization SMS message.
+     * @param lastMessageTimestamp Timestamp of the last message.
+     */
+    public void setLastMessageTimestamp(Long lastMessageTimestamp) {
+        this.lastMessageTimestamp = lastMessageTimestamp;
+        markModified();
+    }
+
+    /**
+     * Get whether the initial authorization SMS message was sent.
+     * @return Whether the initial message was sent.
+     */
+    public Boolean getInitialMessageSent() {
+        return initialMessageSent;
+    }
+
+    /**
+     * Set whether the initial authorization SMS message was sent.
+     * @param initialMessageSent Whether the initial message was sent.
+     */
+    public void setInitialMessageSent(Boolean initialMessageSent) {
+        this.initialMessageSent = initialMessageSent;
+        markModified();
+    }
+
+    /**
+     * Get authentication step options.
+     * @return Authentication step options.
+     */
+    public AuthStepOptions getAuthStepOptions() {
+        return authStepOptions;
+    }
+
+    /**
+     * Set authentication step options.
+     * @param authStepOptions Authentication step options.
+     */
+    public void setAuthStepOptions(AuthStepOptions authStepOptions) {
+        this.authStepOptions = authStepOptions;
+        markModified();
+    }
+
+    /**
+     * Get whether consent form was skipped.
+     * @return Whether consent form was skipped.
+     */
+    public boolean isConsentSkipped() {
+        return consentSkipped;
+    }
+
+    /**
+     * Set whether consent form was skipped.
+     * @param consentSkipped Whether consent form was skipped.
+     */
+    public void setConsentSkipped(boolean consentSkipped) {
+        this.consentSkipped = consentSkipped;
+        markModified();
+    }
+
+    /**
+     * Get username.
+     * @return Username.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Set username.
+     * @param username Username.
+     */
+    public void setUsername(String username) {
+        this.username = username;
+        markModified();
+    }
+
+    /**
+     * Get client TLS certificate.
+     * @return Client TLS certificate.
+     */
+    public String getClientCertificate() {
+        return clientCertificate;
+    }
+
+    /**
+     * Set client TLS certificate.
+     * @param clientCertificate Client TLS certificate.
+     */
+    public void setClientCertificate(String clientCertificate) {
+        this.clientCertificate = clientCertificate;
+        markModified();
+    }
+
+    /**
+     * Clear state of SMS authorization.
+     */
+    public void clearSmsAuthorization() {
+        messageId = null;
+        lastMessageTimestamp = null;
+        initialMessageSent = null;
+        authStepOptions = null;
+        username = null;
+        markModified();
+    }
+
+    /**
+     * Clear state of authentication steps, the pending user authentication object is kept.
+     */
+    public void clearAuthSteps() {
+        messageId = null;
+        lastMessageTimestamp = null;
+        initialMessageSent = null;
+        authStepOptions = null;
+        username = null;
+        consentSkipped = false;
+        clientCertificate = null;
+        markModified();
+    }
+
+    /**
+     * Get whether the state was modified since it was last stored.
+     * @return Whether the state was modified.
+     */
+    public boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Set whether the state was modified since it was last stored.
+     * @param modified Whether the state was modified.
+     */
+    public void setModified(boolean modified) {
+        this.modified = modified;
+    }
+
+    /**
+     * Get version of the state loaded from the state store.
+     * @return Version of the state or null in case the state was not stored yet.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Set version of the state loaded from the state store.
+     * @param version Version of the state.
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Set listener which is notified after each change of the state.
+     * @param changeListener Change listener, use null to remove the listener.
+     */
+    public void setChangeListener(Runnable changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Mark the state as modified and notify the change listener.
+     */
+    private void markModified() {
+        modified = true;
+        Runnable currentChangeListener = changeListener;
+        if (currentChangeListener != null) {
+            currentChangeListener.run();
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.model;
+
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthResult;
+
+/**
+ * Notification about completed authorization of an operation.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class AuthorizationNotification {
+
+    private final String operationId;
+    private final AuthResult authResult;
+
+    /**
+     * Notification constructor.
+     * @param operationId Operation ID.
+     * @param authResult Authorization result.
+     */
+    public AuthorizationNotification(String operationId, AuthResult authResult) {
+        this.operationId = operationId;
+        this.authResult = authResult;
+    }
+
+    /**
+     * Get operation ID.
+     * @return Operation ID.
+     */
+    public String getOperationId() {
+        return operationId;
+    }
+
+    /**
+     * Get authorization result.
+     * @return Authorization result.
+     */
+    public AuthResult getAuthResult() {
+        return authResult;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.getlime.security.powerauth.lib.webflow.authentication.model;
+
+import java.util.Date;
+
+/**
+ * Metrics of the cleanup of expired Web Flow records.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class CleanupMetrics {
+
+    private long runCount;
+    private long failureCount;
+    private long leaseNotAcquiredCount;
+    private long deletedOperationSessionCount;
+    private long deletedCertificateVerificationCount;
+    private long deletedAuthFlowStateCount;
+    private Date lastRunTimestamp;
+    private long lastRunDurationMs;
+
+    /**
+     * Get number of cleanup runs.
+     * @return Number of cleanup runs.
+     */
+    public long getRunCount() {
+        return runCount;
+    }
+
+    /**
+     * Set number of cleanup runs.
+     * @param runCount Number of cleanup runs.
+     */
+    public void setRunCount(long runCount) {
+        this.runCount = runCount;
+    }
+
+    /**
+     * Get number of failed cleanup runs.
+     * @return Number of failed cleanup runs.
+     */
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * Set number of failed cleanup runs.
+     * @param failureCount Number of failed cleanup runs.
+     */
+    public void setFailureCount(long failureCount) {
+        this.failureCount = failureCount;
+    }
+
+    /**
+     * Get number of cleanup runs skipped because the lease was held by another node.
+     * @return Number of skipped cleanup runs.
+     */
+    public long getLeaseNotAcquiredCount() {
+        return leaseNotAcquiredCount;
+    }
+
+    /**
+     * Set number of cleanup runs skipped because the lease was held by another node.
+     * @param leaseNotAcquiredCount Number of skipped cleanup runs.
+     */
+    public void setLeaseNotAcquiredCount(long leaseNotAcquiredCount) {
+        this.leaseNotAcquiredCount = leaseNotAcquiredCount;
+    }
+
+    /**
+     * Get number of deleted operation to HTTP session mappings.
+     * @return Number of deleted operation to HTTP session mappings.
+     */
+    public long getDeletedOperationSessionCount() {
+        return deletedOperationSessionCount;
+    }
+
+    /**
+     * Set number of deleted operation to HTTP session mappings.
+     * @param deletedOperationSessionCount Number of deleted operation to HTTP session mappings.
+     */
+    public void setDeletedOperationSessionCount(long deletedOperationSessionCount) {
+        this.deletedOperationSessionCount = deletedOperationSessionCount;
+    }
+
+    /**
+     * Get number of deleted certificate verification records.
+     * @return Number of deleted certificate verification records.
+     */
+    public long getDeletedCertificateVerificationCount() {
+        return deletedCertificateVerificationCount;
+    }
+
+    /**
+     * Set number of deleted certificate verification records.
+     * @param deletedCertificateVerificationCount Number of deleted certificate verification records.
+     */
+    public void setDeletedCertificateVerificationCount(long deletedCertificateVerificationCount) {
+        this.deletedCertificateVerificationCount = deletedCertificateVerificationCount;
+    }
+
+    /**
+     * Get number of deleted authentication flow states.
+     * @return Number of deleted authentication flow states.
+     */
+    public long getDeletedAuthFlowStateCount() {
+        return deletedAuthFlowStateCount;
+    }
+
+    /**
+     * Set number of deleted authentication flow states.
+     * @param deletedAuthFlowStateCount Number of deleted authentication flow states.
+     */
+    public void setDeletedAuthFlowStateCount(long deletedAuthFlowStateCount) {
+        this.deletedAuthFlowStateCount = deletedAuthFlowStateCount;
+    }
+
+    /**
+     * Get timestamp of the last cleanup run.
+     * @return Timestamp of the last cleanup run.
+     */
+    public Date getLastRunTimestamp() {
+        return lastRunTimestamp;
+    }
+
+    /**
+     * Set timestamp of the last cleanup run.
+     * @param lastRunTimestamp Timestamp of the last cleanup run.
+     */
+    public void setLastRunTimestamp(Date lastRunTimestamp) {
+        this.lastRunTimestamp = lastRunTimestamp;
+    }
+
+    /**
+     * Get duration of the last cleanup run in milliseconds.
+     * @return Duration of the last cleanup run in milliseconds.
+     */
+    public long getLastRunDurationMs() {
+        return lastRunDurationMs;
+    }
+
+    /**
+     * Set duration of the last cleanup run in milliseconds.
+     * @param lastRunDurationMs Duration of the last cleanup run in milliseconds.
+     */
+    public void setLastRunDurationMs(long lastRunDurationMs) {
+        this.lastRunDurationMs = lastRunDurationMs;
+    }
+}
@@ -20,13 +20,6 @@ package io.getlime.security.powerauth.lib.webflow.authentication.model;
  */
 public class HttpSessionAttributeNames {
 
-    public static final String MESSAGE_ID = "MESSAGE_ID";
-    public static final String LAST_MESSAGE_TIMESTAMP = "LAST_MESSAGE_TIMESTAMP";
-    public static final String INITIAL_MESSAGE_SENT = "INITIAL_MESSAGE_SENT";
-    public static final String AUTH_STEP_OPTIONS = "AUTH_STEP_OPTIONS";
-    public static final String PENDING_AUTH_OBJECT = "PENDING_AUTH_OBJECT";
-    public static final String CONSENT_SKIPPED = "CONSENT_SKIPPED";
-    public static final String USERNAME = "USERNAME";
-    public static final String CLIENT_CERTIFICATE = "CLIENT_CERTIFICATE";
+    public static final String AUTH_FLOW_STATE = "AUTH_FLOW_STATE";
 
 }
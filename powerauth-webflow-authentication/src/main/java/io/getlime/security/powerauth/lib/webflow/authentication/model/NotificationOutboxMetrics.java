@@ -0,0 +1,215 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.model;
+
+import java.util.Date;
+
+/**
+ * Metrics of the delivery of Data Adapter notifications from the notification outbox.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class NotificationOutboxMetrics {
+
+    private long runCount;
+    private long failureCount;
+    private long leaseNotAcquiredCount;
+    private long enqueuedCount;
+    private long enqueueFailureCount;
+    private long deliveredCount;
+    private long retryCount;
+    private long droppedCount;
+    private long pendingCount;
+    private boolean batchEndpointSupported;
+    private Date lastRunTimestamp;
+
+    /**
+     * Get number of delivery runs.
+     * @return Number of delivery runs.
+     */
+    public long getRunCount() {
+        return runCount;
+    }
+
+    /**
+     * Set number of delivery runs.
+     * @param runCount Number of delivery runs.
+     */
+    public void setRunCount(long runCount) {
+        this.runCount = runCount;
+    }
+
+    /**
+     * Get number of failed delivery runs.
+     * @return Number of failed delivery runs.
+     */
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * Set number of failed delivery runs.
+     * @param failureCount Number of failed delivery runs.
+     */
+    public void setFailureCount(long failureCount) {
+        this.failureCount = failureCount;
+    }
+
+    /**
+     * Get number of delivery runs skipped because the lease was held by another node.
+     * @return Number of skipped delivery runs.
+     */
+    public long getLeaseNotAcquiredCount() {
+        return leaseNotAcquiredCount;
+    }
+
+    /**
+     * Set number of delivery runs skipped because the lease was held by another node.
+     * @param leaseNotAcquiredCount Number of skipped delivery runs.
+     */
+    public void setLeaseNotAcquiredCount(long leaseNotAcquiredCount) {
+        this.leaseNotAcquiredCount = leaseNotAcquiredCount;
+    }
+
+    /**
+     * Get number of notifications stored in the outbox.
+     * @return Number of stored notifications.
+     */
+    public long getEnqueuedCount() {
+        return enqueuedCount;
+    }
+
+    /**
+     * Set number of notifications stored in the outbox.
+     * @param enqueuedCount Number of stored notifications.
+     */
+    public void setEnqueuedCount(long enqueuedCount) {
+        this.enqueuedCount = enqueuedCount;
+    }
+
+    /**
+     * Get number of notifications which could not be stored in the outbox.
+     * @return Number of notifications which could not be stored.
+     */
+    public long getEnqueueFailureCount() {
+        return enqueueFailureCount;
+    }
+
+    /**
+     * Set number of notifications which could not be stored in the outbox.
+     * @param enqueueFailureCount Number of notifications which could not be stored.
+     */
+    public void setEnqueueFailureCount(long enqueueFailureCount) {
+        this.enqueueFailureCount = enqueueFailureCount;
+    }
+
+    /**
+     * Get number of delivered notifications.
+     * @return Number of delivered notifications.
+     */
+    public long getDeliveredCount() {
+        return deliveredCount;
+    }
+
+    /**
+     * Set number of delivered notifications.
+     * @param deliveredCount Number of delivered notifications.
+     */
+    public void setDeliveredCount(long deliveredCount) {
+        this.deliveredCount = deliveredCount;
+    }
+
+    /**
+     * Get number of failed delivery attempts which were scheduled for a retry.
+     * @return Number of scheduled retries.
+     */
+    public long getRetryCount() {
+        return retryCount;
+    }
+
+    /**
+     * Set number of failed delivery attempts which were scheduled for a retry.
+     * @param retryCount Number of scheduled retries.
+     */
+    public void setRetryCount(long retryCount) {
+        this.retryCount = retryCount;
+    }
+
+    /**
+     * Get number of notifications dropped after reaching the maximum number of delivery attempts.
+     * @return Number of dropped notifications.
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Set number of notifications dropped after reaching the maximum number of delivery attempts.
+     * @param droppedCount Number of dropped notifications.
+     */
+    public void setDroppedCount(long droppedCount) {
+        this.droppedCount = droppedCount;
+    }
+
+    /**
+     * Get number of notifications waiting for delivery.
+     * @return Number of notifications waiting for delivery.
+     */
+    public long getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * Set number of notifications waiting for delivery.
+     * @param pendingCount Number of notifications waiting for delivery.
+     */
+    public void setPendingCount(long pendingCount) {
+        this.pendingCount = pendingCount;
+    }
+
+    /**
+     * Get whether the Data Adapter supports delivery of notification batches.
+     * @return Whether the notification batch endpoint is supported.
+     */
+    public boolean isBatchEndpointSupported() {
+        return batchEndpointSupported;
+    }
+
+    /**
+     * Set whether the Data Adapter supports delivery of notification batches.
+     * @param batchEndpointSupported Whether the notification batch endpoint is supported.
+     */
+    public void setBatchEndpointSupported(boolean batchEndpointSupported) {
+        this.batchEndpointSupported = batchEndpointSupported;
+    }
+
+    /**
+     * Get timestamp of the last successful delivery run.
+     * @return Timestamp of the last successful delivery run.
+     */
+    public Date getLastRunTimestamp() {
+        return lastRunTimestamp;
+    }
+
+    /**
+     * Set timestamp of the last successful delivery run.
+     * @param lastRunTimestamp Timestamp of the last successful delivery run.
+     */
+    public void setLastRunTimestamp(Date lastRunTimestamp) {
+        this.lastRunTimestamp = lastRunTimestamp;
+    }
+}
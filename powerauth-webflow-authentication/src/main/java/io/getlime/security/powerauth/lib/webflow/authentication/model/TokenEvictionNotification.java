@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.model;
+
+/**
+ * Notification about a token which needs to be evicted from token caches of all Web Flow nodes. The notification
+ * contains only a key derived from the token value, so that token values are not sent over the network.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class TokenEvictionNotification {
+
+    private final TokenEvictionType tokenType;
+    private final String tokenKey;
+
+    /**
+     * Notification constructor.
+     * @param tokenType Token type.
+     * @param tokenKey Token key.
+     */
+    public TokenEvictionNotification(TokenEvictionType tokenType, String tokenKey) {
+        this.tokenType = tokenType;
+        this.tokenKey = tokenKey;
+    }
+
+    /**
+     * Get token type.
+     * @return Token type.
+     */
+    public TokenEvictionType getTokenType() {
+        return tokenType;
+    }
+
+    /**
+     * Get token key.
+     * @return Token key.
+     */
+    public String getTokenKey() {
+        return tokenKey;
+    }
+}
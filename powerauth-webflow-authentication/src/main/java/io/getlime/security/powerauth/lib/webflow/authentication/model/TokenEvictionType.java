@@ -0,0 +1,36 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.model;
+
+/**
+ * Type of a token evicted from token caches.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public enum TokenEvictionType {
+
+    /**
+     * Access token was removed.
+     */
+    ACCESS_TOKEN,
+
+    /**
+     * Refresh token was removed or used, access tokens issued together with the refresh token are evicted.
+     */
+    REFRESH_TOKEN
+
+}
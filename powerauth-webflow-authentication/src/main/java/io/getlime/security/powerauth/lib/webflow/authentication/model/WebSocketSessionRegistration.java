@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.model;
+
+/**
+ * Registration of a Web Socket session for an operation.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class WebSocketSessionRegistration {
+
+    private final String operationId;
+    private final String operationHash;
+    private final String webSocketSessionId;
+
+    /**
+     * Registration constructor.
+     * @param operationId Operation ID.
+     * @param operationHash Operation hash.
+     * @param webSocketSessionId Web Socket session ID.
+     */
+    public WebSocketSessionRegistration(String operationId, String operationHash, String webSocketSessionId) {
+        this.operationId = operationId;
+        this.operationHash = operationHash;
+        this.webSocketSessionId = webSocketSessionId;
+    }
+
+    /**
+     * Get operation ID.
+     * @return Operation ID.
+     */
+    public String getOperationId() {
+        return operationId;
+    }
+
+    /**
+     * Get operation hash.
+     * @return Operation hash.
+     */
+    public String getOperationHash() {
+        return operationHash;
+    }
+
+    /**
+     * Get Web Socket session ID.
+     * @return Web Socket session ID.
+     */
+    public String getWebSocketSessionId() {
+        return webSocketSessionId;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.getlime.security.powerauth.lib.webflow.authentication.model.converter;
+
+import io.getlime.security.powerauth.lib.dataadapter.model.response.AuthStepOptions;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.AuthFlowState;
+import io.getlime.security.powerauth.lib.webflow.authentication.security.UserOperationAuthentication;
+
+import java.io.*;
+
+/**
+ * Converter of authentication flow state to a compact binary form used in the state store. Only values
+ * of the authentication flow are written, nullable values are prefixed with a presence flag.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class AuthFlowStateConverter {
+
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Convert authentication flow state to bytes.
+     * @param state Authentication flow state.
+     * @return Serialized state.
+     */
+    public byte[] toBytes(AuthFlowState state) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            UserOperationAuthentication auth = state.getPendingAuthentication();
+            out.writeBoolean(auth != null);
+            if (auth != null) {
+                writeString(out, auth.getOperationId());
+                writeString(out, auth.getUserId());
+                writeString(out, auth.getOrganizationId());
+                writeString(out, auth.getLanguage());
+                out.writeBoolean(Boolean.TRUE.equals(auth.isStrongAuthentication()));
+                out.writeBoolean(auth.isAuthenticated());
+            }
+            writeString(out, state.getMessageId());
+            Long lastMessageTimestamp = state.getLastMessageTimestamp();
+            out.writeBoolean(lastMessageTimestamp != null);
+            if (lastMessageTimestamp != null) {
+                out.writeLong(lastMessageTimestamp);
+            }
+            Boolean initialMessageSent = state.getInitialMessageSent();
+            out.writeBoolean(initialMessageSent != null);
+            if (initialMessageSent != null) {
+                out.writeBoolean(initialMessageSent);
+            }
+            AuthStepOptions authStepOptions = state.getAuthStepOptions();
+            out.writeBoolean(authStepOptions != null);
+            if (authStepOptions != null) {
+                out.writeBoolean(authStepOptions.isSmsOtpRequired());
+                out.writeBoolean(authStepOptions.isPasswordRequired());
+            }
+            out.writeBoolean(state.isConsentSkipped());
+            writeString(out, state.getUsername());
+            writeString(out, state.getClientCertificate());
+        } catch (IOException ex) {
+            // Not expected for in-memory streams
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Convert bytes to authentication flow state.
+     * @param data Serialized state.
+     * @return Authentication flow state.
+     * @throws IOException Thrown when data is invalid.
+     */
+    public AuthFlowState fromBytes(byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int formatVersion = in.readByte();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported authentication flow state format: " + formatVersion);
+            }
+            AuthFlowState state = new AuthFlowState();
+            if (in.readBoolean()) {
+                UserOperationAuthentication auth = new UserOperationAuthentication();
+                auth.setOperationId(readString(in));
+                auth.setUserId(readString(in));
+                auth.setOrganizationId(readString(in));
+                auth.setLanguage(readString(in));
+                auth.setStrongAuthentication(in.readBoolean());
+                auth.setAuthenticated(in.readBoolean());
+                state.setPendingAuthentication(auth);
+            }
+            state.setMessageId(readString(in));
+            if (in.readBoolean()) {
+                state.setLastMessageTimestamp(in.readLong());
+            }
+            if (in.readBoolean()) {
+                state.setInitialMessageSent(in.readBoolean());
+            }
+            if (in.readBoolean()) {
+                boolean smsOtpRequired = in.readBoolean();
+                boolean passwordRequired = in.readBoolean();
+                state.setAuthStepOptions(new AuthStepOptions(smsOtpRequired, passwordRequired));
+            }
+            state.setConsentSkipped(in.readBoolean());
+            state.setUsername(readString(in));
+            state.setClientCertificate(readString(in));
+            state.setModified(false);
+            return state;
+        }
+    }
+
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+}
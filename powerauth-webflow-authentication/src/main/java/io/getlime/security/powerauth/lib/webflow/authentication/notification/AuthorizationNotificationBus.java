@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.notification;
+
+import io.getlime.security.powerauth.lib.webflow.authentication.model.AuthorizationNotification;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.TokenEvictionNotification;
+
+import java.util.function.Consumer;
+
+/**
+ * Bus which delivers authorization notifications to other Web Flow nodes in the cluster. Each node delivers
+ * received notifications to Web Socket sessions connected to the node. The bus also delivers evictions of revoked
+ * tokens, so that each node evicts them from its token cache.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public interface AuthorizationNotificationBus {
+
+    /**
+     * Publish a notification to other nodes in the cluster.
+     * @param notification Authorization notification.
+     */
+    void publish(AuthorizationNotification notification);
+
+    /**
+     * Set listener for notifications received from other nodes in the cluster.
+     * @param listener Notification listener.
+     */
+    void setListener(Consumer<AuthorizationNotification> listener);
+
+    /**
+     * Publish a token eviction to other nodes in the cluster.
+     * @param notification Token eviction notification.
+     */
+    void publishTokenEviction(TokenEvictionNotification notification);
+
+    /**
+     * Set listener for token evictions received from other nodes in the cluster.
+     * @param listener Token eviction listener.
+     */
+    void setTokenEvictionListener(Consumer<TokenEvictionNotification> listener);
+
+    /**
+     * Whether the bus delivers notifications to other nodes in the cluster.
+     * @return True if notifications are delivered to other nodes.
+     */
+    boolean isDistributed();
+
+}
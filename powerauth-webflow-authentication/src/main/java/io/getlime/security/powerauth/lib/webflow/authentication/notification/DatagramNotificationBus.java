@@ -0,0 +1,458 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.notification;
+
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthResult;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.AuthorizationNotification;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.TokenEvictionNotification;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.TokenEvictionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Notification bus which sends notifications directly to peer nodes using UDP datagrams, no message broker
+ * is required. Each datagram is authenticated using HMAC-SHA256 with a secret shared by all nodes and datagrams
+ * older than the maximum age are discarded. Each node numbers its datagrams and receivers accept every sequence
+ * number of a sender only once within a sliding window, so that captured datagrams cannot be replayed. Delivery
+ * is best effort, browsers still poll the operation status in case a datagram is lost and cached tokens expire
+ * after the token cache time to live in case a token eviction is lost.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class DatagramNotificationBus implements AuthorizationNotificationBus, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatagramNotificationBus.class);
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int HMAC_LENGTH = 32;
+    private static final int MAX_DATAGRAM_SIZE = 1024;
+    private static final char SEPARATOR = '\n';
+    private static final int REPLAY_WINDOW_SIZE = 64;
+    private static final String MESSAGE_AUTHORIZATION = "AUTHORIZATION";
+    private static final String MESSAGE_TOKEN_EVICTION = "TOKEN_EVICTION";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong sequenceNumber = new AtomicLong();
+    private final InetSocketAddress bindAddress;
+    private final SecretKeySpec secretKey;
+    private final long maxAgeMs;
+    private final ThreadLocal<Mac> mac;
+    private final Map<String, ReplayWindow> replayWindows = new HashMap<>();
+
+    private volatile List<InetSocketAddress> peers;
+    private volatile Consumer<AuthorizationNotification> listener;
+    private volatile Consumer<TokenEvictionNotification> tokenEvictionListener;
+    private DatagramSocket socket;
+    private Thread receiverThread;
+
+    /**
+     * Notification bus constructor.
+     * @param bindAddress Local address for receiving notifications, use port 0 for an ephemeral port.
+     * @param peers Addresses of peer nodes. The local node may be included, its own notifications are ignored.
+     * @param secret Secret shared by all nodes used for authentication of notifications.
+     * @param maxAgeMs Maximum age of a notification in milliseconds.
+     */
+    public DatagramNotificationBus(InetSocketAddress bindAddress, List<InetSocketAddress> peers, byte[] secret, long maxAgeMs) {
+        if (secret == null || secret.length == 0) {
+            throw new IllegalArgumentException("Shared secret is required for notification bus");
+        }
+        this.bindAddress = bindAddress;
+        this.peers = Collections.unmodifiableList(new ArrayList<>(peers));
+        this.secretKey = new SecretKeySpec(secret, HMAC_ALGORITHM);
+        this.maxAgeMs = maxAgeMs;
+        this.mac = ThreadLocal.withInitial(this::createMac);
+    }
+
+    /**
+     * Parse comma separated addresses of peer nodes. Each address is a host name or IP address with an optional
+     * port, IPv6 addresses with a port are enclosed in square brackets, e.g. {@code [2001:db8::1]:9000}.
+     * @param peers Comma separated addresses of peer nodes.
+     * @param defaultPort Port used for addresses without a port.
+     * @return Addresses of peer nodes.
+     * @throws IllegalArgumentException Thrown when an address is invalid.
+     */
+    public static List<InetSocketAddress> parsePeers(String peers, int defaultPort) {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        if (peers == null) {
+            return addresses;
+        }
+        for (String peer: peers.split(",")) {
+            String address = peer.trim();
+            if (address.isEmpty()) {
+                continue;
+            }
+            if (address.indexOf(':') != address.lastIndexOf(':') && !address.startsWith("[")) {
+                // IPv6 address without a port
+                addresses.add(new InetSocketAddress(address, defaultPort));
+                continue;
+            }
+            try {
+                URI uri = new URI("udp://" + address);
+                if (uri.getHost() == null || uri.getPath() == null || !uri.getPath().isEmpty() || uri.getUserInfo() != null) {
+                    throw new IllegalArgumentException("Invalid notification bus peer address: " + address);
+                }
+                String host = uri.getHost();
+                if (host.startsWith("[")) {
+                    host = host.substring(1, host.length() - 1);
+                }
+                addresses.add(new InetSocketAddress(host, uri.getPort() == -1 ? defaultPort : uri.getPort()));
+            } catch (URISyntaxException ex) {
+                throw new IllegalArgumentException("Invalid notification bus peer address: " + address, ex);
+            }
+        }
+        return addresses;
+    }
+
+    /**
+     * Bind the local socket and start receiving notifications.
+     * @throws SocketException Thrown when socket could not be bound.
+     */
+    public synchronized void start() throws SocketException {
+        if (socket != null) {
+            return;
+        }
+        socket = new DatagramSocket(bindAddress);
+        receiverThread = new Thread(this::receive, "notification-bus-receiver");
+        receiverThread.setDaemon(true);
+        receiverThread.start();
+        logger.info("Notification bus is listening on: {}, peers: {}", socket.getLocalSocketAddress(), peers);
+    }
+
+    /**
+     * Get local port used for receiving notifications.
+     * @return Local port or -1 in case the bus is not started.
+     */
+    public synchronized int getLocalPort() {
+        return socket == null ? -1 : socket.getLocalPort();
+    }
+
+    /**
+     * Set addresses of peer nodes.
+     * @param peers Addresses of peer nodes.
+     */
+    public void setPeers(List<InetSocketAddress> peers) {
+        this.peers = Collections.unmodifiableList(new ArrayList<>(peers));
+    }
+
+    @Override
+    public void publish(AuthorizationNotification notification) {
+        send(MESSAGE_AUTHORIZATION, notification.getOperationId(), notification.getAuthResult().toString(),
+                "notification for operation: " + notification.getOperationId());
+    }
+
+    @Override
+    public void setListener(Consumer<AuthorizationNotification> listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void publishTokenEviction(TokenEvictionNotification notification) {
+        send(MESSAGE_TOKEN_EVICTION, notification.getTokenType().toString(), notification.getTokenKey(),
+                "token eviction");
+    }
+
+    @Override
+    public void setTokenEvictionListener(Consumer<TokenEvictionNotification> listener) {
+        this.tokenEvictionListener = listener;
+    }
+
+    @Override
+    public boolean isDistributed() {
+        return true;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (socket != null) {
+            socket.close();
+            socket = null;
+        }
+        if (receiverThread != null) {
+            receiverThread.interrupt();
+            receiverThread = null;
+        }
+    }
+
+    /**
+     * Send a message to peer nodes.
+     * @param messageType Message type.
+     * @param value1 First value of the message.
+     * @param value2 Second value of the message.
+     * @param description Description of the message used in log messages.
+     */
+    private void send(String messageType, String value1, String value2, String description) {
+        DatagramSocket currentSocket;
+        synchronized (this) {
+            currentSocket = socket;
+        }
+        if (currentSocket == null) {
+            logger.warn("Notification bus is not started, {} was not published", description);
+            return;
+        }
+        byte[] datagram;
+        try {
+            datagram = encode(messageType, value1, value2);
+        } catch (GeneralSecurityException ex) {
+            logger.error("Message could not be signed: {}", description, ex);
+            return;
+        }
+        for (InetSocketAddress peer: peers) {
+            try {
+                currentSocket.send(new DatagramPacket(datagram, datagram.length, peer));
+            } catch (IOException ex) {
+                logger.warn("Message could not be sent to peer: {}, message: {}, error: {}", peer, description, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Receive notifications from peer nodes until the socket is closed.
+     */
+    private void receive() {
+        DatagramSocket currentSocket;
+        synchronized (this) {
+            currentSocket = socket;
+        }
+        byte[] buffer = new byte[MAX_DATAGRAM_SIZE];
+        while (currentSocket != null && !currentSocket.isClosed()) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                currentSocket.receive(packet);
+            } catch (IOException ex) {
+                if (!currentSocket.isClosed()) {
+                    logger.warn("Notification could not be received, error: {}", ex.getMessage());
+                }
+                continue;
+            }
+            String[] message = decode(Arrays.copyOfRange(packet.getData(), packet.getOffset(), packet.getOffset() + packet.getLength()));
+            if (message != null) {
+                deliver(message[0], message[1], message[2]);
+            }
+        }
+    }
+
+    /**
+     * Deliver a received message to the listener.
+     * @param messageType Message type.
+     * @param value1 First value of the message.
+     * @param value2 Second value of the message.
+     */
+    private void deliver(String messageType, String value1, String value2) {
+        try {
+            if (MESSAGE_AUTHORIZATION.equals(messageType)) {
+                AuthorizationNotification notification = new AuthorizationNotification(value1, AuthResult.valueOf(value2));
+                Consumer<AuthorizationNotification> currentListener = listener;
+                if (currentListener != null) {
+                    currentListener.accept(notification);
+                }
+            } else if (MESSAGE_TOKEN_EVICTION.equals(messageType)) {
+                TokenEvictionNotification notification = new TokenEvictionNotification(TokenEvictionType.valueOf(value1), value2);
+                Consumer<TokenEvictionNotification> currentListener = tokenEvictionListener;
+                if (currentListener != null) {
+                    currentListener.accept(notification);
+                }
+            } else {
+                logger.warn("Message with unknown type received: {}", messageType);
+            }
+        } catch (IllegalArgumentException ex) {
+            logger.warn("Invalid message received, type: {}", messageType);
+        } catch (RuntimeException ex) {
+            logger.error("Message could not be delivered, type: {}", messageType, ex);
+        }
+    }
+
+    /**
+     * Encode a message into a signed datagram.
+     * @param messageType Message type.
+     * @param value1 First value of the message.
+     * @param value2 Second value of the message.
+     * @return Datagram bytes.
+     * @throws GeneralSecurityException Thrown when HMAC could not be computed.
+     */
+    private byte[] encode(String messageType, String value1, String value2) throws GeneralSecurityException {
+        String payload = nodeId + SEPARATOR + sequenceNumber.incrementAndGet() + SEPARATOR + System.currentTimeMillis()
+                + SEPARATOR + messageType + SEPARATOR + value1 + SEPARATOR + value2;
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        byte[] datagram = Arrays.copyOf(payloadBytes, payloadBytes.length + HMAC_LENGTH);
+        System.arraycopy(hmac(payloadBytes), 0, datagram, payloadBytes.length, HMAC_LENGTH);
+        return datagram;
+    }
+
+    /**
+     * Decode and verify a datagram.
+     * @param datagram Datagram bytes.
+     * @return Message type and values of the message or null in case the datagram is invalid, expired, replayed
+     * or was sent by this node.
+     */
+    private String[] decode(byte[] datagram) {
+        if (datagram.length <= HMAC_LENGTH) {
+            logger.warn("Invalid notification received");
+            return null;
+        }
+        byte[] payloadBytes = Arrays.copyOf(datagram, datagram.length - HMAC_LENGTH);
+        byte[] signature = Arrays.copyOfRange(datagram, datagram.length - HMAC_LENGTH, datagram.length);
+        try {
+            if (!MessageDigest.isEqual(hmac(payloadBytes), signature)) {
+                logger.warn("Notification with invalid signature received");
+                return null;
+            }
+        } catch (GeneralSecurityException ex) {
+            logger.error("Notification signature could not be verified", ex);
+            return null;
+        }
+        String[] parts = new String(payloadBytes, StandardCharsets.UTF_8).split(String.valueOf(SEPARATOR));
+        if (parts.length != 6) {
+            logger.warn("Invalid notification received");
+            return null;
+        }
+        if (nodeId.equals(parts[0])) {
+            // Notification was sent by this node
+            return null;
+        }
+        try {
+            long sequence = Long.parseLong(parts[1]);
+            long timestamp = Long.parseLong(parts[2]);
+            long now = System.currentTimeMillis();
+            if (Math.abs(now - timestamp) > maxAgeMs) {
+                logger.warn("Expired notification received, type: {}", parts[3]);
+                return null;
+            }
+            if (!acceptSequence(parts[0], sequence, timestamp, now)) {
+                logger.warn("Replayed notification received, type: {}", parts[3]);
+                return null;
+            }
+            return new String[] {parts[3], parts[4], parts[5]};
+        } catch (IllegalArgumentException ex) {
+            logger.warn("Invalid notification received, type: {}", parts[3]);
+            return null;
+        }
+    }
+
+    /**
+     * Check that a sequence number of a sender was not received yet and record it.
+     * @param senderId Sender node ID.
+     * @param sequence Sequence number.
+     * @param timestamp Timestamp of the datagram.
+     * @param now Current time.
+     * @return Whether the sequence number is accepted.
+     */
+    private synchronized boolean acceptSequence(String senderId, long sequence, long timestamp, long now) {
+        // Datagrams of senders which were silent for longer than the maximum age are rejected as expired,
+        // their replay windows are not needed anymore
+        Iterator<ReplayWindow> iterator = replayWindows.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().lastTimestamp > 2 * maxAgeMs) {
+                iterator.remove();
+            }
+        }
+        return replayWindows.computeIfAbsent(senderId, key -> new ReplayWindow()).accept(sequence, timestamp);
+    }
+
+    /**
+     * Compute HMAC of the payload.
+     * @param payload Payload bytes.
+     * @return HMAC bytes.
+     * @throws GeneralSecurityException Thrown when HMAC could not be computed.
+     */
+    private byte[] hmac(byte[] payload) throws GeneralSecurityException {
+        try {
+            return mac.get().doFinal(payload);
+        } catch (IllegalStateException ex) {
+            throw new GeneralSecurityException("HMAC could not be initialized", ex.getCause());
+        }
+    }
+
+    /**
+     * Create a MAC instance initialized with the shared secret, instances are reused by each thread.
+     * @return MAC instance.
+     */
+    private Mac createMac() {
+        try {
+            Mac instance = Mac.getInstance(HMAC_ALGORITHM);
+            instance.init(secretKey);
+            return instance;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Sliding window of sequence numbers received from a sender. Sequence numbers older than the window
+     * are rejected, sequence numbers within the window are accepted only once.
+     */
+    private static class ReplayWindow {
+
+        private long highestSequence;
+        private long receivedMask;
+        private long lastTimestamp;
+
+        /**
+         * Accept a sequence number.
+         * @param sequence Sequence number.
+         * @param timestamp Timestamp of the datagram.
+         * @return Whether the sequence number is accepted.
+         */
+        boolean accept(long sequence, long timestamp) {
+            if (sequence <= 0) {
+                return false;
+            }
+            if (sequence > highestSequence) {
+                long shift = sequence - highestSequence;
+                receivedMask = shift >= REPLAY_WINDOW_SIZE ? 1L : (receivedMask << shift) | 1L;
+                highestSequence = sequence;
+                lastTimestamp = Math.max(lastTimestamp, timestamp);
+                return true;
+            }
+            long offset = highestSequence - sequence;
+            if (offset >= REPLAY_WINDOW_SIZE) {
+                return false;
+            }
+            long bit = 1L << offset;
+            if ((receivedMask & bit) != 0) {
+                return false;
+            }
+            receivedMask |= bit;
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.notification;
+
+import io.getlime.security.powerauth.lib.webflow.authentication.model.AuthorizationNotification;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.TokenEvictionNotification;
+
+import java.util.function.Consumer;
+
+/**
+ * Notification bus for a single node deployment, notifications are not delivered to any other node.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class LocalNotificationBus implements AuthorizationNotificationBus {
+
+    @Override
+    public void publish(AuthorizationNotification notification) {
+        // Nothing to do, there are no other nodes
+    }
+
+    @Override
+    public void setListener(Consumer<AuthorizationNotification> listener) {
+        // Nothing to do, notifications are never received
+    }
+
+    @Override
+    public void publishTokenEviction(TokenEvictionNotification notification) {
+        // Nothing to do, there are no other nodes
+    }
+
+    @Override
+    public void setTokenEvictionListener(Consumer<TokenEvictionNotification> listener) {
+        // Nothing to do, token evictions are never received
+    }
+
+    @Override
+    public boolean isDistributed() {
+        return false;
+    }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.getlime.security.powerauth.lib.webflow.authentication.repository;
+
+import io.getlime.security.powerauth.lib.webflow.authentication.repository.model.entity.AuthFlowStateEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Crud repository for persistence of authentication flow state of HTTP sessions.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Component
+public interface AuthFlowStateRepository extends CrudRepository<AuthFlowStateEntity, String> {
+
+    @Query("SELECT s.version FROM AuthFlowStateEntity s WHERE s.httpSessionId = ?1")
+    Long findVersionByHttpSessionId(String httpSessionId);
+
+    @Query("SELECT s.httpSessionId FROM AuthFlowStateEntity s WHERE s.timestampUpdated < ?1")
+    List<String> findHttpSessionIdsUpdatedBefore(Date timestamp, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AuthFlowStateEntity s WHERE s.httpSessionId IN ?1 AND s.timestampUpdated < ?2")
+    int deleteByHttpSessionIdsUpdatedBefore(List<String> httpSessionIds, Date timestamp);
+
+}
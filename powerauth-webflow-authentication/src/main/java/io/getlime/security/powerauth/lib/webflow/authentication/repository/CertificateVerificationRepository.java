@@ -16,9 +16,15 @@
 package io.getlime.security.powerauth.lib.webflow.authentication.repository;
 
 import io.getlime.security.powerauth.lib.webflow.authentication.repository.model.entity.CertificateVerificationEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -31,4 +37,12 @@ public interface CertificateVerificationRepository extends CrudRepository<Certif
 
     Optional<CertificateVerificationEntity> findByCertificateVerificationKey(CertificateVerificationEntity.CertificateVerificationKey key);
 
+    @Query("SELECT c.certificateVerificationKey.operationId FROM CertificateVerificationEntity c WHERE c.timestampVerified < ?1")
+    List<String> findOperationIdsVerifiedBefore(Date timestamp, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CertificateVerificationEntity c WHERE c.certificateVerificationKey.operationId IN ?1 AND c.timestampVerified < ?2")
+    int deleteByOperationIdsVerifiedBefore(List<String> operationIds, Date timestamp);
+
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.repository;
+
+import io.getlime.security.powerauth.lib.webflow.authentication.repository.model.entity.NotificationOutboxEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Crud repository for persistence of Data Adapter notifications waiting for delivery.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Component
+public interface NotificationOutboxRepository extends CrudRepository<NotificationOutboxEntity, Long> {
+
+    @Query("SELECT n FROM NotificationOutboxEntity n WHERE n.notificationId > ?1 AND n.timestampNextAttempt <= ?2 ORDER BY n.notificationId")
+    List<NotificationOutboxEntity> findDueNotifications(Long afterNotificationId, Date timestamp, Pageable pageable);
+
+    @Query("SELECT n.operationId, MIN(n.notificationId) FROM NotificationOutboxEntity n WHERE n.operationId IN ?1 AND n.timestampNextAttempt > ?2 GROUP BY n.operationId")
+    List<Object[]> findFirstPostponedNotificationIds(Collection<String> operationIds, Date timestamp);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM NotificationOutboxEntity n WHERE n.notificationId IN ?1")
+    int deleteByNotificationIds(Collection<Long> notificationIds);
+
+}
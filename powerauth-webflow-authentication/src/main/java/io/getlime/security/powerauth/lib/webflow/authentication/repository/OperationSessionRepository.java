@@ -15,11 +15,16 @@
  */
 package io.getlime.security.powerauth.lib.webflow.authentication.repository;
 
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthResult;
 import io.getlime.security.powerauth.lib.webflow.authentication.repository.model.entity.OperationSessionEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -30,8 +35,13 @@ import java.util.List;
 @Component
 public interface OperationSessionRepository extends CrudRepository<OperationSessionEntity, String> {
 
-    @Query("SELECT o FROM OperationSessionEntity o WHERE o.httpSessionId = ?1 AND o.result='CONTINUE'")
-    List<OperationSessionEntity> findActiveOperationsByHttpSessionId(String httpSessionId);
+    @Query("SELECT o.operationId FROM OperationSessionEntity o WHERE o.httpSessionId = ?1 AND o.result='CONTINUE'")
+    List<String> findActiveOperationIdsByHttpSessionId(String httpSessionId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OperationSessionEntity o SET o.result = ?2 WHERE o.operationId IN ?1 AND o.result='CONTINUE'")
+    int updateActiveOperationsResult(List<String> operationIds, AuthResult result);
 
     OperationSessionEntity findByOperationId(String operationId);
 
@@ -39,4 +49,12 @@ public interface OperationSessionRepository extends CrudRepository<OperationSess
 
     OperationSessionEntity findByWebSocketSessionId(String operationHash);
 
+    @Query("SELECT o.operationId FROM OperationSessionEntity o WHERE o.timestampCreated < ?1")
+    List<String> findOperationIdsCreatedBefore(Date timestamp, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OperationSessionEntity o WHERE o.operationId IN ?1")
+    int deleteByOperationIds(List<String> operationIds);
+
 }
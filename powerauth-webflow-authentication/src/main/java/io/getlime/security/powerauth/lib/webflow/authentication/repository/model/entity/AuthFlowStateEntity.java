@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.getlime.security.powerauth.lib.webflow.authentication.repository.model.entity;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Entity which stores serialized authentication flow state of an HTTP session.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Entity
+@Table(name = "wf_auth_flow_state")
+public class AuthFlowStateEntity implements Serializable {
+
+    private static final long serialVersionUID = 2318204563587013266L;
+
+    @Id
+    @Column(name = "http_session_id")
+    private String httpSessionId;
+
+    @Column(name = "state_data")
+    private byte[] stateData;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    @Column(name = "timestamp_updated")
+    private Date timestampUpdated;
+
+    public AuthFlowStateEntity() {
+    }
+
+    public AuthFlowStateEntity(String httpSessionId, byte[] stateData, Long version) {
+        this.httpSessionId = httpSessionId;
+        this.stateData = stateData;
+        this.version = version;
+        this.timestampUpdated = new Date();
+    }
+
+    public String getHttpSessionId() {
+        return httpSessionId;
+    }
+
+    public void setHttpSessionId(String httpSessionId) {
+        this.httpSessionId = httpSessionId;
+    }
+
+    public byte[] getStateData() {
+        return stateData;
+    }
+
+    public void setStateData(byte[] stateData) {
+        this.stateData = stateData;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Date getTimestampUpdated() {
+        return timestampUpdated;
+    }
+
+    public void setTimestampUpdated(Date timestampUpdated) {
+        this.timestampUpdated = timestampUpdated;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AuthFlowStateEntity that = (AuthFlowStateEntity) o;
+        return Objects.equals(httpSessionId, that.httpSessionId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(httpSessionId);
+    }
+}
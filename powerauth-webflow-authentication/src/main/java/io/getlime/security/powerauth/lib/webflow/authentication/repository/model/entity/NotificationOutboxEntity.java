@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.repository.model.entity;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Entity which stores a Data Adapter notification about an operation change or a form data change until
+ * it is delivered.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Entity
+@Table(name = "wf_notification_outbox")
+public class NotificationOutboxEntity implements Serializable {
+
+    private static final long serialVersionUID = 4263817430913651187L;
+
+    // Allocation size is 1, so that notification IDs follow the order in which notifications were created
+    @Id
+    @SequenceGenerator(name = "wf_notification_outbox", sequenceName = "wf_notification_outbox_seq", allocationSize = 1)
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "wf_notification_outbox")
+    @Column(name = "notification_id", nullable = false)
+    private Long notificationId;
+
+    @Column(name = "operation_id", nullable = false)
+    private String operationId;
+
+    @Column(name = "notification_data", nullable = false)
+    private String notificationData;
+
+    @Column(name = "attempt_count", nullable = false)
+    private int attemptCount;
+
+    @Column(name = "timestamp_created", nullable = false)
+    private Date timestampCreated;
+
+    @Column(name = "timestamp_next_attempt", nullable = false)
+    private Date timestampNextAttempt;
+
+    public NotificationOutboxEntity() {
+    }
+
+    public NotificationOutboxEntity(String operationId, String notificationData, Date timestampCreated) {
+        this.operationId = operationId;
+        this.notificationData = notificationData;
+        this.timestampCreated = timestampCreated;
+        this.timestampNextAttempt = timestampCreated;
+    }
+
+    public Long getNotificationId() {
+        return notificationId;
+    }
+
+    public void setNotificationId(Long notificationId) {
+        this.notificationId = notificationId;
+    }
+
+    public String getOperationId() {
+        return operationId;
+    }
+
+    public void setOperationId(String operationId) {
+        this.operationId = operationId;
+    }
+
+    public String getNotificationData() {
+        return notificationData;
+    }
+
+    public void setNotificationData(String notificationData) {
+        this.notificationData = notificationData;
+    }
+
+    public int getAttemptCount() {
+        return attemptCount;
+    }
+
+    public void setAttemptCount(int attemptCount) {
+        this.attemptCount = attemptCount;
+    }
+
+    public Date getTimestampCreated() {
+        return timestampCreated;
+    }
+
+    public void setTimestampCreated(Date timestampCreated) {
+        this.timestampCreated = timestampCreated;
+    }
+
+    public Date getTimestampNextAttempt() {
+        return timestampNextAttempt;
+    }
+
+    public void setTimestampNextAttempt(Date timestampNextAttempt) {
+        this.timestampNextAttempt = timestampNextAttempt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        NotificationOutboxEntity that = (NotificationOutboxEntity) o;
+        return Objects.equals(notificationId, that.notificationId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(notificationId);
+    }
+}
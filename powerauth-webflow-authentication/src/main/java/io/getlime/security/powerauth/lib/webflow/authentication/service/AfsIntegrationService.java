@@ -30,13 +30,14 @@ import io.getlime.security.powerauth.lib.dataadapter.model.request.AfsRequestPar
 import io.getlime.security.powerauth.lib.dataadapter.model.response.AfsResponse;
 import io.getlime.security.powerauth.lib.nextstep.client.NextStepClient;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.AfsActionDetail;
-import io.getlime.security.powerauth.lib.nextstep.model.entity.ApplicationContext;
 import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthStepResult;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.NextStepServiceException;
+import io.getlime.security.powerauth.lib.nextstep.model.request.CreateAfsActionRequest;
 import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationConfigDetailResponse;
 import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationDetailResponse;
 import io.getlime.security.powerauth.lib.webflow.authentication.configuration.WebFlowServicesConfiguration;
 import io.getlime.security.powerauth.lib.webflow.authentication.model.converter.FormDataConverter;
+import io.getlime.security.powerauth.lib.webflow.authentication.repository.model.entity.OperationSessionEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -45,15 +46,21 @@ import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import javax.annotation.PreDestroy;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
-import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.*;
 
 /**
- * Service for integration of anti-fraud system.
+ * Service for integration of anti-fraud system. AFS actions are executed using the operation which was already
+ * loaded by the caller. Only the INIT actions, whose response is applied in Web Flow, are executed synchronously.
+ * The AUTH and LOGOUT actions are executed asynchronously by worker threads, actions for a single operation are
+ * always executed by the same worker in order. AFS actions are persisted in Next Step in batches, batches which
+ * could not be persisted are retried.
+ * <p>
+ * Step indexes are derived from AFS actions of the operation loaded from Next Step. Actions executed by this node
+ * which are not visible in Next Step yet are tracked until they appear in the operation loaded from Next Step.
  *
  * @author Roman Strobl, roman.strobl@wultra.com
  */
@@ -62,13 +69,24 @@ public class AfsIntegrationService {
 
     private static final Logger logger = LoggerFactory.getLogger(AfsIntegrationService.class);
 
+    /**
+     * Maximum number of operations whose AFS actions executed by this node are tracked.
+     */
+    private static final int MAX_TRACKED_OPERATIONS = 10000;
+
     private final WebFlowServicesConfiguration configuration;
     private final NextStepClient nextStepClient;
     private final DataAdapterClient dataAdapterClient;
     private final OperationSessionService operationSessionService;
-    private final MessageTranslationService messageTranslationService;
 
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FormDataConverter formDataConverter = new FormDataConverter();
+
+    private final Map<String, OperationAfsState> operationStates = new ConcurrentHashMap<>();
+    private final Map<String, CachedOperationConfig> operationConfigs = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor[] actionWorkers;
+    private final BlockingQueue<QueuedAfsAction> persistQueue;
+    private final ScheduledExecutorService persistExecutor;
 
     /**
      * Service constructor.
@@ -76,131 +94,399 @@ public class AfsIntegrationService {
      * @param nextStepClient Next Step client.
      * @param dataAdapterClient Data Adapter client.
      * @param operationSessionService Operation session service.
-     * @param messageTranslationService Message translation service.
      */
     @Autowired
-    public AfsIntegrationService(WebFlowServicesConfiguration configuration, NextStepClient nextStepClient, DataAdapterClient dataAdapterClient, OperationSessionService operationSessionService, MessageTranslationService messageTranslationService) {
+    public AfsIntegrationService(WebFlowServicesConfiguration configuration, NextStepClient nextStepClient, DataAdapterClient dataAdapterClient, OperationSessionService operationSessionService) {
         this.configuration = configuration;
         this.nextStepClient = nextStepClient;
         this.dataAdapterClient = dataAdapterClient;
         this.operationSessionService = operationSessionService;
-        this.messageTranslationService = messageTranslationService;
+        // Each worker has its own queue so that actions of a single operation are executed in order, the caller
+        // executes the action when the queue is full
+        this.actionWorkers = new ThreadPoolExecutor[Math.max(1, configuration.getAfsAsyncThreads())];
+        for (int i = 0; i < actionWorkers.length; i++) {
+            actionWorkers[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(configuration.getAfsAsyncQueueCapacity()), runnable -> {
+                        Thread thread = new Thread(runnable, "afs-action");
+                        thread.setDaemon(true);
+                        return thread;
+                    }, new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+        this.persistQueue = new LinkedBlockingQueue<>(configuration.getAfsAsyncQueueCapacity());
+        this.persistExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "afs-action-persist");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long flushIntervalMs = configuration.getAfsPersistFlushIntervalMs();
+        persistExecutor.scheduleWithFixedDelay(this::flushPersistQueue, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Stop the workers and persist remaining AFS actions.
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor worker: actionWorkers) {
+            worker.shutdown();
+        }
+        try {
+            for (ThreadPoolExecutor worker: actionWorkers) {
+                worker.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        persistExecutor.shutdown();
+        flushPersistQueue();
+    }
 
     /**
      * Execute an anti-fraud system action. This method variant is used during step initialization.
-     * The response from AFS is applied in Web Flow.
+     * The response from AFS is applied in Web Flow, so that the action is executed synchronously.
      *
-     * @param operationId Operation ID.
+     * @param operation Operation with translated form data.
      * @param username Username filled in by the user. Use null in case user is already authenticated.
      * @param afsAction AFS action to be executed.
      * @return Response from anti-fraud system.
      */
-    public AfsResponse executeInitAction(String operationId, String username, AfsAction afsAction) {
-        return executeAfsAction(operationId, afsAction, Collections.emptyList(), null, username, null);
+    public AfsResponse executeInitAction(GetOperationDetailResponse operation, String username, AfsAction afsAction) {
+        if (!configuration.isAfsEnabled()) {
+            logger.debug("AFS integration is disabled");
+            return new AfsResponse();
+        }
+        final PreparedAfsAction action = prepareAfsAction(operation, afsAction, Collections.emptyList(), null, username, null);
+        if (action == null) {
+            return new AfsResponse();
+        }
+        return executeAfsAction(action);
     }
 
     /**
      * Execute an anti-fraud system action. This method variant is used during step authentication.
-     * The response from AFS has no impact on Web Flow.
+     * The response from AFS has no impact on Web Flow, so that the action is executed asynchronously.
      *
-     * @param operationId Operation ID.
+     * @param operation Operation with translated form data.
      * @param afsAction AFS action to be executed.
      * @param username Username filled in by the user. Use null in case user is already authenticated.
      * @param authInstruments Authentication instruments used in this step.
      * @param authStepResult Authentication step result.
      */
-    public void executeAuthAction(String operationId, AfsAction afsAction, String username, List<AfsAuthInstrument> authInstruments, AuthStepResult authStepResult) {
-        executeAfsAction(operationId, afsAction, authInstruments, authStepResult, username, null);
+    public void executeAuthAction(GetOperationDetailResponse operation, AfsAction afsAction, String username, List<AfsAuthInstrument> authInstruments, AuthStepResult authStepResult) {
+        if (!configuration.isAfsEnabled()) {
+            logger.debug("AFS integration is disabled");
+            return;
+        }
+        final PreparedAfsAction action = prepareAfsAction(operation, afsAction, authInstruments, authStepResult, username, null);
+        if (action != null) {
+            submitAfsAction(action);
+        }
     }
 
     /**
      * Execute an anti-fraud system action. This method variant is used during logout.
-     * The response from AFS has no impact on Web Flow.
+     * The response from AFS has no impact on Web Flow, so that the action is executed asynchronously.
      *
-     * @param operationId Operation ID.
+     * @param operation Operation with translated form data.
      * @param operationTerminationReason Reason why operation was terminated.
      */
-    public void executeLogoutAction(String operationId, OperationTerminationReason operationTerminationReason) {
-        executeAfsAction(operationId, AfsAction.LOGOUT, Collections.emptyList(), null, null, operationTerminationReason);
+    public void executeLogoutAction(GetOperationDetailResponse operation, OperationTerminationReason operationTerminationReason) {
+        if (!configuration.isAfsEnabled()) {
+            logger.debug("AFS integration is disabled");
+            return;
+        }
+        final PreparedAfsAction action = prepareAfsAction(operation, AfsAction.LOGOUT, Collections.emptyList(), null, null, operationTerminationReason);
+        if (action != null) {
+            submitAfsAction(action);
+        }
     }
 
     /**
-     * Execute a generic anti-fraud system action and return response.
+     * Prepare an AFS action in the context of the caller. The step index is assigned and request extras are
+     * extracted from the current HTTP request immediately, so that the order of actions is preserved.
      *
-     * @param operationId Operation ID.
+     * @param operation Operation with translated form data.
      * @param afsAction AFS action to be executed.
      * @param authInstruments Authentication instruments used in this step.
      * @param authStepResult Authentication step result.
+     * @param username Username filled in by the user.
      * @param operationTerminationReason Reason why operation was terminated.
-     * @return Response from anti-fraud system.
+     * @return Prepared AFS action or null in case the action should not be executed.
      */
-    private AfsResponse executeAfsAction(String operationId, AfsAction afsAction, List<AfsAuthInstrument> authInstruments, AuthStepResult authStepResult, String username, OperationTerminationReason operationTerminationReason) {
-        if (configuration.isAfsEnabled()) {
-            logger.debug("AFS integration is enabled");
-            try {
-                // Retrieve operation
-                ObjectResponse<GetOperationDetailResponse> operationDetail = nextStepClient.getOperationDetail(operationId);
-                GetOperationDetailResponse operation = operationDetail.getResponseObject();
-                messageTranslationService.translateFormData(operation.getFormData());
-                ObjectResponse<GetOperationConfigDetailResponse> objectResponse = nextStepClient.getOperationConfigDetail(operation.getOperationName());
-                GetOperationConfigDetailResponse config = objectResponse.getResponseObject();
-                if (config.isAfsEnabled()) {
-                    logger.debug("AFS integration is enabled for operation name: {}", operation.getOperationName());
-                    // Check that at least one previous AFS operation was triggered before executing LOGOUT action
-                    if (afsAction == AfsAction.LOGOUT && !canExecuteLogout(operation)) {
-                        logger.debug("AFS action for LOGOUT event is not executed because previous LOGIN_AUTH action is not available for operation: {}", operationId);
-                        return new AfsResponse();
-                    }
-                    // Prepare all AFS request parameters
-                    String userId = operation.getUserId();
-                    String organizationId = operation.getOrganizationId();
-                    FormData formData = new FormDataConverter().fromOperationFormData(operation.getFormData());
-                    ApplicationContext applicationContext = operation.getApplicationContext();
-                    OperationContext operationContext = new OperationContext(operation.getOperationId(), operation.getOperationName(), operation.getOperationData(), formData, applicationContext);
-                    AfsType afsType = configuration.getAfsType();
-                    String clientIpAddress = operationSessionService.getOperationToSessionMapping(operation.getOperationId()).getClientIp();
-                    int stepIndex = deriveStepIndex(operation, afsAction);
-                    Map<String, Object> requestAfsExtras = prepareExtrasForAfs(operation);
-                    // AuthStepResult is null due to init action
-                    AfsRequestParameters afsRequestParameters = new AfsRequestParameters(afsType, afsAction, clientIpAddress, stepIndex, username, authInstruments, authStepResult, operationTerminationReason);
-                    logger.info("Executing AFS action: {}, user ID: {}, operation ID: {}", afsAction, operation.getUserId(), operation.getOperationId());
-                    ObjectResponse<AfsResponse> afsObjectResponse = dataAdapterClient.executeAfsAction(userId, organizationId, operationContext, afsRequestParameters, requestAfsExtras);
-                    AfsResponse response = afsObjectResponse.getResponseObject();
-                    // Save ASF request and response in Next Step
-                    String requestExtras = convertExtrasToString(requestAfsExtras);
-                    String responseExtras = convertExtrasToString(response.getExtras());
-                    nextStepClient.createAfsAction(operationId, afsAction.toString(), stepIndex, requestExtras, response.getAfsLabel(), response.isAfsResponseApplied(), responseExtras);
-                    logger.debug("AFS action succeeded: {}, user ID: {}, operation ID: {}", afsAction, operation.getUserId(), operation.getOperationId());
-                    return response;
-                } else {
-                    logger.debug("AFS integration is disabled for operation name: {}", operation.getOperationName());
+    private PreparedAfsAction prepareAfsAction(GetOperationDetailResponse operation, AfsAction afsAction, List<AfsAuthInstrument> authInstruments, AuthStepResult authStepResult, String username, OperationTerminationReason operationTerminationReason) {
+        final String operationId = operation.getOperationId();
+        final OperationAfsState state = getOperationState(operationId);
+        final int stepIndex;
+        final Map<String, Object> requestAfsExtras;
+        synchronized (state) {
+            // Actions which are already persisted in Next Step are no longer tracked by this node
+            state.pendingActions.removeIf(pendingAction -> containsAfsAction(operation.getAfsActions(), pendingAction.getAction(), pendingAction.getStepIndex()));
+            final List<AfsActionDetail> afsActions = mergeAfsActions(operation.getAfsActions(), state.pendingActions);
+            // Check that at least one previous AFS operation was triggered before executing LOGOUT action
+            if (afsAction == AfsAction.LOGOUT && !canExecuteLogout(afsActions)) {
+                logger.debug("AFS action for LOGOUT event is not executed because previous LOGIN_AUTH action is not available for operation: {}", operationId);
+                return null;
+            }
+            stepIndex = deriveStepIndex(afsActions, afsAction);
+            requestAfsExtras = prepareExtrasForAfs(afsActions);
+            final AfsActionDetail detail = new AfsActionDetail();
+            detail.setAction(afsAction.toString());
+            detail.setStepIndex(stepIndex);
+            detail.setRequestExtras(requestAfsExtras);
+            state.pendingActions.add(detail);
+        }
+        final FormData formData = formDataConverter.fromOperationFormData(operation.getFormData());
+        final OperationContext operationContext = new OperationContext(operationId, operation.getOperationName(), operation.getOperationData(), formData, operation.getApplicationContext());
+        // AuthStepResult is null due to init action
+        final AfsRequestParameters afsRequestParameters = new AfsRequestParameters(configuration.getAfsType(), afsAction, null, stepIndex, username, authInstruments, authStepResult, operationTerminationReason);
+        return new PreparedAfsAction(operation.getUserId(), operation.getOrganizationId(), operationContext, afsRequestParameters, requestAfsExtras);
+    }
+
+    /**
+     * Submit an AFS action to the worker which executes actions for the operation.
+     * @param action Prepared AFS action.
+     */
+    private void submitAfsAction(PreparedAfsAction action) {
+        final String operationId = action.operationContext.getId();
+        final ThreadPoolExecutor worker = actionWorkers[(operationId.hashCode() & Integer.MAX_VALUE) % actionWorkers.length];
+        try {
+            worker.execute(() -> {
+                try {
+                    executeAfsAction(action);
+                } catch (RuntimeException ex) {
+                    logger.error("Unexpected error occurred while executing AFS action", ex);
                 }
+            });
+        } catch (RejectedExecutionException ex) {
+            logger.warn("AFS action was rejected during shutdown, operation ID: {}", operationId);
+        }
+    }
 
-            // AFS errors are not critical, Web Flow falls back to 2FA
-            } catch (NextStepServiceException e) {
-                logger.error("Error when obtaining operation configuration", e);
-            } catch (DataAdapterClientErrorException e) {
-                logger.error("Error when calling anti-fraud service", e);
+    /**
+     * Execute a prepared AFS action and schedule its persistence in Next Step.
+     *
+     * @param action Prepared AFS action.
+     * @return Response from anti-fraud system.
+     */
+    private AfsResponse executeAfsAction(PreparedAfsAction action) {
+        final OperationContext operationContext = action.operationContext;
+        final String operationId = operationContext.getId();
+        final AfsAction afsAction = action.afsRequestParameters.getAfsAction();
+        final int stepIndex = action.afsRequestParameters.getStepIndex();
+        try {
+            GetOperationConfigDetailResponse config = getOperationConfig(operationContext.getName());
+            if (!config.isAfsEnabled()) {
+                logger.debug("AFS integration is disabled for operation name: {}", operationContext.getName());
+                discardPendingAction(operationId, afsAction.toString(), stepIndex);
+                return new AfsResponse();
             }
-        } else {
-            logger.debug("AFS integration is disabled");
+            logger.debug("AFS integration is enabled for operation name: {}", operationContext.getName());
+            String userId = action.userId;
+            String organizationId = action.organizationId;
+            if (userId == null) {
+                // User was identified during the current step after the operation was loaded
+                GetOperationDetailResponse operation = nextStepClient.getOperationDetail(operationId).getResponseObject();
+                userId = operation.getUserId();
+                organizationId = operation.getOrganizationId();
+            }
+            action.afsRequestParameters.setClientIpAddress(getClientIpAddress(operationId));
+            logger.info("Executing AFS action: {}, user ID: {}, operation ID: {}", afsAction, userId, operationId);
+            ObjectResponse<AfsResponse> afsObjectResponse = dataAdapterClient.executeAfsAction(userId, organizationId, operationContext, action.afsRequestParameters, action.requestAfsExtras);
+            AfsResponse response = afsObjectResponse.getResponseObject();
+            // Save ASF request and response in Next Step
+            CreateAfsActionRequest request = new CreateAfsActionRequest();
+            request.setOperationId(operationId);
+            request.setAfsAction(afsAction.toString());
+            request.setStepIndex(stepIndex);
+            request.setRequestAfsExtras(convertExtrasToString(action.requestAfsExtras));
+            request.setAfsLabel(response.getAfsLabel());
+            request.setAfsResponseApplied(response.isAfsResponseApplied());
+            request.setResponseAfsExtras(convertExtrasToString(response.getExtras()));
+            request.setTimestampCreated(new Date());
+            persistAfsAction(request);
+            logger.debug("AFS action succeeded: {}, user ID: {}, operation ID: {}", afsAction, userId, operationId);
+            return response;
+
+        // AFS errors are not critical, Web Flow falls back to 2FA
+        } catch (NextStepServiceException e) {
+            logger.error("Error when obtaining operation configuration", e);
+        } catch (DataAdapterClientErrorException e) {
+            logger.error("Error when calling anti-fraud service", e);
         }
+        discardPendingAction(operationId, afsAction.toString(), stepIndex);
         // The default response is not applied
         return new AfsResponse();
     }
 
+    /**
+     * Get operation configuration, the configuration is cached for the configured time.
+     * @param operationName Operation name.
+     * @return Operation configuration.
+     * @throws NextStepServiceException Thrown when operation configuration could not be obtained.
+     */
+    private GetOperationConfigDetailResponse getOperationConfig(String operationName) throws NextStepServiceException {
+        final long now = System.currentTimeMillis();
+        final CachedOperationConfig cachedConfig = operationConfigs.get(operationName);
+        if (cachedConfig != null && cachedConfig.timestampExpires > now) {
+            return cachedConfig.config;
+        }
+        final GetOperationConfigDetailResponse config = nextStepClient.getOperationConfigDetail(operationName).getResponseObject();
+        operationConfigs.put(operationName, new CachedOperationConfig(config, now + configuration.getAfsOperationConfigCacheTtlMs()));
+        return config;
+    }
+
+    /**
+     * Queue an AFS action for persistence in Next Step. The action is persisted immediately when the queue is full.
+     * @param request Request for creating the AFS action.
+     * @throws NextStepServiceException Thrown when the AFS action could not be persisted immediately.
+     */
+    private void persistAfsAction(CreateAfsActionRequest request) throws NextStepServiceException {
+        if (!persistQueue.offer(new QueuedAfsAction(request))) {
+            nextStepClient.createAfsActions(Collections.singletonList(request));
+        }
+    }
+
+    /**
+     * Persist queued AFS actions in Next Step in batches. A batch which could not be persisted is queued again
+     * and the remaining actions are persisted during the next run. Persisting of AFS actions in Next Step is
+     * idempotent, so that a batch can be retried after it was partially persisted.
+     */
+    private void flushPersistQueue() {
+        final int batchSize = Math.max(1, configuration.getAfsPersistBatchSize());
+        final List<QueuedAfsAction> batch = new ArrayList<>(batchSize);
+        while (persistQueue.drainTo(batch, batchSize) > 0) {
+            final List<CreateAfsActionRequest> requests = new ArrayList<>(batch.size());
+            for (QueuedAfsAction queuedAction: batch) {
+                requests.add(queuedAction.request);
+            }
+            try {
+                nextStepClient.createAfsActions(requests);
+                logger.debug("AFS actions were persisted, action count: {}", batch.size());
+            } catch (NextStepServiceException | RuntimeException e) {
+                logger.warn("Error when persisting AFS actions, action count: {}, error: {}", batch.size(), e.getMessage());
+                requeueAfsActions(batch);
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Queue AFS actions which could not be persisted again. Actions which exceeded the maximum number of attempts
+     * are discarded.
+     * @param batch AFS actions which could not be persisted.
+     */
+    private void requeueAfsActions(List<QueuedAfsAction> batch) {
+        final int maxAttempts = Math.max(1, configuration.getAfsPersistMaxAttempts());
+        for (QueuedAfsAction queuedAction: batch) {
+            queuedAction.attempts++;
+            if (queuedAction.attempts >= maxAttempts || !persistQueue.offer(queuedAction)) {
+                final CreateAfsActionRequest request = queuedAction.request;
+                logger.error("AFS action could not be persisted and it is discarded, operation ID: {}, AFS action: {}, step index: {}",
+                        request.getOperationId(), request.getAfsAction(), request.getStepIndex());
+                discardPendingAction(request.getOperationId(), request.getAfsAction(), request.getStepIndex());
+            }
+        }
+    }
+
+    /**
+     * Stop tracking an AFS action executed by this node which is not going to be persisted in Next Step.
+     * @param operationId Operation ID.
+     * @param afsAction AFS action.
+     * @param stepIndex Step index of the AFS action.
+     */
+    private void discardPendingAction(String operationId, String afsAction, int stepIndex) {
+        final OperationAfsState state = operationStates.get(operationId);
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            state.pendingActions.removeIf(detail -> afsAction.equals(detail.getAction()) && detail.getStepIndex() == stepIndex);
+        }
+    }
+
+    /**
+     * Get client IP address for an operation. The address is read from the operation to session mapping once
+     * for each operation.
+     * @param operationId Operation ID.
+     * @return Client IP address or null in case it is not available.
+     */
+    private String getClientIpAddress(String operationId) {
+        final OperationAfsState state = getOperationState(operationId);
+        synchronized (state) {
+            if (state.clientIpAddress == null) {
+                OperationSessionEntity operationSession = operationSessionService.getOperationToSessionMapping(operationId);
+                if (operationSession != null) {
+                    state.clientIpAddress = operationSession.getClientIp();
+                }
+            }
+            return state.clientIpAddress;
+        }
+    }
+
+    /**
+     * Get state of AFS integration for an operation, operations are evicted when the maximum number of tracked
+     * operations is reached.
+     * @param operationId Operation ID.
+     * @return State of AFS integration for the operation.
+     */
+    private OperationAfsState getOperationState(String operationId) {
+        OperationAfsState state = operationStates.get(operationId);
+        if (state != null) {
+            return state;
+        }
+        if (operationStates.size() >= MAX_TRACKED_OPERATIONS) {
+            Iterator<String> iterator = operationStates.keySet().iterator();
+            for (int i = 0; i < MAX_TRACKED_OPERATIONS / 10 + 1 && iterator.hasNext(); i++) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        return operationStates.computeIfAbsent(operationId, key -> new OperationAfsState());
+    }
+
+    /**
+     * Merge AFS actions loaded from Next Step with AFS actions executed by this node which are not persisted yet.
+     * @param persistedActions AFS actions loaded from Next Step.
+     * @param pendingActions AFS actions executed by this node which are not persisted yet.
+     * @return Merged AFS actions.
+     */
+    private List<AfsActionDetail> mergeAfsActions(List<AfsActionDetail> persistedActions, List<AfsActionDetail> pendingActions) {
+        if (pendingActions.isEmpty()) {
+            return persistedActions;
+        }
+        final List<AfsActionDetail> afsActions = new ArrayList<>(persistedActions);
+        afsActions.addAll(pendingActions);
+        return afsActions;
+    }
+
+    /**
+     * Check whether an AFS action is contained in a list of AFS actions. Actions are identified by their name
+     * and step index.
+     * @param afsActions AFS actions.
+     * @param afsAction AFS action.
+     * @param stepIndex Step index of the AFS action.
+     * @return Whether the AFS action is contained in the list.
+     */
+    private boolean containsAfsAction(List<AfsActionDetail> afsActions, String afsAction, int stepIndex) {
+        for (AfsActionDetail detail: afsActions) {
+            if (afsAction.equals(detail.getAction()) && detail.getStepIndex() == stepIndex) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Determine whether LOGOUT AFS action is meaningful, a LOGIN_AUTH AFS action within same operation must be already present.
-     * @param operation Operation.
+     * @param afsActions AFS actions of the operation.
      * @return Whether LOGOUT AFS action can be executed.
      */
-    private boolean canExecuteLogout(GetOperationDetailResponse operation) {
-        if (operation.getAfsActions().isEmpty()) {
+    private boolean canExecuteLogout(List<AfsActionDetail> afsActions) {
+        if (afsActions.isEmpty()) {
             return false;
         }
-        for (AfsActionDetail detail: operation.getAfsActions()) {
+        for (AfsActionDetail detail: afsActions) {
             if (AfsAction.LOGIN_AUTH.toString().equals(detail.getAction())) {
                 return true;
             }
@@ -210,16 +496,16 @@ public class AfsIntegrationService {
 
     /**
      * Derive step index for current AFS action.
-     * @param operation Operation.
+     * @param afsActions AFS actions of the operation.
      * @param afsAction AFS action.
      * @return Step index of this AFS action.
      */
-    private int deriveStepIndex(GetOperationDetailResponse operation, AfsAction afsAction) {
+    private int deriveStepIndex(List<AfsActionDetail> afsActions, AfsAction afsAction) {
         int stepIndex = 1;
-        if (operation.getAfsActions().isEmpty()) {
+        if (afsActions.isEmpty()) {
             return stepIndex;
         }
-        for (AfsActionDetail detail: operation.getAfsActions()) {
+        for (AfsActionDetail detail: afsActions) {
             if (afsAction.toString().equals(detail.getAction())) {
                 stepIndex++;
             }
@@ -230,9 +516,10 @@ public class AfsIntegrationService {
     /**
      * Prepare extras which are sent with request to AFS. These values are AFS type dependent.
      *
+     * @param afsActions AFS actions of the operation.
      * @return AFS extras.
      */
-    private Map<String, Object> prepareExtrasForAfs(GetOperationDetailResponse operation) {
+    private Map<String, Object> prepareExtrasForAfs(List<AfsActionDetail> afsActions) {
         Map<String, Object> extras = new LinkedHashMap<>();
         AfsType afsType = configuration.getAfsType();
         if (afsType == AfsType.THREAT_MARK) {
@@ -240,7 +527,6 @@ public class AfsIntegrationService {
             if (!(requestAttributes instanceof ServletRequestAttributes)) {
                 // The action is not dispatched using DispatcherServlet. This occurs in case of processing of the Web
                 // Socket close session event. Obtain AFS parameters from last regular request and reuse them.
-                List<AfsActionDetail> afsActions = operation.getAfsActions();
                 if (!afsActions.isEmpty()) {
                     AfsActionDetail lastAction = afsActions.get(afsActions.size() - 1);
                     // Reuse extras from previous request
@@ -280,4 +566,71 @@ public class AfsIntegrationService {
         }
     }
 
+    /**
+     * State of AFS integration for an operation on this node.
+     */
+    private static class OperationAfsState {
+
+        private final List<AfsActionDetail> pendingActions = new ArrayList<>();
+        private String clientIpAddress;
+
+    }
+
+    /**
+     * AFS action waiting for persistence in Next Step.
+     */
+    private static class QueuedAfsAction {
+
+        private final CreateAfsActionRequest request;
+        private int attempts;
+
+        QueuedAfsAction(CreateAfsActionRequest request) {
+            this.request = request;
+        }
+
+    }
+
+    /**
+     * Operation configuration with its expiration time.
+     */
+    private static class CachedOperationConfig {
+
+        private final GetOperationConfigDetailResponse config;
+        private final long timestampExpires;
+
+        CachedOperationConfig(GetOperationConfigDetailResponse config, long timestampExpires) {
+            this.config = config;
+            this.timestampExpires = timestampExpires;
+        }
+
+    }
+
+    /**
+     * AFS action prepared in the context of the caller.
+     */
+    private static class PreparedAfsAction {
+
+        private final String userId;
+        private final String organizationId;
+        private final OperationContext operationContext;
+        private final AfsRequestParameters afsRequestParameters;
+        private final Map<String, Object> requestAfsExtras;
+
+        /**
+         * Constructor with all action parameters.
+         * @param userId User ID.
+         * @param organizationId Organization ID.
+         * @param operationContext Operation context.
+         * @param afsRequestParameters AFS request parameters.
+         * @param requestAfsExtras AFS request extras.
+         */
+        PreparedAfsAction(String userId, String organizationId, OperationContext operationContext, AfsRequestParameters afsRequestParameters, Map<String, Object> requestAfsExtras) {
+            this.userId = userId;
+            this.organizationId = organizationId;
+            this.operationContext = operationContext;
+            this.afsRequestParameters = afsRequestParameters;
+            this.requestAfsExtras = requestAfsExtras;
+        }
+    }
+
 }
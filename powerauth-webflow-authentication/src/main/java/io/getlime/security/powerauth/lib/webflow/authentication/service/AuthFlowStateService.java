@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.service;
+
+import io.getlime.security.powerauth.lib.webflow.authentication.model.AuthFlowState;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+/**
+ * Service which provides access to the authentication flow state of an HTTP session. The state object is created
+ * once per HTTP session under the session mutex, afterwards it is accessed without any locking. The state is loaded
+ * from the state store once per request and it is saved at the end of the request in case it was modified.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+public class AuthFlowStateService {
+
+    private static final String REQUEST_ATTRIBUTE_NAME = AuthFlowStateService.class.getName() + ".STATE";
+
+    private final AuthFlowStateStore authFlowStateStore;
+
+    /**
+     * Service constructor.
+     * @param authFlowStateStore Authentication flow state store.
+     */
+    @Autowired
+    public AuthFlowStateService(AuthFlowStateStore authFlowStateStore) {
+        this.authFlowStateStore = authFlowStateStore;
+    }
+
+    /**
+     * Get authentication flow state for an HTTP session, the state is created in case it does not exist yet.
+     * @param httpSession HTTP session.
+     * @return Authentication flow state.
+     */
+    public AuthFlowState getAuthFlowState(HttpSession httpSession) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            AuthFlowState state = (AuthFlowState) requestAttributes.getAttribute(REQUEST_ATTRIBUTE_NAME, RequestAttributes.SCOPE_REQUEST);
+            if (state != null) {
+                return state;
+            }
+        }
+        AuthFlowState state = authFlowStateStore.load(httpSession);
+        if (state == null) {
+            synchronized (WebUtils.getSessionMutex(httpSession)) {
+                state = authFlowStateStore.load(httpSession);
+                if (state == null) {
+                    state = new AuthFlowState();
+                    authFlowStateStore.save(httpSession, state);
+                }
+            }
+        }
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(REQUEST_ATTRIBUTE_NAME, state, RequestAttributes.SCOPE_REQUEST);
+        }
+        return state;
+    }
+
+    /**
+     * Save authentication flow state used by the request in case it was modified.
+     * @param request HTTP servlet request.
+     */
+    public void saveAuthFlowState(HttpServletRequest request) {
+        AuthFlowState state = (AuthFlowState) request.getAttribute(REQUEST_ATTRIBUTE_NAME);
+        if (state == null || !state.isModified()) {
+            return;
+        }
+        HttpSession httpSession = request.getSession(false);
+        if (httpSession == null) {
+            return;
+        }
+        state.setModified(false);
+        authFlowStateStore.save(httpSession, state);
+    }
+
+}
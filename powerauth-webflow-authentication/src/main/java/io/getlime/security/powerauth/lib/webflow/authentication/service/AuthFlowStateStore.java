@@ -0,0 +1,43 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.getlime.security.powerauth.lib.webflow.authentication.service;
+
+import io.getlime.security.powerauth.lib.webflow.authentication.model.AuthFlowState;
+
+import javax.servlet.http.HttpSession;
+
+/**
+ * Store of authentication flow state of HTTP sessions.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public interface AuthFlowStateStore {
+
+    /**
+     * Load authentication flow state of an HTTP session.
+     * @param httpSession HTTP session.
+     * @return Authentication flow state or null in case state does not exist.
+     */
+    AuthFlowState load(HttpSession httpSession);
+
+    /**
+     * Save authentication flow state of an HTTP session.
+     * @param httpSession HTTP session.
+     * @param state Authentication flow state.
+     */
+    void save(HttpSession httpSession, AuthFlowState state);
+
+}
@@ -16,10 +16,10 @@
 
 package io.getlime.security.powerauth.lib.webflow.authentication.service;
 
-import io.getlime.security.powerauth.lib.webflow.authentication.model.HttpSessionAttributeNames;
 import io.getlime.security.powerauth.lib.webflow.authentication.security.UserOperationAuthentication;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.context.request.RequestAttributes;
@@ -41,6 +41,17 @@ public class AuthenticationManagementService {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthenticationManagementService.class);
 
+    private final AuthFlowStateService authFlowStateService;
+
+    /**
+     * Service constructor.
+     * @param authFlowStateService Authentication flow state service.
+     */
+    @Autowired
+    public AuthenticationManagementService(AuthFlowStateService authFlowStateService) {
+        this.authFlowStateService = authFlowStateService;
+    }
+
     /**
      * Get current HTTP request.
      * @return Current HTTP request.
@@ -58,9 +69,7 @@ public class AuthenticationManagementService {
     private void setPendingUserAuthentication(UserOperationAuthentication auth) {
         HttpServletRequest request = currentRequest();
         HttpSession session = request.getSession();
-        synchronized (session.getServletContext()) {
-            session.setAttribute(HttpSessionAttributeNames.PENDING_AUTH_OBJECT, auth);
-        }
+        authFlowStateService.getAuthFlowState(session).setPendingAuthentication(auth);
     }
 
     /**
@@ -71,7 +80,7 @@ public class AuthenticationManagementService {
     public UserOperationAuthentication getPendingUserAuthentication() {
         HttpServletRequest request = currentRequest();
         HttpSession session = request.getSession();
-        return (UserOperationAuthentication) session.getAttribute(HttpSessionAttributeNames.PENDING_AUTH_OBJECT);
+        return authFlowStateService.getAuthFlowState(session).getPendingAuthentication();
     }
 
     /**
@@ -82,10 +91,8 @@ public class AuthenticationManagementService {
         logger.info("Security context was cleared");
         HttpServletRequest request = currentRequest();
         HttpSession session = request.getSession();
-        synchronized (session.getServletContext()) {
-            session.removeAttribute(HttpSessionAttributeNames.PENDING_AUTH_OBJECT);
-        }
-        logger.info("PENDING_AUTH_OBJECT was removed from HTTP session");
+        authFlowStateService.getAuthFlowState(session).setPendingAuthentication(null);
+        logger.info("Pending authentication object was removed from HTTP session");
 
     }
 
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.getlime.security.powerauth.lib.webflow.authentication.service;
+
+import io.getlime.security.powerauth.lib.webflow.authentication.model.AuthFlowState;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.HttpSessionAttributeNames;
+
+import javax.servlet.http.HttpSession;
+
+/**
+ * Store which keeps authentication flow state in HTTP session attributes, used by default. The session attribute
+ * is set again after each change of the state, so that the servlet container replicates the changed state.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class HttpSessionAuthFlowStateStore implements AuthFlowStateStore {
+
+    @Override
+    public AuthFlowState load(HttpSession httpSession) {
+        AuthFlowState state = (AuthFlowState) httpSession.getAttribute(HttpSessionAttributeNames.AUTH_FLOW_STATE);
+        if (state != null) {
+            // The listener is not serialized, register it again for states replicated from another node
+            state.setChangeListener(() -> writeBack(httpSession, state));
+        }
+        return state;
+    }
+
+    @Override
+    public void save(HttpSession httpSession, AuthFlowState state) {
+        state.setChangeListener(() -> writeBack(httpSession, state));
+        writeBack(httpSession, state);
+    }
+
+    /**
+     * Write the state into the HTTP session attribute.
+     * @param httpSession HTTP session.
+     * @param state Authentication flow state.
+     */
+    private void writeBack(HttpSession httpSession, AuthFlowState state) {
+        try {
+            // Setting the attribute again notifies the servlet container about the change in case sessions are replicated
+            httpSession.setAttribute(HttpSessionAttributeNames.AUTH_FLOW_STATE, state);
+        } catch (IllegalStateException ex) {
+            // HTTP session was invalidated, there is nothing to write the state into
+            state.setChangeListener(null);
+        }
+    }
+
+}
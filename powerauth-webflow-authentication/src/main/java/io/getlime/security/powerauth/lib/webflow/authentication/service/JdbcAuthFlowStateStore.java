@@ -0,0 +1,185 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.service;
+
+import io.getlime.security.powerauth.lib.webflow.authentication.exception.AuthFlowStateConflictException;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.AuthFlowState;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.converter.AuthFlowStateConverter;
+import io.getlime.security.powerauth.lib.webflow.authentication.repository.AuthFlowStateRepository;
+import io.getlime.security.powerauth.lib.webflow.authentication.repository.model.entity.AuthFlowStateEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Store which keeps authentication flow state in the database, so that any Web Flow node can continue
+ * the authentication flow. The state is keyed by the HTTP session ID, so the store requires an HTTP session
+ * shared by all Web Flow nodes, e.g. Spring Session with a JDBC or Redis repository. Without a shared HTTP
+ * session, each node creates its own HTTP session and the state is found only on the node which created it.
+ * <p>
+ * Each node keeps a near cache of serialized states it has recently used. A cached state is trusted without
+ * querying the database for the configured time to live, afterwards it is used only when its version matches
+ * the version in the database, so that the state is transferred from the database only after it was changed
+ * by another node. Every load returns a new copy of the state, so that changes of a state which was not saved
+ * are never visible to other requests.
+ * <p>
+ * The state remembers the version it was loaded with. The state is saved only in case the version in the
+ * database was not changed meanwhile, otherwise {@link AuthFlowStateConflictException} is thrown. A state
+ * loaded from the near cache within its time to live may be outdated in case it was changed on another node,
+ * saving such state fails with the conflict.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class JdbcAuthFlowStateStore implements AuthFlowStateStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcAuthFlowStateStore.class);
+
+    private final AuthFlowStateRepository authFlowStateRepository;
+    private final int nearCacheMaxSize;
+    private final long nearCacheTtlMs;
+    private final AuthFlowStateConverter authFlowStateConverter = new AuthFlowStateConverter();
+    private final Map<String, CachedState> nearCache = new ConcurrentHashMap<>();
+
+    /**
+     * Store constructor.
+     * @param authFlowStateRepository Authentication flow state repository.
+     * @param nearCacheMaxSize Maximum number of states kept in the near cache.
+     * @param nearCacheTtlMs Time in milliseconds for which a cached state is used without checking its version.
+     */
+    public JdbcAuthFlowStateStore(AuthFlowStateRepository authFlowStateRepository, int nearCacheMaxSize, long nearCacheTtlMs) {
+        this.authFlowStateRepository = authFlowStateRepository;
+        this.nearCacheMaxSize = nearCacheMaxSize;
+        this.nearCacheTtlMs = nearCacheTtlMs;
+    }
+
+    @Override
+    public AuthFlowState load(HttpSession httpSession) {
+        String httpSessionId = httpSession.getId();
+        CachedState cachedState = nearCache.get(httpSessionId);
+        if (cachedState != null) {
+            long now = System.currentTimeMillis();
+            if (now - cachedState.getTimestampVerified() < nearCacheTtlMs) {
+                return toState(httpSessionId, cachedState.getStateData(), cachedState.getVersion());
+            }
+            Long version = authFlowStateRepository.findVersionByHttpSessionId(httpSessionId);
+            if (Objects.equals(version, cachedState.getVersion())) {
+                // Replace the entry instead of updating it, so that a concurrently saved state is not overwritten
+                nearCache.replace(httpSessionId, cachedState, new CachedState(cachedState.getStateData(), cachedState.getVersion(), now));
+                return toState(httpSessionId, cachedState.getStateData(), cachedState.getVersion());
+            }
+            nearCache.remove(httpSessionId, cachedState);
+        }
+        Optional<AuthFlowStateEntity> entityOptional = authFlowStateRepository.findById(httpSessionId);
+        if (!entityOptional.isPresent()) {
+            return null;
+        }
+        AuthFlowStateEntity entity = entityOptional.get();
+        AuthFlowState state = toState(httpSessionId, entity.getStateData(), entity.getVersion());
+        if (state != null) {
+            cache(httpSessionId, new CachedState(entity.getStateData(), entity.getVersion(), System.currentTimeMillis()));
+        }
+        return state;
+    }
+
+    @Override
+    public void save(HttpSession httpSession, AuthFlowState state) {
+        String httpSessionId = httpSession.getId();
+        try {
+            byte[] stateData = authFlowStateConverter.toBytes(state);
+            AuthFlowStateEntity entity = authFlowStateRepository.save(new AuthFlowStateEntity(httpSessionId, stateData, state.getVersion()));
+            state.setVersion(entity.getVersion());
+            cache(httpSessionId, new CachedState(stateData, entity.getVersion(), System.currentTimeMillis()));
+        } catch (OptimisticLockingFailureException | DataIntegrityViolationException ex) {
+            // State was concurrently updated by another request, the next request loads the current state
+            nearCache.remove(httpSessionId);
+            throw new AuthFlowStateConflictException("Authentication flow state was concurrently updated for HTTP session: " + httpSessionId, ex);
+        }
+    }
+
+    /**
+     * Convert serialized state data to a new state instance.
+     * @param httpSessionId HTTP session ID.
+     * @param stateData Serialized state data.
+     * @param version State version.
+     * @return Authentication flow state or null in case state data is invalid.
+     */
+    private AuthFlowState toState(String httpSessionId, byte[] stateData, Long version) {
+        try {
+            AuthFlowState state = authFlowStateConverter.fromBytes(stateData);
+            state.setVersion(version);
+            return state;
+        } catch (IOException ex) {
+            logger.warn("Invalid authentication flow state for HTTP session: {}, error: {}", httpSessionId, ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Put state into the near cache, states are evicted when the cache is full.
+     * @param httpSessionId HTTP session ID.
+     * @param cachedState Cached state.
+     */
+    private void cache(String httpSessionId, CachedState cachedState) {
+        if (nearCache.size() >= nearCacheMaxSize) {
+            Iterator<String> iterator = nearCache.keySet().iterator();
+            for (int i = 0; i < nearCacheMaxSize / 10 + 1 && iterator.hasNext(); i++) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        nearCache.put(httpSessionId, cachedState);
+    }
+
+    /**
+     * Serialized state kept in the near cache. Instances are immutable, the serialized data is never modified.
+     */
+    private static class CachedState {
+
+        private final byte[] stateData;
+        private final Long version;
+        private final long timestampVerified;
+
+        CachedState(byte[] stateData, Long version, long timestampVerified) {
+            this.stateData = stateData;
+            this.version = version;
+            this.timestampVerified = timestampVerified;
+        }
+
+        byte[] getStateData() {
+            return stateData;
+        }
+
+        Long getVersion() {
+            return version;
+        }
+
+        long getTimestampVerified() {
+            return timestampVerified;
+        }
+
+    }
+
+}
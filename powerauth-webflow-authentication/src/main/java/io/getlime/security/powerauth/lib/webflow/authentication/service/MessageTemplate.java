@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.getlime.security.powerauth.lib.webflow.authentication.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Localized message compiled into literal and placeholder segments. Placeholders use the {id} notation and they are
+ * resolved using values of operation form fields. The template is immutable and it can be shared between threads.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+final class MessageTemplate {
+
+    private static final int ESTIMATED_VALUE_LENGTH = 16;
+
+    private final String message;
+    private final String[] segments;
+    private final boolean[] placeholders;
+    private final int estimatedLength;
+
+    private MessageTemplate(String message, String[] segments, boolean[] placeholders, int literalLength) {
+        this.message = message;
+        this.segments = segments;
+        this.placeholders = placeholders;
+        int placeholderCount = 0;
+        for (boolean placeholder: placeholders) {
+            if (placeholder) {
+                placeholderCount++;
+            }
+        }
+        this.estimatedLength = literalLength + placeholderCount * ESTIMATED_VALUE_LENGTH;
+    }
+
+    /**
+     * Compile a localized message into a template.
+     * @param message Localized message.
+     * @return Compiled template.
+     */
+    static MessageTemplate compile(String message) {
+        List<String> segments = new ArrayList<>();
+        List<Boolean> placeholders = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int literalLength = 0;
+        int keyStart = -1;
+        String key = "";
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '{') {
+                keyStart = i + 1;
+            } else if (c == '}') {
+                if (keyStart >= 0) {
+                    key = message.substring(keyStart, i);
+                    keyStart = -1;
+                }
+                // A closing bracket without an opening bracket repeats the previous key
+                if (literal.length() > 0) {
+                    segments.add(literal.toString());
+                    placeholders.add(false);
+                    literalLength += literal.length();
+                    literal.setLength(0);
+                }
+                segments.add(key);
+                placeholders.add(true);
+            } else if (keyStart < 0) {
+                literal.append(c);
+            }
+        }
+        // Text of an unterminated placeholder is dropped
+        if (literal.length() > 0) {
+            segments.add(literal.toString());
+            placeholders.add(false);
+            literalLength += literal.length();
+        }
+        boolean[] placeholderArray = new boolean[placeholders.size()];
+        for (int i = 0; i < placeholderArray.length; i++) {
+            placeholderArray[i] = placeholders.get(i);
+        }
+        return new MessageTemplate(message, segments.toArray(new String[0]), placeholderArray, literalLength);
+    }
+
+    /**
+     * Get the localized message the template was compiled from.
+     * @return Localized message.
+     */
+    String getMessage() {
+        return message;
+    }
+
+    /**
+     * Render the message with placeholders replaced by values.
+     * @param valueMap ID to value map for placeholders.
+     * @param missingValuePrefix Prefix of the text used for placeholders without a value.
+     * @return Rendered message.
+     */
+    String render(Map<String, String> valueMap, String missingValuePrefix) {
+        if (segments.length == 1 && !placeholders[0]) {
+            return segments[0];
+        }
+        StringBuilder sb = new StringBuilder(estimatedLength);
+        for (int i = 0; i < segments.length; i++) {
+            if (!placeholders[i]) {
+                sb.append(segments[i]);
+                continue;
+            }
+            String value = valueMap.get(segments[i]);
+            if (value == null) {
+                sb.append(missingValuePrefix).append(": ").append(segments[i]);
+            } else {
+                sb.append(value);
+            }
+        }
+        return sb.toString();
+    }
+
+}
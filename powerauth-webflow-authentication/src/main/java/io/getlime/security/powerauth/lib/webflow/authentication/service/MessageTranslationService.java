@@ -26,11 +26,11 @@ import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.context.support.AbstractMessageSource;
 import org.springframework.stereotype.Service;
 
-import java.text.CharacterIterator;
-import java.text.StringCharacterIterator;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service which localizes and translates form data messages.
@@ -44,10 +44,13 @@ public class MessageTranslationService {
 
     private final I18NService i18NService;
     private final ValueFormatterService valueFormatterService;
+    private volatile TemplateCache templateCache = new TemplateCache(0);
 
     private static final String CHOSEN_BANK_ACCOUNT_NUMBER_INPUT = "operation.bankAccountChoice";
     private static final String MISSING_KEY_MESSAGE = "MISSING_LOCALIZATION_FOR_FIELD";
     private static final String MISSING_VALUE_MESSAGE = "MISSING_VALUE_FOR_FIELD";
+    // Locales are resolved from requests, the number of cached locales is limited
+    private static final int MAX_CACHED_LOCALES = 32;
 
     /**
      * Service constructor
@@ -102,9 +105,8 @@ public class MessageTranslationService {
      * @param idValueMap Id -> value map for translation using the {id} notation.
      */
     private void localizeAndTranslateFormAttributeValue(OperationFormMessageAttribute attribute, Map<String, String> idValueMap) {
-        String message = localize(attribute.getId());
-        String translatedMessage = translateMessage(message, idValueMap);
-        attribute.setMessage(translatedMessage);
+        MessageTemplate template = localizeTemplate(attribute.getId());
+        attribute.setMessage(template.render(idValueMap, MISSING_VALUE_MESSAGE));
     }
 
     /**
@@ -162,7 +164,7 @@ public class MessageTranslationService {
      * @return ID-Value map.
      */
     private Map<String, String> createIdValueMap(OperationFormData formData) {
-        Map<String, String> idValueMap = new HashMap<>();
+        Map<String, String> idValueMap = new HashMap<>(formData.getParameters().size() * 2);
         for (OperationFormFieldAttribute attribute: formData.getParameters()) {
             String value = null;
             switch (attribute.getType()) {
@@ -205,55 +207,70 @@ public class MessageTranslationService {
      * @return Localized text.
      */
     private String localize(String i18nKey) {
+        return localizeTemplate(i18nKey).getMessage();
+    }
+
+    /**
+     * Get compiled template of the text localized by i18n key. Templates are compiled once for each key and locale
+     * and they are discarded when messages are reloaded. Templates for missing keys and for locales over the limit
+     * of cached locales are not cached.
+     * @param i18nKey I18n key.
+     * @return Compiled template of the localized text.
+     */
+    private MessageTemplate localizeTemplate(String i18nKey) {
         if (i18nKey == null) {
             throw new IllegalArgumentException("Missing i18n key");
         }
+        final Locale locale = LocaleContextHolder.getLocale();
+        final long messagesVersion = i18NService.getMessagesVersion();
+        TemplateCache cache = templateCache;
+        if (cache.version != messagesVersion) {
+            // Replace the whole cache, so that templates of previous messages are never used with the new version
+            cache = new TemplateCache(messagesVersion);
+            templateCache = cache;
+        }
+        final Map<String, MessageTemplate> localeTemplates = cache.getLocaleTemplates(locale);
+        MessageTemplate template = localeTemplates == null ? null : localeTemplates.get(i18nKey);
+        if (template != null) {
+            return template;
+        }
         final AbstractMessageSource messageSource = i18NService.getMessageSource();
         try {
-            return messageSource.getMessage(i18nKey, null, LocaleContextHolder.getLocale());
+            template = MessageTemplate.compile(messageSource.getMessage(i18nKey, null, locale));
+            if (localeTemplates != null) {
+                localeTemplates.put(i18nKey, template);
+            }
+            return template;
         } catch (NoSuchMessageException ex) {
             logger.debug("Localization key is missing: "+i18nKey);
-            return MISSING_KEY_MESSAGE+": "+i18nKey;
+            return MessageTemplate.compile(MISSING_KEY_MESSAGE+": "+i18nKey);
         }
     }
 
     /**
-     * Parse the message and resolve strings using the {id} notation.
-     * @param message Message to parse.
-     * @param valueMap Key-value map for translation.
-     * @return Translated message.
+     * Compiled templates for a version of localization messages.
      */
-    private String translateMessage(String message, Map<String, String> valueMap) {
-        if (message == null) {
-            return null;
+    private static class TemplateCache {
+
+        private final long version;
+        private final Map<Locale, Map<String, MessageTemplate>> templates = new ConcurrentHashMap<>();
+
+        TemplateCache(long version) {
+            this.version = version;
         }
-        CharacterIterator iterator = new StringCharacterIterator(message);
-        StringBuilder messageBuilder = new StringBuilder();
-        StringBuilder keyBuilder = new StringBuilder();
-        boolean betweenBrackets = false;
-        char c = iterator.first();
-        while (c != CharacterIterator.DONE) {
-            if (c == '{') {
-                betweenBrackets = true;
-                keyBuilder = new StringBuilder();
-            } else if (c == '}') {
-                String key = keyBuilder.toString();
-                String value = valueMap.get(key);
-                if (value == null) {
-                    value = MISSING_VALUE_MESSAGE+": "+key;
-                }
-                messageBuilder.append(value);
-                betweenBrackets = false;
-            } else {
-                if (betweenBrackets) {
-                    keyBuilder.append(c);
-                } else {
-                    messageBuilder.append(c);
-                }
+
+        /**
+         * Get templates cached for a locale.
+         * @param locale Locale.
+         * @return Templates cached for the locale or null in case the limit of cached locales is reached.
+         */
+        Map<String, MessageTemplate> getLocaleTemplates(Locale locale) {
+            Map<String, MessageTemplate> localeTemplates = templates.get(locale);
+            if (localeTemplates == null && templates.size() < MAX_CACHED_LOCALES) {
+                localeTemplates = templates.computeIfAbsent(locale, key -> new ConcurrentHashMap<>());
             }
-            c = iterator.next();
+            return localeTemplates;
         }
-        return messageBuilder.toString();
+
     }
 }
-
@@ -0,0 +1,411 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.getlime.security.powerauth.lib.dataadapter.client.DataAdapterClient;
+import io.getlime.security.powerauth.lib.dataadapter.client.DataAdapterClientErrorException;
+import io.getlime.security.powerauth.lib.dataadapter.model.entity.*;
+import io.getlime.security.powerauth.lib.dataadapter.model.response.NotificationBatchResponse;
+import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationDetailResponse;
+import io.getlime.security.powerauth.lib.scheduler.service.SchedulerLeaseService;
+import io.getlime.security.powerauth.lib.webflow.authentication.configuration.WebFlowServicesConfiguration;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.NotificationOutboxMetrics;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.converter.FormDataConverter;
+import io.getlime.security.powerauth.lib.webflow.authentication.repository.NotificationOutboxRepository;
+import io.getlime.security.powerauth.lib.webflow.authentication.repository.model.entity.NotificationOutboxEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service which delivers Data Adapter notifications about operation changes and form data changes using
+ * a transactional outbox. Notifications are stored in the database while the request is processed and delivered
+ * asynchronously in batches, so that the user does not wait for the Data Adapter and notifications are not lost
+ * when the Data Adapter is not available.
+ * <p>
+ * Notifications of each operation are delivered in the order of their IDs. A failed notification is retried
+ * with exponential backoff and later notifications of the same operation are not delivered until it succeeds
+ * or it is dropped after reaching the maximum number of attempts. Delivery runs on a single node at a time
+ * thanks to a lease.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+public class NotificationOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationOutboxService.class);
+
+    private static final String LEASE_NAME = "notification-outbox";
+
+    private final WebFlowServicesConfiguration configuration;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final DataAdapterClient dataAdapterClient;
+    private final ObjectMapper objectMapper;
+
+    // Cleared when the Data Adapter does not implement the notification batch endpoint
+    private volatile boolean batchEndpointSupported = true;
+
+    private final AtomicLong runCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong leaseNotAcquiredCount = new AtomicLong();
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong enqueueFailureCount = new AtomicLong();
+    private final AtomicLong deliveredCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile Date lastRunTimestamp;
+
+    /**
+     * Service constructor.
+     * @param configuration Web Flow configuration.
+     * @param schedulerLeaseService Scheduler lease service.
+     * @param notificationOutboxRepository Notification outbox repository.
+     * @param dataAdapterClient Data Adapter client.
+     */
+    @Autowired
+    public NotificationOutboxService(WebFlowServicesConfiguration configuration, SchedulerLeaseService schedulerLeaseService,
+                                     NotificationOutboxRepository notificationOutboxRepository, DataAdapterClient dataAdapterClient) {
+        this.configuration = configuration;
+        this.schedulerLeaseService = schedulerLeaseService;
+        this.notificationOutboxRepository = notificationOutboxRepository;
+        this.dataAdapterClient = dataAdapterClient;
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * Store a notification about operation change in the outbox.
+     * @param operationChange Operation change.
+     * @param userId User ID.
+     * @param organizationId Organization ID.
+     * @param operation Changed operation.
+     */
+    public void enqueueOperationChange(OperationChange operationChange, String userId, String organizationId, GetOperationDetailResponse operation) {
+        OperationNotification notification = createNotification(userId, organizationId, operation);
+        notification.setOperationChange(operationChange);
+        enqueue(Collections.singletonList(notification));
+    }
+
+    /**
+     * Store notifications about the same change of multiple operations in the outbox.
+     * @param operationChange Operation change.
+     * @param operations Changed operations.
+     */
+    public void enqueueOperationChanges(OperationChange operationChange, List<GetOperationDetailResponse> operations) {
+        List<OperationNotification> notifications = new ArrayList<>();
+        for (GetOperationDetailResponse operation: operations) {
+            OperationNotification notification = createNotification(operation.getUserId(), operation.getOrganizationId(), operation);
+            notification.setOperationChange(operationChange);
+            notifications.add(notification);
+        }
+        enqueue(notifications);
+    }
+
+    /**
+     * Store a notification about form data change in the outbox.
+     * @param formDataChange Form data change.
+     * @param operation Operation whose form data was changed.
+     */
+    public void enqueueFormDataChange(FormDataChange formDataChange, GetOperationDetailResponse operation) {
+        OperationNotification notification = createNotification(operation.getUserId(), operation.getOrganizationId(), operation);
+        notification.setFormDataChange(formDataChange);
+        enqueue(Collections.singletonList(notification));
+    }
+
+    /**
+     * Deliver notifications which are due in case this node holds the outbox lease.
+     */
+    @Scheduled(fixedDelayString = "${powerauth.webflow.notificationOutbox.intervalMs:1000}", initialDelayString = "${powerauth.webflow.notificationOutbox.intervalMs:1000}")
+    public void deliverNotifications() {
+        try {
+            // The lease is kept between runs, so that notifications are delivered by the same node while it is running
+            if (!schedulerLeaseService.tryAcquireLease(LEASE_NAME, configuration.getNotificationOutboxLeaseDurationMs())) {
+                leaseNotAcquiredCount.incrementAndGet();
+                return;
+            }
+        } catch (Exception ex) {
+            failureCount.incrementAndGet();
+            logger.error("Lease for delivery of notifications could not be acquired, error: {}", ex.getMessage());
+            logger.debug(ex.getMessage(), ex);
+            return;
+        }
+        runCount.incrementAndGet();
+        try {
+            long delivered = 0;
+            long lastNotificationId = 0;
+            int batchSize = configuration.getNotificationOutboxBatchSize();
+            for (int batch = 0; batch < configuration.getNotificationOutboxMaxBatchesPerRun(); batch++) {
+                Date now = new Date();
+                List<NotificationOutboxEntity> dueNotifications = notificationOutboxRepository.findDueNotifications(lastNotificationId, now, PageRequest.of(0, batchSize));
+                if (dueNotifications.isEmpty()) {
+                    break;
+                }
+                lastNotificationId = dueNotifications.get(dueNotifications.size() - 1).getNotificationId();
+                delivered += deliverBatch(dueNotifications, now);
+                if (dueNotifications.size() < batchSize) {
+                    break;
+                }
+            }
+            lastRunTimestamp = new Date();
+            if (delivered > 0) {
+                logger.debug("Delivery of notifications finished, delivered notifications: {}", delivered);
+            }
+        } catch (Exception ex) {
+            failureCount.incrementAndGet();
+            logger.error("Delivery of notifications failed, error: {}", ex.getMessage());
+            logger.debug(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Release the outbox lease, so that another node can take over delivery without waiting for lease expiration.
+     */
+    @PreDestroy
+    public void shutdown() {
+        try {
+            schedulerLeaseService.releaseLease(LEASE_NAME);
+        } catch (Exception ex) {
+            logger.warn("Lease for delivery of notifications could not be released, error: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Get metrics of the notification outbox.
+     * @return Notification outbox metrics.
+     */
+    public NotificationOutboxMetrics getMetrics() {
+        NotificationOutboxMetrics metrics = new NotificationOutboxMetrics();
+        metrics.setRunCount(runCount.get());
+        metrics.setFailureCount(failureCount.get());
+        metrics.setLeaseNotAcquiredCount(leaseNotAcquiredCount.get());
+        metrics.setEnqueuedCount(enqueuedCount.get());
+        metrics.setEnqueueFailureCount(enqueueFailureCount.get());
+        metrics.setDeliveredCount(deliveredCount.get());
+        metrics.setRetryCount(retryCount.get());
+        metrics.setDroppedCount(droppedCount.get());
+        metrics.setPendingCount(notificationOutboxRepository.count());
+        metrics.setBatchEndpointSupported(batchEndpointSupported);
+        metrics.setLastRunTimestamp(lastRunTimestamp);
+        return metrics;
+    }
+
+    /**
+     * Create a notification with operation context. The context is created while the request is processed,
+     * so that form data is translated using the locale of the user.
+     * @param userId User ID.
+     * @param organizationId Organization ID.
+     * @param operation Operation.
+     * @return Notification without change details.
+     */
+    private OperationNotification createNotification(String userId, String organizationId, GetOperationDetailResponse operation) {
+        FormData formData = new FormDataConverter().fromOperationFormData(operation.getFormData());
+        OperationContext operationContext = new OperationContext(operation.getOperationId(), operation.getOperationName(), operation.getOperationData(), formData, operation.getApplicationContext());
+        OperationNotification notification = new OperationNotification();
+        notification.setUserId(userId);
+        notification.setOrganizationId(organizationId);
+        notification.setOperationContext(operationContext);
+        return notification;
+    }
+
+    /**
+     * Store notifications in the outbox. In case the notifications cannot be stored, they are delivered
+     * synchronously, so that they are not lost.
+     * @param notifications Notifications.
+     */
+    private void enqueue(List<OperationNotification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        try {
+            Date now = new Date();
+            List<NotificationOutboxEntity> entities = new ArrayList<>();
+            for (OperationNotification notification: notifications) {
+                String notificationData = objectMapper.writeValueAsString(notification);
+                entities.add(new NotificationOutboxEntity(notification.getOperationContext().getId(), notificationData, now));
+            }
+            notificationOutboxRepository.saveAll(entities);
+            enqueuedCount.addAndGet(entities.size());
+        } catch (JsonProcessingException | RuntimeException ex) {
+            enqueueFailureCount.addAndGet(notifications.size());
+            logger.error("Notifications could not be stored in the outbox, notifications are delivered synchronously, error: {}", ex.getMessage());
+            logger.debug(ex.getMessage(), ex);
+            for (OperationNotification notification: notifications) {
+                try {
+                    deliver(notification);
+                    deliveredCount.incrementAndGet();
+                } catch (DataAdapterClientErrorException ex2) {
+                    droppedCount.incrementAndGet();
+                    logger.error("Notification could not be delivered synchronously and it was dropped, operation ID: {}, error: {}",
+                            notification.getOperationContext().getId(), ex2.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Deliver a batch of due notifications, skipping notifications of operations with an earlier postponed notification.
+     * @param dueNotifications Due notifications ordered by notification ID.
+     * @param now Current timestamp.
+     * @return Number of delivered notifications.
+     */
+    private int deliverBatch(List<NotificationOutboxEntity> dueNotifications, Date now) {
+        Set<String> operationIds = new HashSet<>();
+        for (NotificationOutboxEntity entity: dueNotifications) {
+            operationIds.add(entity.getOperationId());
+        }
+        Map<String, Long> firstPostponedIds = new HashMap<>();
+        for (Object[] row: notificationOutboxRepository.findFirstPostponedNotificationIds(operationIds, now)) {
+            firstPostponedIds.put((String) row[0], (Long) row[1]);
+        }
+        List<NotificationOutboxEntity> deliverable = new ArrayList<>();
+        List<OperationNotification> notifications = new ArrayList<>();
+        List<Long> invalidIds = new ArrayList<>();
+        for (NotificationOutboxEntity entity: dueNotifications) {
+            Long firstPostponedId = firstPostponedIds.get(entity.getOperationId());
+            if (firstPostponedId != null && firstPostponedId < entity.getNotificationId()) {
+                // An earlier notification of the operation waits for a retry
+                continue;
+            }
+            try {
+                OperationNotification notification = objectMapper.readValue(entity.getNotificationData(), OperationNotification.class);
+                notification.setNotificationId(entity.getNotificationId());
+                notifications.add(notification);
+                deliverable.add(entity);
+            } catch (IOException ex) {
+                logger.error("Invalid notification data, notification ID: {}, error: {}", entity.getNotificationId(), ex.getMessage());
+                invalidIds.add(entity.getNotificationId());
+            }
+        }
+        if (!invalidIds.isEmpty()) {
+            droppedCount.addAndGet(notificationOutboxRepository.deleteByNotificationIds(invalidIds));
+        }
+        if (notifications.isEmpty()) {
+            return 0;
+        }
+        Set<Long> processedIds = batchEndpointSupported ? deliverUsingBatchEndpoint(notifications) : null;
+        if (processedIds == null) {
+            processedIds = deliverOneByOne(notifications);
+        }
+        List<Long> deletedIds = new ArrayList<>(processedIds);
+        Set<String> failedOperationIds = new HashSet<>();
+        for (NotificationOutboxEntity entity: deliverable) {
+            if (processedIds.contains(entity.getNotificationId()) || !failedOperationIds.add(entity.getOperationId())) {
+                // Later notifications of a failed operation are left unchanged, they wait for the failed notification
+                continue;
+            }
+            int attemptCount = entity.getAttemptCount() + 1;
+            if (attemptCount >= configuration.getNotificationOutboxMaxAttempts()) {
+                logger.error("Notification was dropped after {} delivery attempts, notification ID: {}, operation ID: {}",
+                        attemptCount, entity.getNotificationId(), entity.getOperationId());
+                droppedCount.incrementAndGet();
+                deletedIds.add(entity.getNotificationId());
+                continue;
+            }
+            long backoffMs = configuration.getNotificationOutboxRetryBackoffMs() << Math.min(attemptCount - 1, 30);
+            backoffMs = Math.min(backoffMs, configuration.getNotificationOutboxMaxRetryBackoffMs());
+            entity.setAttemptCount(attemptCount);
+            entity.setTimestampNextAttempt(new Date(now.getTime() + backoffMs));
+            notificationOutboxRepository.save(entity);
+            retryCount.incrementAndGet();
+        }
+        if (!deletedIds.isEmpty()) {
+            notificationOutboxRepository.deleteByNotificationIds(deletedIds);
+        }
+        deliveredCount.addAndGet(processedIds.size());
+        return processedIds.size();
+    }
+
+    /**
+     * Deliver notifications using the notification batch endpoint.
+     * @param notifications Notifications ordered by notification ID.
+     * @return IDs of processed notifications or null in case the Data Adapter does not support the endpoint.
+     */
+    private Set<Long> deliverUsingBatchEndpoint(List<OperationNotification> notifications) {
+        try {
+            NotificationBatchResponse response = dataAdapterClient.notificationBatch(notifications).getResponseObject();
+            if (response == null || response.getProcessedNotificationIds() == null) {
+                return Collections.emptySet();
+            }
+            return new HashSet<>(response.getProcessedNotificationIds());
+        } catch (DataAdapterClientErrorException ex) {
+            if (ex.getCause() instanceof HttpStatusCodeException) {
+                HttpStatus statusCode = ((HttpStatusCodeException) ex.getCause()).getStatusCode();
+                if (statusCode == HttpStatus.NOT_FOUND || statusCode == HttpStatus.METHOD_NOT_ALLOWED) {
+                    logger.warn("Data Adapter does not support notification batches, notifications are delivered one by one");
+                    batchEndpointSupported = false;
+                    return null;
+                }
+            }
+            logger.warn("Delivery of notification batch failed, error: {}", ex.getMessage());
+            return Collections.emptySet();
+        }
+    }
+
+    /**
+     * Deliver notifications one by one. Delivery of notifications of an operation stops at the first failure.
+     * @param notifications Notifications ordered by notification ID.
+     * @return IDs of processed notifications.
+     */
+    private Set<Long> deliverOneByOne(List<OperationNotification> notifications) {
+        Set<Long> processedIds = new HashSet<>();
+        Set<String> failedOperationIds = new HashSet<>();
+        for (OperationNotification notification: notifications) {
+            String operationId = notification.getOperationContext().getId();
+            if (failedOperationIds.contains(operationId)) {
+                continue;
+            }
+            try {
+                deliver(notification);
+                processedIds.add(notification.getNotificationId());
+            } catch (DataAdapterClientErrorException ex) {
+                logger.warn("Delivery of notification failed, notification ID: {}, error: {}", notification.getNotificationId(), ex.getMessage());
+                failedOperationIds.add(operationId);
+            }
+        }
+        return processedIds;
+    }
+
+    /**
+     * Deliver a notification to Data Adapter.
+     * @param notification Notification.
+     * @throws DataAdapterClientErrorException Thrown when notification delivery fails.
+     */
+    private void deliver(OperationNotification notification) throws DataAdapterClientErrorException {
+        if (notification.getOperationChange() != null) {
+            dataAdapterClient.operationChangedNotification(notification.getOperationChange(), notification.getUserId(),
+                    notification.getOrganizationId(), notification.getOperationContext());
+        } else {
+            dataAdapterClient.formDataChangedNotification(notification.getFormDataChange(), notification.getUserId(),
+                    notification.getOrganizationId(), notification.getOperationContext());
+        }
+    }
+
+}
@@ -16,11 +16,7 @@
 package io.getlime.security.powerauth.lib.webflow.authentication.service;
 
 import io.getlime.core.rest.model.base.response.ObjectResponse;
-import io.getlime.security.powerauth.lib.dataadapter.client.DataAdapterClient;
-import io.getlime.security.powerauth.lib.dataadapter.client.DataAdapterClientErrorException;
-import io.getlime.security.powerauth.lib.dataadapter.model.entity.FormData;
 import io.getlime.security.powerauth.lib.dataadapter.model.entity.OperationChange;
-import io.getlime.security.powerauth.lib.dataadapter.model.entity.OperationContext;
 import io.getlime.security.powerauth.lib.dataadapter.model.enumeration.OperationTerminationReason;
 import io.getlime.security.powerauth.lib.nextstep.client.NextStepClient;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.ApplicationContext;
@@ -31,13 +27,13 @@ import io.getlime.security.powerauth.lib.nextstep.model.enumeration.OperationCan
 import io.getlime.security.powerauth.lib.nextstep.model.exception.NextStepServiceException;
 import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationDetailResponse;
 import io.getlime.security.powerauth.lib.nextstep.model.response.UpdateOperationResponse;
-import io.getlime.security.powerauth.lib.webflow.authentication.model.converter.FormDataConverter;
 import io.getlime.security.powerauth.lib.webflow.authentication.model.converter.OperationCancellationConverter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
+import java.util.List;
 
 /**
  * Service which centralizes logic for cancellation of operations.
@@ -49,19 +45,19 @@ public class OperationCancellationService {
     private static final Logger logger = LoggerFactory.getLogger(OperationCancellationService.class);
 
     private final NextStepClient nextStepClient;
-    private final DataAdapterClient dataAdapterClient;
+    private final NotificationOutboxService notificationOutboxService;
     private final AfsIntegrationService afsIntegrationService;
     private final OperationCancellationConverter operationCancellationConverter = new OperationCancellationConverter();
 
     /**
      * Service constructor.
      * @param nextStepClient Next Step client.
-     * @param dataAdapterClient Data Adapter client.
+     * @param notificationOutboxService Data Adapter notification outbox service.
      * @param afsIntegrationService AFS integration service.
      */
-    public OperationCancellationService(NextStepClient nextStepClient, DataAdapterClient dataAdapterClient, AfsIntegrationService afsIntegrationService) {
+    public OperationCancellationService(NextStepClient nextStepClient, NotificationOutboxService notificationOutboxService, AfsIntegrationService afsIntegrationService) {
         this.nextStepClient = nextStepClient;
-        this.dataAdapterClient = dataAdapterClient;
+        this.notificationOutboxService = notificationOutboxService;
         this.afsIntegrationService = afsIntegrationService;
     }
 
@@ -96,19 +92,53 @@ public class OperationCancellationService {
             if (operationDetail.getResult() == AuthResult.CONTINUE) {
                 final ApplicationContext applicationContext = operationDetail.getApplicationContext();
                 ObjectResponse<UpdateOperationResponse> updateOperationResponse = nextStepClient.updateOperation(operationDetail.getOperationId(), operationDetail.getUserId(), operationDetail.getOrganizationId(), authMethod, Collections.emptyList(), AuthStepResult.CANCELED, cancelReason.toString(), null, applicationContext);
-                // Notify Data Adapter about cancellation event
-                FormData formData = new FormDataConverter().fromOperationFormData(operationDetail.getFormData());
-                OperationContext operationContext = new OperationContext(operationDetail.getOperationId(), operationDetail.getOperationName(), operationDetail.getOperationData(), formData, applicationContext);
-                dataAdapterClient.operationChangedNotification(OperationChange.CANCELED, operationDetail.getUserId(), operationDetail.getOrganizationId(), operationContext);
-                // Notify AFS about logout event
-                OperationTerminationReason terminationReason = operationCancellationConverter.convertCancelReason(cancelReason);
-                afsIntegrationService.executeLogoutAction(operationDetail.getOperationId(), terminationReason);
+                notifyOperationCanceled(operationDetail, cancelReason);
                 return updateOperationResponse.getResponseObject();
             }
-        } catch (NextStepServiceException | DataAdapterClientErrorException e) {
+        } catch (NextStepServiceException e) {
             logger.error("Error occurred while canceling operation", e);
         }
         return null;
     }
 
-}
\ No newline at end of file
+    /**
+     * Cancel operations with given operation IDs which are still active. All operations are canceled in Next Step
+     * using a single request, Data Adapter and AFS are notified about the cancellation asynchronously.
+     * @param operationIds Operation IDs.
+     * @param authMethod Authentication method which triggered operation cancellation.
+     * @param cancelReason Reason for canceling the operations.
+     */
+    public void cancelOperations(List<String> operationIds, AuthMethod authMethod, OperationCancelReason cancelReason) {
+        if (operationIds.isEmpty()) {
+            return;
+        }
+        final List<GetOperationDetailResponse> canceledOperations;
+        try {
+            canceledOperations = nextStepClient.cancelOperations(operationIds, authMethod, cancelReason).getResponseObject().getOperations();
+        } catch (NextStepServiceException e) {
+            logger.warn("Batch cancellation of operations failed, operations are canceled one by one, error: {}", e.getMessage());
+            for (String operationId: operationIds) {
+                cancelOperation(operationId, authMethod, cancelReason);
+            }
+            return;
+        }
+        notificationOutboxService.enqueueOperationChanges(OperationChange.CANCELED, canceledOperations);
+        for (GetOperationDetailResponse operationDetail: canceledOperations) {
+            afsIntegrationService.executeLogoutAction(operationDetail, operationCancellationConverter.convertCancelReason(cancelReason));
+        }
+    }
+
+    /**
+     * Notify Data Adapter and AFS about operation cancellation. Both notifications are delivered asynchronously.
+     * @param operationDetail Canceled operation.
+     * @param cancelReason Reason for canceling the operation.
+     */
+    private void notifyOperationCanceled(GetOperationDetailResponse operationDetail, OperationCancelReason cancelReason) {
+        // Notify Data Adapter about cancellation event
+        notificationOutboxService.enqueueOperationChange(OperationChange.CANCELED, operationDetail.getUserId(), operationDetail.getOrganizationId(), operationDetail);
+        // Notify AFS about logout event
+        OperationTerminationReason terminationReason = operationCancellationConverter.convertCancelReason(cancelReason);
+        afsIntegrationService.executeLogoutAction(operationDetail, terminationReason);
+    }
+
+}
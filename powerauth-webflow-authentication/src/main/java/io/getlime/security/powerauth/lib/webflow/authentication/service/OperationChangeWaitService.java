@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.getlime.security.powerauth.lib.webflow.authentication.service;
+
+import io.getlime.security.powerauth.lib.webflow.authentication.configuration.WebFlowServicesConfiguration;
+import io.getlime.security.powerauth.lib.webflow.authentication.notification.AuthorizationNotificationBus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service which keeps track of requests waiting for a change of operation state on this node. Waiting requests
+ * are parked without holding a thread, they are completed by a listener when the change is signaled. Changes
+ * are signaled on every node only when the notification bus is distributed, otherwise the wait is limited
+ * to the status check interval, because the change may be handled by another node.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+public class OperationChangeWaitService {
+
+    private final WebFlowServicesConfiguration configuration;
+    private final AuthorizationNotificationBus notificationBus;
+
+    private final Map<String, Set<Runnable>> listeners = new ConcurrentHashMap<>();
+    private final AtomicInteger listenerCount = new AtomicInteger();
+
+    /**
+     * Service constructor.
+     * @param configuration Web Flow configuration.
+     * @param notificationBus Bus for delivering notifications to other Web Flow nodes.
+     */
+    @Autowired
+    public OperationChangeWaitService(WebFlowServicesConfiguration configuration, AuthorizationNotificationBus notificationBus) {
+        this.configuration = configuration;
+        this.notificationBus = notificationBus;
+    }
+
+    /**
+     * Get maximum time for which a request waits for a change of operation state.
+     * @return Wait timeout in milliseconds.
+     */
+    public long getWaitTimeoutMs() {
+        if (notificationBus.isDistributed()) {
+            return configuration.getMobileTokenWaitTimeoutMs();
+        }
+        return Math.min(configuration.getMobileTokenWaitTimeoutMs(), configuration.getMobileTokenWaitRetryAfterMs());
+    }
+
+    /**
+     * Add listener which is called once when the operation changes.
+     * @param operationId Operation ID.
+     * @param listener Listener.
+     * @return Whether the listener was added, false is returned when the maximum number of waiting requests is reached.
+     */
+    public boolean addListener(String operationId, Runnable listener) {
+        if (listenerCount.incrementAndGet() > configuration.getMobileTokenWaitMaxRequests()) {
+            listenerCount.decrementAndGet();
+            return false;
+        }
+        listeners.compute(operationId, (key, operationListeners) -> {
+            if (operationListeners == null) {
+                operationListeners = ConcurrentHashMap.newKeySet();
+            }
+            operationListeners.add(listener);
+            return operationListeners;
+        });
+        return true;
+    }
+
+    /**
+     * Remove listener, e.g. when the waiting request timed out.
+     * @param operationId Operation ID.
+     * @param listener Listener.
+     */
+    public void removeListener(String operationId, Runnable listener) {
+        listeners.computeIfPresent(operationId, (key, operationListeners) -> {
+            if (operationListeners.remove(listener)) {
+                listenerCount.decrementAndGet();
+            }
+            return operationListeners.isEmpty() ? null : operationListeners;
+        });
+    }
+
+    /**
+     * Signal change of operation to all listeners waiting for the operation on this node.
+     * @param operationId Operation ID.
+     * @return Whether any listener was waiting for the operation.
+     */
+    public boolean signalChange(String operationId) {
+        final Set<Runnable> operationListeners = listeners.remove(operationId);
+        if (operationListeners == null) {
+            return false;
+        }
+        for (Runnable listener: operationListeners) {
+            listenerCount.decrementAndGet();
+            listener.run();
+        }
+        return true;
+    }
+
+    /**
+     * Get number of requests waiting for a change of operation state.
+     * @return Number of waiting requests.
+     */
+    public int getWaitingRequestCount() {
+        return listenerCount.get();
+    }
+
+}
@@ -16,6 +16,7 @@
 package io.getlime.security.powerauth.lib.webflow.authentication.service;
 
 import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthResult;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.WebSocketSessionRegistration;
 import io.getlime.security.powerauth.lib.webflow.authentication.repository.OperationSessionRepository;
 import io.getlime.security.powerauth.lib.webflow.authentication.repository.model.entity.OperationSessionEntity;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,14 +37,17 @@ import java.util.List;
 public class OperationSessionService {
 
     private final OperationSessionRepository operationSessionRepository;
+    private final WebSocketSessionRegistry webSocketSessionRegistry;
 
     /**
      * Service constructor.
      * @param operationSessionRepository Operation session repository.
+     * @param webSocketSessionRegistry Registry of Web Socket sessions connected to this node.
      */
     @Autowired
-    public OperationSessionService(OperationSessionRepository operationSessionRepository) {
+    public OperationSessionService(OperationSessionRepository operationSessionRepository, WebSocketSessionRegistry webSocketSessionRegistry) {
         this.operationSessionRepository = operationSessionRepository;
+        this.webSocketSessionRegistry = webSocketSessionRegistry;
     }
 
     /**
@@ -89,18 +93,18 @@ public class OperationSessionService {
     }
 
     /**
-     * Cancel operations in HTTP session and get their list.
+     * Cancel operations in HTTP session and get their list. The operation to HTTP session mapping is updated
+     * for all operations using a single statement.
      * @param httpSessionId HTTP session.
-     * @return Canceled operations.
+     * @return IDs of canceled operations.
      */
-    public List<OperationSessionEntity> cancelOperationsInHttpSession(String httpSessionId) {
-        // cancel previous operations in Next Step and update operation to HTTP session mapping
-        List<OperationSessionEntity> previousOperations = operationSessionRepository.findActiveOperationsByHttpSessionId(httpSessionId);
-        for (OperationSessionEntity previousOperation : previousOperations) {
-            previousOperation.setResult(AuthResult.FAILED);
-            operationSessionRepository.save(previousOperation);
+    public List<String> cancelOperationsInHttpSession(String httpSessionId) {
+        // update operation to HTTP session mapping, operations are canceled in Next Step by the caller
+        List<String> previousOperationIds = operationSessionRepository.findActiveOperationIdsByHttpSessionId(httpSessionId);
+        if (!previousOperationIds.isEmpty()) {
+            operationSessionRepository.updateActiveOperationsResult(previousOperationIds, AuthResult.FAILED);
         }
-        return previousOperations;
+        return previousOperationIds;
     }
 
     /**
@@ -125,6 +129,10 @@ public class OperationSessionService {
      * @return Web Socket Session ID or null if session was not found.
      */
     public String lookupWebSocketSessionIdByOperationHash(String operationHash) {
+        WebSocketSessionRegistration registration = webSocketSessionRegistry.lookupByOperationHash(operationHash);
+        if (registration != null) {
+            return registration.getWebSocketSessionId();
+        }
         OperationSessionEntity operationSessionEntity = operationSessionRepository.findByOperationHash(operationHash);
         if (operationSessionEntity != null) {
             return operationSessionEntity.getWebSocketSessionId();
@@ -138,6 +146,10 @@ public class OperationSessionService {
      * @return Operation ID or null if session was not found.
      */
     public String lookupOperationIdByWebSocketSessionId(String webSocketSessionId) {
+        WebSocketSessionRegistration registration = webSocketSessionRegistry.lookupByWebSocketSessionId(webSocketSessionId);
+        if (registration != null) {
+            return registration.getOperationId();
+        }
         OperationSessionEntity operationSessionEntity = operationSessionRepository.findByWebSocketSessionId(webSocketSessionId);
         if (operationSessionEntity != null) {
             return operationSessionEntity.getOperationId();
@@ -153,6 +165,10 @@ public class OperationSessionService {
      * @return Whether Web Socket session ID was successfully registered for the operation.
      */
     public boolean registerWebSocketSession(String operationHash, String webSocketSessionId, String clientIpAddress) {
+        if (webSocketSessionRegistry.lookupByOperationHash(operationHash) != null) {
+            // Registration failed because Web Socket session has been already registered on this node
+            return false;
+        }
         OperationSessionEntity operationSessionEntity = operationSessionRepository.findByOperationHash(operationHash);
         if (operationSessionEntity == null) {
             // Registration failed because operation was not found
@@ -167,8 +183,41 @@ public class OperationSessionService {
         operationSessionEntity.setWebSocketSessionId(webSocketSessionId);
         operationSessionEntity.setClientIp(clientIpAddress);
         operationSessionRepository.save(operationSessionEntity);
+        webSocketSessionRegistry.register(new WebSocketSessionRegistration(operationSessionEntity.getOperationId(), operationHash, webSocketSessionId));
         // Registration succeeded
         return true;
     }
 
+    /**
+     * Lookup Web Socket session registration for an operation. The registration is resolved from the in-memory
+     * registry of this node and falls back to the database in case the Web Socket session is not registered locally.
+     * @param operationId Operation ID.
+     * @return Web Socket session registration or null if Web Socket session was not found.
+     */
+    public WebSocketSessionRegistration lookupWebSocketSessionRegistration(String operationId) {
+        WebSocketSessionRegistration registration = webSocketSessionRegistry.lookupByOperationId(operationId);
+        if (registration != null) {
+            return registration;
+        }
+        String operationHash = generateOperationHash(operationId);
+        OperationSessionEntity operationSessionEntity = operationSessionRepository.findByOperationHash(operationHash);
+        if (operationSessionEntity == null || operationSessionEntity.getWebSocketSessionId() == null) {
+            return null;
+        }
+        return new WebSocketSessionRegistration(operationId, operationHash, operationSessionEntity.getWebSocketSessionId());
+    }
+
+    /**
+     * Release Web Socket session after disconnect and get Operation ID of the operation it was registered for.
+     * @param webSocketSessionId Web Socket session ID.
+     * @return Operation ID or null if session was not found.
+     */
+    public String releaseWebSocketSession(String webSocketSessionId) {
+        WebSocketSessionRegistration registration = webSocketSessionRegistry.unregister(webSocketSessionId);
+        if (registration != null) {
+            return registration.getOperationId();
+        }
+        return lookupOperationIdByWebSocketSessionId(webSocketSessionId);
+    }
+
 }
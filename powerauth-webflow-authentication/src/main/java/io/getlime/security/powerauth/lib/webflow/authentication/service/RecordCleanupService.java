@@ -0,0 +1,190 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.getlime.security.powerauth.lib.webflow.authentication.service;
+
+import io.getlime.security.powerauth.lib.scheduler.service.SchedulerLeaseService;
+import io.getlime.security.powerauth.lib.webflow.authentication.configuration.WebFlowServicesConfiguration;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.CleanupMetrics;
+import io.getlime.security.powerauth.lib.webflow.authentication.repository.AuthFlowStateRepository;
+import io.getlime.security.powerauth.lib.webflow.authentication.repository.CertificateVerificationRepository;
+import io.getlime.security.powerauth.lib.webflow.authentication.repository.OperationSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Service which periodically deletes expired operation to HTTP session mappings, certificate verification records
+ * and authentication flow states. Records are deleted in bounded batches, so that each delete statement is short
+ * and does not lock large parts of the tables. The cleanup runs on a single node at a time thanks to a lease.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+public class RecordCleanupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecordCleanupService.class);
+
+    private static final String LEASE_NAME = "record-cleanup";
+
+    private final WebFlowServicesConfiguration configuration;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final OperationSessionRepository operationSessionRepository;
+    private final CertificateVerificationRepository certificateVerificationRepository;
+    private final AuthFlowStateRepository authFlowStateRepository;
+
+    private final AtomicLong runCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong leaseNotAcquiredCount = new AtomicLong();
+    private final AtomicLong deletedOperationSessionCount = new AtomicLong();
+    private final AtomicLong deletedCertificateVerificationCount = new AtomicLong();
+    private final AtomicLong deletedAuthFlowStateCount = new AtomicLong();
+    private volatile Date lastRunTimestamp;
+    private volatile long lastRunDurationMs;
+
+    /**
+     * Service constructor.
+     * @param configuration Web Flow configuration.
+     * @param schedulerLeaseService Scheduler lease service.
+     * @param operationSessionRepository Operation to HTTP session mapping repository.
+     * @param certificateVerificationRepository Certificate verification repository.
+     * @param authFlowStateRepository Authentication flow state repository.
+     */
+    @Autowired
+    public RecordCleanupService(WebFlowServicesConfiguration configuration, SchedulerLeaseService schedulerLeaseService,
+                                OperationSessionRepository operationSessionRepository,
+                                CertificateVerificationRepository certificateVerificationRepository,
+                                AuthFlowStateRepository authFlowStateRepository) {
+        this.configuration = configuration;
+        this.schedulerLeaseService = schedulerLeaseService;
+        this.operationSessionRepository = operationSessionRepository;
+        this.certificateVerificationRepository = certificateVerificationRepository;
+        this.authFlowStateRepository = authFlowStateRepository;
+    }
+
+    /**
+     * Delete expired records in case this node holds the cleanup lease.
+     */
+    @Scheduled(fixedDelayString = "${powerauth.webflow.cleanup.intervalMs:300000}", initialDelayString = "${powerauth.webflow.cleanup.intervalMs:300000}")
+    public void cleanupExpiredRecords() {
+        if (!configuration.isCleanupEnabled()) {
+            return;
+        }
+        try {
+            if (!schedulerLeaseService.tryAcquireLease(LEASE_NAME, configuration.getCleanupLeaseDurationMs())) {
+                leaseNotAcquiredCount.incrementAndGet();
+                logger.debug("Cleanup of expired records is running on another node");
+                return;
+            }
+        } catch (Exception ex) {
+            failureCount.incrementAndGet();
+            logger.error("Lease for cleanup of expired records could not be acquired, error: {}", ex.getMessage());
+            logger.debug(ex.getMessage(), ex);
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        runCount.incrementAndGet();
+        try {
+            Date now = new Date(startTime);
+            Date operationSessionLimit = new Date(startTime - configuration.getCleanupOperationSessionMaxAgeMs());
+            Date certificateVerificationLimit = new Date(startTime - configuration.getCleanupCertificateVerificationMaxAgeMs());
+            Date authFlowStateLimit = new Date(startTime - configuration.getCleanupAuthFlowStateMaxAgeMs());
+            long operationSessions = deleteInBatches(
+                    pageable -> operationSessionRepository.findOperationIdsCreatedBefore(operationSessionLimit, pageable),
+                    (ids, timestamp) -> operationSessionRepository.deleteByOperationIds(ids), operationSessionLimit);
+            deletedOperationSessionCount.addAndGet(operationSessions);
+            long certificateVerifications = deleteInBatches(
+                    pageable -> certificateVerificationRepository.findOperationIdsVerifiedBefore(certificateVerificationLimit, pageable),
+                    certificateVerificationRepository::deleteByOperationIdsVerifiedBefore, certificateVerificationLimit);
+            deletedCertificateVerificationCount.addAndGet(certificateVerifications);
+            long authFlowStates = deleteInBatches(
+                    pageable -> authFlowStateRepository.findHttpSessionIdsUpdatedBefore(authFlowStateLimit, pageable),
+                    authFlowStateRepository::deleteByHttpSessionIdsUpdatedBefore, authFlowStateLimit);
+            deletedAuthFlowStateCount.addAndGet(authFlowStates);
+            lastRunTimestamp = now;
+            logger.info("Cleanup of expired records finished, operation sessions: {}, certificate verifications: {}, authentication flow states: {}",
+                    operationSessions, certificateVerifications, authFlowStates);
+        } catch (Exception ex) {
+            failureCount.incrementAndGet();
+            logger.error("Cleanup of expired records failed, error: {}", ex.getMessage());
+            logger.debug(ex.getMessage(), ex);
+        } finally {
+            lastRunDurationMs = System.currentTimeMillis() - startTime;
+            try {
+                schedulerLeaseService.releaseLease(LEASE_NAME);
+            } catch (Exception ex) {
+                logger.warn("Lease for cleanup of expired records could not be released, error: {}", ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Get metrics of the cleanup of expired records.
+     * @return Cleanup metrics.
+     */
+    public CleanupMetrics getMetrics() {
+        CleanupMetrics metrics = new CleanupMetrics();
+        metrics.setRunCount(runCount.get());
+        metrics.setFailureCount(failureCount.get());
+        metrics.setLeaseNotAcquiredCount(leaseNotAcquiredCount.get());
+        metrics.setDeletedOperationSessionCount(deletedOperationSessionCount.get());
+        metrics.setDeletedCertificateVerificationCount(deletedCertificateVerificationCount.get());
+        metrics.setDeletedAuthFlowStateCount(deletedAuthFlowStateCount.get());
+        metrics.setLastRunTimestamp(lastRunTimestamp);
+        metrics.setLastRunDurationMs(lastRunDurationMs);
+        return metrics;
+    }
+
+    /**
+     * Delete records in batches until no expired records remain, the maximum number of batches is reached
+     * or the cleanup lease is lost.
+     * @param finder Function which finds keys of a batch of expired records.
+     * @param deleter Function which deletes records by keys and returns number of deleted records.
+     * @param timestamp Timestamp before which records are expired.
+     * @return Number of deleted records.
+     */
+    private long deleteInBatches(Function<Pageable, List<String>> finder, BiFunction<List<String>, Date, Integer> deleter, Date timestamp) {
+        int batchSize = configuration.getCleanupBatchSize();
+        long deleted = 0;
+        for (int batch = 0; batch < configuration.getCleanupMaxBatchesPerRun(); batch++) {
+            // Extend the lease before each batch, so that the run does not outlive the lease
+            if (!schedulerLeaseService.tryAcquireLease(LEASE_NAME, configuration.getCleanupLeaseDurationMs())) {
+                logger.warn("Lease for cleanup of expired records was lost, cleanup is stopped");
+                break;
+            }
+            // Deleted records disappear from the result, so the first page is always requested
+            List<String> ids = finder.apply(PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            deleted += deleter.apply(ids, timestamp);
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+        return deleted;
+    }
+
+}
@@ -18,6 +18,7 @@ package io.getlime.security.powerauth.lib.webflow.authentication.service;
 import io.getlime.security.powerauth.app.webflow.i18n.I18NService;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.attribute.*;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ValueFormatType;
+import org.javamoney.moneta.Money;
 import org.springframework.context.NoSuchMessageException;
 import org.springframework.context.support.AbstractMessageSource;
 import org.springframework.stereotype.Service;
@@ -34,7 +35,11 @@ import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 /**
  * Service used for formatting form field attributes.
@@ -44,8 +49,21 @@ import java.util.Locale;
 @Service
 public class ValueFormatterService {
 
+    private static final String CURRENCY_PATTERN_KEY = "currency.pattern";
+    private static final String DEFAULT_CURRENCY_PATTERN = "###0.00";
+    private static final Pattern DATE_PATTERN = Pattern.compile("[0-9]{4}-[0-9]{2}-[0-9]{2}");
+    // Locales are chosen by users, the number of cached locales is limited
+    private static final int MAX_CACHED_LOCALES = 32;
+
     private final I18NService i18NService;
 
+    private final Map<String, CurrencyUnit> currencies = new ConcurrentHashMap<>();
+    private final Map<Locale, Map<String, String>> localizedMessages = new ConcurrentHashMap<>();
+    private volatile long localizedMessagesVersion;
+    private final Map<Locale, DateTimeFormatter> dateFormatters = new ConcurrentHashMap<>();
+    private final ThreadLocal<Map<Locale, Map<String, MonetaryAmountFormat>>> amountFormats = ThreadLocal.withInitial(HashMap::new);
+    private final ThreadLocal<Map<Locale, NumberFormat>> numberFormats = ThreadLocal.withInitial(HashMap::new);
+
     /**
      * Constructor.
      * @param i18NService I18N service.
@@ -157,37 +175,114 @@ public class ValueFormatterService {
             amountAttribute.addFormattedValue("currency", "");
             return;
         }
-        final CurrencyUnit currency;
-        try {
-            currency = Monetary.getCurrency(amountAttribute.getCurrency());
-        } catch (UnknownCurrencyException ex) {
+        final CurrencyUnit currency = getCurrency(amountAttribute.getCurrency());
+        if (currency == null) {
             // ignore errors for unsupported currencies, perform only basic formatting
             amountAttribute.addFormattedValue("amount", formatNumber(amountAttribute.getAmount(), locale));
             amountAttribute.addFormattedValue("currency", amountAttribute.getCurrency());
             return;
         }
-        final MonetaryAmount amount = Monetary.getDefaultAmountFactory().setCurrency(currency).setNumber(amountAttribute.getAmount()).create();
-        final AbstractMessageSource messageSource = i18NService.getMessageSource();
-        String pattern = "###0.00";
+        final MonetaryAmount amount = Money.of(amountAttribute.getAmount(), currency);
+        final Map<String, String> localizedMessages = getLocalizedMessages(locale);
+        final String pattern = localizedMessages.computeIfAbsent(CURRENCY_PATTERN_KEY, key -> localize(key, locale, DEFAULT_CURRENCY_PATTERN));
+        // currency name is not localized when the message is missing - display it as it was sent in the operation
+        final String currencyNameKey = "currency." + currency.getCurrencyCode() + ".name";
+        final String localizedCurrencyName = localizedMessages.computeIfAbsent(currencyNameKey, key -> localize(key, locale, amountAttribute.getCurrency()));
+        final MonetaryAmountFormat format = getAmountFormat(locale, pattern);
+        // append localized currency name
+        amountAttribute.addFormattedValue("amount", format.format(amount));
+        amountAttribute.addFormattedValue("currency", localizedCurrencyName);
+    }
+
+    /**
+     * Get currency unit for currency code. Resolved currencies are cached, so that the currency providers are not
+     * queried for common currencies repeatedly.
+     * @param currencyCode Currency code.
+     * @return Currency unit or null in case currency is not supported.
+     */
+    private CurrencyUnit getCurrency(String currencyCode) {
+        CurrencyUnit currency = currencies.get(currencyCode);
+        if (currency != null) {
+            return currency;
+        }
         try {
-            pattern = messageSource.getMessage("currency.pattern", null, locale);
-        } catch (NoSuchMessageException ex) {
-            // pattern is not specified - use default pattern
+            currency = Monetary.getCurrency(currencyCode);
+        } catch (UnknownCurrencyException ex) {
+            return null;
         }
-        final MonetaryAmountFormat format;
-        String localizedCurrencyName = amountAttribute.getCurrency();
+        // only valid currencies are cached, the number of currencies is limited
+        currencies.putIfAbsent(currencyCode, currency);
+        return currency;
+    }
+
+    /**
+     * Get cache of localized messages used for formatting for given locale. The cache is discarded when messages
+     * are reloaded.
+     * @param locale Used locale.
+     * @return Cache of localized messages.
+     */
+    private Map<String, String> getLocalizedMessages(Locale locale) {
+        final long messagesVersion = i18NService.getMessagesVersion();
+        if (localizedMessagesVersion != messagesVersion) {
+            localizedMessages.clear();
+            localizedMessagesVersion = messagesVersion;
+        }
+        Map<String, String> messages = localizedMessages.get(locale);
+        if (messages == null) {
+            messages = new ConcurrentHashMap<>();
+            if (localizedMessages.size() < MAX_CACHED_LOCALES) {
+                Map<String, String> existingMessages = localizedMessages.putIfAbsent(locale, messages);
+                if (existingMessages != null) {
+                    messages = existingMessages;
+                }
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Localize message by key.
+     * @param key Message key.
+     * @param locale Used locale.
+     * @param defaultValue Default value used when message is missing.
+     * @return Localized message.
+     */
+    private String localize(String key, Locale locale, String defaultValue) {
+        final AbstractMessageSource messageSource = i18NService.getMessageSource();
         try {
-            localizedCurrencyName = messageSource.getMessage("currency." + amountAttribute.getCurrency() + ".name", null, locale);
+            return messageSource.getMessage(key, null, locale);
         } catch (NoSuchMessageException ex) {
-            // currency is not localized - display it as it was sent in the operation
+            return defaultValue;
         }
-        format = MonetaryFormats.getAmountFormat(
-                AmountFormatQueryBuilder.of(locale)
-                        .set("pattern", pattern)
-                        .build());
-        // append localized currency name
-        amountAttribute.addFormattedValue("amount", format.format(amount));
-        amountAttribute.addFormattedValue("currency", localizedCurrencyName);
+    }
+
+    /**
+     * Get amount format for given locale and pattern. Amount formats are expensive to create and they are not
+     * thread-safe, so they are cached for each thread.
+     * @param locale Used locale.
+     * @param pattern Amount pattern.
+     * @return Amount format.
+     */
+    private MonetaryAmountFormat getAmountFormat(Locale locale, String pattern) {
+        final Map<Locale, Map<String, MonetaryAmountFormat>> localeFormats = amountFormats.get();
+        Map<String, MonetaryAmountFormat> formats = localeFormats.get(locale);
+        MonetaryAmountFormat format = formats == null ? null : formats.get(pattern);
+        if (format == null) {
+            format = MonetaryFormats.getAmountFormat(
+                    AmountFormatQueryBuilder.of(locale)
+                            .set("pattern", pattern)
+                            .build());
+            if (formats == null && localeFormats.size() < MAX_CACHED_LOCALES) {
+                formats = new HashMap<>();
+                localeFormats.put(locale, formats);
+            }
+            if (formats != null) {
+                // the pattern changes only when messages are reloaded
+                formats.clear();
+                formats.put(pattern, format);
+            }
+        }
+        return format;
     }
 
     /**
@@ -211,7 +306,14 @@ public class ValueFormatterService {
         if (number==null) {
             return "";
         }
-        NumberFormat numberFormat = NumberFormat.getNumberInstance(locale);
+        Map<Locale, NumberFormat> formats = numberFormats.get();
+        NumberFormat numberFormat = formats.get(locale);
+        if (numberFormat == null) {
+            numberFormat = NumberFormat.getNumberInstance(locale);
+            if (formats.size() < MAX_CACHED_LOCALES) {
+                formats.put(locale, numberFormat);
+            }
+        }
         return numberFormat.format(number.doubleValue());
     }
 
@@ -225,13 +327,19 @@ public class ValueFormatterService {
         if (date == null) {
             return "";
         }
-        if (date.matches("[0-9]{4}-[0-9]{2}-[0-9]{2}")) {
+        if (DATE_PATTERN.matcher(date).matches()) {
             // supported date format for localization
             int year = Integer.parseInt(date.substring(0, 4));
             int month = Integer.parseInt(date.substring(5, 7));
             int day = Integer.parseInt(date.substring(8, 10));
             LocalDate localDate = LocalDate.of(year, month, day);
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM).withLocale(locale);
+            DateTimeFormatter dateFormatter = dateFormatters.get(locale);
+            if (dateFormatter == null) {
+                dateFormatter = DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM).withLocale(locale);
+                if (dateFormatters.size() < MAX_CACHED_LOCALES) {
+                    dateFormatters.putIfAbsent(locale, dateFormatter);
+                }
+            }
             return localDate.format(dateFormatter);
         }
         // in case format is not supported, keep date as is, this is not an error
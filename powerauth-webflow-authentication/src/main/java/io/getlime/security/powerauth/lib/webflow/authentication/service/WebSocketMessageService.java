@@ -1,8 +1,11 @@
 package io.getlime.security.powerauth.lib.webflow.authentication.service;
 
 import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthResult;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.AuthorizationNotification;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.WebSocketSessionRegistration;
 import io.getlime.security.powerauth.lib.webflow.authentication.model.response.WebSocketAuthorizationResponse;
 import io.getlime.security.powerauth.lib.webflow.authentication.model.response.WebSocketRegistrationResponse;
+import io.getlime.security.powerauth.lib.webflow.authentication.notification.AuthorizationNotificationBus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
@@ -21,16 +24,28 @@ public class WebSocketMessageService {
 
     private final SimpMessagingTemplate websocket;
     private final OperationSessionService operationSessionService;
+    private final WebSocketSessionRegistry webSocketSessionRegistry;
+    private final AuthorizationNotificationBus notificationBus;
+    private final OperationChangeWaitService operationChangeWaitService;
 
     /**
      * Service constructor.
      * @param websocket Web Socket simple messaging template.
      * @param operationSessionService Operation to session mapping service.
+     * @param webSocketSessionRegistry Registry of Web Socket sessions connected to this node.
+     * @param notificationBus Bus for delivering notifications to other Web Flow nodes.
+     * @param operationChangeWaitService Service for requests waiting for a change of operation state.
      */
     @Autowired
-    public WebSocketMessageService(SimpMessagingTemplate websocket, OperationSessionService operationSessionService) {
+    public WebSocketMessageService(SimpMessagingTemplate websocket, OperationSessionService operationSessionService,
+                                   WebSocketSessionRegistry webSocketSessionRegistry, AuthorizationNotificationBus notificationBus,
+                                   OperationChangeWaitService operationChangeWaitService) {
         this.websocket = websocket;
         this.operationSessionService = operationSessionService;
+        this.webSocketSessionRegistry = webSocketSessionRegistry;
+        this.notificationBus = notificationBus;
+        this.operationChangeWaitService = operationChangeWaitService;
+        this.notificationBus.setListener(this::deliverAuthorizationComplete);
     }
 
     /**
@@ -53,14 +68,51 @@ public class WebSocketMessageService {
      * @param authResult Authorization result.
      */
     public void notifyAuthorizationComplete(String operationId, AuthResult authResult) {
-        final String webSocketId = operationSessionService.generateOperationHash(operationId);
-        final String sessionId = lookupWebSocketSessionId(webSocketId);
+        AuthorizationNotification notification = new AuthorizationNotification(operationId, authResult);
+        if (notificationBus.isDistributed()) {
+            // Requests waiting for the change or the Web Socket session may be connected to another node
+            deliverAuthorizationComplete(notification);
+            notificationBus.publish(notification);
+            return;
+        }
+        if (deliverAuthorizationComplete(notification)) {
+            return;
+        }
+        final WebSocketSessionRegistration registration = operationSessionService.lookupWebSocketSessionRegistration(operationId);
+        if (registration != null) {
+            sendAuthorizationComplete(registration, authResult);
+        }
+    }
+
+    /**
+     * Deliver notification about completed authorization to Web Socket session connected to this node. Requests
+     * waiting for a change of the operation on this node are completed as well.
+     *
+     * @param notification Authorization notification.
+     * @return Whether Web Socket session for the operation is connected to this node.
+     */
+    private boolean deliverAuthorizationComplete(AuthorizationNotification notification) {
+        operationChangeWaitService.signalChange(notification.getOperationId());
+        final WebSocketSessionRegistration registration = webSocketSessionRegistry.lookupByOperationId(notification.getOperationId());
+        if (registration == null) {
+            return false;
+        }
+        sendAuthorizationComplete(registration, notification.getAuthResult());
+        return true;
+    }
+
+    /**
+     * Send message about completed authorization to the user.
+     *
+     * @param registration Web Socket session registration.
+     * @param authResult Authorization result.
+     */
+    private void sendAuthorizationComplete(WebSocketSessionRegistration registration, AuthResult authResult) {
+        final String sessionId = registration.getWebSocketSessionId();
         WebSocketAuthorizationResponse authorizationResponse = new WebSocketAuthorizationResponse();
-        authorizationResponse.setWebSocketId(webSocketId);
+        authorizationResponse.setWebSocketId(registration.getOperationHash());
         authorizationResponse.setAuthResult(authResult);
-        if (sessionId != null) {
-            websocket.convertAndSendToUser(sessionId, "/topic/authorization", authorizationResponse, createHeaders(sessionId));
-        }
+        websocket.convertAndSendToUser(sessionId, "/topic/authorization", authorizationResponse, createHeaders(sessionId));
     }
 
     /**
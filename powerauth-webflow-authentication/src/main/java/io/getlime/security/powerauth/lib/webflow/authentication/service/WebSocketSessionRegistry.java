@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.service;
+
+import io.getlime.security.powerauth.lib.webflow.authentication.model.WebSocketSessionRegistration;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of Web Socket sessions connected to this node. Registrations are added when a Web Socket session
+ * is registered for an operation and removed when the Web Socket session disconnects. The operation to session
+ * mapping in the database remains the durable source of truth.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+public class WebSocketSessionRegistry {
+
+    private final Map<String, WebSocketSessionRegistration> registrationsByOperationId = new ConcurrentHashMap<>();
+    private final Map<String, WebSocketSessionRegistration> registrationsByOperationHash = new ConcurrentHashMap<>();
+    private final Map<String, WebSocketSessionRegistration> registrationsByWebSocketSessionId = new ConcurrentHashMap<>();
+
+    /**
+     * Add a Web Socket session registration.
+     * @param registration Web Socket session registration.
+     */
+    public void register(WebSocketSessionRegistration registration) {
+        registrationsByWebSocketSessionId.put(registration.getWebSocketSessionId(), registration);
+        registrationsByOperationHash.put(registration.getOperationHash(), registration);
+        registrationsByOperationId.put(registration.getOperationId(), registration);
+    }
+
+    /**
+     * Remove a Web Socket session registration.
+     * @param webSocketSessionId Web Socket session ID.
+     * @return Removed registration or null in case the Web Socket session was not registered on this node.
+     */
+    public WebSocketSessionRegistration unregister(String webSocketSessionId) {
+        WebSocketSessionRegistration registration = registrationsByWebSocketSessionId.remove(webSocketSessionId);
+        if (registration != null) {
+            registrationsByOperationHash.remove(registration.getOperationHash(), registration);
+            registrationsByOperationId.remove(registration.getOperationId(), registration);
+        }
+        return registration;
+    }
+
+    /**
+     * Lookup registration by operation ID.
+     * @param operationId Operation ID.
+     * @return Registration or null in case no Web Socket session is registered for the operation on this node.
+     */
+    public WebSocketSessionRegistration lookupByOperationId(String operationId) {
+        return registrationsByOperationId.get(operationId);
+    }
+
+    /**
+     * Lookup registration by operation hash.
+     * @param operationHash Operation hash.
+     * @return Registration or null in case no Web Socket session is registered for the operation on this node.
+     */
+    public WebSocketSessionRegistration lookupByOperationHash(String operationHash) {
+        return registrationsByOperationHash.get(operationHash);
+    }
+
+    /**
+     * Lookup registration by Web Socket session ID.
+     * @param webSocketSessionId Web Socket session ID.
+     * @return Registration or null in case the Web Socket session is not registered on this node.
+     */
+    public WebSocketSessionRegistration lookupByWebSocketSessionId(String webSocketSessionId) {
+        return registrationsByWebSocketSessionId.get(webSocketSessionId);
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.interceptor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test of circuit breaker interceptor.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class CircuitBreakerInterceptorTest {
+
+    private static final String ENDPOINT = "/api/test";
+    private static final long SLOW_CALL_MS = 50;
+
+    private final MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.POST, URI.create("http://localhost" + ENDPOINT));
+
+    @Test
+    void testSlowBodyIsMeasured() throws IOException {
+        CircuitBreakerInterceptor interceptor = new CircuitBreakerInterceptor("Test", 10, 0,
+                () -> new CircuitBreaker(100, SLOW_CALL_MS, 1, 1, 60000));
+        ClientHttpRequestExecution execution = (request, body) -> new MockClientHttpResponse(new SlowInputStream(SLOW_CALL_MS * 2), HttpStatus.OK);
+        try (ClientHttpResponse response = interceptor.intercept(request, new byte[0], execution)) {
+            // Headers arrive quickly, only reading of the body is slow
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(CircuitBreaker.State.CLOSED, interceptor.getCircuitBreakerStates().get(ENDPOINT));
+            while (response.getBody().read() != -1) {
+                // Read the whole body
+            }
+        }
+        assertEquals(Collections.singletonMap(ENDPOINT, CircuitBreaker.State.OPEN), interceptor.getCircuitBreakerStates());
+        assertThrows(IOException.class, () -> interceptor.intercept(request, new byte[0], execution));
+    }
+
+    @Test
+    void testBulkheadIsReleasedWhenResponseIsClosed() throws IOException {
+        CircuitBreakerInterceptor interceptor = new CircuitBreakerInterceptor("Test", 1, 0,
+                () -> new CircuitBreaker(100, SLOW_CALL_MS, 10, 10, 60000));
+        ClientHttpRequestExecution execution = (request, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+        ClientHttpResponse response = interceptor.intercept(request, new byte[0], execution);
+        // The only slot is taken until the response is closed
+        assertThrows(IOException.class, () -> interceptor.intercept(request, new byte[0], execution));
+        response.close();
+        interceptor.intercept(request, new byte[0], execution).close();
+    }
+
+    @Test
+    void testFailedExecutionIsRecorded() {
+        CircuitBreakerInterceptor interceptor = new CircuitBreakerInterceptor("Test", 1, 0,
+                () -> new CircuitBreaker(100, SLOW_CALL_MS, 1, 1, 60000));
+        ClientHttpRequestExecution execution = (request, body) -> {
+            throw new IOException("Connection refused");
+        };
+        assertThrows(IOException.class, () -> interceptor.intercept(request, new byte[0], execution));
+        assertEquals(CircuitBreaker.State.OPEN, interceptor.getCircuitBreakerStates().get(ENDPOINT));
+    }
+
+    @Test
+    void testFastServerErrorsOpenCircuit() throws IOException {
+        CircuitBreakerInterceptor interceptor = new CircuitBreakerInterceptor("Test", 10, 0,
+                () -> new CircuitBreaker(50, 60000, 4, 4, 60000));
+        ClientHttpRequestExecution execution = (request, body) -> new MockClientHttpResponse("{}".getBytes(), HttpStatus.SERVICE_UNAVAILABLE);
+        for (int i = 0; i < 4; i++) {
+            try (ClientHttpResponse response = interceptor.intercept(request, new byte[0], execution)) {
+                // The error response is still returned to the caller
+                assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+            }
+        }
+        assertEquals(CircuitBreaker.State.OPEN, interceptor.getCircuitBreakerStates().get(ENDPOINT));
+        assertThrows(IOException.class, () -> interceptor.intercept(request, new byte[0], execution));
+    }
+
+    /**
+     * Input stream which delays reading of the single byte of data.
+     */
+    private static class SlowInputStream extends InputStream {
+
+        private final long delayMs;
+        private boolean read;
+
+        SlowInputStream(long delayMs) {
+            this.delayMs = delayMs;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (read) {
+                return -1;
+            }
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException ex) {
+                throw new IOException(ex);
+            }
+            read = true;
+            return 'x';
+        }
+
+    }
+
+}
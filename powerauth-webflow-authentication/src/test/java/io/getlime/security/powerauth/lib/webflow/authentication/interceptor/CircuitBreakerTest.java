@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.interceptor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of circuit breaker state transitions.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class CircuitBreakerTest {
+
+    private static final long SLOW_CALL_MS = 1000;
+
+    @Test
+    void testStaysClosedBelowMinimumCalls() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(50, SLOW_CALL_MS, 10, 5, 60000);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(circuitBreaker.tryAcquirePermission());
+            assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.onResult(1, true));
+        }
+    }
+
+    @Test
+    void testOpensWhenFailureRateReached() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(50, SLOW_CALL_MS, 10, 4, 60000);
+        recordResults(circuitBreaker, false, false, true);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.onResult(1, true));
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void testSlowCallsCountAsFailures() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(100, SLOW_CALL_MS, 2, 2, 60000);
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onResult(SLOW_CALL_MS, false);
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.onResult(SLOW_CALL_MS + 1, false));
+    }
+
+    @Test
+    void testOldResultsLeaveSlidingWindow() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(50, SLOW_CALL_MS, 4, 4, 60000);
+        recordResults(circuitBreaker, true, false, false, false);
+        // The failure is replaced by successful calls, the failure rate stays below the threshold
+        recordResults(circuitBreaker, false, true, false, false);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void testHalfOpenProbeSuccessClosesCircuit() {
+        CircuitBreaker circuitBreaker = openCircuitBreaker();
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        // Only a single probe is permitted in half-open state
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.onResult(1, false));
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        // The sliding window is reset after the circuit closes
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.onResult(1, true));
+    }
+
+    @Test
+    void testHalfOpenProbeFailureOpensCircuit() {
+        CircuitBreaker circuitBreaker = openCircuitBreaker();
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.onResult(1, true));
+    }
+
+    @Test
+    void testRejectsCallsWhileOpen() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(50, SLOW_CALL_MS, 2, 2, 60000);
+        recordResults(circuitBreaker, true, true);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        // Results of calls which started before the circuit opened are ignored
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.onResult(1, false));
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    /**
+     * Create a circuit breaker which is open and permits a probe call immediately.
+     * @return Open circuit breaker.
+     */
+    private CircuitBreaker openCircuitBreaker() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(50, SLOW_CALL_MS, 2, 2, 0);
+        recordResults(circuitBreaker, true, true);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        return circuitBreaker;
+    }
+
+    private void recordResults(CircuitBreaker circuitBreaker, boolean... failures) {
+        for (boolean failure: failures) {
+            assertTrue(circuitBreaker.tryAcquirePermission());
+            circuitBreaker.onResult(1, failure);
+        }
+    }
+
+}
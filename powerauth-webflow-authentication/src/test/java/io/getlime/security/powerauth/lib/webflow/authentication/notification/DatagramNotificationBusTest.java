@@ -0,0 +1,163 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.notification;
+
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthResult;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.AuthorizationNotification;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.TokenEvictionNotification;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.TokenEvictionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test of notification delivery between multiple Web Flow nodes running in a single JVM.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class DatagramNotificationBusTest {
+
+    private static final int NODE_COUNT = 3;
+    private static final byte[] SECRET = "cluster-secret".getBytes(StandardCharsets.UTF_8);
+
+    private final List<DatagramNotificationBus> nodes = new ArrayList<>();
+    private final List<BlockingQueue<AuthorizationNotification>> received = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SocketException {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (int i = 0; i < NODE_COUNT; i++) {
+            DatagramNotificationBus node = startNode(SECRET);
+            nodes.add(node);
+            BlockingQueue<AuthorizationNotification> queue = new LinkedBlockingQueue<>();
+            node.setListener(queue::add);
+            received.add(queue);
+            addresses.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), node.getLocalPort()));
+        }
+        for (DatagramNotificationBus node: nodes) {
+            node.setPeers(addresses);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(DatagramNotificationBus::close);
+    }
+
+    @Test
+    void testNotificationDeliveredToOtherNodes() throws InterruptedException {
+        long startTime = System.nanoTime();
+        nodes.get(0).publish(new AuthorizationNotification("operation-1", AuthResult.DONE));
+        for (int i = 1; i < NODE_COUNT; i++) {
+            AuthorizationNotification notification = received.get(i).poll(1, TimeUnit.SECONDS);
+            assertNotNull(notification);
+            assertEquals("operation-1", notification.getOperationId());
+            assertEquals(AuthResult.DONE, notification.getAuthResult());
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) < 1000);
+        // Node does not receive its own notifications
+        assertNull(received.get(0).poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testTokenEvictionDeliveredToOtherNodes() throws InterruptedException {
+        List<BlockingQueue<TokenEvictionNotification>> evictions = new ArrayList<>();
+        for (DatagramNotificationBus node: nodes) {
+            BlockingQueue<TokenEvictionNotification> queue = new LinkedBlockingQueue<>();
+            node.setTokenEvictionListener(queue::add);
+            evictions.add(queue);
+        }
+        nodes.get(0).publishTokenEviction(new TokenEvictionNotification(TokenEvictionType.REFRESH_TOKEN, "token-key"));
+        for (int i = 1; i < NODE_COUNT; i++) {
+            TokenEvictionNotification notification = evictions.get(i).poll(1, TimeUnit.SECONDS);
+            assertNotNull(notification);
+            assertEquals(TokenEvictionType.REFRESH_TOKEN, notification.getTokenType());
+            assertEquals("token-key", notification.getTokenKey());
+            // Token evictions are not delivered as authorization notifications
+            assertNull(received.get(i).poll(100, TimeUnit.MILLISECONDS));
+        }
+        assertNull(evictions.get(0).poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testNotificationWithInvalidSecretIgnored() throws InterruptedException, SocketException {
+        DatagramNotificationBus foreignNode = startNode("other-secret".getBytes(StandardCharsets.UTF_8));
+        try {
+            foreignNode.setPeers(Collections.singletonList(new InetSocketAddress(InetAddress.getLoopbackAddress(), nodes.get(0).getLocalPort())));
+            foreignNode.publish(new AuthorizationNotification("operation-2", AuthResult.FAILED));
+            assertNull(received.get(0).poll(200, TimeUnit.MILLISECONDS));
+        } finally {
+            foreignNode.close();
+        }
+    }
+
+    @Test
+    void testReplayedNotificationIgnored() throws IOException, InterruptedException {
+        try (DatagramSocket attacker = new DatagramSocket(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            attacker.setSoTimeout(1000);
+            nodes.get(0).setPeers(Collections.singletonList(new InetSocketAddress(InetAddress.getLoopbackAddress(), attacker.getLocalPort())));
+            nodes.get(0).publish(new AuthorizationNotification("operation-3", AuthResult.DONE));
+            byte[] buffer = new byte[1024];
+            DatagramPacket captured = new DatagramPacket(buffer, buffer.length);
+            attacker.receive(captured);
+            byte[] datagram = Arrays.copyOf(captured.getData(), captured.getLength());
+            InetSocketAddress target = new InetSocketAddress(InetAddress.getLoopbackAddress(), nodes.get(1).getLocalPort());
+            attacker.send(new DatagramPacket(datagram, datagram.length, target));
+            attacker.send(new DatagramPacket(datagram, datagram.length, target));
+            assertNotNull(received.get(1).poll(1, TimeUnit.SECONDS));
+            assertNull(received.get(1).poll(200, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    void testParsePeers() {
+        List<InetSocketAddress> peers = DatagramNotificationBus.parsePeers(" 127.0.0.1:9001, localhost, [::1]:9002, ::1,", 9000);
+        assertEquals(4, peers.size());
+        assertEquals(new InetSocketAddress("127.0.0.1", 9001), peers.get(0));
+        assertEquals(new InetSocketAddress("localhost", 9000), peers.get(1));
+        assertEquals(new InetSocketAddress("::1", 9002), peers.get(2));
+        assertEquals(new InetSocketAddress("::1", 9000), peers.get(3));
+        assertTrue(DatagramNotificationBus.parsePeers("", 9000).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> DatagramNotificationBus.parsePeers("localhost:port", 9000));
+        assertThrows(IllegalArgumentException.class, () -> DatagramNotificationBus.parsePeers("localhost:9000/path", 9000));
+    }
+
+    private DatagramNotificationBus startNode(byte[] secret) throws SocketException {
+        DatagramNotificationBus node = new DatagramNotificationBus(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                Collections.emptyList(), secret, 30000);
+        node.start();
+        return node;
+    }
+
+}
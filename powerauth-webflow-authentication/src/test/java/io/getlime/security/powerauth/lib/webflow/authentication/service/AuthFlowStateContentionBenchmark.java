@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.service;
+
+import io.getlime.security.powerauth.lib.webflow.authentication.model.AuthFlowState;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+
+import javax.servlet.http.HttpSession;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Benchmark comparing throughput of authentication flow state access by concurrent users with a lock shared
+ * by all HTTP sessions and with the per-session authentication flow state. The benchmark is run only using
+ * the benchmark profile.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class AuthFlowStateContentionBenchmark {
+
+    private static final long WARMUP_MS = 200;
+    private static final long MEASUREMENT_MS = 500;
+
+    private final AuthFlowStateService authFlowStateService = new AuthFlowStateService(new HttpSessionAuthFlowStateStore());
+    private final Object sharedLock = new Object();
+
+    @Test
+    void benchmarkContention() throws InterruptedException {
+        int maxThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            long sharedLockThroughput = measure(threads, this::accessWithSharedLock);
+            long authFlowStateThroughput = measure(threads, this::accessWithAuthFlowState);
+            System.out.printf("threads: %2d, shared lock: %8d ops/ms, per-session state: %8d ops/ms%n",
+                    threads, sharedLockThroughput, authFlowStateThroughput);
+        }
+    }
+
+    /**
+     * Simulate a SMS authorization step using attributes guarded by a lock shared by all HTTP sessions.
+     */
+    private void accessWithSharedLock(HttpSession session) {
+        Long timestamp;
+        synchronized (sharedLock) {
+            timestamp = (Long) session.getAttribute("LAST_MESSAGE_TIMESTAMP");
+        }
+        synchronized (sharedLock) {
+            session.setAttribute("MESSAGE_ID", "message");
+        }
+        synchronized (sharedLock) {
+            session.setAttribute("LAST_MESSAGE_TIMESTAMP", timestamp == null ? 1L : timestamp + 1);
+        }
+    }
+
+    /**
+     * Simulate a SMS authorization step using the per-session authentication flow state.
+     */
+    private void accessWithAuthFlowState(HttpSession session) {
+        AuthFlowState state = authFlowStateService.getAuthFlowState(session);
+        Long timestamp = state.getLastMessageTimestamp();
+        state.setMessageId("message");
+        state.setLastMessageTimestamp(timestamp == null ? 1L : timestamp + 1);
+    }
+
+    /**
+     * Measure throughput of concurrent users, each user has its own HTTP session.
+     * @param threads Number of concurrent users.
+     * @param operation Operation executed by users.
+     * @return Throughput in operations per millisecond.
+     */
+    private long measure(int threads, Consumer<HttpSession> operation) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicBoolean measuring = new AtomicBoolean(false);
+        LongAdder operations = new LongAdder();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                HttpSession session = new MockHttpSession();
+                while (running.get()) {
+                    operation.accept(session);
+                    if (measuring.get()) {
+                        operations.increment();
+                    }
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        TimeUnit.MILLISECONDS.sleep(WARMUP_MS);
+        measuring.set(true);
+        TimeUnit.MILLISECONDS.sleep(MEASUREMENT_MS);
+        measuring.set(false);
+        running.set(false);
+        for (Thread worker: workers) {
+            worker.join();
+        }
+        return operations.sum() / MEASUREMENT_MS;
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.service;
+
+import io.getlime.security.powerauth.lib.dataadapter.model.response.AuthStepOptions;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.AuthFlowState;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.HttpSessionAttributeNames;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+
+import javax.servlet.http.HttpSession;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test of authentication flow state kept in HTTP session attributes.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class AuthFlowStateServiceTest {
+
+    private final AuthFlowStateService authFlowStateService = new AuthFlowStateService(new HttpSessionAuthFlowStateStore());
+
+    @Test
+    void testStateIsCreatedOncePerSession() throws InterruptedException {
+        HttpSession session = new MockHttpSession();
+        List<AuthFlowState> states = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                AuthFlowState state = authFlowStateService.getAuthFlowState(session);
+                synchronized (states) {
+                    states.add(state);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread: threads) {
+            thread.join();
+        }
+        assertEquals(8, states.size());
+        states.forEach(state -> assertSame(states.get(0), state));
+    }
+
+    @Test
+    void testChangesAreWrittenBackToSession() {
+        AttributeCountingHttpSession session = new AttributeCountingHttpSession();
+        AuthFlowState state = authFlowStateService.getAuthFlowState(session);
+        int setAttributeCount = session.setAttributeCount;
+        state.setMessageId("message");
+        assertEquals(setAttributeCount + 1, session.setAttributeCount);
+        state.clearAuthSteps();
+        assertEquals(setAttributeCount + 2, session.setAttributeCount);
+    }
+
+    @Test
+    void testChangesAreWrittenBackAfterReplication() throws IOException, ClassNotFoundException {
+        MockHttpSession session = new MockHttpSession();
+        AuthFlowState state = authFlowStateService.getAuthFlowState(session);
+        state.setAuthStepOptions(new AuthStepOptions(true, false));
+        state.setUsername("user");
+
+        // Simulate replication of the HTTP session to another node
+        AttributeCountingHttpSession replicatedSession = new AttributeCountingHttpSession();
+        replicatedSession.setAttribute(HttpSessionAttributeNames.AUTH_FLOW_STATE, serializeAndDeserialize(state));
+        AuthFlowState replicatedState = authFlowStateService.getAuthFlowState(replicatedSession);
+        assertNotNull(replicatedState.getAuthStepOptions());
+        assertTrue(replicatedState.getAuthStepOptions().isSmsOtpRequired());
+        assertFalse(replicatedState.getAuthStepOptions().isPasswordRequired());
+        assertEquals("user", replicatedState.getUsername());
+
+        int setAttributeCount = replicatedSession.setAttributeCount;
+        replicatedState.setConsentSkipped(true);
+        assertEquals(setAttributeCount + 1, replicatedSession.setAttributeCount);
+    }
+
+    private AuthFlowState serializeAndDeserialize(AuthFlowState state) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(state);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (AuthFlowState) in.readObject();
+        }
+    }
+
+    /**
+     * HTTP session which counts updates of attributes.
+     */
+    private static class AttributeCountingHttpSession extends MockHttpSession {
+
+        private int setAttributeCount;
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            setAttributeCount++;
+            super.setAttribute(name, value);
+        }
+
+    }
+
+}
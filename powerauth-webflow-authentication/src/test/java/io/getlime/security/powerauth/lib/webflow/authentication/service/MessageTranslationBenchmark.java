@@ -0,0 +1,190 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.getlime.security.powerauth.lib.webflow.authentication.service;
+
+import io.getlime.security.powerauth.app.webflow.i18n.I18NService;
+import io.getlime.security.powerauth.app.webflow.i18n.ReloadableResourceBundleMessageSourceWithListing;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.OperationFormData;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.attribute.OperationFormBanner;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.BannerType;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.InvalidOperationDataException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.text.CharacterIterator;
+import java.text.StringCharacterIterator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark comparing translation of form data messages by parsing each localized message on every request
+ * with rendering of precompiled message templates. The benchmark is run only using the benchmark profile.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class MessageTranslationBenchmark {
+
+    private static final int FIELD_COUNT = 40;
+    private static final int WARMUP_ITERATIONS = 2000;
+    private static final int MEASURED_ITERATIONS = 5000;
+
+    private final Map<String, String> messages = new HashMap<>();
+    private I18NService i18nService;
+    private MessageTranslationService messageTranslationService;
+
+    @BeforeEach
+    void setUp() {
+        messages.put("operation.title", "Payment of {operation.amount} {operation.currency}");
+        messages.put("operation.greeting", "Hello,\nplease confirm the payment of {operation.amount} {operation.currency} to account {operation.account}.");
+        messages.put("operation.summary", "Hello, please confirm the payment of {operation.amount} {operation.currency} to account {operation.account} due {operation.dueDate} with note {operation.note}.");
+        messages.put("operation.amount", "Amount");
+        messages.put("operation.currency", "Currency");
+        messages.put("operation.account", "To Account");
+        messages.put("operation.dueDate", "Due Date");
+        messages.put("operation.note", "Note");
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            messages.put("operation.detail" + i, "Payment detail " + i);
+            messages.put("operation.banner" + i, "Please check the account {operation.account} and amount {operation.amount} {operation.currency}, detail: {operation.detail" + i + "}.");
+        }
+        ReloadableResourceBundleMessageSourceWithListing messageSource = new ReloadableResourceBundleMessageSourceWithListing() {
+            @Override
+            protected String resolveCodeWithoutArguments(String code, Locale locale) {
+                return messages.get(code);
+            }
+        };
+        i18nService = new I18NService();
+        ReflectionTestUtils.setField(i18nService, "messageSource", messageSource);
+        messageTranslationService = new MessageTranslationService(i18nService, new ValueFormatterService(i18nService));
+        LocaleContextHolder.setLocale(Locale.ENGLISH);
+    }
+
+    @Test
+    void benchmarkTranslation() throws InvalidOperationDataException {
+        Map<String, String> valueMap = createValueMap();
+        String[] keys = messages.keySet().toArray(new String[0]);
+        Map<String, MessageTemplate> templates = new HashMap<>();
+        for (String key: keys) {
+            templates.put(key, MessageTemplate.compile(messages.get(key)));
+            assertEquals(parseMessage(messages.get(key), valueMap), templates.get(key).render(valueMap, "MISSING_VALUE_FOR_FIELD"));
+        }
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            for (String key: keys) {
+                parseMessage(i18nService.getMessageSource().getMessage(key, null, Locale.ENGLISH), valueMap);
+                templates.get(key).render(valueMap, "MISSING_VALUE_FOR_FIELD");
+            }
+        }
+        long parseStart = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            for (String key: keys) {
+                parseMessage(i18nService.getMessageSource().getMessage(key, null, Locale.ENGLISH), valueMap);
+            }
+        }
+        long parseTime = System.nanoTime() - parseStart;
+        long renderStart = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            for (String key: keys) {
+                templates.get(key).render(valueMap, "MISSING_VALUE_FOR_FIELD");
+            }
+        }
+        long renderTime = System.nanoTime() - renderStart;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            messageTranslationService.translateFormData(createFormData());
+        }
+        long formStart = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            messageTranslationService.translateFormData(createFormData());
+        }
+        long formTime = System.nanoTime() - formStart;
+        OperationFormData formData = createFormData();
+        messageTranslationService.translateFormData(formData);
+        assertEquals(parseMessage(messages.get("operation.summary"), valueMap), formData.getSummary().getMessage());
+        System.out.printf("messages: %d, parse per request: %8d ns/op, precompiled templates: %8d ns/op, translateFormData: %8d ns/op%n",
+                keys.length, parseTime / MEASURED_ITERATIONS, renderTime / MEASURED_ITERATIONS, formTime / MEASURED_ITERATIONS);
+    }
+
+    private Map<String, String> createValueMap() {
+        Map<String, String> valueMap = new HashMap<>();
+        valueMap.put("operation.amount", "100");
+        valueMap.put("operation.currency", "CZK");
+        valueMap.put("operation.account", "238400856/0300");
+        valueMap.put("operation.dueDate", "2017-06-29");
+        valueMap.put("operation.note", "Utility Bill Payment - 05/2017");
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            valueMap.put("operation.detail" + i, "Detail value " + i);
+        }
+        return valueMap;
+    }
+
+    private OperationFormData createFormData() {
+        OperationFormData formData = new OperationFormData();
+        formData.addTitle("operation.title");
+        formData.addGreeting("operation.greeting");
+        formData.addSummary("operation.summary");
+        try {
+            formData.addAmount("operation.amount", new BigDecimal("100"), "operation.currency", "CZK");
+        } catch (InvalidOperationDataException ex) {
+            throw new IllegalStateException(ex);
+        }
+        formData.addKeyValue("operation.account", "238400856/0300");
+        formData.addKeyValue("operation.dueDate", "2017-06-29");
+        formData.addNote("operation.note", "Utility Bill Payment - 05/2017");
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            formData.addKeyValue("operation.detail" + i, "Detail value " + i);
+            formData.getBanners().add(new OperationFormBanner("operation.banner" + i, BannerType.BANNER_INFO, null));
+        }
+        return formData;
+    }
+
+    /**
+     * Original implementation which parses the message on each call.
+     */
+    private String parseMessage(String message, Map<String, String> valueMap) {
+        CharacterIterator iterator = new StringCharacterIterator(message);
+        StringBuilder messageBuilder = new StringBuilder();
+        StringBuilder keyBuilder = new StringBuilder();
+        boolean betweenBrackets = false;
+        char c = iterator.first();
+        while (c != CharacterIterator.DONE) {
+            if (c == '{') {
+                betweenBrackets = true;
+                keyBuilder = new StringBuilder();
+            } else if (c == '}') {
+                String key = keyBuilder.toString();
+                String value = valueMap.get(key);
+                if (value == null) {
+                    value = "MISSING_VALUE_FOR_FIELD: " + key;
+                }
+                messageBuilder.append(value);
+                betweenBrackets = false;
+            } else {
+                if (betweenBrackets) {
+                    keyBuilder.append(c);
+                } else {
+                    messageBuilder.append(c);
+                }
+            }
+            c = iterator.next();
+        }
+        return messageBuilder.toString();
+    }
+
+}
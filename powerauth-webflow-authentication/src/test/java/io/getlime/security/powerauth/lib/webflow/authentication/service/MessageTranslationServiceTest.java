@@ -0,0 +1,166 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.service;
+
+import io.getlime.security.powerauth.app.webflow.i18n.I18NService;
+import io.getlime.security.powerauth.app.webflow.i18n.ReloadableResourceBundleMessageSourceWithListing;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.OperationFormData;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.attribute.OperationFormBanner;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.attribute.OperationFormFieldAttribute;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.BannerType;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.InvalidOperationDataException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test of translation of form data messages.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class MessageTranslationServiceTest {
+
+    private final Map<String, String> messages = new HashMap<>();
+    private I18NService i18nService;
+    private MessageTranslationService messageTranslationService;
+
+    @BeforeEach
+    void setUp() {
+        messages.put("operation.title", "Payment of {operation.amount} {operation.currency}");
+        messages.put("operation.greeting", "Hello,\nplease confirm the payment to account {operation.account}.");
+        messages.put("operation.summary", "Payment of {operation.amount} {operation.currency} with note {operation.note} and {operation.missing}");
+        messages.put("operation.amount", "Amount");
+        messages.put("operation.currency", "Currency");
+        messages.put("operation.account", "To Account");
+        messages.put("operation.note", "Note");
+        messages.put("operation.banner", "Please check the account {operation.account}.");
+        ReloadableResourceBundleMessageSourceWithListing messageSource = new ReloadableResourceBundleMessageSourceWithListing() {
+            @Override
+            protected String resolveCodeWithoutArguments(String code, Locale locale) {
+                return messages.get(code);
+            }
+        };
+        i18nService = new I18NService();
+        ReflectionTestUtils.setField(i18nService, "messageSource", messageSource);
+        messageTranslationService = new MessageTranslationService(i18nService, new ValueFormatterService(i18nService));
+        LocaleContextHolder.setLocale(Locale.ENGLISH);
+    }
+
+    @AfterEach
+    void tearDown() {
+        LocaleContextHolder.resetLocaleContext();
+    }
+
+    @Test
+    void testTemplateRendering() {
+        Map<String, String> valueMap = new HashMap<>();
+        valueMap.put("a", "1");
+        valueMap.put("b", "2");
+        assertEquals("", render("", valueMap));
+        assertEquals("plain text", render("plain text", valueMap));
+        assertEquals("1", render("{a}", valueMap));
+        assertEquals("x1y2z", render("x{a}y{b}z", valueMap));
+        assertEquals("12", render("{a}{b}", valueMap));
+        assertEquals("MISSING_VALUE_FOR_FIELD: missing", render("{missing}", valueMap));
+        assertEquals("open ", render("open {a", valueMap));
+        assertEquals("1", render("{{a}", valueMap));
+        assertEquals("2", render("{a{b}", valueMap));
+        assertEquals("MISSING_VALUE_FOR_FIELD: ", render("{}", valueMap));
+    }
+
+    @Test
+    void testTranslateFormData() {
+        OperationFormData formData = createFormData();
+        messageTranslationService.translateFormData(formData);
+        assertEquals("Payment of 100 CZK", formData.getTitle().getMessage());
+        assertEquals("Hello,\nplease confirm the payment to account 238400856/0300.", formData.getGreeting().getMessage());
+        assertEquals("Payment of 100 CZK with note Utility Bill Payment and MISSING_VALUE_FOR_FIELD: operation.missing", formData.getSummary().getMessage());
+        assertEquals("Please check the account 238400856/0300.", formData.getBanners().get(0).getMessage());
+        OperationFormFieldAttribute amount = formData.getParameters().get(0);
+        assertEquals("Amount", amount.getLabel());
+        OperationFormFieldAttribute note = formData.getParameters().get(2);
+        assertEquals("Note", note.getLabel());
+    }
+
+    @Test
+    void testMissingLocalization() {
+        OperationFormData formData = new OperationFormData();
+        formData.addTitle("operation.unknown");
+        formData.addGreeting("operation.greeting");
+        formData.addSummary("operation.summary");
+        messageTranslationService.translateFormData(formData);
+        assertEquals("MISSING_LOCALIZATION_FOR_FIELD: operation.unknown", formData.getTitle().getMessage());
+    }
+
+    @Test
+    void testTemplatesDiscardedAfterReload() {
+        OperationFormData formData = createFormData();
+        messageTranslationService.translateFormData(formData);
+        assertEquals("Payment of 100 CZK", formData.getTitle().getMessage());
+
+        messages.put("operation.title", "Transfer of {operation.amount} {operation.currency}");
+        formData = createFormData();
+        messageTranslationService.translateFormData(formData);
+        assertEquals("Payment of 100 CZK", formData.getTitle().getMessage());
+
+        i18nService.reloadMessages();
+        formData = createFormData();
+        messageTranslationService.translateFormData(formData);
+        assertEquals("Transfer of 100 CZK", formData.getTitle().getMessage());
+    }
+
+    @Test
+    void testManyLocales() {
+        // Locales over the limit of cached locales are translated without caching the templates
+        for (int i = 0; i < 100; i++) {
+            LocaleContextHolder.setLocale(new Locale("x" + i));
+            OperationFormData formData = createFormData();
+            messageTranslationService.translateFormData(formData);
+            assertEquals("Payment of 100 CZK", formData.getTitle().getMessage());
+        }
+    }
+
+    private String render(String message, Map<String, String> valueMap) {
+        return MessageTemplate.compile(message).render(valueMap, "MISSING_VALUE_FOR_FIELD");
+    }
+
+    private OperationFormData createFormData() {
+        OperationFormData formData = new OperationFormData();
+        formData.addTitle("operation.title");
+        formData.addGreeting("operation.greeting");
+        formData.addSummary("operation.summary");
+        try {
+            formData.addAmount("operation.amount", new BigDecimal("100"), "operation.currency", "CZK");
+        } catch (InvalidOperationDataException ex) {
+            throw new IllegalStateException(ex);
+        }
+        formData.addKeyValue("operation.account", "238400856/0300");
+        formData.addNote("operation.note", "Utility Bill Payment");
+        formData.getBanners().add(new OperationFormBanner("operation.banner", BannerType.BANNER_INFO, null));
+        return formData;
+    }
+
+}
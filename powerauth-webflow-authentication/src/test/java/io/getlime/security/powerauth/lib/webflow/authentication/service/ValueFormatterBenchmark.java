@@ -0,0 +1,186 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.getlime.security.powerauth.lib.webflow.authentication.service;
+
+import io.getlime.security.powerauth.app.webflow.i18n.I18NService;
+import io.getlime.security.powerauth.app.webflow.i18n.ReloadableResourceBundleMessageSourceWithListing;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.attribute.OperationAmountFieldAttribute;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.attribute.OperationFormFieldAttributeFormatted;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.attribute.OperationKeyValueFieldAttribute;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ValueFormatType;
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.money.CurrencyUnit;
+import javax.money.Monetary;
+import javax.money.MonetaryAmount;
+import javax.money.format.AmountFormatQueryBuilder;
+import javax.money.format.MonetaryAmountFormat;
+import javax.money.format.MonetaryFormats;
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Benchmark comparing formatting of AMOUNT, NUMBER and DATE values with formatters created on each call
+ * and with cached formatters. The benchmark is run only using the benchmark profile.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class ValueFormatterBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 2000;
+    private static final int MEASURED_ITERATIONS = 10000;
+    private static final Locale[] LOCALES = {Locale.ENGLISH, new Locale("cs")};
+
+    private final Map<String, String> messages = new HashMap<>();
+    private I18NService i18nService;
+    private ValueFormatterService valueFormatterService;
+
+    @BeforeEach
+    void setUp() {
+        messages.put("currency.pattern", "#,##0.00");
+        messages.put("currency.CZK.name", "CZK");
+        messages.put("currency.EUR.name", "EUR");
+        ReloadableResourceBundleMessageSourceWithListing messageSource = new ReloadableResourceBundleMessageSourceWithListing() {
+            @Override
+            protected String resolveCodeWithoutArguments(String code, Locale locale) {
+                return messages.get(code);
+            }
+        };
+        i18nService = new I18NService();
+        ReflectionTestUtils.setField(i18nService, "messageSource", messageSource);
+        valueFormatterService = new ValueFormatterService(i18nService);
+    }
+
+    @Test
+    void benchmarkFormatting() {
+        benchmark("AMOUNT", this::amount, this::formatAmount);
+        benchmark("NUMBER", this::number, this::formatNumber);
+        benchmark("DATE", this::date, this::formatDate);
+    }
+
+    private void benchmark(String name, AttributeFactory factory, AttributeFormatter baseline) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            baseline.format(factory.create(), LOCALES[i % LOCALES.length]);
+            format(factory.create(), LOCALES[i % LOCALES.length]);
+        }
+        long baselineStart = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            baseline.format(factory.create(), LOCALES[i % LOCALES.length]);
+        }
+        long baselineTime = System.nanoTime() - baselineStart;
+        long cachedStart = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            format(factory.create(), LOCALES[i % LOCALES.length]);
+        }
+        long cachedTime = System.nanoTime() - cachedStart;
+        System.out.printf("%-6s new formatter per call: %7d ns/op, cached formatters: %7d ns/op%n", name,
+                baselineTime / MEASURED_ITERATIONS, cachedTime / MEASURED_ITERATIONS);
+    }
+
+    private Map<String, String> format(OperationFormFieldAttributeFormatted attribute, Locale locale) {
+        valueFormatterService.addFormattedValue(attribute, locale);
+        return attribute.getFormattedValues();
+    }
+
+    private OperationAmountFieldAttribute amount() {
+        return amount("CZK");
+    }
+
+    private OperationAmountFieldAttribute amount(String currency) {
+        OperationAmountFieldAttribute attribute = new OperationAmountFieldAttribute();
+        attribute.setAmount(new BigDecimal("12345.6"));
+        attribute.setCurrency(currency);
+        return attribute;
+    }
+
+    private OperationKeyValueFieldAttribute number() {
+        OperationKeyValueFieldAttribute attribute = new OperationKeyValueFieldAttribute(ValueFormatType.NUMBER);
+        attribute.setValue("1234567.891");
+        return attribute;
+    }
+
+    private OperationKeyValueFieldAttribute date() {
+        OperationKeyValueFieldAttribute attribute = new OperationKeyValueFieldAttribute(ValueFormatType.DATE);
+        attribute.setValue("2017-06-29");
+        return attribute;
+    }
+
+    /**
+     * Original implementation which resolves the currency, messages and amount format on each call.
+     */
+    private Map<String, String> formatAmount(OperationFormFieldAttributeFormatted attribute, Locale locale) {
+        OperationAmountFieldAttribute amountAttribute = (OperationAmountFieldAttribute) attribute;
+        Map<String, String> result = new HashMap<>();
+        final CurrencyUnit currency;
+        try {
+            currency = Monetary.getCurrency(amountAttribute.getCurrency());
+        } catch (Exception ex) {
+            result.put("amount", NumberFormat.getNumberInstance(locale).format(amountAttribute.getAmount().doubleValue()));
+            result.put("currency", amountAttribute.getCurrency());
+            return result;
+        }
+        MonetaryAmount amount = Monetary.getDefaultAmountFactory().setCurrency(currency).setNumber(amountAttribute.getAmount()).create();
+        String pattern = messages.get("currency.pattern");
+        String currencyName = messages.get("currency." + currency.getCurrencyCode() + ".name");
+        if (currencyName == null) {
+            currencyName = amountAttribute.getCurrency();
+        }
+        MonetaryAmountFormat format = MonetaryFormats.getAmountFormat(AmountFormatQueryBuilder.of(locale).set("pattern", pattern).build());
+        result.put("amount", format.format(amount));
+        result.put("currency", currencyName);
+        return result;
+    }
+
+    /**
+     * Original implementation which creates the number format on each call.
+     */
+    private Map<String, String> formatNumber(OperationFormFieldAttributeFormatted attribute, Locale locale) {
+        String value = ((OperationKeyValueFieldAttribute) attribute).getValue();
+        Map<String, String> result = new HashMap<>();
+        result.put("value", NumberFormat.getNumberInstance(locale).format(new BigDecimal(value).doubleValue()));
+        return result;
+    }
+
+    /**
+     * Original implementation which compiles the date pattern and creates the date formatter on each call.
+     */
+    private Map<String, String> formatDate(OperationFormFieldAttributeFormatted attribute, Locale locale) {
+        String value = ((OperationKeyValueFieldAttribute) attribute).getValue();
+        Map<String, String> result = new HashMap<>();
+        if (value.matches("[0-9]{4}-[0-9]{2}-[0-9]{2}")) {
+            result.put("value", LocalDate.parse(value).format(DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM).withLocale(locale)));
+        }
+        return result;
+    }
+
+    private interface AttributeFactory {
+        OperationFormFieldAttributeFormatted create();
+    }
+
+    private interface AttributeFormatter {
+        Map<String, String> format(OperationFormFieldAttributeFormatted attribute, Locale locale);
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.lib.webflow.authentication.service;
+
+import io.getlime.security.powerauth.app.webflow.i18n.I18NService;
+import io.getlime.security.powerauth.app.webflow.i18n.ReloadableResourceBundleMessageSourceWithListing;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.attribute.OperationAmountFieldAttribute;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.attribute.OperationFormFieldAttributeFormatted;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.attribute.OperationKeyValueFieldAttribute;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ValueFormatType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test of formatting of AMOUNT, NUMBER and DATE values.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class ValueFormatterServiceTest {
+
+    private final Map<String, String> messages = new HashMap<>();
+    private I18NService i18nService;
+    private ValueFormatterService valueFormatterService;
+
+    @BeforeEach
+    void setUp() {
+        messages.put("currency.pattern", "#,##0.00");
+        messages.put("currency.CZK.name", "Kč");
+        ReloadableResourceBundleMessageSourceWithListing messageSource = new ReloadableResourceBundleMessageSourceWithListing() {
+            @Override
+            protected String resolveCodeWithoutArguments(String code, Locale locale) {
+                return messages.get(code);
+            }
+        };
+        i18nService = new I18NService();
+        ReflectionTestUtils.setField(i18nService, "messageSource", messageSource);
+        valueFormatterService = new ValueFormatterService(i18nService);
+    }
+
+    @Test
+    void testFormatAmount() {
+        Map<String, String> formattedValues = format(amount("CZK"), Locale.ENGLISH);
+        assertEquals("12,345.60", formattedValues.get("amount"));
+        assertEquals("Kč", formattedValues.get("currency"));
+        // Czech locale uses a space as grouping separator and a comma as decimal separator
+        assertEquals("12 345,60", normalizeSpaces(format(amount("CZK"), new Locale("cs")).get("amount")));
+    }
+
+    @Test
+    void testFormatAmountWithoutCurrencyName() {
+        Map<String, String> formattedValues = format(amount("USD"), Locale.ENGLISH);
+        assertEquals("12,345.60", formattedValues.get("amount"));
+        assertEquals("USD", formattedValues.get("currency"));
+    }
+
+    @Test
+    void testFormatAmountUnknownCurrency() {
+        Map<String, String> formattedValues = format(amount("XYZ"), Locale.ENGLISH);
+        assertEquals("12,345.6", formattedValues.get("amount"));
+        assertEquals("XYZ", formattedValues.get("currency"));
+    }
+
+    @Test
+    void testFormatNumber() {
+        assertEquals("1,234,567.891", format(keyValue(ValueFormatType.NUMBER, "1234567.891"), Locale.ENGLISH).get("value"));
+        assertEquals("1 234 567,891", normalizeSpaces(format(keyValue(ValueFormatType.NUMBER, "1234567.891"), new Locale("cs")).get("value")));
+    }
+
+    @Test
+    void testFormatDate() {
+        assertEquals("Jun 29, 2017", format(keyValue(ValueFormatType.DATE, "2017-06-29"), Locale.ENGLISH).get("value"));
+        // Unsupported date format is kept as is
+        assertEquals("29.06.2017", format(keyValue(ValueFormatType.DATE, "29.06.2017"), Locale.ENGLISH).get("value"));
+    }
+
+    @Test
+    void testPatternChangedAfterReload() {
+        assertEquals("12,345.60", format(amount("CZK"), Locale.ENGLISH).get("amount"));
+        messages.put("currency.pattern", "#,##0.0");
+        messages.put("currency.CZK.name", "CZK");
+        i18nService.reloadMessages();
+        Map<String, String> formattedValues = format(amount("CZK"), Locale.ENGLISH);
+        assertEquals("12,345.6", formattedValues.get("amount"));
+        assertEquals("CZK", formattedValues.get("currency"));
+    }
+
+    @Test
+    void testManyLocales() {
+        // Locales over the limit of cached locales are formatted without caching the formatters
+        for (int i = 0; i < 100; i++) {
+            Locale locale = new Locale("en", "X" + i);
+            assertEquals("12,345.60", format(amount("CZK"), locale).get("amount"));
+            assertEquals("1,234,567.891", format(keyValue(ValueFormatType.NUMBER, "1234567.891"), locale).get("value"));
+        }
+    }
+
+    private Map<String, String> format(OperationFormFieldAttributeFormatted attribute, Locale locale) {
+        valueFormatterService.addFormattedValue(attribute, locale);
+        return attribute.getFormattedValues();
+    }
+
+    private OperationAmountFieldAttribute amount(String currency) {
+        OperationAmountFieldAttribute attribute = new OperationAmountFieldAttribute();
+        attribute.setAmount(new BigDecimal("12345.6"));
+        attribute.setCurrency(currency);
+        return attribute;
+    }
+
+    private OperationKeyValueFieldAttribute keyValue(ValueFormatType valueFormatType, String value) {
+        OperationKeyValueFieldAttribute attribute = new OperationKeyValueFieldAttribute(valueFormatType);
+        attribute.setValue(value);
+        return attribute;
+    }
+
+    private String normalizeSpaces(String value) {
+        return value.replace(' ', ' ').replace(' ', ' ');
+    }
+
+}
@@ -22,6 +22,9 @@ import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service which converts resource bundle messages for given locale to JSON and provides access to the MessageSource.
@@ -32,6 +35,8 @@ import java.util.Locale;
 public class I18NService {
 
     private ObjectMapper objectMapper;
+    private final Map<Locale, MessageBundle> messageBundles = new ConcurrentHashMap<>();
+    private final AtomicLong messagesVersion = new AtomicLong();
 
     @Resource
     private ReloadableResourceBundleMessageSourceWithListing messageSource;
@@ -50,11 +55,48 @@ public class I18NService {
      * @return JSON representation of messages.
      */
     public String generateMessages(Locale locale) {
+        MessageBundle messageBundle = getMessageBundle(locale);
+        return messageBundle == null ? null : messageBundle.getJson();
+    }
+
+    /**
+     * Get compiled bundle of all messages for given locale. The bundle is compiled once and reused until messages
+     * are reloaded.
+     *
+     * @param locale Requested locale.
+     * @return Message bundle or null in case messages could not be serialized.
+     */
+    public MessageBundle getMessageBundle(Locale locale) {
+        MessageBundle messageBundle = messageBundles.get(locale);
+        if (messageBundle != null) {
+            return messageBundle;
+        }
         try {
-            return objectMapper.writeValueAsString(messageSource.getAllProperties(locale));
+            messageBundle = new MessageBundle(locale, objectMapper.writeValueAsString(messageSource.getAllProperties(locale)));
         } catch (JsonProcessingException e) {
             return null;
         }
+        MessageBundle existingBundle = messageBundles.putIfAbsent(locale, messageBundle);
+        return existingBundle != null ? existingBundle : messageBundle;
+    }
+
+    /**
+     * Reload messages from message properties and discard compiled message bundles.
+     */
+    public void reloadMessages() {
+        messageSource.reload();
+        messageBundles.clear();
+        messagesVersion.incrementAndGet();
+    }
+
+    /**
+     * Get version of messages which changes each time the messages are reloaded. The version can be used
+     * to invalidate data derived from messages.
+     *
+     * @return Version of messages.
+     */
+    public long getMessagesVersion() {
+        return messagesVersion.get();
     }
 
     /**
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.getlime.security.powerauth.app.webflow.i18n;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Immutable compiled bundle of all messages for a single locale. The bundle is a script which defines the global
+ * I18N variable for the locale used by the frontend, e.g. I18N_EN. Content of the bundle is precompressed using gzip
+ * and identified by a hash, so that it can be served with long-lived cache headers under a versioned URL.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public final class MessageBundle {
+
+    private static final int HASH_LENGTH = 16;
+
+    private final String language;
+    private final String json;
+    private final byte[] content;
+    private final byte[] gzipContent;
+    private final String hash;
+
+    /**
+     * Compile a message bundle.
+     * @param locale Locale of messages.
+     * @param json JSON representation of messages.
+     */
+    MessageBundle(Locale locale, String json) {
+        this.language = locale.getLanguage();
+        this.json = json;
+        String script = "var I18N_" + language.toUpperCase(Locale.ROOT) + " = {locale: '" + language + "', messages: " + json + "};\n";
+        this.content = script.getBytes(StandardCharsets.UTF_8);
+        this.gzipContent = gzip(content);
+        this.hash = hash(content);
+    }
+
+    /**
+     * Get language of messages.
+     * @return Language.
+     */
+    public String getLanguage() {
+        return language;
+    }
+
+    /**
+     * Get JSON representation of messages.
+     * @return JSON representation of messages.
+     */
+    public String getJson() {
+        return json;
+    }
+
+    /**
+     * Get content of the bundle. The returned array must not be modified.
+     * @return Content of the bundle.
+     */
+    public byte[] getContent() {
+        return content;
+    }
+
+    /**
+     * Get gzip compressed content of the bundle. The returned array must not be modified.
+     * @return Gzip compressed content of the bundle.
+     */
+    public byte[] getGzipContent() {
+        return gzipContent;
+    }
+
+    /**
+     * Get hash of the bundle content.
+     * @return Hash of the bundle content.
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    private static byte[] gzip(byte[] data) {
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(data.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(baos)) {
+                gzip.write(data);
+            }
+            return baos.toByteArray();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String hash(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < HASH_LENGTH / 2; i++) {
+                sb.append(String.format("%02x", digest[i]));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
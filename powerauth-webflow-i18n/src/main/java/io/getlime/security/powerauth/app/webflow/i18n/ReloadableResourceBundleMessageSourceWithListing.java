@@ -21,16 +21,22 @@ import java.util.Locale;
 import java.util.Properties;
 
 /**
- * Custom ResourceBundleMessageSource which is both reloadable and supports listing. Cache is disabled to allow
- * immediate reload of messages.
+ * Custom ResourceBundleMessageSource which is both reloadable and supports listing. Messages are cached until
+ * an explicit reload.
  *
  * @author Roman Strobl, roman.strobl@wultra.com
  */
 public class ReloadableResourceBundleMessageSourceWithListing extends ReloadableResourceBundleMessageSource {
 
     Properties getAllProperties(Locale locale) {
-        clearCacheIncludingAncestors();
         PropertiesHolder propertiesHolder = getMergedProperties(locale);
         return propertiesHolder.getProperties();
     }
+
+    /**
+     * Clear cached messages, so that message properties are read again.
+     */
+    void reload() {
+        clearCacheIncludingAncestors();
+    }
 }
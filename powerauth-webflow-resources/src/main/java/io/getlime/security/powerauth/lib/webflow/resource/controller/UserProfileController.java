@@ -29,7 +29,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.oauth2.common.exceptions.UnauthorizedUserException;
 import org.springframework.security.oauth2.provider.OAuth2Authentication;
-import org.springframework.security.oauth2.provider.token.AuthorizationServerTokenServices;
+import org.springframework.security.oauth2.provider.authentication.OAuth2AuthenticationDetails;
+import org.springframework.security.oauth2.provider.token.TokenStore;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
@@ -48,7 +49,7 @@ import java.util.Map;
 public class UserProfileController {
 
     private final DataAdapterClient client;
-    private final AuthorizationServerTokenServices tokenServices;
+    private final TokenStore tokenStore;
     private final WebFlowResourcesServerConfiguration webFlowResourcesServerConfiguration;
 
     private static final String LANGUAGE = "language";
@@ -60,9 +61,9 @@ public class UserProfileController {
     private static final Logger logger = LoggerFactory.getLogger(UserProfileController.class);
 
     @Autowired
-    public UserProfileController(DataAdapterClient client, AuthorizationServerTokenServices tokenServices, WebFlowResourcesServerConfiguration webFlowResourcesServerConfiguration) {
+    public UserProfileController(DataAdapterClient client, TokenStore tokenStore, WebFlowResourcesServerConfiguration webFlowResourcesServerConfiguration) {
         this.client = client;
-        this.tokenServices = tokenServices;
+        this.tokenStore = tokenStore;
         this.webFlowResourcesServerConfiguration = webFlowResourcesServerConfiguration;
     }
 
@@ -82,7 +83,7 @@ public class UserProfileController {
         // Try to fetch user details from the service
         try {
             // Get additional information stored with the token
-            Map<String, Object> additionalInfo = tokenServices.getAccessToken(authentication).getAdditionalInformation();
+            Map<String, Object> additionalInfo = getAdditionalInformation(authentication);
             String language = (String) additionalInfo.get(LANGUAGE);
             Boolean sca = (Boolean) additionalInfo.get(SCA);
             String organizationId = (String) additionalInfo.get(ORGANIZATION_ID);
@@ -134,7 +135,7 @@ public class UserProfileController {
         try {
             final String usedId = authentication.getUserAuthentication().getName();
             // Get additional information stored with the token
-            final Map<String, Object> additionalInfo = tokenServices.getAccessToken(authentication).getAdditionalInformation();
+            final Map<String, Object> additionalInfo = getAdditionalInformation(authentication);
             final String organizationId = (String) additionalInfo.get(ORGANIZATION_ID);
             logger.info("Fetching user details for user with ID: {}, organization ID: {}", usedId, organizationId);
             final ObjectResponse<UserDetailResponse> userDetail = client.fetchUserDetail(usedId, organizationId);
@@ -152,6 +153,17 @@ public class UserProfileController {
         }
     }
 
+    /**
+     * Get additional information stored with the access token used for the request. Signed access tokens
+     * are decoded locally, other access tokens are read from the token store.
+     * @param authentication Original authentication of the currently logged user.
+     * @return Additional information stored with the access token.
+     */
+    private Map<String, Object> getAdditionalInformation(OAuth2Authentication authentication) {
+        final String tokenValue = ((OAuth2AuthenticationDetails) authentication.getDetails()).getTokenValue();
+        return tokenStore.readAccessToken(tokenValue).getAdditionalInformation();
+    }
+
     /**
      * Create dummy user for case when user does not exist or user account is not active.
      * @return Dummy user response.
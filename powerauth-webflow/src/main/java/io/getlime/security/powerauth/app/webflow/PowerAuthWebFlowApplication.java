@@ -20,6 +20,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main Spring boot class for Web Flow server.
@@ -27,9 +28,10 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
  * @author Roman Strobl
  */
 @SpringBootApplication
-@EnableJpaRepositories("io.getlime.security.powerauth.lib.webflow.authentication.repository")
+@EnableJpaRepositories({"io.getlime.security.powerauth.lib.webflow.authentication.repository", "io.getlime.security.powerauth.lib.scheduler.repository"})
 @ComponentScan(basePackages = "io.getlime.security.*" )
 @EntityScan("io.getlime.security.*")
+@EnableScheduling
 public class PowerAuthWebFlowApplication {
 
     public static void main(String[] args) {
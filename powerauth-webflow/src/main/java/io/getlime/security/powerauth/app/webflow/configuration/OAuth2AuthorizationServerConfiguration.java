@@ -16,11 +16,19 @@
 
 package io.getlime.security.powerauth.app.webflow.configuration;
 
+import io.getlime.security.powerauth.app.webflow.oauth.CachingTokenStore;
+import io.getlime.security.powerauth.app.webflow.oauth.WebFlowJwtAccessTokenConverter;
 import io.getlime.security.powerauth.app.webflow.oauth.WebFlowTokenEnhancer;
+import io.getlime.security.powerauth.lib.webflow.authentication.notification.AuthorizationNotificationBus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -40,10 +48,15 @@ import org.springframework.security.oauth2.provider.endpoint.DefaultRedirectReso
 import org.springframework.security.oauth2.provider.token.AuthorizationServerTokenServices;
 import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
 import org.springframework.security.oauth2.provider.token.TokenEnhancer;
+import org.springframework.security.oauth2.provider.token.TokenEnhancerChain;
 import org.springframework.security.oauth2.provider.token.TokenStore;
 import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+import org.springframework.security.oauth2.provider.token.store.KeyStoreKeyFactory;
 
 import javax.sql.DataSource;
+import java.security.KeyPair;
+import java.util.Arrays;
 
 /**
  * Configuration class for OAuth 2.0 Authorization Service.
@@ -54,15 +67,27 @@ import javax.sql.DataSource;
 @EnableAuthorizationServer
 public class OAuth2AuthorizationServerConfiguration extends AuthorizationServerConfigurerAdapter {
 
+    private static final Logger logger = LoggerFactory.getLogger(OAuth2AuthorizationServerConfiguration.class);
+
     private DataSource dataSource;
+    private WebFlowServerConfiguration webFlowServerConfiguration;
+    private ObjectProvider<WebFlowJwtAccessTokenConverter> jwtAccessTokenConverterProvider;
+    private AuthorizationNotificationBus notificationBus;
 
     /**
      * Configuration class constructor.
      * @param dataSource Data source.
+     * @param webFlowServerConfiguration Web Flow server configuration.
+     * @param jwtAccessTokenConverterProvider Provider of JWT access token converter, available when JWT tokens are enabled.
+     * @param notificationBus Notification bus used for eviction of removed tokens from token caches of other nodes.
      */
     @Autowired
-    public OAuth2AuthorizationServerConfiguration(DataSource dataSource) {
+    public OAuth2AuthorizationServerConfiguration(DataSource dataSource, WebFlowServerConfiguration webFlowServerConfiguration, ObjectProvider<WebFlowJwtAccessTokenConverter> jwtAccessTokenConverterProvider,
+                                                  AuthorizationNotificationBus notificationBus) {
         this.dataSource = dataSource;
+        this.webFlowServerConfiguration = webFlowServerConfiguration;
+        this.jwtAccessTokenConverterProvider = jwtAccessTokenConverterProvider;
+        this.notificationBus = notificationBus;
     }
 
     /**
@@ -86,13 +111,39 @@ public class OAuth2AuthorizationServerConfiguration extends AuthorizationServerC
     }
 
     /**
-     * Token store which stores tokens in JDBC data source.
+     * Token store which stores tokens in JDBC data source. Access tokens are cached on each node when the cache
+     * is enabled, so that validation of access tokens does not query the database. The cache is used only with
+     * a distributed notification bus, which evicts removed tokens from caches of other nodes. When JWT tokens are enabled,
+     * tokens are not stored and they are verified using the signature.
      * @return Token store.
      */
     @Bean
     public TokenStore tokenStore() {
+        WebFlowJwtAccessTokenConverter jwtAccessTokenConverter = jwtAccessTokenConverterProvider.getIfAvailable();
+        if (jwtAccessTokenConverter != null) {
+            return new JwtTokenStore(jwtAccessTokenConverter);
+        }
         // tokens are stored in JDBC data source (tables oauth_access_token and oauth_refresh_token)
-        return new JdbcTokenStore(dataSource);
+        TokenStore jdbcTokenStore = new JdbcTokenStore(dataSource);
+        if (!webFlowServerConfiguration.isTokenCacheEnabled()) {
+            return jdbcTokenStore;
+        }
+        if (!notificationBus.isDistributed()) {
+            // Revoked tokens would be accepted by other nodes until the cache time to live expires
+            logger.warn("Token cache is disabled because notification bus is not enabled, enable property powerauth.webflow.notification.bus.enabled");
+            return jdbcTokenStore;
+        }
+        return new CachingTokenStore(jdbcTokenStore, notificationBus, webFlowServerConfiguration.getTokenCacheMaxSize(), webFlowServerConfiguration.getTokenCacheTtlMs());
+    }
+
+    /**
+     * Converter of access tokens to signed JWT tokens, available when JWT tokens are enabled.
+     * @return JWT access token converter.
+     */
+    @Bean
+    @ConditionalOnProperty(name = WebFlowServerConfiguration.JWT_ENABLED_PROPERTY, havingValue = "true")
+    public WebFlowJwtAccessTokenConverter jwtAccessTokenConverter() {
+        return new WebFlowJwtAccessTokenConverter(jwtKeyPair(), webFlowServerConfiguration.getJwtKeyId());
     }
 
     /**
@@ -104,6 +155,37 @@ public class OAuth2AuthorizationServerConfiguration extends AuthorizationServerC
         return new WebFlowTokenEnhancer();
     }
 
+    /**
+     * Token enhancer used when issuing access tokens. When JWT tokens are enabled, the Web Flow token enhancer
+     * is followed by conversion to a signed JWT token, so that the additional information is included in claims.
+     * @return Token enhancer.
+     */
+    private TokenEnhancer accessTokenEnhancer() {
+        WebFlowJwtAccessTokenConverter jwtAccessTokenConverter = jwtAccessTokenConverterProvider.getIfAvailable();
+        if (jwtAccessTokenConverter == null) {
+            return tokenEnhancer();
+        }
+        TokenEnhancerChain tokenEnhancerChain = new TokenEnhancerChain();
+        tokenEnhancerChain.setTokenEnhancers(Arrays.asList(tokenEnhancer(), jwtAccessTokenConverter));
+        return tokenEnhancerChain;
+    }
+
+    /**
+     * Load RSA key pair used for signing JWT tokens from the configured key store.
+     * @return RSA key pair.
+     * @throws IllegalStateException Thrown when the key store is not configured.
+     */
+    private KeyPair jwtKeyPair() {
+        String keyStore = webFlowServerConfiguration.getJwtKeyStore();
+        if (keyStore == null || keyStore.isEmpty()) {
+            // Tokens signed using a generated key pair would be rejected by other nodes and after restart
+            throw new IllegalStateException("Key store for signing JWT tokens is not configured, set property powerauth.webflow.oauth.jwt.keyStore");
+        }
+        KeyStoreKeyFactory keyStoreKeyFactory = new KeyStoreKeyFactory(new DefaultResourceLoader().getResource(keyStore),
+                webFlowServerConfiguration.getJwtKeyStorePassword().toCharArray());
+        return keyStoreKeyFactory.getKeyPair(webFlowServerConfiguration.getJwtKeyAlias(), webFlowServerConfiguration.getJwtKeyPassword().toCharArray());
+    }
+
     /**
      * Initializes token services.
      * @return Initialized token services.
@@ -113,7 +195,7 @@ public class OAuth2AuthorizationServerConfiguration extends AuthorizationServerC
     public AuthorizationServerTokenServices tokenServices() {
         DefaultTokenServices tokenServices = new DefaultTokenServices();
         tokenServices.setTokenStore(tokenStore());
-        tokenServices.setTokenEnhancer(tokenEnhancer());
+        tokenServices.setTokenEnhancer(accessTokenEnhancer());
         return tokenServices;
     }
 
@@ -144,7 +226,7 @@ public class OAuth2AuthorizationServerConfiguration extends AuthorizationServerC
     public void configure(AuthorizationServerEndpointsConfigurer endpoints)
             throws Exception {
         endpoints.authorizationCodeServices(authorizationCodeServices())
-                .tokenEnhancer(tokenEnhancer())
+                .tokenEnhancer(accessTokenEnhancer())
                 .tokenStore(tokenStore())
                 .approvalStoreDisabled();
     }
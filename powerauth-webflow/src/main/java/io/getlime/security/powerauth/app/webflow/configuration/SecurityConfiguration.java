@@ -21,8 +21,15 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.LoginUrlAuthenticationEntryPoint;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -62,6 +69,60 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
         http.cors();
     }
 
+    /**
+     * Security configuration of service endpoints. The service status is public, other service endpoints
+     * (metrics and reload of localization messages) require HTTP basic authentication using configured
+     * service credentials. All service endpoints except status are rejected when the credentials are not configured.
+     */
+    @Configuration
+    @Order(90)
+    public static class ServiceSecurityConfiguration extends WebSecurityConfigurerAdapter {
+
+        private static final String SERVICE_ROLE = "SERVICE";
+
+        @Value("${powerauth.webflow.service.security.username:}")
+        private String serviceUsername;
+
+        @Value("${powerauth.webflow.service.security.password:}")
+        private String servicePassword;
+
+        /**
+         * Configure credentials for service endpoints.
+         * @param auth Authentication manager builder.
+         * @throws Exception Thrown when configuration fails.
+         */
+        @Override
+        protected void configure(AuthenticationManagerBuilder auth) throws Exception {
+            if (serviceUsername.isEmpty() || servicePassword.isEmpty()) {
+                // No credentials are configured, authentication of service endpoints always fails
+                auth.inMemoryAuthentication();
+                return;
+            }
+            auth.inMemoryAuthentication()
+                    .passwordEncoder(NoOpPasswordEncoder.getInstance())
+                    .withUser(serviceUsername).password(servicePassword).roles(SERVICE_ROLE);
+        }
+
+        /**
+         * Configure http security for service endpoints. Requests are authenticated using credentials sent
+         * in the Authorization header of each request, no HTTP session or cookie is used. The authentication
+         * challenge is not sent, so that browsers never cache the credentials and the credentials cannot be
+         * sent by a cross-site request, CSRF tokens are not required for this reason.
+         * @param http HTTP security.
+         * @throws Exception Thrown when configuration fails.
+         */
+        @Override
+        protected void configure(HttpSecurity http) throws Exception {
+            http
+                    .antMatcher("/api/service/**").authorizeRequests()
+                    .antMatchers(HttpMethod.GET, "/api/service/status").permitAll()
+                    .anyRequest().hasRole(SERVICE_ROLE)
+                    .and().httpBasic().authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+                    .and().sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                    .and().csrf().disable();
+        }
+    }
+
     /**
      * Configure CORS to allow client TLS certificate verification from a different port.
      * @return CORS configuration source.
@@ -31,6 +31,12 @@ import org.springframework.context.annotation.Configuration;
 @ComponentScan(basePackages = {"io.getlime.security.powerauth"})
 public class WebFlowServerConfiguration {
 
+    /**
+     * Property which enables issuing of OAuth 2.0 access tokens as signed self-contained JWT tokens, beans used
+     * for JWT tokens are conditional on this property.
+     */
+    public static final String JWT_ENABLED_PROPERTY = "powerauth.webflow.oauth.jwt.enabled";
+
     /**
      * Dynamic URL for external CSS stylesheet.
      */
@@ -110,6 +116,54 @@ public class WebFlowServerConfiguration {
     @Value("${powerauth.webflow.consent.limit.characters:750}")
     private int consentPanelLimitCharacters;
 
+    /**
+     * Whether OAuth 2.0 access tokens are cached on each node.
+     */
+    @Value("${powerauth.webflow.oauth.tokenCache.enabled:false}")
+    private boolean tokenCacheEnabled;
+
+    /**
+     * Maximum number of OAuth 2.0 access tokens cached on each node.
+     */
+    @Value("${powerauth.webflow.oauth.tokenCache.maxSize:10000}")
+    private long tokenCacheMaxSize;
+
+    /**
+     * Maximum time in milliseconds for which an OAuth 2.0 access token is cached.
+     */
+    @Value("${powerauth.webflow.oauth.tokenCache.ttlMs:60000}")
+    private long tokenCacheTtlMs;
+
+    /**
+     * Location of the key store with RSA key pair used for signing JWT tokens.
+     */
+    @Value("${powerauth.webflow.oauth.jwt.keyStore:}")
+    private String jwtKeyStore;
+
+    /**
+     * Password of the key store with RSA key pair used for signing JWT tokens.
+     */
+    @Value("${powerauth.webflow.oauth.jwt.keyStorePassword:}")
+    private String jwtKeyStorePassword;
+
+    /**
+     * Alias of the RSA key pair used for signing JWT tokens.
+     */
+    @Value("${powerauth.webflow.oauth.jwt.keyAlias:}")
+    private String jwtKeyAlias;
+
+    /**
+     * Password of the RSA key pair used for signing JWT tokens.
+     */
+    @Value("${powerauth.webflow.oauth.jwt.keyPassword:}")
+    private String jwtKeyPassword;
+
+    /**
+     * Key ID of the RSA key pair used for signing JWT tokens.
+     */
+    @Value("${powerauth.webflow.oauth.jwt.keyId:}")
+    private String jwtKeyId;
+
     /**
      * Get custom external stylesheet URL.
      *
@@ -216,4 +270,68 @@ public class WebFlowServerConfiguration {
     public int getConsentPanelLimitCharacters() {
         return consentPanelLimitCharacters;
     }
+
+    /**
+     * Get whether OAuth 2.0 access tokens are cached on each node.
+     * @return Whether OAuth 2.0 access tokens are cached.
+     */
+    public boolean isTokenCacheEnabled() {
+        return tokenCacheEnabled;
+    }
+
+    /**
+     * Get maximum number of OAuth 2.0 access tokens cached on each node.
+     * @return Maximum number of cached access tokens.
+     */
+    public long getTokenCacheMaxSize() {
+        return tokenCacheMaxSize;
+    }
+
+    /**
+     * Get maximum time in milliseconds for which an OAuth 2.0 access token is cached.
+     * @return Maximum time for which an access token is cached.
+     */
+    public long getTokenCacheTtlMs() {
+        return tokenCacheTtlMs;
+    }
+
+    /**
+     * Get location of the key store with RSA key pair used for signing JWT tokens.
+     * @return Key store location.
+     */
+    public String getJwtKeyStore() {
+        return jwtKeyStore;
+    }
+
+    /**
+     * Get password of the key store with RSA key pair used for signing JWT tokens.
+     * @return Key store password.
+     */
+    public String getJwtKeyStorePassword() {
+        return jwtKeyStorePassword;
+    }
+
+    /**
+     * Get alias of the RSA key pair used for signing JWT tokens.
+     * @return Key alias.
+     */
+    public String getJwtKeyAlias() {
+        return jwtKeyAlias;
+    }
+
+    /**
+     * Get password of the RSA key pair used for signing JWT tokens.
+     * @return Key password.
+     */
+    public String getJwtKeyPassword() {
+        return jwtKeyPassword;
+    }
+
+    /**
+     * Get key ID of the RSA key pair used for signing JWT tokens.
+     * @return Key ID.
+     */
+    public String getJwtKeyId() {
+        return jwtKeyId;
+    }
 }
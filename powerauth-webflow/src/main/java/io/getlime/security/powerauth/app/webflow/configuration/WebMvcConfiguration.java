@@ -20,6 +20,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.joda.JodaModule;
 import io.getlime.security.powerauth.app.webflow.i18n.ReloadableResourceBundleMessageSourceWithListing;
+import io.getlime.security.powerauth.lib.webflow.authentication.configuration.WebFlowServicesConfiguration;
+import io.getlime.security.powerauth.lib.webflow.authentication.interceptor.AuthFlowStateInterceptor;
+import io.getlime.security.powerauth.lib.webflow.authentication.interceptor.RequestDeadlineInterceptor;
+import io.getlime.security.powerauth.lib.webflow.authentication.service.AuthFlowStateService;
 import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthAnnotationInterceptor;
 import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthEncryptionArgumentResolver;
 import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthWebArgumentResolver;
@@ -52,6 +56,12 @@ public class WebMvcConfiguration implements WebMvcConfigurer {
     @Autowired
     private WebFlowServerConfiguration configuration;
 
+    @Autowired
+    private WebFlowServicesConfiguration servicesConfiguration;
+
+    @Autowired
+    private AuthFlowStateService authFlowStateService;
+
     /* Register PowerAuth 2.0 Server Beans */
 
     @Bean
@@ -77,6 +87,26 @@ public class WebMvcConfiguration implements WebMvcConfigurer {
         return registrationBean;
     }
 
+    /**
+     * RequestDeadlineInterceptor starts the deadline of incoming requests which is propagated to Data Adapter calls.
+     *
+     * @return Request deadline interceptor
+     */
+    @Bean
+    public RequestDeadlineInterceptor requestDeadlineInterceptor() {
+        return new RequestDeadlineInterceptor(servicesConfiguration.getDataAdapterRequestBudgetMs());
+    }
+
+    /**
+     * AuthFlowStateInterceptor saves authentication flow state modified during request processing.
+     *
+     * @return Authentication flow state interceptor
+     */
+    @Bean
+    public AuthFlowStateInterceptor authFlowStateInterceptor() {
+        return new AuthFlowStateInterceptor(authFlowStateService);
+    }
+
     /**
      * LocaleResolver resolves the locale based on cookie called 'lang'. Default locale is English.
      *
@@ -136,6 +166,8 @@ public class WebMvcConfiguration implements WebMvcConfigurer {
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(powerAuthInterceptor());
         registry.addInterceptor(localeChangeInterceptor());
+        registry.addInterceptor(requestDeadlineInterceptor());
+        registry.addInterceptor(authFlowStateInterceptor());
     }
 
     /**
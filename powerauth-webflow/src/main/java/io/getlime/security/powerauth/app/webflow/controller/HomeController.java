@@ -25,11 +25,11 @@ import io.getlime.security.powerauth.lib.nextstep.model.enumeration.OperationCan
 import io.getlime.security.powerauth.lib.nextstep.model.exception.NextStepServiceException;
 import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationConfigDetailResponse;
 import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationDetailResponse;
-import io.getlime.security.powerauth.lib.webflow.authentication.model.HttpSessionAttributeNames;
 import io.getlime.security.powerauth.lib.webflow.authentication.repository.AfsConfigRepository;
 import io.getlime.security.powerauth.lib.webflow.authentication.repository.model.entity.AfsConfigEntity;
 import io.getlime.security.powerauth.lib.webflow.authentication.security.UserOperationAuthentication;
 import io.getlime.security.powerauth.lib.webflow.authentication.service.AfsIntegrationService;
+import io.getlime.security.powerauth.lib.webflow.authentication.service.AuthFlowStateService;
 import io.getlime.security.powerauth.lib.webflow.authentication.service.AuthenticationManagementService;
 import io.getlime.security.powerauth.lib.webflow.authentication.service.OperationCancellationService;
 import io.getlime.security.powerauth.lib.webflow.authentication.service.OperationSessionService;
@@ -69,6 +69,7 @@ public class HomeController {
     private final NextStepClient nextStepClient;
     private final AfsConfigRepository afsConfigRepository;
     private final HttpSession httpSession;
+    private final AuthFlowStateService authFlowStateService;
     private final ClientDetailsService clientDetailsService;
     private final OperationCancellationService operationCancellationService;
 
@@ -81,11 +82,12 @@ public class HomeController {
      * @param nextStepClient Next step client.
      * @param afsConfigRepository Anti-fraud system configuration repository.
      * @param httpSession HTTP session.
+     * @param authFlowStateService Authentication flow state service.
      * @param clientDetailsService Client details service for accessing OAuth 2.0 client data.
      * @param operationCancellationService Service used for canceling operations.
      */
     @Autowired
-    public HomeController(AuthenticationManagementService authenticationManagementService, WebFlowServerConfiguration webFlowConfig, I18NService i18nService, OperationSessionService operationSessionService, NextStepClient nextStepClient, AfsConfigRepository afsConfigRepository, HttpSession httpSession, ClientDetailsService clientDetailsService, OperationCancellationService operationCancellationService) {
+    public HomeController(AuthenticationManagementService authenticationManagementService, WebFlowServerConfiguration webFlowConfig, I18NService i18nService, OperationSessionService operationSessionService, NextStepClient nextStepClient, AfsConfigRepository afsConfigRepository, HttpSession httpSession, AuthFlowStateService authFlowStateService, ClientDetailsService clientDetailsService, OperationCancellationService operationCancellationService) {
         this.webFlowConfig = webFlowConfig;
         this.authenticationManagementService = authenticationManagementService;
         this.i18nService = i18nService;
@@ -93,6 +95,7 @@ public class HomeController {
         this.nextStepClient = nextStepClient;
         this.afsConfigRepository = afsConfigRepository;
         this.httpSession = httpSession;
+        this.authFlowStateService = authFlowStateService;
         this.clientDetailsService = clientDetailsService;
         this.operationCancellationService = operationCancellationService;
     }
@@ -182,9 +185,9 @@ public class HomeController {
         model.put("consentPanelLimitCharacters", webFlowConfig.getConsentPanelLimitCharacters());
         model.put("stylesheet", webFlowConfig.getCustomStyleSheetUrl());
         model.put("lang", LocaleContextHolder.getLocale().getLanguage());
-        // JSON objects with i18n messages are inserted into the model to provide localization for the frontend
-        model.put("i18n_CS", i18nService.generateMessages(new Locale("cs")));
-        model.put("i18n_EN", i18nService.generateMessages(Locale.ENGLISH));
+        // URLs of compiled i18n message bundles are inserted into the model to provide localization for the frontend
+        model.put("i18n_CS_url", I18NController.getMessageBundleUrl(i18nService, new Locale("cs")));
+        model.put("i18n_EN_url", I18NController.getMessageBundleUrl(i18nService, Locale.ENGLISH));
         model.put("operationHash", operationSessionService.generateOperationHash(operationId));
         model.put("showAndroidSecurityWarning", webFlowConfig.getShowAndroidSecurityWarning());
         model.put("usernameMaxLength", webFlowConfig.getUsernameMaxLength());
@@ -361,12 +364,6 @@ public class HomeController {
      * or failed with a fatal error.
      */
     private void cleanHttpSession() {
-        httpSession.removeAttribute(HttpSessionAttributeNames.MESSAGE_ID);
-        httpSession.removeAttribute(HttpSessionAttributeNames.LAST_MESSAGE_TIMESTAMP);
-        httpSession.removeAttribute(HttpSessionAttributeNames.INITIAL_MESSAGE_SENT);
-        httpSession.removeAttribute(HttpSessionAttributeNames.AUTH_STEP_OPTIONS);
-        httpSession.removeAttribute(HttpSessionAttributeNames.CONSENT_SKIPPED);
-        httpSession.removeAttribute(HttpSessionAttributeNames.USERNAME);
-        httpSession.removeAttribute(HttpSessionAttributeNames.CLIENT_CERTIFICATE);
+        authFlowStateService.getAuthFlowState(httpSession).clearAuthSteps();
     }
 }
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.getlime.security.powerauth.app.webflow.controller;
+
+import io.getlime.security.powerauth.app.webflow.i18n.I18NService;
+import io.getlime.security.powerauth.app.webflow.i18n.MessageBundle;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controller which serves compiled i18n message bundles for the frontend. Bundles are served under URLs which
+ * contain hash of the bundle content, so that the bundles can be cached by browsers for a long time.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@RestController
+@RequestMapping("resources/i18n")
+public class I18NController {
+
+    private static final List<String> SUPPORTED_LANGUAGES = Arrays.asList("en", "cs");
+    private static final MediaType JAVASCRIPT = new MediaType("application", "javascript", StandardCharsets.UTF_8);
+
+    private final I18NService i18nService;
+
+    /**
+     * I18n controller constructor.
+     * @param i18nService I18n service.
+     */
+    @Autowired
+    public I18NController(I18NService i18nService) {
+        this.i18nService = i18nService;
+    }
+
+    /**
+     * Compile message bundles for supported languages during startup.
+     */
+    @PostConstruct
+    public void compileMessageBundles() {
+        for (String language: SUPPORTED_LANGUAGES) {
+            i18nService.getMessageBundle(new Locale(language));
+        }
+    }
+
+    /**
+     * Get relative URL of the current message bundle for given locale.
+     * @param i18nService I18n service.
+     * @param locale Locale.
+     * @return Relative URL of the message bundle.
+     */
+    public static String getMessageBundleUrl(I18NService i18nService, Locale locale) {
+        MessageBundle messageBundle = i18nService.getMessageBundle(locale);
+        String hash = messageBundle == null ? "none" : messageBundle.getHash();
+        return "./resources/i18n/" + locale.getLanguage() + "/" + hash + "/messages.js";
+    }
+
+    /**
+     * Get compiled message bundle for given language. A request for an outdated bundle version is redirected
+     * to the current version.
+     * @param language Language.
+     * @param hash Hash of the bundle content.
+     * @param acceptEncoding Accept-Encoding HTTP header.
+     * @param ifNoneMatch If-None-Match HTTP header.
+     * @return Message bundle.
+     */
+    @GetMapping("{language}/{hash}/messages.js")
+    public ResponseEntity<byte[]> getMessageBundle(@PathVariable("language") String language, @PathVariable("hash") String hash,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (!SUPPORTED_LANGUAGES.contains(language)) {
+            return ResponseEntity.notFound().build();
+        }
+        MessageBundle messageBundle = i18nService.getMessageBundle(new Locale(language));
+        if (messageBundle == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!messageBundle.getHash().equals(hash)) {
+            // Bundle was reloaded after the page was rendered
+            return ResponseEntity.status(HttpStatus.FOUND)
+                    .header(HttpHeaders.LOCATION, "../" + messageBundle.getHash() + "/messages.js")
+                    .cacheControl(CacheControl.noStore())
+                    .build();
+        }
+        boolean gzip = isGzipAccepted(acceptEncoding);
+        // Each content encoding is a different representation of the bundle with its own entity tag
+        String etag = "\"" + messageBundle.getHash() + (gzip ? "-gzip" : "") + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic();
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(JAVASCRIPT)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(messageBundle.getGzipContent());
+        }
+        return response.body(messageBundle.getContent());
+    }
+
+    /**
+     * Decide whether gzip content encoding is acceptable for the client based on the Accept-Encoding HTTP header
+     * including quality values. The gzip encoding is acceptable when it is listed with non-zero quality, or when
+     * it is not listed and the wildcard is listed with non-zero quality.
+     * @param acceptEncoding Accept-Encoding HTTP header.
+     * @return Whether gzip content encoding is acceptable.
+     */
+    static boolean isGzipAccepted(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String item: acceptEncoding.split(",")) {
+            String[] parts = item.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException ex) {
+                        quality = 0.0;
+                    }
+                }
+            }
+            if ("gzip".equals(coding) || "x-gzip".equals(coding)) {
+                gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+            } else if ("*".equals(coding)) {
+                wildcardQuality = quality;
+            }
+        }
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return wildcardQuality != null && wildcardQuality > 0;
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.app.webflow.controller;
+
+import io.getlime.security.powerauth.app.webflow.configuration.WebFlowServerConfiguration;
+import io.getlime.security.powerauth.app.webflow.oauth.WebFlowJwtAccessTokenConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.Map;
+
+/**
+ * Controller which publishes the public key used for verification of signed OAuth 2.0 access tokens. The controller
+ * is available only when JWT tokens are enabled.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Controller
+@RequestMapping(value = "/api/oauth")
+@ConditionalOnProperty(name = WebFlowServerConfiguration.JWT_ENABLED_PROPERTY, havingValue = "true")
+public class OAuth2KeySetController {
+
+    private final Logger logger = LoggerFactory.getLogger(OAuth2KeySetController.class);
+
+    private final WebFlowJwtAccessTokenConverter jwtAccessTokenConverter;
+
+    /**
+     * Controller constructor.
+     * @param jwtAccessTokenConverter JWT access token converter.
+     */
+    @Autowired
+    public OAuth2KeySetController(WebFlowJwtAccessTokenConverter jwtAccessTokenConverter) {
+        this.jwtAccessTokenConverter = jwtAccessTokenConverter;
+    }
+
+    /**
+     * Controller resource with JSON Web Key Set used for verification of JWT tokens.
+     * @return JSON Web Key Set.
+     */
+    @RequestMapping(value = "jwks", method = RequestMethod.GET)
+    public @ResponseBody Map<String, Object> getKeySet() {
+        logger.debug("Received getKeySet request");
+        return jwtAccessTokenConverter.getJwkSet();
+    }
+
+}
@@ -17,18 +17,32 @@
 package io.getlime.security.powerauth.app.webflow.controller;
 
 import io.getlime.core.rest.model.base.response.ObjectResponse;
+import io.getlime.core.rest.model.base.response.Response;
 import io.getlime.security.powerauth.app.webflow.configuration.WebFlowServerConfiguration;
+import io.getlime.security.powerauth.app.webflow.i18n.I18NService;
 import io.getlime.security.powerauth.app.webflow.model.ServiceStatusResponse;
+import io.getlime.security.powerauth.app.webflow.model.TokenStoreMetrics;
+import io.getlime.security.powerauth.app.webflow.oauth.CachingTokenStore;
+import io.getlime.security.powerauth.lib.dataadapter.client.DataAdapterClient;
+import io.getlime.security.powerauth.lib.dataadapter.client.EndpointMetrics;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.CleanupMetrics;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.NotificationOutboxMetrics;
+import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.model.entity.PushDispatchMetrics;
+import io.getlime.security.powerauth.lib.webflow.authentication.mtoken.service.PushMessageService;
+import io.getlime.security.powerauth.lib.webflow.authentication.service.NotificationOutboxService;
+import io.getlime.security.powerauth.lib.webflow.authentication.service.RecordCleanupService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.info.BuildProperties;
+import org.springframework.security.oauth2.provider.token.TokenStore;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
 
 import java.util.Date;
+import java.util.List;
 
 /**
  * Class representing controller used for service and maintenance purpose.
@@ -42,15 +56,33 @@ public class ServiceController {
     private final Logger logger = LoggerFactory.getLogger(ServiceController.class);
 
     private final WebFlowServerConfiguration webFlowServerConfiguration;
+    private final DataAdapterClient dataAdapterClient;
+    private final RecordCleanupService recordCleanupService;
+    private final I18NService i18nService;
+    private final PushMessageService pushMessageService;
+    private final NotificationOutboxService notificationOutboxService;
+    private final TokenStore tokenStore;
     private BuildProperties buildProperties;
 
     /**
      * Service constructor.
      * @param webFlowServerConfiguration Web Flow server configuration.
+     * @param dataAdapterClient Data Adapter client.
+     * @param recordCleanupService Service for cleanup of expired records.
+     * @param i18nService I18n service.
+     * @param pushMessageService Push message service.
+     * @param notificationOutboxService Data Adapter notification outbox service.
+     * @param tokenStore OAuth 2.0 token store.
      */
     @Autowired
-    public ServiceController(WebFlowServerConfiguration webFlowServerConfiguration) {
+    public ServiceController(WebFlowServerConfiguration webFlowServerConfiguration, DataAdapterClient dataAdapterClient, RecordCleanupService recordCleanupService, I18NService i18nService, PushMessageService pushMessageService, NotificationOutboxService notificationOutboxService, TokenStore tokenStore) {
         this.webFlowServerConfiguration = webFlowServerConfiguration;
+        this.dataAdapterClient = dataAdapterClient;
+        this.recordCleanupService = recordCleanupService;
+        this.i18nService = i18nService;
+        this.pushMessageService = pushMessageService;
+        this.notificationOutboxService = notificationOutboxService;
+        this.tokenStore = tokenStore;
     }
 
     /**
@@ -81,4 +113,82 @@ public class ServiceController {
         logger.debug("The getServiceStatus request succeeded");
         return new ObjectResponse<>(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Controller resource with latency metrics of Data Adapter endpoints.
+     * @return Latency metrics of Data Adapter endpoints.
+     */
+    @RequestMapping(value = "metrics/data-adapter", method = RequestMethod.GET)
+    public @ResponseBody ObjectResponse<List<EndpointMetrics>> getDataAdapterMetrics() {
+        logger.info("Received getDataAdapterMetrics request");
+        List<EndpointMetrics> metrics = dataAdapterClient.getEndpointMetrics();
+        logger.debug("The getDataAdapterMetrics request succeeded");
+        return new ObjectResponse<>(metrics);
+    }
+
+    /**
+     * Controller resource with metrics of the cleanup of expired records.
+     * @return Cleanup metrics.
+     */
+    @RequestMapping(value = "metrics/cleanup", method = RequestMethod.GET)
+    public @ResponseBody ObjectResponse<CleanupMetrics> getCleanupMetrics() {
+        logger.info("Received getCleanupMetrics request");
+        CleanupMetrics metrics = recordCleanupService.getMetrics();
+        logger.debug("The getCleanupMetrics request succeeded");
+        return new ObjectResponse<>(metrics);
+    }
+
+    /**
+     * Controller resource with metrics of the asynchronous dispatch of push messages.
+     * @return Push dispatch metrics.
+     */
+    @RequestMapping(value = "metrics/push", method = RequestMethod.GET)
+    public @ResponseBody ObjectResponse<PushDispatchMetrics> getPushDispatchMetrics() {
+        logger.info("Received getPushDispatchMetrics request");
+        PushDispatchMetrics metrics = pushMessageService.getDispatchMetrics();
+        logger.debug("The getPushDispatchMetrics request succeeded");
+        return new ObjectResponse<>(metrics);
+    }
+
+    /**
+     * Controller resource with metrics of the delivery of Data Adapter notifications from the notification outbox.
+     * @return Notification outbox metrics.
+     */
+    @RequestMapping(value = "metrics/notification", method = RequestMethod.GET)
+    public @ResponseBody ObjectResponse<NotificationOutboxMetrics> getNotificationOutboxMetrics() {
+        logger.info("Received getNotificationOutboxMetrics request");
+        NotificationOutboxMetrics metrics = notificationOutboxService.getMetrics();
+        logger.debug("The getNotificationOutboxMetrics request succeeded");
+        return new ObjectResponse<>(metrics);
+    }
+
+    /**
+     * Controller resource with metrics of the cache of OAuth 2.0 access tokens. Empty metrics are returned
+     * when the cache is disabled.
+     * @return Token store metrics.
+     */
+    @RequestMapping(value = "metrics/token-store", method = RequestMethod.GET)
+    public @ResponseBody ObjectResponse<TokenStoreMetrics> getTokenStoreMetrics() {
+        logger.info("Received getTokenStoreMetrics request");
+        TokenStoreMetrics metrics;
+        if (tokenStore instanceof CachingTokenStore) {
+            metrics = ((CachingTokenStore) tokenStore).getMetrics();
+        } else {
+            metrics = new TokenStoreMetrics();
+        }
+        logger.debug("The getTokenStoreMetrics request succeeded");
+        return new ObjectResponse<>(metrics);
+    }
+
+    /**
+     * Controller resource which reloads i18n messages. Message bundles are compiled again with new content hashes.
+     * @return Response.
+     */
+    @RequestMapping(value = "i18n/reload", method = RequestMethod.POST)
+    public @ResponseBody Response reloadMessages() {
+        logger.info("Received reloadMessages request");
+        i18nService.reloadMessages();
+        logger.info("The reloadMessages request succeeded");
+        return new Response();
+    }
+}
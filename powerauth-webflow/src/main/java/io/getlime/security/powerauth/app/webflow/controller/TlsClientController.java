@@ -21,10 +21,10 @@ import io.getlime.security.powerauth.lib.nextstep.model.entity.OperationHistory;
 import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthMethod;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.NextStepServiceException;
 import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationDetailResponse;
-import io.getlime.security.powerauth.lib.webflow.authentication.model.HttpSessionAttributeNames;
 import io.getlime.security.powerauth.lib.webflow.authentication.repository.CertificateVerificationRepository;
 import io.getlime.security.powerauth.lib.webflow.authentication.repository.model.entity.CertificateVerificationEntity;
 import io.getlime.security.powerauth.lib.webflow.authentication.security.UserOperationAuthentication;
+import io.getlime.security.powerauth.lib.webflow.authentication.service.AuthFlowStateService;
 import io.getlime.security.powerauth.lib.webflow.authentication.service.AuthenticationManagementService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,6 +54,7 @@ public class TlsClientController {
 
     private final HttpServletRequest httpServletRequest;
     private final HttpSession httpSession;
+    private final AuthFlowStateService authFlowStateService;
     private final AuthenticationManagementService authenticationManagementService;
     private final NextStepClient nextStepClient;
     private final CertificateVerificationRepository certificateVerificationRepository;
@@ -62,14 +63,16 @@ public class TlsClientController {
      * TLS client controller constructor.
      * @param httpServletRequest HTTP servlet request.
      * @param httpSession HTTP session.
+     * @param authFlowStateService Authentication flow state service.
      * @param authenticationManagementService Authentication management service.
      * @param nextStepClient Next step client.
      * @param certificateVerificationRepository Certificate verification repository.
      */
     @Autowired
-    public TlsClientController(HttpServletRequest httpServletRequest, HttpSession httpSession, AuthenticationManagementService authenticationManagementService, NextStepClient nextStepClient, CertificateVerificationRepository certificateVerificationRepository) {
+    public TlsClientController(HttpServletRequest httpServletRequest, HttpSession httpSession, AuthFlowStateService authFlowStateService, AuthenticationManagementService authenticationManagementService, NextStepClient nextStepClient, CertificateVerificationRepository certificateVerificationRepository) {
         this.httpServletRequest = httpServletRequest;
         this.httpSession = httpSession;
+        this.authFlowStateService = authFlowStateService;
         this.authenticationManagementService = authenticationManagementService;
         this.nextStepClient = nextStepClient;
         this.certificateVerificationRepository = certificateVerificationRepository;
@@ -135,9 +138,7 @@ public class TlsClientController {
             certificateVerificationRepository.save(certEntity);
 
             // Save client TLS certificate in HTTP session
-            synchronized (httpSession.getServletContext()) {
-                httpSession.setAttribute(HttpSessionAttributeNames.CLIENT_CERTIFICATE, certificate);
-            }
+            authFlowStateService.getAuthFlowState(httpSession).setClientCertificate(certificate);
         } catch (Exception ex) {
             logger.warn(ex.getMessage(), ex);
             throw new InsufficientAuthenticationException("Invalid client certificate");
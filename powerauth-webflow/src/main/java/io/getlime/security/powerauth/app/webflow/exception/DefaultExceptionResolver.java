@@ -18,6 +18,7 @@ package io.getlime.security.powerauth.app.webflow.exception;
 
 import io.getlime.core.rest.model.base.entity.Error;
 import io.getlime.core.rest.model.base.response.ErrorResponse;
+import io.getlime.security.powerauth.lib.webflow.authentication.exception.AuthFlowStateConflictException;
 import io.getlime.security.powerauth.lib.webflow.authentication.exception.AuthStepException;
 import io.getlime.security.powerauth.lib.webflow.authentication.service.AuthenticationManagementService;
 import org.slf4j.Logger;
@@ -79,6 +80,19 @@ public class DefaultExceptionResolver {
         return new ErrorResponse(error);
     }
 
+    /**
+     * Exception handler for concurrent update of authentication flow state.
+     * @param ex Exception.
+     * @return Response with error details.
+     */
+    @ExceptionHandler(AuthFlowStateConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public @ResponseBody ErrorResponse handleAuthFlowStateConflictException(AuthFlowStateConflictException ex) {
+        logger.warn("Error occurred in Web Flow server: {}", ex.getMessage());
+        final Error error = new Error(Error.Code.ERROR_GENERIC, "error.unknown");
+        return new ErrorResponse(error);
+    }
+
     /**
      * Handling of unauthorized Exception.
      * @param ex Exception.
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.app.webflow.model;
+
+/**
+ * Metrics of the cache of OAuth 2.0 access tokens.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class TokenStoreMetrics {
+
+    private long hitCount;
+    private long missCount;
+    private long invalidationCount;
+    private long cachedTokenCount;
+
+    /**
+     * Get number of token lookups served from the cache.
+     * @return Number of cache hits.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Set number of token lookups served from the cache.
+     * @param hitCount Number of cache hits.
+     */
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    /**
+     * Get number of token lookups which required a database query.
+     * @return Number of cache misses.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Set number of token lookups which required a database query.
+     * @param missCount Number of cache misses.
+     */
+    public void setMissCount(long missCount) {
+        this.missCount = missCount;
+    }
+
+    /**
+     * Get rate of token lookups served from the cache.
+     * @return Cache hit rate between 0 and 1.
+     */
+    public double getHitRate() {
+        long lookupCount = hitCount + missCount;
+        return lookupCount == 0 ? 0 : (double) hitCount / lookupCount;
+    }
+
+    /**
+     * Get number of access tokens evicted from the cache because they were stored, removed or refreshed.
+     * @return Number of invalidations.
+     */
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    /**
+     * Set number of access tokens evicted from the cache because they were stored, removed or refreshed.
+     * @param invalidationCount Number of invalidations.
+     */
+    public void setInvalidationCount(long invalidationCount) {
+        this.invalidationCount = invalidationCount;
+    }
+
+    /**
+     * Get number of access tokens in the cache.
+     * @return Number of cached access tokens.
+     */
+    public long getCachedTokenCount() {
+        return cachedTokenCount;
+    }
+
+    /**
+     * Set number of access tokens in the cache.
+     * @param cachedTokenCount Number of cached access tokens.
+     */
+    public void setCachedTokenCount(long cachedTokenCount) {
+        this.cachedTokenCount = cachedTokenCount;
+    }
+}
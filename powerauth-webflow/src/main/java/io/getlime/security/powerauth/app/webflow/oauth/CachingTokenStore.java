@@ -0,0 +1,270 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.app.webflow.oauth;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import io.getlime.security.powerauth.app.webflow.model.TokenStoreMetrics;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.TokenEvictionNotification;
+import io.getlime.security.powerauth.lib.webflow.authentication.model.TokenEvictionType;
+import io.getlime.security.powerauth.lib.webflow.authentication.notification.AuthorizationNotificationBus;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.AuthenticationKeyGenerator;
+import org.springframework.security.oauth2.provider.token.DefaultAuthenticationKeyGenerator;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token store which keeps recently used access tokens and their authentications in a bounded cache on each node,
+ * so that validation of access tokens by resource endpoints does not load and deserialize them from the database.
+ * Cached access tokens are used only until they expire and at most for the configured time to live. Tokens removed
+ * or replaced on this node are evicted from the cache immediately and removed tokens are evicted on other nodes using
+ * the notification bus, so the store must be used only with a distributed notification bus. The time to live limits
+ * how long a revoked token is accepted by other nodes in case the eviction is lost. Refresh tokens are not cached.
+ * <p>
+ * Tokens are cached by a SHA-256 hash of the token value, so that only hashes of tokens are sent to other nodes.
+ * Cached authentications are copied before they are returned, because callers modify authentication details.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class CachingTokenStore implements TokenStore {
+
+    private final TokenStore delegate;
+    private final AuthorizationNotificationBus notificationBus;
+    private final AuthenticationKeyGenerator authenticationKeyGenerator = new DefaultAuthenticationKeyGenerator();
+
+    // Access tokens and authentications are cached by token key, access tokens are also cached by authentication key
+    private final Cache<String, OAuth2AccessToken> accessTokens;
+    private final Cache<String, OAuth2Authentication> authentications;
+    private final Cache<String, OAuth2AccessToken> accessTokensByAuthentication;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    /**
+     * Token store constructor.
+     * @param delegate Token store which persists the tokens.
+     * @param notificationBus Notification bus used for eviction of removed tokens on other nodes.
+     * @param maxSize Maximum number of cached access tokens.
+     * @param ttlMs Maximum time in milliseconds for which a token is cached.
+     */
+    public CachingTokenStore(TokenStore delegate, AuthorizationNotificationBus notificationBus, long maxSize, long ttlMs) {
+        this.delegate = delegate;
+        this.notificationBus = notificationBus;
+        this.accessTokens = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS).build();
+        this.authentications = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS).build();
+        this.accessTokensByAuthentication = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS).build();
+        notificationBus.setTokenEvictionListener(this::evictToken);
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(OAuth2AccessToken token) {
+        return readAuthentication(token.getValue());
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(String token) {
+        final String tokenKey = tokenKey(token);
+        final OAuth2AccessToken accessToken = accessTokens.getIfPresent(tokenKey);
+        final OAuth2Authentication authentication = authentications.getIfPresent(tokenKey);
+        if (accessToken != null && authentication != null && !accessToken.isExpired()) {
+            hitCount.incrementAndGet();
+            return copyAuthentication(authentication);
+        }
+        missCount.incrementAndGet();
+        final OAuth2Authentication loadedAuthentication = delegate.readAuthentication(token);
+        if (loadedAuthentication == null) {
+            return null;
+        }
+        if (accessToken != null) {
+            authentications.put(tokenKey, loadedAuthentication);
+        }
+        return copyAuthentication(loadedAuthentication);
+    }
+
+    @Override
+    public void storeAccessToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+        evictAccessToken(tokenKey(token.getValue()));
+        accessTokensByAuthentication.invalidate(authenticationKeyGenerator.extractKey(authentication));
+        delegate.storeAccessToken(token, authentication);
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String tokenValue) {
+        final String tokenKey = tokenKey(tokenValue);
+        final OAuth2AccessToken accessToken = accessTokens.getIfPresent(tokenKey);
+        if (accessToken != null && !accessToken.isExpired()) {
+            hitCount.incrementAndGet();
+            return accessToken;
+        }
+        missCount.incrementAndGet();
+        final OAuth2AccessToken loadedAccessToken = delegate.readAccessToken(tokenValue);
+        if (loadedAccessToken != null && !loadedAccessToken.isExpired()) {
+            accessTokens.put(tokenKey, loadedAccessToken);
+        } else {
+            accessTokens.invalidate(tokenKey);
+            authentications.invalidate(tokenKey);
+        }
+        return loadedAccessToken;
+    }
+
+    @Override
+    public void removeAccessToken(OAuth2AccessToken token) {
+        final String tokenKey = tokenKey(token.getValue());
+        evictAccessToken(tokenKey);
+        delegate.removeAccessToken(token);
+        notificationBus.publishTokenEviction(new TokenEvictionNotification(TokenEvictionType.ACCESS_TOKEN, tokenKey));
+    }
+
+    @Override
+    public void storeRefreshToken(OAuth2RefreshToken refreshToken, OAuth2Authentication authentication) {
+        delegate.storeRefreshToken(refreshToken, authentication);
+    }
+
+    @Override
+    public OAuth2RefreshToken readRefreshToken(String tokenValue) {
+        return delegate.readRefreshToken(tokenValue);
+    }
+
+    @Override
+    public OAuth2Authentication readAuthenticationForRefreshToken(OAuth2RefreshToken token) {
+        return delegate.readAuthenticationForRefreshToken(token);
+    }
+
+    @Override
+    public void removeRefreshToken(OAuth2RefreshToken token) {
+        final String refreshTokenKey = tokenKey(token.getValue());
+        evictAccessTokensForRefreshToken(refreshTokenKey);
+        delegate.removeRefreshToken(token);
+        notificationBus.publishTokenEviction(new TokenEvictionNotification(TokenEvictionType.REFRESH_TOKEN, refreshTokenKey));
+    }
+
+    @Override
+    public void removeAccessTokenUsingRefreshToken(OAuth2RefreshToken refreshToken) {
+        final String refreshTokenKey = tokenKey(refreshToken.getValue());
+        evictAccessTokensForRefreshToken(refreshTokenKey);
+        delegate.removeAccessTokenUsingRefreshToken(refreshToken);
+        notificationBus.publishTokenEviction(new TokenEvictionNotification(TokenEvictionType.REFRESH_TOKEN, refreshTokenKey));
+    }
+
+    @Override
+    public OAuth2AccessToken getAccessToken(OAuth2Authentication authentication) {
+        final String authenticationKey = authenticationKeyGenerator.extractKey(authentication);
+        final OAuth2AccessToken accessToken = accessTokensByAuthentication.getIfPresent(authenticationKey);
+        if (accessToken != null && !accessToken.isExpired() && accessTokens.getIfPresent(tokenKey(accessToken.getValue())) != null) {
+            hitCount.incrementAndGet();
+            return accessToken;
+        }
+        missCount.incrementAndGet();
+        final OAuth2AccessToken loadedAccessToken = delegate.getAccessToken(authentication);
+        if (loadedAccessToken != null && !loadedAccessToken.isExpired()) {
+            accessTokens.put(tokenKey(loadedAccessToken.getValue()), loadedAccessToken);
+            accessTokensByAuthentication.put(authenticationKey, loadedAccessToken);
+        } else {
+            accessTokensByAuthentication.invalidate(authenticationKey);
+        }
+        return loadedAccessToken;
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientIdAndUserName(String clientId, String userName) {
+        return delegate.findTokensByClientIdAndUserName(clientId, userName);
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientId(String clientId) {
+        return delegate.findTokensByClientId(clientId);
+    }
+
+    /**
+     * Get metrics of the token cache.
+     * @return Token cache metrics.
+     */
+    public TokenStoreMetrics getMetrics() {
+        final TokenStoreMetrics metrics = new TokenStoreMetrics();
+        metrics.setHitCount(hitCount.get());
+        metrics.setMissCount(missCount.get());
+        metrics.setInvalidationCount(invalidationCount.get());
+        metrics.setCachedTokenCount(accessTokens.size());
+        return metrics;
+    }
+
+    /**
+     * Evict a token removed on another node from the cache.
+     * @param notification Token eviction notification.
+     */
+    private void evictToken(TokenEvictionNotification notification) {
+        if (notification.getTokenType() == TokenEvictionType.ACCESS_TOKEN) {
+            evictAccessToken(notification.getTokenKey());
+        } else {
+            evictAccessTokensForRefreshToken(notification.getTokenKey());
+        }
+    }
+
+    /**
+     * Evict an access token and its authentication from the cache.
+     * @param tokenKey Access token key.
+     */
+    private void evictAccessToken(String tokenKey) {
+        accessTokens.invalidate(tokenKey);
+        authentications.invalidate(tokenKey);
+        // Lookups by authentication are valid only while the access token itself is cached
+        invalidationCount.incrementAndGet();
+    }
+
+    /**
+     * Evict access tokens issued together with a refresh token from the cache.
+     * @param refreshTokenKey Refresh token key.
+     */
+    private void evictAccessTokensForRefreshToken(String refreshTokenKey) {
+        // Refresh tokens are used rarely, scanning the bounded cache is cheaper than maintaining an index
+        for (OAuth2AccessToken accessToken: accessTokens.asMap().values()) {
+            if (accessToken.getRefreshToken() != null && refreshTokenKey.equals(tokenKey(accessToken.getRefreshToken().getValue()))) {
+                evictAccessToken(tokenKey(accessToken.getValue()));
+            }
+        }
+    }
+
+    /**
+     * Derive a cache key from a token value.
+     * @param tokenValue Token value.
+     * @return Token key.
+     */
+    private String tokenKey(String tokenValue) {
+        return Hashing.sha256().hashString(tokenValue, StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * Copy an authentication, so that changes of the returned authentication do not modify the cached one.
+     * @param authentication Authentication.
+     * @return Copy of the authentication.
+     */
+    private OAuth2Authentication copyAuthentication(OAuth2Authentication authentication) {
+        final OAuth2Authentication copy = new OAuth2Authentication(authentication.getOAuth2Request(), authentication.getUserAuthentication());
+        copy.setDetails(authentication.getDetails());
+        return copy;
+    }
+
+}
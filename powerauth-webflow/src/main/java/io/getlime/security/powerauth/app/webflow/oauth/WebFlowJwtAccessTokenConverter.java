@@ -0,0 +1,141 @@
+/*
+ * Copyright 2019 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.app.webflow.oauth;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.getlime.security.powerauth.lib.webflow.authentication.security.UserOperationAuthentication;
+import org.springframework.security.jwt.JwtHelper;
+import org.springframework.security.jwt.crypto.sign.RsaSigner;
+import org.springframework.security.jwt.crypto.sign.Signer;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Converter of OAuth 2.0 access tokens to signed self-contained JWT tokens. Tokens are signed using RS256 algorithm
+ * and contain the key ID in header, so that resource servers can select the verification key from the published
+ * JSON Web Key Set. Claims added by {@link WebFlowTokenEnhancer} are restored into {@link UserOperationAuthentication}
+ * when a token is decoded, so that refreshed tokens contain the same claims.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class WebFlowJwtAccessTokenConverter extends JwtAccessTokenConverter {
+
+    private static final String KEY_ID = "kid";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Signer signer;
+    private final RSAPublicKey publicKey;
+    private final String keyId;
+
+    /**
+     * Converter constructor.
+     * @param keyPair RSA key pair used for signing tokens.
+     * @param keyId Key ID, the RFC 7638 thumbprint of the public key is used when the key ID is not set.
+     */
+    public WebFlowJwtAccessTokenConverter(KeyPair keyPair, String keyId) {
+        setKeyPair(keyPair);
+        this.signer = new RsaSigner((RSAPrivateKey) keyPair.getPrivate());
+        this.publicKey = (RSAPublicKey) keyPair.getPublic();
+        this.keyId = (keyId == null || keyId.isEmpty()) ? thumbprint(publicKey) : keyId;
+    }
+
+    @Override
+    protected String encode(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+        final String content;
+        try {
+            content = objectMapper.writeValueAsString(getAccessTokenConverter().convertAccessToken(accessToken, authentication));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot convert access token to JSON", ex);
+        }
+        return JwtHelper.encode(content, signer, Collections.singletonMap(KEY_ID, keyId)).getEncoded();
+    }
+
+    @Override
+    public OAuth2Authentication extractAuthentication(Map<String, ?> claims) {
+        final OAuth2Authentication authentication = super.extractAuthentication(claims);
+        if (authentication.getUserAuthentication() == null) {
+            // Token issued to the client itself
+            return authentication;
+        }
+        final UserOperationAuthentication userAuthentication = new UserOperationAuthentication(null, authentication.getName(), (String) claims.get(WebFlowTokenEnhancer.ORGANIZATION_ID));
+        userAuthentication.setLanguage((String) claims.get(WebFlowTokenEnhancer.LANGUAGE));
+        userAuthentication.setStrongAuthentication((Boolean) claims.get(WebFlowTokenEnhancer.SCA));
+        userAuthentication.setAuthenticated(true);
+        return new OAuth2Authentication(authentication.getOAuth2Request(), userAuthentication);
+    }
+
+    /**
+     * Get JSON Web Key Set with the public key used for verification of tokens.
+     * @return JSON Web Key Set.
+     */
+    public Map<String, Object> getJwkSet() {
+        final Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "RSA");
+        jwk.put("use", "sig");
+        jwk.put("alg", "RS256");
+        jwk.put(KEY_ID, keyId);
+        jwk.put("n", base64Url(publicKey.getModulus()));
+        jwk.put("e", base64Url(publicKey.getPublicExponent()));
+        return Collections.singletonMap("keys", Collections.singletonList(jwk));
+    }
+
+    /**
+     * Compute RFC 7638 thumbprint of an RSA public key.
+     * @param publicKey RSA public key.
+     * @return Thumbprint of the public key.
+     */
+    private static String thumbprint(RSAPublicKey publicKey) {
+        // Members of the JWK are ordered lexicographically as required by RFC 7638
+        final String jwk = "{\"e\":\"" + base64Url(publicKey.getPublicExponent()) + "\",\"kty\":\"RSA\",\"n\":\"" + base64Url(publicKey.getModulus()) + "\"}";
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(jwk.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 algorithm is not available", ex);
+        }
+    }
+
+    /**
+     * Encode an unsigned big integer using Base64url encoding without padding.
+     * @param value Big integer value.
+     * @return Encoded value.
+     */
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            // Strip the sign byte
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+}
@@ -32,9 +32,9 @@ import java.util.Map;
  */
 public class WebFlowTokenEnhancer implements TokenEnhancer {
 
-    private static final String LANGUAGE = "language";
-    private static final String SCA = "sca";
-    private static final String ORGANIZATION_ID = "organization_id";
+    static final String LANGUAGE = "language";
+    static final String SCA = "sca";
+    static final String ORGANIZATION_ID = "organization_id";
 
     /**
      * Enhance access tokens with additional information.
@@ -129,6 +129,42 @@ export function authenticateOnline(callback) {
     }
 }
 
+/**
+ * Create a source of cancel token for the request waiting for a change of operation state.
+ * @returns {CancelTokenSource} Cancel token source.
+ */
+export function createWaitCancelSource() {
+    return axios.CancelToken.source();
+}
+
+/**
+ * Wait for a change of operation state in online mode for mobile token. The server completes the request when
+ * the operation changes or when the wait times out.
+ * @param cancelToken Cancel token used for canceling the request when the component is unmounted.
+ * @param callback Callback to call with delay in milliseconds before the next authentication attempt.
+ * @returns {Function} No return value.
+ */
+export function waitForChange(cancelToken, callback) {
+    return function (dispatch) {
+        axios.post("./api/auth/token/web/authenticate/wait", {}, {
+            headers: {
+                'X-OPERATION-HASH': operationHash,
+            },
+            cancelToken: cancelToken
+        }).then((response) => {
+            callback(response.data.retryAfterMs);
+            return null;
+        }).catch((error) => {
+            if (axios.isCancel(error)) {
+                // the component was unmounted, there is nothing to update
+                return null;
+            }
+            // fallback to polling in case waiting for a change is not possible
+            callback(3000);
+        })
+    }
+}
+
 /**
  * Cancel operation.
  * @returns {Function} No return value.
@@ -16,7 +16,14 @@
 import React from "react";
 import {connect} from "react-redux";
 // Actions
-import {authenticateOnline, cancel, getOperationData, initOnline} from "../actions/tokenAuthOnlineActions";
+import {
+    authenticateOnline,
+    cancel,
+    createWaitCancelSource,
+    getOperationData,
+    initOnline,
+    waitForChange
+} from "../actions/tokenAuthOnlineActions";
 // Components
 import OperationDetail from "./operationDetail";
 import TokenOffline from "./tokenAuthOffline";
@@ -78,6 +85,15 @@ export default class Token extends React.Component {
 
     componentWillUnmount() {
         this.disconnect();
+        // stop waiting for a change of operation state and any scheduled update() call, the component is gone
+        this.unmounted = true;
+        if (this.waitCancelSource) {
+            this.waitCancelSource.cancel();
+        }
+        const updateTimeout = this.getUpdateTimeout();
+        if (updateTimeout !== null) {
+            clearTimeout(updateTimeout);
+        }
     }
 
     init() {
@@ -104,6 +120,10 @@ export default class Token extends React.Component {
         const setAuthorizationInProgress = this.setAuthorizationInProgress;
         const setUpdateTimeout = this.setUpdateTimeout;
         const update = this.update;
+        if (this.unmounted) {
+            // The component was unmounted, there is nothing to do.
+            return;
+        }
         if (this.isAuthorized()) {
             // Authorization was already done, there is nothing to do.
             return;
@@ -125,19 +145,25 @@ export default class Token extends React.Component {
             // Mark authorization in progress to lock calling of the authenticate() method. This prevents duplicate calls
             // of the authenticate() method.
             setAuthorizationInProgress(true);
-            // Keep trying to authenticate every 3s using polling. This is a fallback mechanism in case
-            // authorization by WebSockets fails completely (e.g. network issues).
-            this.props.dispatch(authenticateOnline(function (b) {
+            // Keep trying to authenticate after each change of operation state signaled by the server, the server
+            // also completes the wait after a timeout. This is a fallback mechanism in case authorization by WebSockets
+            // fails completely (e.g. network issues).
+            const dispatch = this.props.dispatch;
+            const waitCancelSource = createWaitCancelSource();
+            this.waitCancelSource = waitCancelSource;
+            dispatch(authenticateOnline(function (b) {
                 if (b) {
-                    const timeout = setTimeout(function () {
-                        update();
-                    }, 3000);
-                    setUpdateTimeout(timeout);
+                    dispatch(waitForChange(waitCancelSource.token, function (retryAfterMs) {
+                        const timeout = setTimeout(function () {
+                            update();
+                        }, retryAfterMs);
+                        setUpdateTimeout(timeout);
+                    }));
                 } else {
                     // Authorization was completed successfully.
                     setAuthorized(true);
                 }
-                // End of attempt to authorize by 3s polling.
+                // End of attempt to authorize by polling.
                 setAuthorizationInProgress(false);
             }));
         }